@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.collections;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.panthercode.arctic.core.helper.version.Version;
+import org.panthercode.arctic.core.helper.version.Versionable;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading and writing a version map with several versions per key.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VersionMapBenchmark {
+
+    private static final int VERSION_COUNT = 8;
+
+    @Param({"100", "10000"})
+    private int keyCount;
+
+    private VersionMap<String, Entry> map;
+
+    private String[] keys;
+
+    private Entry[] entries;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.map = new VersionMap<>();
+        this.keys = new String[this.keyCount];
+        this.entries = new Entry[VERSION_COUNT];
+
+        for (int i = 0; i < VERSION_COUNT; i++) {
+            this.entries[i] = new Entry(new Version(1, i));
+        }
+
+        for (int i = 0; i < this.keyCount; i++) {
+            this.keys[i] = "key-" + i;
+
+            for (Entry entry : this.entries) {
+                this.map.put(this.keys[i], entry);
+            }
+        }
+    }
+
+    @Benchmark
+    public Entry getLatest() {
+        return this.map.get(this.keys[ThreadLocalRandom.current().nextInt(this.keyCount)]);
+    }
+
+    @Benchmark
+    public Entry getVersion() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        return this.map.get(this.keys[random.nextInt(this.keyCount)],
+                this.entries[random.nextInt(VERSION_COUNT)].version());
+    }
+
+    @Benchmark
+    public Entry put() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        return this.map.put(this.keys[random.nextInt(this.keyCount)], this.entries[random.nextInt(VERSION_COUNT)]);
+    }
+
+    public static class Entry implements Versionable {
+
+        private final Version version;
+
+        public Entry(Version version) {
+            this.version = version;
+        }
+
+        @Override
+        public Version version() {
+            return this.version;
+        }
+    }
+}
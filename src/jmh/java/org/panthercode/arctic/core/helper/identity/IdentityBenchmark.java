@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.helper.identity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating identities. Every module creates one, so it's part of each module's construction and copy.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdentityBenchmark {
+
+    @IdentityInfo(name = "Benchmark", group = "Benchmark")
+    public static class AnnotatedClass {
+    }
+
+    @Benchmark
+    public Identity generate() {
+        return Identity.generate("Benchmark", "Benchmark");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Identity generateContended() {
+        return Identity.generate("Benchmark", "Benchmark");
+    }
+
+    @Benchmark
+    public Identity fromAnnotation() {
+        return Identity.fromAnnotation(AnnotatedClass.class);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.helper.priority;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of 256 threads competing for the permits of a priority semaphore. Each thread acquires a permit with a
+ * priority of its own, does some work and releases the permit. <tt>JDK_FAIR</tt> is the baseline of a fair
+ * <tt>java.util.concurrent.Semaphore</tt>, which serves threads in order of arrival only. The former monitor-based
+ * implementation isn't part of the benchmark, because it loses wake-ups if the capacity is greater than one.
+ * <p>
+ * On machines with fewer cores than threads run the benchmark with <tt>-si false</tt>; Otherwise the threads spinning
+ * at JMH's iteration barrier may starve the thread holding the permit.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(256)
+public class SemaphoreBenchmark {
+
+    @Param({"JDK_FAIR", "PRIORITY"})
+    private String implementation;
+
+    @Param({"1", "8"})
+    private int capacity;
+
+    private Semaphore semaphore;
+
+    private java.util.concurrent.Semaphore jdkSemaphore;
+
+    @Setup
+    public void createSemaphore() {
+        this.semaphore = new Semaphore(this.capacity);
+        this.jdkSemaphore = new java.util.concurrent.Semaphore(this.capacity, true);
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        private final Priority priority = Priority.values()[(int) (Thread.currentThread().getId() % 5)];
+    }
+
+    @Benchmark
+    public void acquireRelease(Caller caller) throws InterruptedException {
+        if ("JDK_FAIR".equals(this.implementation)) {
+            this.jdkSemaphore.acquire();
+
+            try {
+                Blackhole.consumeCPU(64L);
+            } finally {
+                this.jdkSemaphore.release();
+            }
+        } else {
+            this.semaphore.acquire(caller.priority);
+
+            try {
+                Blackhole.consumeCPU(64L);
+            } finally {
+                this.semaphore.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.helper.version;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of comparing and parsing versions, which are used as keys of version maps.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VersionBenchmark {
+
+    private final Version version = new Version(1, 2, 3, 4);
+
+    private final Version other = new Version(1, 2, 3, 5);
+
+    private final String text = "1.2.3.4";
+
+    @Benchmark
+    public int compareTo() {
+        return this.version.compareTo(this.other);
+    }
+
+    @Benchmark
+    public boolean equals() {
+        return this.version.equals(this.other);
+    }
+
+    @Benchmark
+    public Version parse() {
+        return Version.parse(this.text);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Version parseContended() {
+        return Version.parse(this.text);
+    }
+}
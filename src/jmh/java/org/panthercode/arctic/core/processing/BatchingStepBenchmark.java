@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.processing.modules.helper.BatchingOptions;
+import org.panthercode.arctic.core.processing.modules.impl.BatchingStep;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time to process 256 items submitted by concurrent modules against a downstream, whose calls cost 100 us each plus
+ * 1 us per item. <tt>perItem</tt> calls the downstream once per item, <tt>batched</tt> lets a batching step collect
+ * the items.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchingStepBenchmark {
+
+    private static final int ITEM_COUNT = 256;
+
+    @Param({"16", "64"})
+    private int maxBatchSize;
+
+    private ExecutorService executor;
+
+    private DownstreamStep step;
+
+    @Setup(Level.Trial)
+    public void createStep() {
+        this.executor = ExecutionStrategy.VIRTUAL_THREAD.createExecutor(1);
+
+        BatchingOptions options = new BatchingOptions(this.maxBatchSize, 1L);
+        options.setExecutor(this.executor);
+
+        this.step = new DownstreamStep(options);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownExecutor() {
+        this.executor.shutdown();
+    }
+
+    @Benchmark
+    public Object perItem() {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(ITEM_COUNT);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            final List<Integer> item = new ArrayList<>(1);
+            item.add(i);
+
+            futures.add(CompletableFuture.supplyAsync(() -> call(item).get(0), this.executor));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[ITEM_COUNT])).join();
+    }
+
+    @Benchmark
+    public Object batched() {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(ITEM_COUNT);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            futures.add(this.step.submit(i));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[ITEM_COUNT])).join();
+    }
+
+    /**
+     * Simulates a call of the downstream.
+     */
+    private static List<Integer> call(List<Integer> items) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100L + items.size()));
+
+        return items;
+    }
+
+    @IdentityInfo(name = "Downstream Step", group = "Benchmark")
+    public static class DownstreamStep extends BatchingStep<Integer, Integer> {
+
+        public DownstreamStep(BatchingOptions options) {
+            super("item", "result", options);
+        }
+
+        public DownstreamStep(DownstreamStep step) {
+            super(step);
+        }
+
+        @Override
+        protected List<Integer> execute(List<Integer> items) {
+            return call(items);
+        }
+
+        @Override
+        public DownstreamStep copy() {
+            return new DownstreamStep(this);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.panthercode.arctic.core.processing.modules.helper.ChunkExecutor;
+import org.panthercode.arctic.core.processing.modules.impl.Chunk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a chunk fanning out to steps without functionality. The number of threads is equals to the chunk's
+ * maximal parallelism, so the result shows the cost of distributing work and collecting the results.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkBenchmark {
+
+    private static final int STEP_COUNT = 1000;
+
+    @Param({"1", "2", "4", "8"})
+    private int threadCount;
+
+    private ChunkExecutor executor;
+
+    private Chunk chunk;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.executor = new ChunkExecutor(this.threadCount);
+
+        this.chunk = new Chunk(this.threadCount);
+        this.chunk.setExecutor(this.executor);
+
+        for (int i = 0; i < STEP_COUNT; i++) {
+            this.chunk.deploy(new NoOpStep());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEP_COUNT)
+    public boolean fanOut() {
+        this.chunk.reset();
+
+        return this.chunk.start();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.processing.modules.helper.ChunkExecutor;
+import org.panthercode.arctic.core.processing.modules.impl.DagProcess;
+import org.panthercode.arctic.core.processing.modules.impl.Process;
+import org.panthercode.arctic.core.processing.modules.impl.Step;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end latency of a wide pipeline: a root step, a number of independent branches and a final step depending on
+ * all branches. Each step blocks for 1 ms. The sequential process is the baseline of the DAG process.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DagProcessBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int width;
+
+    private ChunkExecutor executor;
+
+    private Process process;
+
+    private DagProcess dagProcess;
+
+    @Setup(Level.Trial)
+    public void createExecutor() {
+        this.executor = new ChunkExecutor(ExecutionStrategy.VIRTUAL_THREAD);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownExecutor() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Neither process can be reused without resetting all steps, so each invocation gets new ones.
+     */
+    @Setup(Level.Invocation)
+    public void createProcesses() {
+        this.process = new Process();
+        this.dagProcess = new DagProcess(this.width);
+        this.dagProcess.setExecutor(this.executor);
+
+        BlockingStep root = new BlockingStep();
+        BlockingStep[] branches = new BlockingStep[this.width];
+
+        this.process.deploy(new BlockingStep());
+        this.dagProcess.deploy(root);
+
+        for (int i = 0; i < this.width; i++) {
+            branches[i] = new BlockingStep();
+
+            this.process.deploy(new BlockingStep());
+            this.dagProcess.deploy(branches[i], root);
+        }
+
+        this.process.deploy(new BlockingStep());
+        this.dagProcess.deploy(new BlockingStep(), branches);
+    }
+
+    @Benchmark
+    public boolean sequential() {
+        return this.process.start();
+    }
+
+    @Benchmark
+    public boolean dag() {
+        return this.dagProcess.start();
+    }
+
+    /**
+     * Step blocking its thread for 1 ms, e.g. like a call to a remote service.
+     */
+    @IdentityInfo(name = "Blocking Step", group = "Benchmark")
+    public static class BlockingStep extends Step {
+
+        @Override
+        public boolean step() throws ProcessException {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1L));
+
+            return true;
+        }
+
+        @Override
+        public boolean stop() throws ProcessException {
+            return this.changeState(ProcessState.STOPPED);
+        }
+
+        @Override
+        public boolean reset() throws ProcessException {
+            return this.changeState(ProcessState.READY);
+        }
+
+        @Override
+        public BlockingStep copy() throws UnsupportedOperationException {
+            return new BlockingStep();
+        }
+    }
+}
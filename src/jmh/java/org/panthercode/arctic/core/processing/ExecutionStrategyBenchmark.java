@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.processing.modules.helper.ChunkExecutor;
+import org.panthercode.arctic.core.processing.modules.impl.Chunk;
+import org.panthercode.arctic.core.processing.modules.impl.Step;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a chunk, whose 10.000 steps all block at the same time. Compares the work-stealing pool against
+ * virtual threads. On runtimes older than Java 21 the virtual thread strategy measures its fallback pool.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ExecutionStrategyBenchmark {
+
+    private static final int STEP_COUNT = 10000;
+
+    @Param({"WORK_STEALING", "VIRTUAL_THREAD"})
+    private ExecutionStrategy strategy;
+
+    @Param({"1"})
+    private long blockTimeInMillis;
+
+    private ChunkExecutor executor;
+
+    private Chunk chunk;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.executor = new ChunkExecutor(this.strategy);
+
+        this.chunk = new Chunk(STEP_COUNT);
+        this.chunk.setExecutor(this.executor);
+
+        for (int i = 0; i < STEP_COUNT; i++) {
+            this.chunk.deploy(new BlockingStep(this.blockTimeInMillis));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEP_COUNT)
+    public boolean blockedSteps() {
+        this.chunk.reset();
+
+        return this.chunk.start();
+    }
+
+    @IdentityInfo(name = "Blocking Step", group = "Benchmark")
+    public static class BlockingStep extends Step {
+
+        private final long blockTimeInMillis;
+
+        public BlockingStep(long blockTimeInMillis) {
+            this.blockTimeInMillis = blockTimeInMillis;
+        }
+
+        @Override
+        public boolean step() throws ProcessException {
+            try {
+                Thread.sleep(this.blockTimeInMillis);
+
+                return true;
+            } catch (InterruptedException e) {
+                throw new ProcessException(e);
+            }
+        }
+
+        @Override
+        public boolean stop() throws ProcessException {
+            return this.changeState(ProcessState.STOPPED);
+        }
+
+        @Override
+        public boolean reset() throws ProcessException {
+            return this.changeState(ProcessState.READY);
+        }
+
+        @Override
+        public BlockingStep copy() throws UnsupportedOperationException {
+            return new BlockingStep(this.blockTimeInMillis);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of state changes of a single module shared by several threads. The "contended" group mixes threads
+ * changing the state with threads polling it, which is the usual pattern of a module observed by its parent.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleStateBenchmark {
+
+    private final NoOpStep module = new NoOpStep();
+
+    @Benchmark
+    @Threads(1)
+    public boolean changeStateUncontended() {
+        return this.module.advance();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean changeStateContended() {
+        return this.module.advance();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public boolean writer() {
+        return this.module.advance();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(6)
+    public boolean reader() {
+        return this.module.isRunning();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing;
+
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.processing.modules.impl.Step;
+
+/**
+ * Step without any functionality. It's used by benchmarks to measure the overhead of the processing engine itself.
+ *
+ * @author PantherCode
+ */
+@IdentityInfo(name = "No-Op Step", group = "Benchmark")
+public class NoOpStep extends Step {
+
+    @Override
+    public boolean step() throws ProcessException {
+        return true;
+    }
+
+    @Override
+    public boolean stop() throws ProcessException {
+        return this.changeState(ProcessState.STOPPED);
+    }
+
+    @Override
+    public boolean reset() throws ProcessException {
+        return this.changeState(ProcessState.READY);
+    }
+
+    /**
+     * Moves the step one state further in the cycle "Ready", "Running", "Succeeded". It's used to measure state
+     * changes without running the step.
+     *
+     * @return Returns <tt>true</tt> if the state changed; Otherwise <tt>false</tt>.
+     */
+    public boolean advance() {
+        switch (this.state()) {
+            case READY:
+                return this.changeState(ProcessState.READY, ProcessState.RUNNING);
+            case RUNNING:
+                return this.changeState(ProcessState.RUNNING, ProcessState.SUCCEEDED);
+            default:
+                return this.changeState(ProcessState.SUCCEEDED, ProcessState.READY);
+        }
+    }
+
+    @Override
+    public NoOpStep copy() throws UnsupportedOperationException {
+        return new NoOpStep();
+    }
+}
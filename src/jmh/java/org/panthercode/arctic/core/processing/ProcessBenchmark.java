@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.panthercode.arctic.core.processing.modules.impl.Process;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to run a process over a number of steps without functionality, i.e. the overhead the engine adds per step.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int stepCount;
+
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void createProcess() {
+        this.process = new Process();
+
+        for (int i = 0; i < this.stepCount; i++) {
+            this.process.deploy(new NoOpStep());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetProcess() {
+        this.process.reset();
+    }
+
+    @Benchmark
+    public boolean start() {
+        return this.process.start();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.panthercode.arctic.core.processing.modules.helper.CounterOptions;
+import org.panthercode.arctic.core.processing.modules.helper.ExecutorScheduler;
+import org.panthercode.arctic.core.processing.modules.impl.Counter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of a single loop step of a repeater without delay. The blocking mode runs the loop on the caller's thread,
+ * the scheduled mode runs each loop step as task of a scheduler.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepeaterBenchmark {
+
+    private static final int LOOP_COUNT = 1000;
+
+    @Param({"BLOCKING", "SCHEDULED"})
+    private String mode;
+
+    private ExecutorScheduler scheduler;
+
+    private Counter counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        CounterOptions options = new CounterOptions(LOOP_COUNT, 0L, true, false);
+
+        if ("SCHEDULED".equals(this.mode)) {
+            this.scheduler = new ExecutorScheduler(1);
+
+            options.setScheduler(this.scheduler);
+        }
+
+        this.counter = new Counter(new NoOpStep(), options);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdown();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOP_COUNT)
+    public boolean iterate() {
+        this.counter.reset();
+
+        return this.counter.start();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scheduling and cancelling a delay, while a large number of other delays is pending. That's the typical
+ * usage of timers and repeaters: most delays are cancelled or far in the future. Compares the hashed timing wheel
+ * against a <tt>ScheduledThreadPoolExecutor</tt>, whose cost grows with the number of pending tasks.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    private static final Runnable NOTHING = () -> {
+    };
+
+    @Param({"HASHED_WHEEL", "SCHEDULED_EXECUTOR"})
+    private String scheduler;
+
+    @Param({"1000", "1000000"})
+    private int pendingCount;
+
+    private Scheduler instance;
+
+    private List<Future<?>> pending;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.instance = "HASHED_WHEEL".equals(this.scheduler) ? new HashedWheelTimer() : new ExecutorScheduler(1);
+
+        this.pending = new ArrayList<>(this.pendingCount);
+
+        for (int i = 0; i < this.pendingCount; i++) {
+            this.pending.add(this.instance.schedule(NOTHING, 1L + (i % 3600), TimeUnit.SECONDS));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Future<?> future : this.pending) {
+            future.cancel(false);
+        }
+
+        this.instance.shutdown();
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        return this.instance.schedule(NOTHING, 30L, TimeUnit.SECONDS).cancel(false);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean scheduleAndCancelContended() {
+        return this.instance.schedule(NOTHING, 30L, TimeUnit.SECONDS).cancel(false);
+    }
+
+    @Benchmark
+    public long now() {
+        return this.instance.now();
+    }
+}
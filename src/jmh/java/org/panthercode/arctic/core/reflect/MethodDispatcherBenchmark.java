@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.reflect;
+
+import org.apache.commons.lang3.reflect.MethodUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of calling a method by its name, like <tt>Resource.execute()</tt> does. <tt>methodUtils</tt> looks the method
+ * up on each call by commons-lang, <tt>dispatcher</tt> uses the cached method handle of <tt>MethodDispatcher</tt> and
+ * <tt>direct</tt> is the plain call for reference.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodDispatcherBenchmark {
+
+    public static class Parser {
+
+        public int parse(String value, int radix) {
+            return value.length() * radix;
+        }
+    }
+
+    private final Parser parser = new Parser();
+
+    private final String value = "arctic";
+
+    private final Integer radix = 16;
+
+    @Benchmark
+    public int direct() {
+        return this.parser.parse(this.value, this.radix);
+    }
+
+    @Benchmark
+    public Object methodUtils() throws Exception {
+        return MethodUtils.invokeMethod(this.parser, "parse", this.value, this.radix);
+    }
+
+    @Benchmark
+    public Object dispatcher() throws Exception {
+        return MethodDispatcher.invoke(this.parser, "parse", this.value, this.radix);
+    }
+}
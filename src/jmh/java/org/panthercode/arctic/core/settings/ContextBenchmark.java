@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.settings;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a context shared by 1 to 64 threads. Each thread reads the context and writes every 16th operation,
+ * like modules of a chunk exchanging items. <tt>HASHTABLE</tt> is the baseline of the former implementation.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContextBenchmark {
+
+    private static final int KEY_COUNT = 256;
+
+    @Param({"HASHTABLE", "SYNCHRONIZED", "CONCURRENT", "COPY_ON_WRITE"})
+    private String implementation;
+
+    private Map<Object, Object> context;
+
+    private String[] keys;
+
+    @Setup
+    public void createContext() {
+        this.context = "HASHTABLE".equals(this.implementation) ? new Hashtable<>()
+                : new Context(ContextPolicy.valueOf(this.implementation));
+
+        this.keys = new String[KEY_COUNT];
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            this.keys[i] = "key-" + i;
+
+            this.context.put(this.keys[i], i);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int position = (int) (Thread.currentThread().getId() * 31);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object threads01(Cursor cursor) {
+        return this.access(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object threads04(Cursor cursor) {
+        return this.access(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object threads16(Cursor cursor) {
+        return this.access(cursor);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object threads64(Cursor cursor) {
+        return this.access(cursor);
+    }
+
+    private Object access(Cursor cursor) {
+        int position = cursor.position++;
+
+        String key = this.keys[position & (KEY_COUNT - 1)];
+
+        if ((position & 15) == 0) {
+            return this.context.put(key, position);
+        }
+
+        return this.context.get(key);
+    }
+}
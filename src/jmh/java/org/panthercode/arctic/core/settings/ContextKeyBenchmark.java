@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.settings;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of incrementing a counter stored in a context, like a step of a repeater loop does. <tt>boxed</tt> reads and
+ * writes a hashtable entry, <tt>typed</tt> uses an <tt>IntKey</tt>. Run with <tt>-prof gc</tt> to compare the
+ * allocation rate.
+ *
+ * @author PantherCode
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextKeyBenchmark {
+
+    private static final String BOXED_KEY = "counter";
+
+    private static final IntKey TYPED_KEY = IntKey.of("counter");
+
+    private final Context context = new Context();
+
+    @Benchmark
+    public int boxed() {
+        int value = (Integer) this.context.getOrDefault(BOXED_KEY, 0) + 1000;
+
+        this.context.put(BOXED_KEY, value);
+
+        return value;
+    }
+
+    @Benchmark
+    public int typed() {
+        int value = this.context.get(TYPED_KEY) + 1000;
+
+        this.context.set(TYPED_KEY, value);
+
+        return value;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.collections;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Thread-safe map, which copies its content on every modification. Reads don't lock and always see a consistent
+ * snapshot, so the map fits data, which is written rarely and read by many threads.
+ * <p>
+ * The views returned by <tt>keySet()</tt>, <tt>values()</tt> and <tt>entrySet()</tt> are unmodifiable snapshots;
+ * later modifications of the map aren't visible to them.
+ *
+ * @author PantherCode
+ */
+public class CopyOnWriteMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * actual content of the map; it's never modified after it was published
+     */
+    private volatile Map<K, V> map = Collections.emptyMap();
+
+    /**
+     * Default Constructor
+     */
+    public CopyOnWriteMap() {
+        super();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param map other map whose content is copied into this map
+     */
+    public CopyOnWriteMap(Map<? extends K, ? extends V> map) {
+        this.map = Collections.unmodifiableMap(new HashMap<K, V>(map));
+    }
+
+    @Override
+    public int size() {
+        return this.map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.map.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return this.map.containsValue(value);
+    }
+
+    @Override
+    public V get(Object key) {
+        return this.map.get(key);
+    }
+
+    @Override
+    public synchronized V put(K key, V value) {
+        Map<K, V> copy = new HashMap<>(this.map);
+
+        V previous = copy.put(key, value);
+
+        this.map = Collections.unmodifiableMap(copy);
+
+        return previous;
+    }
+
+    @Override
+    public synchronized void putAll(Map<? extends K, ? extends V> map) {
+        Map<K, V> copy = new HashMap<>(this.map);
+
+        copy.putAll(map);
+
+        this.map = Collections.unmodifiableMap(copy);
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        if (!this.map.containsKey(key)) {
+            return null;
+        }
+
+        Map<K, V> copy = new HashMap<>(this.map);
+
+        V previous = copy.remove(key);
+
+        this.map = Collections.unmodifiableMap(copy);
+
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear() {
+        this.map = Collections.emptyMap();
+    }
+
+    @Override
+    public synchronized V putIfAbsent(K key, V value) {
+        V current = this.map.get(key);
+
+        return current == null ? this.put(key, value) : current;
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+        if (this.map.containsKey(key) && Objects.equals(this.map.get(key), value)) {
+            this.remove(key);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public synchronized boolean replace(K key, V oldValue, V newValue) {
+        if (this.map.containsKey(key) && Objects.equals(this.map.get(key), oldValue)) {
+            this.put(key, newValue);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public synchronized V replace(K key, V value) {
+        return this.map.containsKey(key) ? this.put(key, value) : null;
+    }
+
+    @Override
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        V current = this.map.get(key);
+
+        if (current != null) {
+            return current;
+        }
+
+        Map<K, V> copy = new HashMap<>(this.map);
+
+        V value = copy.computeIfAbsent(key, function);
+
+        this.map = Collections.unmodifiableMap(copy);
+
+        return value;
+    }
+
+    @Override
+    public synchronized V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        if (this.map.get(key) == null) {
+            return null;
+        }
+
+        Map<K, V> copy = new HashMap<>(this.map);
+
+        V value = copy.computeIfPresent(key, function);
+
+        this.map = Collections.unmodifiableMap(copy);
+
+        return value;
+    }
+
+    @Override
+    public synchronized V compute(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        Map<K, V> copy = new HashMap<>(this.map);
+
+        V value = copy.compute(key, function);
+
+        this.map = Collections.unmodifiableMap(copy);
+
+        return value;
+    }
+
+    @Override
+    public synchronized V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+        Map<K, V> copy = new HashMap<>(this.map);
+
+        V result = copy.merge(key, value, function);
+
+        this.map = Collections.unmodifiableMap(copy);
+
+        return result;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return this.map.keySet();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return this.map.entrySet();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || this.map.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.map.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.map.toString();
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.collections;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache, which evicts the least recently used entry if it's full. Optionally each entry expires after a time
+ * to live, counted from the point in time it was put into the cache. Expired entries are removed when they're
+ * accessed; otherwise they're evicted like any other entry, which wasn't used recently.
+ * <p>
+ * The cache counts hits, misses and evictions, so its efficiency can be observed at runtime. All methods are
+ * thread-safe.
+ *
+ * @author PantherCode
+ */
+public class LruCache<K, V> {
+
+    /**
+     * maximal number of entries
+     */
+    private final int capacity;
+
+    /**
+     * time an entry stays valid (in ns) or zero if entries don't expire
+     */
+    private final long timeToLive;
+
+    /**
+     * entries in access order, the least recently used entry comes first
+     */
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor. The entries don't expire.
+     *
+     * @param capacity maximal number of entries
+     * @throws IllegalArgumentException Is thrown if value of capacity is zero or less.
+     */
+    public LruCache(int capacity)
+            throws IllegalArgumentException {
+        this(capacity, 0L, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity   maximal number of entries
+     * @param timeToLive time an entry stays valid; zero if entries don't expire
+     * @param unit       time unit of timeToLive
+     * @throws NullPointerException     Is thrown if value of unit is null.
+     * @throws IllegalArgumentException Is thrown if value of capacity is zero or less or value of timeToLive is less
+     *                                  than zero.
+     */
+    public LruCache(int capacity, long timeToLive, TimeUnit unit)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(capacity, "capacity");
+        ArgumentUtils.assertGreaterOrEqualsZero(timeToLive, "time to live");
+        ArgumentUtils.assertNotNull(unit, "unit");
+
+        this.capacity = capacity;
+        this.timeToLive = unit.toNanos(timeToLive);
+        this.map = new LinkedHashMap<>(Math.min(capacity, 1024) * 4 / 3 + 1, 0.75f, true);
+    }
+
+    /**
+     * Returns the maximal number of entries.
+     *
+     * @return Returns the maximal number of entries.
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Returns the time an entry stays valid.
+     *
+     * @param unit time unit of the returned value
+     * @return Returns the time an entry stays valid or zero if entries don't expire.
+     * @throws NullPointerException Is thrown if value of unit is null.
+     */
+    public long timeToLive(TimeUnit unit)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(unit, "unit");
+
+        return unit.convert(this.timeToLive, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the value associated with the key and marks the entry as recently used.
+     *
+     * @param key key of the entry
+     * @return Returns the value or <tt>null</tt> if the cache doesn't contain a valid entry with the key.
+     */
+    public V get(final K key) {
+        V value = null;
+
+        synchronized (this.map) {
+            Entry<V> entry = this.map.get(key);
+
+            if (entry != null) {
+                if (this.isExpired(entry, System.nanoTime())) {
+                    this.map.remove(key);
+                    this.evictions.increment();
+                } else {
+                    value = entry.value;
+                }
+            }
+        }
+
+        if (value == null) {
+            this.misses.increment();
+        } else {
+            this.hits.increment();
+        }
+
+        return value;
+    }
+
+    /**
+     * Associates a value with the key. If the cache is full, the least recently used entry is evicted.
+     *
+     * @param key   key of the entry
+     * @param value value of the entry
+     * @return Returns the previous value associated with the key or <tt>null</tt> if there was none.
+     * @throws NullPointerException Is thrown if value of key or value is null.
+     */
+    public V put(final K key, final V value)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(value, "value");
+
+        long now = System.nanoTime();
+
+        synchronized (this.map) {
+            Entry<V> previous = this.map.put(key, new Entry<>(value, now));
+
+            if (this.map.size() > this.capacity) {
+                this.evict();
+            }
+
+            return previous == null ? null : previous.value;
+        }
+    }
+
+    /**
+     * Removes the entry associated with the key.
+     *
+     * @param key key of the entry
+     * @return Returns the removed value or <tt>null</tt> if the cache doesn't contain the key.
+     */
+    public V remove(final K key) {
+        synchronized (this.map) {
+            Entry<V> entry = this.map.remove(key);
+
+            return entry == null ? null : entry.value;
+        }
+    }
+
+    /**
+     * Removes all entries. The statistics aren't reset.
+     */
+    public void clear() {
+        synchronized (this.map) {
+            this.map.clear();
+        }
+    }
+
+    /**
+     * Returns the actual number of entries, including expired ones, which weren't evicted yet.
+     *
+     * @return Returns the actual number of entries.
+     */
+    public int size() {
+        synchronized (this.map) {
+            return this.map.size();
+        }
+    }
+
+    /**
+     * Returns the number of calls of <tt>get()</tt>, which found a valid entry.
+     *
+     * @return Returns the number of cache hits.
+     */
+    public long hitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of calls of <tt>get()</tt>, which didn't find a valid entry.
+     *
+     * @return Returns the number of cache misses.
+     */
+    public long missCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the number of entries, which were evicted because the cache was full or they expired.
+     *
+     * @return Returns the number of evicted entries.
+     */
+    public long evictionCount() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Returns the ratio of hits to all calls of <tt>get()</tt>.
+     *
+     * @return Returns the hit rate between 0.0 and 1.0 or 0.0 if <tt>get()</tt> wasn't called yet.
+     */
+    public double hitRate() {
+        long hits = this.hits.sum();
+        long total = hits + this.misses.sum();
+
+        return total == 0L ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "size = " + this.size()
+                + ", capacity = " + this.capacity
+                + ", hits = " + this.hitCount()
+                + ", misses = " + this.missCount()
+                + ", evictions = " + this.evictionCount();
+    }
+
+    /**
+     * Removes the least recently used entries until the cache isn't full any longer. Expired entries aren't searched,
+     * because they become the least recently used ones as long as nobody accesses them. The caller must hold the lock
+     * of the map.
+     */
+    private void evict() {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = this.map.entrySet().iterator();
+
+        while (this.map.size() > this.capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            this.evictions.increment();
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return this.timeToLive > 0L && now - entry.created >= this.timeToLive;
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long created;
+
+        private Entry(V value, long created) {
+            this.value = value;
+            this.created = created;
+        }
+    }
+}
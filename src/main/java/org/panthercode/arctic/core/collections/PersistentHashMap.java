@@ -0,0 +1,496 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.collections;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map implemented as hash array mapped trie (HAMT). Adding or removing an entry returns a new map, which
+ * shares all untouched nodes with the old one. So creating a modified map costs O(log32 n) instead of copying all
+ * entries, and every map can be read by any number of threads without locking.
+ * <p>
+ * The map doesn't accept <tt>null</tt> keys or values.
+ *
+ * @author PantherCode
+ */
+public final class PersistentHashMap<K, V> implements Iterable<Map.Entry<K, V>> {
+
+    /**
+     * number of hash bits consumed by each level of the trie
+     */
+    private static final int BITS = 5;
+
+    /**
+     * mask to extract the hash bits of a level
+     */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * the empty map
+     */
+    private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<>(null, 0);
+
+    /**
+     * root node or <tt>null</tt> if the map is empty
+     */
+    private final Node root;
+
+    /**
+     * number of entries
+     */
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @return Returns the empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return Returns the number of entries.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks whether the map contains any entries or not.
+     *
+     * @return Returns <tt>true</tt> if the map doesn't contain any entries; Otherwise <tt>false</tt>.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the value associated with the key.
+     *
+     * @param key key of the entry
+     * @return Returns the value or <tt>null</tt> if the map doesn't contain the key.
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final Object key)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(key, "key");
+
+        return this.root == null ? null : (V) this.root.find(0, hash(key), key);
+    }
+
+    /**
+     * Checks whether the map contains the key or not.
+     *
+     * @param key key to check
+     * @return Returns <tt>true</tt> if the map contains the key; Otherwise <tt>false</tt>.
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    public boolean containsKey(final Object key)
+            throws NullPointerException {
+        return this.get(key) != null;
+    }
+
+    /**
+     * Returns a map, which additionally associates the value with the key. This map isn't changed.
+     *
+     * @param key   key of the entry
+     * @param value value of the entry
+     * @return Returns the new map or this map if it already contains the entry.
+     * @throws NullPointerException Is thrown if value of key or value is null.
+     */
+    public PersistentHashMap<K, V> plus(final K key, final V value)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(value, "value");
+
+        boolean[] added = new boolean[1];
+
+        Node node = (this.root == null ? BitmapNode.EMPTY : this.root).put(0, hash(key), key, value, added);
+
+        if (node == this.root) {
+            return this;
+        }
+
+        return new PersistentHashMap<>(node, added[0] ? this.size + 1 : this.size);
+    }
+
+    /**
+     * Returns a map without the entry of the key. This map isn't changed.
+     *
+     * @param key key of the entry
+     * @return Returns the new map or this map if it doesn't contain the key.
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    public PersistentHashMap<K, V> minus(final Object key)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(key, "key");
+
+        if (this.root == null) {
+            return this;
+        }
+
+        Node node = this.root.remove(0, hash(key), key);
+
+        if (node == this.root) {
+            return this;
+        }
+
+        return node == null ? PersistentHashMap.<K, V>empty() : new PersistentHashMap<K, V>(node, this.size - 1);
+    }
+
+    /**
+     * Performs the action for each entry of the map.
+     *
+     * @param action action to perform
+     * @throws NullPointerException Is thrown if value of action is null.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final BiConsumer<? super K, ? super V> action)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(action, "action");
+
+        if (this.root != null) {
+            this.root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    /**
+     * Returns an iterator over the entries of the map. The iterator doesn't support removing entries.
+     *
+     * @return Returns an iterator over the entries of the map.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        final List<Map.Entry<K, V>> entries = new ArrayList<>(this.size);
+
+        this.forEach((key, value) -> entries.add(new AbstractMap.SimpleImmutableEntry<>(key, value)));
+
+        final Iterator<Map.Entry<K, V>> iterator = entries.iterator();
+
+        return new Iterator<Map.Entry<K, V>>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                return iterator.next();
+            }
+        };
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("{");
+
+        this.forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+
+            builder.append(key).append('=').append(value);
+        });
+
+        return builder.append('}').toString();
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Creates a node containing two entries, whose keys are different, but share the hash bits of all levels above.
+     */
+    private static Node createNode(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        int hash1 = hash(key1);
+
+        if (hash1 == hash2) {
+            return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+        }
+
+        boolean[] added = new boolean[1];
+
+        return BitmapNode.EMPTY
+                .put(shift, hash1, key1, value1, added)
+                .put(shift, hash2, key2, value2, added);
+    }
+
+    private static Object[] insertPair(Object[] array, int index, Object key, Object value) {
+        Object[] copy = new Object[array.length + 2];
+
+        System.arraycopy(array, 0, copy, 0, 2 * index);
+        copy[2 * index] = key;
+        copy[2 * index + 1] = value;
+        System.arraycopy(array, 2 * index, copy, 2 * index + 2, array.length - 2 * index);
+
+        return copy;
+    }
+
+    private static Object[] removePair(Object[] array, int index) {
+        Object[] copy = new Object[array.length - 2];
+
+        System.arraycopy(array, 0, copy, 0, 2 * index);
+        System.arraycopy(array, 2 * index + 2, copy, 2 * index, copy.length - 2 * index);
+
+        return copy;
+    }
+
+    private static Object[] replaceValue(Object[] array, int index, Object value) {
+        Object[] copy = array.clone();
+
+        copy[2 * index + 1] = value;
+
+        return copy;
+    }
+
+    /**
+     * Node of the trie. Nodes are never modified after creation.
+     */
+    private interface Node {
+
+        Object find(int shift, int hash, Object key);
+
+        /**
+         * @return Returns the new node or this node if it already contains the entry.
+         */
+        Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * @return Returns the new node, this node if it doesn't contain the key or <tt>null</tt> if the new node is
+         * empty.
+         */
+        Node remove(int shift, int hash, Object key);
+
+        void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * Node with up to 32 slots. The bitmap marks the used slots, the array stores key and value of each used slot. If
+     * the key is <tt>null</tt>, the value is a node of the next level.
+     */
+    private static final class BitmapNode implements Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+
+        private final Object[] array;
+
+        private BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(this.bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+
+            if ((this.bitmap & bit) == 0) {
+                return null;
+            }
+
+            int index = this.index(bit);
+
+            Object current = this.array[2 * index];
+            Object value = this.array[2 * index + 1];
+
+            if (current == null) {
+                return ((Node) value).find(shift + BITS, hash, key);
+            }
+
+            return key.equals(current) ? value : null;
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = bit(hash, shift);
+            int index = this.index(bit);
+
+            if ((this.bitmap & bit) == 0) {
+                added[0] = true;
+
+                return new BitmapNode(this.bitmap | bit, insertPair(this.array, index, key, value));
+            }
+
+            Object current = this.array[2 * index];
+            Object currentValue = this.array[2 * index + 1];
+
+            if (current == null) {
+                Node node = ((Node) currentValue).put(shift + BITS, hash, key, value, added);
+
+                return node == currentValue ? this : new BitmapNode(this.bitmap, replaceValue(this.array, index, node));
+            }
+
+            if (key.equals(current)) {
+                return currentValue == value ? this
+                        : new BitmapNode(this.bitmap, replaceValue(this.array, index, value));
+            }
+
+            added[0] = true;
+
+            Node node = createNode(shift + BITS, current, currentValue, hash, key, value);
+
+            Object[] copy = this.array.clone();
+            copy[2 * index] = null;
+            copy[2 * index + 1] = node;
+
+            return new BitmapNode(this.bitmap, copy);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+
+            if ((this.bitmap & bit) == 0) {
+                return this;
+            }
+
+            int index = this.index(bit);
+
+            Object current = this.array[2 * index];
+            Object currentValue = this.array[2 * index + 1];
+
+            if (current == null) {
+                Node node = ((Node) currentValue).remove(shift + BITS, hash, key);
+
+                if (node == currentValue) {
+                    return this;
+                }
+
+                if (node != null) {
+                    return new BitmapNode(this.bitmap, replaceValue(this.array, index, node));
+                }
+            } else if (!key.equals(current)) {
+                return this;
+            }
+
+            return this.bitmap == bit ? null : new BitmapNode(this.bitmap ^ bit, removePair(this.array, index));
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (this.array[i] == null) {
+                    ((Node) this.array[i + 1]).forEach(action);
+                } else {
+                    action.accept(this.array[i], this.array[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Node containing entries, whose keys have exactly the same hash.
+     */
+    private static final class CollisionNode implements Node {
+
+        private final int hash;
+
+        private final Object[] array;
+
+        private CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (key.equals(this.array[i])) {
+                    return i / 2;
+                }
+            }
+
+            return -1;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int index = this.indexOf(key);
+
+            return index < 0 ? null : this.array[2 * index + 1];
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                return new BitmapNode(bit(this.hash, shift), new Object[]{null, this})
+                        .put(shift, hash, key, value, added);
+            }
+
+            int index = this.indexOf(key);
+
+            if (index < 0) {
+                added[0] = true;
+
+                return new CollisionNode(hash, insertPair(this.array, this.array.length / 2, key, value));
+            }
+
+            return this.array[2 * index + 1] == value ? this
+                    : new CollisionNode(hash, replaceValue(this.array, index, value));
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            int index = this.indexOf(key);
+
+            if (index < 0) {
+                return this;
+            }
+
+            return this.array.length == 2 ? null : new CollisionNode(this.hash, removePair(this.array, index));
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                action.accept(this.array[i], this.array[i + 1]);
+            }
+        }
+    }
+}
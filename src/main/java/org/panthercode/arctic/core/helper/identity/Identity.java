@@ -19,7 +19,7 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.panthercode.arctic.core.helper.Freezable;
 import org.panthercode.arctic.core.reflect.ReflectionUtils;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The identity class is used to manage objects in a much better way. The class offers the possibility to representing
@@ -300,12 +300,10 @@ public final class Identity implements Freezable {
      * @return Returns a new identity object.
      */
     public static Identity generate(final String name, final String group) {
-        Random seed = new Random(System.currentTimeMillis());
-
         HashCodeBuilder builder = new HashCodeBuilder();
         long id = builder.append(name)
                 .append(group).toHashCode();
-        id = Math.abs(id * seed.nextLong());
+        id = Math.abs(id * ThreadLocalRandom.current().nextLong());
 
         return new Identity(id, name, group);
     }
@@ -17,6 +17,11 @@ public enum Priority {
 
     VERY_LOW(1, "Very Low");
 
+    /**
+     * all priorities ordered by their level, lowest first
+     */
+    private static final Priority[] LEVELS = sortByLevel();
+
     private final int priority;
 
     private final String value;
@@ -26,10 +31,48 @@ public enum Priority {
         this.value = value;
     }
 
+    /**
+     * Returns all priorities ordered by their level, lowest first. The index of a priority in the array is equals to
+     * its <tt>level()</tt>.
+     *
+     * @return Returns all priorities ordered by their level.
+     */
+    public static Priority[] levels() {
+        return LEVELS.clone();
+    }
+
+    /**
+     * Returns the priority given by the annotation of a class.
+     *
+     * @param clazz class with annotation
+     * @return Returns the priority of the annotation or "Normal" if the class isn't annotated.
+     */
+    public static Priority fromAnnotation(final Class<?> clazz) {
+        if (clazz != null) {
+            PriorityInfo info = clazz.getAnnotation(PriorityInfo.class);
+
+            if (info != null) {
+                return info.value();
+            }
+        }
+
+        return NORMAL;
+    }
+
     public int priority() {
         return this.priority;
     }
 
+    /**
+     * Returns the level of the priority, starting with 0 for the lowest one. It's used as index of a table with an
+     * entry per priority.
+     *
+     * @return Returns the level of the priority.
+     */
+    public int level() {
+        return this.priority - VERY_LOW.priority;
+    }
+
     public String value() {
         return this.value;
     }
@@ -38,4 +81,14 @@ public enum Priority {
     public String toString() {
         return this.value();
     }
+
+    private static Priority[] sortByLevel() {
+        Priority[] levels = new Priority[values().length];
+
+        for (Priority priority : values()) {
+            levels[priority.level()] = priority;
+        }
+
+        return levels;
+    }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.helper.priority;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation is used to set the priority of a class. It's possible to get the priority automatically by using the
+ * <tt>Priority.fromAnnotation()</tt> function.
+ * <p>
+ * Example: <tt>@PriorityInfo(Priority.HIGH)</tt>
+ *
+ * @author PantherCode
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PriorityInfo {
+    /**
+     * Returns the priority of the class.
+     *
+     * @return Returns the priority of the class.
+     */
+    Priority value() default Priority.NORMAL;
+}
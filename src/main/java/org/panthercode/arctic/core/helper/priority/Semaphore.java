@@ -1,64 +1,496 @@
 package org.panthercode.arctic.core.helper.priority;
 
 import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.jfr.JfrEvents;
 
-import java.util.Queue;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * TODO: documentation
+ * Counting semaphore, whose waiting threads are served by priority. Threads of the same priority are served in the
+ * order of their arrival.
+ * <p>
+ * Each waiting thread is represented by a node in one queue per priority. On release the permits are handed over
+ * directly to the first nodes and only those threads are unparked, so a release never wakes threads, which can't
+ * proceed. The first waiting node blocks all others until enough permits are available for it; therefore a thread
+ * acquiring many permits isn't starved by threads acquiring few.
+ * <p>
+ * If no thread is waiting, permits are acquired by compare-and-set without any lock.
+ * <p>
+ * The capacity can be changed while permits are acquired, e.g. by an adaptive limiter. If it shrinks below the number
+ * of acquired permits, no permit is available until enough permits are released.
  *
  * @author PantherCode
  */
 public class Semaphore {
 
-    private static int INITIAL_CAPACITY = 10;
+    /**
+     * number of available permits; negative if the capacity shrank below the number of acquired permits
+     */
+    private final AtomicInteger counter;
 
-    private int counter = 0;
+    /**
+     * maximal number of permits
+     */
+    private volatile int capacity;
 
-    private int capacity = 0;
+    /**
+     * lock guarding the queues
+     */
+    private final ReentrantLock lock = new ReentrantLock();
 
-    private Queue<Priority> queue;
+    /**
+     * waiting nodes; one queue per priority level, lowest first
+     */
+    private final ArrayDeque<Node>[] queues;
 
-    public Semaphore(int capacity) {
+    /**
+     * number of waiting nodes
+     */
+    private volatile int waiting = 0;
+
+    /**
+     * Constructor
+     *
+     * @param capacity maximal number of permits
+     * @throws IllegalArgumentException Is thrown if value of capacity is zero or less.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Semaphore(int capacity)
+            throws IllegalArgumentException {
         ArgumentUtils.assertGreaterZero(capacity, "capacity");
 
-        this.counter = this.capacity = capacity;
+        this.capacity = capacity;
+        this.counter = new AtomicInteger(capacity);
+        this.queues = new ArrayDeque[Priority.values().length];
 
-        this.queue = new PriorityBlockingQueue<>(INITIAL_CAPACITY, new PriorityComparator());
+        for (int level = 0; level < this.queues.length; level++) {
+            this.queues[level] = new ArrayDeque<>();
+        }
     }
 
-    public synchronized void acquire() throws InterruptedException {
-        this.acquire(Priority.NORMAL);
+    /**
+     * Acquires a permit with priority "Normal". Blocks until the permit is available.
+     *
+     * @throws InterruptedException Is thrown if the current thread is interrupted while waiting.
+     */
+    public void acquire()
+            throws InterruptedException {
+        this.acquire(Priority.NORMAL, 1);
     }
 
-    public synchronized void acquire(Priority priority) throws InterruptedException {
-        if (counter == 0) {
-            this.queue.add(priority);
+    /**
+     * Acquires a permit. Blocks until the permit is available.
+     *
+     * @param priority priority of the current thread
+     * @throws NullPointerException Is thrown if value of priority is null.
+     * @throws InterruptedException Is thrown if the current thread is interrupted while waiting.
+     */
+    public void acquire(Priority priority)
+            throws NullPointerException, InterruptedException {
+        this.acquire(priority, 1);
+    }
 
-            while (counter == 0 || priority != this.queue.peek()) {
-                this.wait();
-            }
+    /**
+     * Acquires a number of permits. Blocks until all permits are available.
+     *
+     * @param priority priority of the current thread
+     * @param permits  number of permits to acquire
+     * @throws NullPointerException     Is thrown if value of priority is null.
+     * @throws IllegalArgumentException Is thrown if value of permits is zero or less or greater than the capacity.
+     * @throws InterruptedException     Is thrown if the current thread is interrupted while waiting.
+     */
+    public void acquire(Priority priority, int permits)
+            throws NullPointerException, IllegalArgumentException, InterruptedException {
+        this.acquire(priority, permits, -1L);
+    }
+
+    /**
+     * Acquires a permit with priority "Normal", if it's available immediately and no other thread is waiting.
+     *
+     * @return Returns <tt>true</tt> if the permit was acquired; Otherwise <tt>false</tt>.
+     */
+    public boolean tryAcquire() {
+        return this.tryAcquire(Priority.NORMAL, 1);
+    }
+
+    /**
+     * Acquires a number of permits, if they're available immediately and no other thread is waiting.
+     *
+     * @param priority priority of the current thread
+     * @param permits  number of permits to acquire
+     * @return Returns <tt>true</tt> if the permits were acquired; Otherwise <tt>false</tt>.
+     * @throws NullPointerException     Is thrown if value of priority is null.
+     * @throws IllegalArgumentException Is thrown if value of permits is zero or less or greater than the capacity.
+     */
+    public boolean tryAcquire(Priority priority, int permits)
+            throws NullPointerException, IllegalArgumentException {
+        this.assertRequest(priority, permits);
 
-            this.queue.remove();
+        Object event = JfrEvents.beginAcquire();
+
+        if (this.waiting == 0 && this.take(permits)) {
+            JfrEvents.commitAcquire(event, priority, permits, this.counter.get(), this.capacity);
+
+            return true;
         }
 
-        this.counter--;
+        return false;
+    }
+
+    /**
+     * Acquires a permit with priority "Normal". Blocks until the permit is available or the timeout occurs.
+     *
+     * @param timeout maximal time to wait
+     * @param unit    time unit of timeout
+     * @return Returns <tt>true</tt> if the permit was acquired; Otherwise <tt>false</tt>.
+     * @throws NullPointerException Is thrown if value of unit is null.
+     * @throws InterruptedException Is thrown if the current thread is interrupted while waiting.
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit)
+            throws NullPointerException, InterruptedException {
+        return this.tryAcquire(Priority.NORMAL, 1, timeout, unit);
+    }
+
+    /**
+     * Acquires a number of permits. Blocks until all permits are available or the timeout occurs.
+     *
+     * @param priority priority of the current thread
+     * @param permits  number of permits to acquire
+     * @param timeout  maximal time to wait
+     * @param unit     time unit of timeout
+     * @return Returns <tt>true</tt> if the permits were acquired; Otherwise <tt>false</tt>.
+     * @throws NullPointerException     Is thrown if value of priority or unit is null.
+     * @throws IllegalArgumentException Is thrown if value of permits is zero or less or greater than the capacity.
+     * @throws InterruptedException     Is thrown if the current thread is interrupted while waiting.
+     */
+    public boolean tryAcquire(Priority priority, int permits, long timeout, TimeUnit unit)
+            throws NullPointerException, IllegalArgumentException, InterruptedException {
+        ArgumentUtils.assertNotNull(unit, "unit");
+
+        return this.acquire(priority, permits, Math.max(0L, unit.toNanos(timeout)));
     }
 
-    public synchronized void release() {
-        if (counter == 0) {
-            this.notifyAll();
+    /**
+     * Releases a permit.
+     *
+     * @throws IllegalStateException Is thrown if more permits are released than acquired.
+     */
+    public void release() {
+        this.release(1);
+    }
+
+    /**
+     * Releases a number of permits. The permits are handed over to the first waiting threads.
+     *
+     * @param permits number of permits to release
+     * @throws IllegalArgumentException Is thrown if value of permits is zero or less.
+     * @throws IllegalStateException    Is thrown if more permits are released than acquired.
+     */
+    public void release(int permits)
+            throws IllegalArgumentException, IllegalStateException {
+        ArgumentUtils.assertGreaterZero(permits, "permits");
+
+        int available;
+
+        while (true) {
+            int current = this.counter.get();
+
+            available = current + permits;
+
+            if (available > this.capacity) {
+                // the counter may be read before a concurrent shrink, so check again while the capacity is fixed
+                available = this.releaseLocked(permits);
+
+                break;
+            }
+
+            if (this.counter.compareAndSet(current, available)) {
+                break;
+            }
         }
 
-        this.counter++;
+        JfrEvents.semaphoreReleased(permits, available, this.capacity);
+
+        if (this.waiting > 0) {
+            this.dispatch();
+        }
     }
 
+    /**
+     * Returns the maximal number of permits.
+     *
+     * @return Returns the maximal number of permits.
+     */
     public int capacity() {
         return this.capacity;
     }
 
+    /**
+     * Sets a new maximal number of permits. If the capacity grows, the new permits are handed over to waiting threads;
+     * If it shrinks, acquired permits stay valid, but fewer permits are available afterwards. Threads already waiting
+     * for more permits than the new capacity wait until it grows again.
+     *
+     * @param capacity new maximal number of permits
+     * @throws IllegalArgumentException Is thrown if value of capacity is zero or less.
+     */
+    public void setCapacity(int capacity)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(capacity, "capacity");
+
+        this.lock.lock();
+
+        try {
+            int delta = capacity - this.capacity;
+
+            // the capacity never falls below the counter; release() checks a stale counter again under the lock
+            if (delta > 0) {
+                this.capacity = capacity;
+                this.counter.addAndGet(delta);
+
+                this.grant();
+            } else if (delta < 0) {
+                this.counter.addAndGet(delta);
+                this.capacity = capacity;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of available permits. The value is negative, if the capacity shrank below the number of
+     * acquired permits.
+     *
+     * @return Returns the number of available permits.
+     */
     public int counter() {
-        return this.counter;
+        return this.counter.get();
+    }
+
+    /**
+     * Returns the number of threads waiting for permits.
+     *
+     * @return Returns the number of waiting threads.
+     */
+    public int getQueueLength() {
+        return this.waiting;
+    }
+
+    /**
+     * Acquires permits and waits at most the given time. A negative time waits without timeout.
+     */
+    private boolean acquire(Priority priority, int permits, long nanos)
+            throws InterruptedException {
+        this.assertRequest(priority, permits);
+
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        Object event = JfrEvents.beginAcquire();
+
+        if (this.waiting == 0 && this.take(permits)) {
+            JfrEvents.commitAcquire(event, priority, permits, this.counter.get(), this.capacity);
+
+            return true;
+        }
+
+        if (nanos == 0L) {
+            return false;
+        }
+
+        Node node = new Node(Thread.currentThread(), permits);
+
+        this.lock.lock();
+
+        try {
+            this.queues[priority.level()].add(node);
+            this.waiting++;
+
+            this.grant();
+        } finally {
+            this.lock.unlock();
+        }
+
+        long deadline = nanos > 0L ? System.nanoTime() + nanos : 0L;
+
+        while (!node.granted) {
+            if (nanos > 0L) {
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0L) {
+                    if (this.cancel(node, priority)) {
+                        return false;
+                    }
+
+                    break;
+                }
+
+                LockSupport.parkNanos(this, remaining);
+            } else {
+                LockSupport.park(this);
+            }
+
+            if (Thread.interrupted()) {
+                if (this.cancel(node, priority)) {
+                    throw new InterruptedException();
+                }
+
+                Thread.currentThread().interrupt();
+
+                break;
+            }
+        }
+
+        JfrEvents.commitAcquire(event, priority, permits, this.counter.get(), this.capacity);
+
+        return true;
+    }
+
+    /**
+     * Releases permits while the lock is held, so the capacity can't change between reading the counter and the
+     * capacity.
+     *
+     * @return Returns the number of available permits after release.
+     */
+    private int releaseLocked(int permits) {
+        this.lock.lock();
+
+        try {
+            while (true) {
+                int current = this.counter.get();
+                int available = current + permits;
+
+                if (available > this.capacity) {
+                    throw new IllegalStateException("The semaphore can't contain more than " + this.capacity
+                            + " permits.");
+                }
+
+                if (this.counter.compareAndSet(current, available)) {
+                    return available;
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes permits by compare-and-set, if enough of them are available.
+     */
+    private boolean take(int permits) {
+        while (true) {
+            int current = this.counter.get();
+
+            if (current < permits) {
+                return false;
+            }
+
+            if (this.counter.compareAndSet(current, current - permits)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hands over available permits to waiting nodes.
+     */
+    private void dispatch() {
+        this.lock.lock();
+
+        try {
+            this.grant();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Hands over permits to the first nodes as long as enough permits are available, while the lock is held. Nodes
+     * are unparked after they got their permits.
+     */
+    private void grant() {
+        while (this.waiting > 0) {
+            ArrayDeque<Node> queue = this.first();
+            Node node = queue.peek();
+
+            if (!this.take(node.permits)) {
+                return;
+            }
+
+            queue.poll();
+            this.waiting--;
+
+            node.granted = true;
+
+            LockSupport.unpark(node.thread);
+        }
+    }
+
+    /**
+     * Removes a node, whose thread gave up waiting. Afterwards the next nodes may get their permits.
+     *
+     * @return Returns <tt>true</tt> if the node was removed; <tt>false</tt> if it got its permits meanwhile.
+     */
+    private boolean cancel(Node node, Priority priority) {
+        this.lock.lock();
+
+        try {
+            if (node.granted) {
+                return false;
+            }
+
+            this.queues[priority.level()].remove(node);
+            this.waiting--;
+
+            this.grant();
+
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the non-empty queue of the highest priority, while the lock is held.
+     */
+    private ArrayDeque<Node> first() {
+        for (int level = this.queues.length - 1; level > 0; level--) {
+            if (!this.queues[level].isEmpty()) {
+                return this.queues[level];
+            }
+        }
+
+        return this.queues[0];
+    }
+
+    private void assertRequest(Priority priority, int permits) {
+        ArgumentUtils.assertNotNull(priority, "priority");
+        ArgumentUtils.assertGreaterZero(permits, "permits");
+
+        if (permits > this.capacity) {
+            throw new IllegalArgumentException("The semaphore has only " + this.capacity + " permits.");
+        }
+    }
+
+    /**
+     * Waiting thread and the number of permits it needs.
+     */
+    private static final class Node {
+
+        private final Thread thread;
+
+        private final int permits;
+
+        private volatile boolean granted = false;
+
+        private Node(Thread thread, int permits) {
+            this.thread = thread;
+            this.permits = permits;
+        }
     }
 }
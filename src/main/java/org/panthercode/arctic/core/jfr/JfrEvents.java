@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.jfr;
+
+import jdk.jfr.EventType;
+import org.panthercode.arctic.core.helper.identity.Identity;
+import org.panthercode.arctic.core.helper.priority.Priority;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.Module;
+
+/**
+ * Emits the Flight Recorder events of this library. The event classes are only loaded if the runtime provides Flight
+ * Recorder, so calling these methods is always safe. An event object is only created while a recording has enabled
+ * the event type, otherwise each call costs a few field reads.
+ * <p>
+ * Events covering a period of time are emitted in two steps: <tt>begin...()</tt> returns a handle, which is passed to
+ * the matching <tt>commit...()</tt> method. The handle is <tt>null</tt> if the event isn't recorded.
+ * <p>
+ * Setting the system property <tt>arctic.jfr</tt> to <tt>false</tt> disables all events.
+ *
+ * @author PantherCode
+ */
+public final class JfrEvents {
+
+    /**
+     * name of system property to disable all events
+     */
+    public static final String PROPERTY_KEY = "arctic.jfr";
+
+    /**
+     * flag whether the runtime provides Flight Recorder and events aren't disabled
+     */
+    private static final boolean AVAILABLE = lookupAvailability();
+
+    /**
+     * private constructor
+     */
+    private JfrEvents() {
+    }
+
+    /**
+     * Returns whether events can be emitted or not.
+     *
+     * @return Returns <tt>true</tt> if the runtime provides Flight Recorder and events aren't disabled; Otherwise
+     * <tt>false</tt>.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Emits an event of a module, which changed its process state.
+     *
+     * @param module   module, that changed its state
+     * @param oldState state of the module before the change
+     * @param newState state of the module after the change
+     */
+    public static void moduleStateChanged(Module module, ProcessState oldState, ProcessState newState) {
+        if (AVAILABLE && Recorder.MODULE_STATE_CHANGE.isEnabled()) {
+            Recorder.moduleStateChanged(module, oldState, newState);
+        }
+    }
+
+    /**
+     * Starts the event covering the execution of a step's functionality.
+     *
+     * @return Returns the handle of the event or <tt>null</tt> if the event isn't recorded.
+     */
+    public static Object beginStep() {
+        return AVAILABLE && Recorder.STEP_EXECUTION.isEnabled() ? Recorder.begin(new StepExecutionEvent()) : null;
+    }
+
+    /**
+     * Ends the event covering the execution of a step's functionality.
+     *
+     * @param handle handle returned by <tt>beginStep()</tt>
+     * @param module step, that was executed
+     * @param result state of the step after execution
+     */
+    public static void commitStep(Object handle, Module module, ProcessState result) {
+        if (handle != null) {
+            Recorder.commitStep(handle, module, result);
+        }
+    }
+
+    /**
+     * Starts the event covering a single loop step of a repeater.
+     *
+     * @return Returns the handle of the event or <tt>null</tt> if the event isn't recorded.
+     */
+    public static Object beginIteration() {
+        return AVAILABLE && Recorder.REPEATER_ITERATION.isEnabled()
+                ? Recorder.begin(new RepeaterIterationEvent()) : null;
+    }
+
+    /**
+     * Ends the event covering a single loop step of a repeater.
+     *
+     * @param handle   handle returned by <tt>beginIteration()</tt>
+     * @param repeater repeater, that executed the loop step
+     * @param result   state of the repeated module after the loop step
+     */
+    public static void commitIteration(Object handle, Module repeater, ProcessState result) {
+        if (handle != null) {
+            Recorder.commitIteration(handle, repeater, result);
+        }
+    }
+
+    /**
+     * Starts the event covering the time a thread waits to acquire a priority semaphore.
+     *
+     * @return Returns the handle of the event or <tt>null</tt> if the event isn't recorded.
+     */
+    public static Object beginAcquire() {
+        return AVAILABLE && Recorder.SEMAPHORE_ACQUIRE.isEnabled()
+                ? Recorder.begin(new SemaphoreAcquireEvent()) : null;
+    }
+
+    /**
+     * Ends the event covering the time a thread waits to acquire a priority semaphore.
+     *
+     * @param handle    handle returned by <tt>beginAcquire()</tt>
+     * @param priority  priority the thread acquired the semaphore with
+     * @param permits   number of acquired permits
+     * @param available number of available permits after acquiring
+     * @param capacity  capacity of the semaphore
+     */
+    public static void commitAcquire(Object handle, Priority priority, int permits, int available, int capacity) {
+        if (handle != null) {
+            Recorder.commitAcquire(handle, priority, permits, available, capacity);
+        }
+    }
+
+    /**
+     * Emits an event of a thread, which released permits of a priority semaphore.
+     *
+     * @param permits   number of released permits
+     * @param available number of available permits after releasing
+     * @param capacity  capacity of the semaphore
+     */
+    public static void semaphoreReleased(int permits, int available, int capacity) {
+        if (AVAILABLE && Recorder.SEMAPHORE_RELEASE.isEnabled()) {
+            Recorder.semaphoreReleased(permits, available, capacity);
+        }
+    }
+
+    private static boolean lookupAvailability() {
+        if ("false".equalsIgnoreCase(System.getProperty(PROPERTY_KEY))) {
+            return false;
+        }
+
+        try {
+            Class.forName("jdk.jfr.Event");
+
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Holds all references to Flight Recorder classes. It's only loaded if Flight Recorder is available.
+     */
+    private static final class Recorder {
+
+        private static final EventType MODULE_STATE_CHANGE = EventType.getEventType(ModuleStateChangeEvent.class);
+
+        private static final EventType STEP_EXECUTION = EventType.getEventType(StepExecutionEvent.class);
+
+        private static final EventType REPEATER_ITERATION = EventType.getEventType(RepeaterIterationEvent.class);
+
+        private static final EventType SEMAPHORE_ACQUIRE = EventType.getEventType(SemaphoreAcquireEvent.class);
+
+        private static final EventType SEMAPHORE_RELEASE = EventType.getEventType(SemaphoreReleaseEvent.class);
+
+        private static jdk.jfr.Event begin(jdk.jfr.Event event) {
+            event.begin();
+
+            return event;
+        }
+
+        private static void moduleStateChanged(Module module, ProcessState oldState, ProcessState newState) {
+            ModuleStateChangeEvent event = new ModuleStateChangeEvent();
+
+            Identity identity = module.identity();
+
+            event.moduleId = identity.id();
+            event.moduleName = identity.getName();
+            event.moduleGroup = identity.getGroup();
+            event.oldState = String.valueOf(oldState);
+            event.newState = String.valueOf(newState);
+            event.commit();
+        }
+
+        private static void commitStep(Object handle, Module module, ProcessState result) {
+            StepExecutionEvent event = (StepExecutionEvent) handle;
+
+            event.end();
+
+            if (event.shouldCommit()) {
+                Identity identity = module.identity();
+
+                event.moduleId = identity.id();
+                event.moduleName = identity.getName();
+                event.moduleGroup = identity.getGroup();
+                event.result = String.valueOf(result);
+                event.commit();
+            }
+        }
+
+        private static void commitIteration(Object handle, Module repeater, ProcessState result) {
+            RepeaterIterationEvent event = (RepeaterIterationEvent) handle;
+
+            event.end();
+
+            if (event.shouldCommit()) {
+                Identity identity = repeater.identity();
+
+                event.moduleId = identity.id();
+                event.moduleName = identity.getName();
+                event.moduleGroup = identity.getGroup();
+                event.result = String.valueOf(result);
+                event.commit();
+            }
+        }
+
+        private static void commitAcquire(Object handle, Priority priority, int permits, int available,
+                                          int capacity) {
+            SemaphoreAcquireEvent event = (SemaphoreAcquireEvent) handle;
+
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.priority = String.valueOf(priority);
+                event.permits = permits;
+                event.available = available;
+                event.capacity = capacity;
+                event.commit();
+            }
+        }
+
+        private static void semaphoreReleased(int permits, int available, int capacity) {
+            SemaphoreReleaseEvent event = new SemaphoreReleaseEvent();
+
+            event.permits = permits;
+            event.available = available;
+            event.capacity = capacity;
+            event.commit();
+        }
+    }
+}
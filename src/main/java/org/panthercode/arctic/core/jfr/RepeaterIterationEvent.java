@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering a single loop step of a repeater, without the delay afterwards.
+ *
+ * @author PantherCode
+ */
+@Name("org.panthercode.arctic.RepeaterIteration")
+@Label("Repeater Iteration")
+@Description("A single loop step of a repeater")
+@Category({"Arctic", "Processing"})
+@StackTrace(false)
+final class RepeaterIterationEvent extends Event {
+
+    @Label("Module Id")
+    long moduleId;
+
+    @Label("Module Name")
+    String moduleName;
+
+    @Label("Module Group")
+    String moduleGroup;
+
+    @Label("Result")
+    @Description("Process state of the repeated module after the loop step")
+    String result;
+}
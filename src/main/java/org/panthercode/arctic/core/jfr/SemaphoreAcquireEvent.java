@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the time a thread waited to acquire a priority semaphore.
+ *
+ * @author PantherCode
+ */
+@Name("org.panthercode.arctic.SemaphoreAcquire")
+@Label("Semaphore Acquire")
+@Description("A thread waited to acquire permits of a priority semaphore")
+@Category({"Arctic", "Resources"})
+final class SemaphoreAcquireEvent extends Event {
+
+    @Label("Priority")
+    String priority;
+
+    @Label("Permits")
+    @Description("Number of acquired permits")
+    int permits;
+
+    @Label("Available Permits")
+    @Description("Number of available permits after acquiring")
+    int available;
+
+    @Label("Capacity")
+    int capacity;
+}
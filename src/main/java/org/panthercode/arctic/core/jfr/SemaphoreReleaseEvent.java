@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a thread releasing permits of a priority semaphore.
+ *
+ * @author PantherCode
+ */
+@Name("org.panthercode.arctic.SemaphoreRelease")
+@Label("Semaphore Release")
+@Description("A thread released permits of a priority semaphore")
+@Category({"Arctic", "Resources"})
+@StackTrace(false)
+final class SemaphoreReleaseEvent extends Event {
+
+    @Label("Permits")
+    @Description("Number of released permits")
+    int permits;
+
+    @Label("Available Permits")
+    @Description("Number of available permits after releasing")
+    int available;
+
+    @Label("Capacity")
+    int capacity;
+}
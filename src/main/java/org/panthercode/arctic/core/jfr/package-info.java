@@ -0,0 +1,7 @@
+/**
+ * Java Flight Recorder events of modules and resources. Use <tt>JfrEvents</tt> to emit them, so the library also
+ * runs on Java runtimes without Flight Recorder.
+ *
+ * @author PantherCode
+ */
+package org.panthercode.arctic.core.jfr;
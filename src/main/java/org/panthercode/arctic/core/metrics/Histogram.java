@@ -0,0 +1,321 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.metrics;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non-negative long values, e.g. durations in nanoseconds. Like HdrHistogram it uses log-linear buckets:
+ * each power of two is divided into the same number of linear sub-buckets. So the relative error of a percentile is
+ * bounded by the precision, independent of the value's magnitude, and the memory is allocated once.
+ * <p>
+ * Recording a value doesn't allocate and doesn't take a lock. All values can be read while values are recorded, but a
+ * read is only a consistent snapshot if no value is recorded at the same time.
+ *
+ * @author PantherCode
+ */
+public class Histogram {
+
+    /**
+     * default number of bits of the sub-bucket index (32 sub-buckets, about 3 % relative error)
+     */
+    public static final int DEFAULT_PRECISION = 5;
+
+    /**
+     * number of bits of the sub-bucket index
+     */
+    private final int precision;
+
+    /**
+     * number of sub-buckets per power of two
+     */
+    private final int subBucketCount;
+
+    /**
+     * number of values per bucket
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * sum of all values
+     */
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * smallest recorded value
+     */
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * largest recorded value
+     */
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Constructor. Uses a precision of 5 bits, which bounds the relative error by about 3 %.
+     */
+    public Histogram() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param precision number of bits to divide each power of two into linear sub-buckets
+     * @throws IllegalArgumentException Is thrown if value of precision is less than one or greater than 10.
+     */
+    public Histogram(int precision)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertLimits(precision, 1, 10, "precision");
+
+        this.precision = precision;
+        this.subBucketCount = 1 << precision;
+        this.counts = new AtomicLongArray(this.subBucketCount * (64 - precision));
+    }
+
+    /**
+     * Copy Constructor
+     *
+     * @param histogram object to copy
+     * @throws NullPointerException Is thrown if value of histogram is null.
+     */
+    public Histogram(Histogram histogram)
+            throws NullPointerException {
+        this(histogram.precision);
+
+        this.add(histogram);
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value value to record
+     */
+    public void record(long value) {
+        if (value < 0L) {
+            value = 0L;
+        }
+
+        this.counts.incrementAndGet(this.indexOf(value));
+        this.sum.addAndGet(value);
+
+        updateMin(this.min, value);
+        updateMax(this.max, value);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return Returns the number of recorded values.
+     */
+    public long count() {
+        long count = 0L;
+
+        for (int i = 0; i < this.counts.length(); i++) {
+            count += this.counts.get(i);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded values.
+     *
+     * @return Returns the sum of all recorded values.
+     */
+    public long sum() {
+        return this.sum.get();
+    }
+
+    /**
+     * Returns the smallest recorded value.
+     *
+     * @return Returns the smallest recorded value or zero if no value is recorded.
+     */
+    public long min() {
+        long min = this.min.get();
+
+        return min == Long.MAX_VALUE ? 0L : min;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return Returns the largest recorded value or zero if no value is recorded.
+     */
+    public long max() {
+        long max = this.max.get();
+
+        return max == Long.MIN_VALUE ? 0L : max;
+    }
+
+    /**
+     * Returns the arithmetic mean of all recorded values.
+     *
+     * @return Returns the arithmetic mean or zero if no value is recorded.
+     */
+    public double mean() {
+        long count = this.count();
+
+        return count == 0L ? 0.0 : (double) this.sum() / count;
+    }
+
+    /**
+     * Returns the value, which is greater than or equal to the given percentage of all recorded values. The value is
+     * the middle of its bucket, but never less than the minimum or greater than the maximum.
+     *
+     * @param percentile percentage between 0 and 100
+     * @return Returns the value at the given percentile or zero if no value is recorded.
+     * @throws IllegalArgumentException Is thrown if value of percentile is less than zero or greater than 100.
+     */
+    public long valueAtPercentile(double percentile)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterOrEqualsZero(percentile, "percentile");
+        ArgumentUtils.assertLessOrEqualsThan(percentile, 100.0, "percentile");
+
+        long count = this.count();
+
+        if (count == 0L) {
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0L;
+
+        for (int i = 0; i < this.counts.length(); i++) {
+            seen += this.counts.get(i);
+
+            if (seen >= rank) {
+                long value = this.lowestValueAt(i) + (this.widthAt(i) - 1L) / 2L;
+
+                return Math.max(this.min(), Math.min(this.max(), value));
+            }
+        }
+
+        return this.max();
+    }
+
+    /**
+     * Adds all values of another histogram with the same precision.
+     *
+     * @param histogram histogram to add
+     * @throws NullPointerException     Is thrown if value of histogram is null.
+     * @throws IllegalArgumentException Is thrown if the histograms have different precisions.
+     */
+    public void add(Histogram histogram)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(histogram, "histogram");
+
+        if (histogram.precision != this.precision) {
+            throw new IllegalArgumentException("The histograms have different precisions.");
+        }
+
+        for (int i = 0; i < this.counts.length(); i++) {
+            long count = histogram.counts.get(i);
+
+            if (count != 0L) {
+                this.counts.addAndGet(i, count);
+            }
+        }
+
+        this.sum.addAndGet(histogram.sum.get());
+
+        updateMin(this.min, histogram.min.get());
+        updateMax(this.max, histogram.max.get());
+    }
+
+    /**
+     * Returns a copy of the actual values. Recording goes on while the copy is created.
+     *
+     * @return Returns a copy of the actual values.
+     */
+    public Histogram snapshot() {
+        return new Histogram(this);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < this.counts.length(); i++) {
+            this.counts.set(i, 0L);
+        }
+
+        this.sum.set(0L);
+        this.min.set(Long.MAX_VALUE);
+        this.max.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "count = " + this.count() + ", min = " + this.min() + ", mean = " + this.mean() +
+                ", p50 = " + this.valueAtPercentile(50.0) + ", p99 = " + this.valueAtPercentile(99.0) +
+                ", max = " + this.max();
+    }
+
+    /**
+     * Values less than the number of sub-buckets have a bucket of their own. Above, each power of two 2^e is divided
+     * into sub-buckets of width 2^(e - precision).
+     */
+    private int indexOf(long value) {
+        if (value < this.subBucketCount) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - this.precision;
+
+        return ((shift + 1) << this.precision) + (int) ((value >>> shift) - this.subBucketCount);
+    }
+
+    private long lowestValueAt(int index) {
+        if (index < this.subBucketCount) {
+            return index;
+        }
+
+        int shift = (index >>> this.precision) - 1;
+
+        return ((long) (index & (this.subBucketCount - 1)) + this.subBucketCount) << shift;
+    }
+
+    private long widthAt(int index) {
+        return index < this.subBucketCount ? 1L : 1L << ((index >>> this.precision) - 1);
+    }
+
+    private static void updateMin(AtomicLong min, long value) {
+        for (long actual = min.get(); value < actual; actual = min.get()) {
+            if (min.compareAndSet(actual, value)) {
+                return;
+            }
+        }
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        for (long actual = max.get(); value > actual; actual = max.get()) {
+            if (max.compareAndSet(actual, value)) {
+                return;
+            }
+        }
+    }
+}
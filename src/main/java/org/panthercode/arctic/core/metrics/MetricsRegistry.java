@@ -0,0 +1,316 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.metrics;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.helper.identity.Identity;
+import org.panthercode.arctic.core.processing.modules.Module;
+import org.panthercode.arctic.core.processing.modules.impl.ModuleImpl;
+import org.panthercode.arctic.core.resources.ResourcePool;
+import org.panthercode.arctic.core.resources.impl.ResourceImpl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the metrics of modules and resources. Registering a module or resource enables recording its metrics,
+ * unregistering disables it again. The registry can be snapshotted at any time without stopping the modules or
+ * resources.
+ *
+ * @author PantherCode
+ */
+public class MetricsRegistry {
+
+    /**
+     * registry shared by the whole application
+     */
+    private static MetricsRegistry defaultRegistry = null;
+
+    /**
+     * registered modules by the id of their identity
+     */
+    private final Map<Long, Registration> registrations = new ConcurrentHashMap<>();
+
+    /**
+     * registered resources and resource pools by the id of their identity
+     */
+    private final Map<Long, ResourceRegistration> resourceRegistrations = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the registry shared by the whole application.
+     *
+     * @return Returns the registry shared by the whole application.
+     */
+    public static synchronized MetricsRegistry getDefault() {
+        if (defaultRegistry == null) {
+            defaultRegistry = new MetricsRegistry();
+        }
+
+        return defaultRegistry;
+    }
+
+    /**
+     * Set a new registry shared by the whole application.
+     *
+     * @param registry new shared registry
+     * @throws NullPointerException Is thrown if value of registry is null.
+     */
+    public static synchronized void setDefault(MetricsRegistry registry)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(registry, "registry");
+
+        defaultRegistry = registry;
+    }
+
+    /**
+     * Registers a module and enables recording its metrics. If the module already records metrics, they are kept.
+     *
+     * @param module module to register
+     * @return Returns the metrics of the module.
+     * @throws NullPointerException Is thrown if value of module is null.
+     */
+    public ModuleMetrics register(ModuleImpl module)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(module, "module");
+
+        ModuleMetrics metrics = module.getMetrics();
+
+        if (metrics == null) {
+            metrics = new ModuleMetrics();
+
+            module.setMetrics(metrics);
+        }
+
+        this.registrations.put(module.identity().id(), new Registration(module.identity(), metrics));
+
+        return metrics;
+    }
+
+    /**
+     * Registers a module and all modules it contains directly or indirectly.
+     *
+     * @param root root of the module tree
+     * @throws NullPointerException Is thrown if value of root is null.
+     */
+    public void registerTree(ModuleImpl root)
+            throws NullPointerException {
+        this.register(root);
+
+        for (Module child : root.children()) {
+            if (child instanceof ModuleImpl) {
+                this.registerTree((ModuleImpl) child);
+            }
+        }
+    }
+
+    /**
+     * Unregisters a module and disables recording its metrics.
+     *
+     * @param module module to unregister
+     * @return Returns <tt>true</tt> if the module was registered; Otherwise <tt>false</tt>.
+     * @throws NullPointerException Is thrown if value of module is null.
+     */
+    public boolean unregister(ModuleImpl module)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(module, "module");
+
+        module.setMetrics(null);
+
+        return this.registrations.remove(module.identity().id()) != null;
+    }
+
+    /**
+     * Returns the metrics of a registered module.
+     *
+     * @param moduleId id of the module's identity
+     * @return Returns the metrics of the module or <tt>null</tt> if it isn't registered.
+     */
+    public ModuleMetrics get(long moduleId) {
+        Registration registration = this.registrations.get(moduleId);
+
+        return registration == null ? null : registration.metrics;
+    }
+
+    /**
+     * Returns the number of registered modules.
+     *
+     * @return Returns the number of registered modules.
+     */
+    public int size() {
+        return this.registrations.size();
+    }
+
+    /**
+     * Registers a resource and enables recording its usage. If the resource already records to metrics of this
+     * class, they are kept; Any other recorder is replaced.
+     *
+     * @param resource resource to register
+     * @return Returns the metrics of the resource.
+     * @throws NullPointerException Is thrown if value of resource is null.
+     */
+    public ResourceMetrics register(ResourceImpl resource)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(resource, "resource");
+
+        ResourceMetrics metrics = resource.getRecorder() instanceof ResourceMetrics
+                ? (ResourceMetrics) resource.getRecorder() : new ResourceMetrics();
+
+        resource.setRecorder(metrics);
+
+        return this.register(resource.identity(), metrics);
+    }
+
+    /**
+     * Registers a resource pool and enables recording its usage. If the pool already records to metrics of this class,
+     * they are kept; Any other recorder is replaced.
+     *
+     * @param pool resource pool to register
+     * @return Returns the metrics of the resource pool.
+     * @throws NullPointerException Is thrown if value of pool is null.
+     */
+    public ResourceMetrics register(ResourcePool<?> pool)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(pool, "pool");
+
+        ResourceMetrics metrics = pool.getRecorder() instanceof ResourceMetrics
+                ? (ResourceMetrics) pool.getRecorder() : new ResourceMetrics();
+
+        pool.setRecorder(metrics);
+
+        return this.register(pool.identity(), metrics);
+    }
+
+    /**
+     * Unregisters a resource and disables recording its usage.
+     *
+     * @param resource resource to unregister
+     * @return Returns <tt>true</tt> if the resource was registered; Otherwise <tt>false</tt>.
+     * @throws NullPointerException Is thrown if value of resource is null.
+     */
+    public boolean unregister(ResourceImpl resource)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(resource, "resource");
+
+        resource.setRecorder(null);
+
+        return this.resourceRegistrations.remove(resource.identity().id()) != null;
+    }
+
+    /**
+     * Unregisters a resource pool and disables recording its usage.
+     *
+     * @param pool resource pool to unregister
+     * @return Returns <tt>true</tt> if the resource pool was registered; Otherwise <tt>false</tt>.
+     * @throws NullPointerException Is thrown if value of pool is null.
+     */
+    public boolean unregister(ResourcePool<?> pool)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(pool, "pool");
+
+        pool.setRecorder(null);
+
+        return this.resourceRegistrations.remove(pool.identity().id()) != null;
+    }
+
+    /**
+     * Returns the metrics of a registered resource or resource pool.
+     *
+     * @param resourceId id of the resource's identity
+     * @return Returns the metrics of the resource or <tt>null</tt> if it isn't registered.
+     */
+    public ResourceMetrics getResource(long resourceId) {
+        ResourceRegistration registration = this.resourceRegistrations.get(resourceId);
+
+        return registration == null ? null : registration.metrics;
+    }
+
+    /**
+     * Returns the number of registered resources and resource pools.
+     *
+     * @return Returns the number of registered resources.
+     */
+    public int resourceSize() {
+        return this.resourceRegistrations.size();
+    }
+
+    /**
+     * Returns a copy of the metrics of all registered resources and resource pools. The resources go on recording
+     * while the copy is created.
+     *
+     * @return Returns a copy of the metrics of all registered resources by their identity.
+     */
+    public Map<Identity, ResourceMetrics> snapshotResources() {
+        Map<Identity, ResourceMetrics> snapshot = new LinkedHashMap<>();
+
+        for (ResourceRegistration registration : this.resourceRegistrations.values()) {
+            snapshot.put(registration.identity.copy(), registration.metrics.snapshot());
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Returns a copy of the metrics of all registered modules. The modules go on recording while the copy is created.
+     *
+     * @return Returns a copy of the metrics of all registered modules by their identity.
+     */
+    public Map<Identity, ModuleMetrics> snapshot() {
+        Map<Identity, ModuleMetrics> snapshot = new LinkedHashMap<>();
+
+        for (Registration registration : this.registrations.values()) {
+            snapshot.put(registration.identity.copy(), registration.metrics.snapshot());
+        }
+
+        return snapshot;
+    }
+
+    private ResourceMetrics register(Identity identity, ResourceMetrics metrics) {
+        this.resourceRegistrations.put(identity.id(), new ResourceRegistration(identity, metrics));
+
+        return metrics;
+    }
+
+    /**
+     * A registered module. Only its identity is kept, so the registry doesn't keep modules alive.
+     */
+    private static final class Registration {
+
+        private final Identity identity;
+
+        private final ModuleMetrics metrics;
+
+        private Registration(Identity identity, ModuleMetrics metrics) {
+            this.identity = identity;
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * A registered resource or resource pool. Only its identity is kept, so the registry doesn't keep resources alive.
+     */
+    private static final class ResourceRegistration {
+
+        private final Identity identity;
+
+        private final ResourceMetrics metrics;
+
+        private ResourceRegistration(Identity identity, ResourceMetrics metrics) {
+            this.identity = identity;
+            this.metrics = metrics;
+        }
+    }
+}
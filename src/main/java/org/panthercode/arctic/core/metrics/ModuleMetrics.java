@@ -0,0 +1,217 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.metrics;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.processing.ProcessState;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution metrics of a module: how often it was started and how its runs ended, and a histogram of the wall time of
+ * its runs (in ns). A run starts with the change to "Running" and ends with the change to "Succeeded", "Failed" or
+ * "Stopped".
+ * <p>
+ * Modules only record metrics after they got an object of this class, e.g. by registering them at a
+ * <tt>MetricsRegistry</tt>. Otherwise recording costs a single read of a field per state change.
+ *
+ * @author PantherCode
+ */
+public class ModuleMetrics {
+
+    /**
+     * number of runs
+     */
+    private final LongAdder startCount = new LongAdder();
+
+    /**
+     * number of runs ended with "Succeeded"
+     */
+    private final LongAdder successCount = new LongAdder();
+
+    /**
+     * number of runs ended with "Failed"
+     */
+    private final LongAdder failureCount = new LongAdder();
+
+    /**
+     * number of runs ended with "Stopped"
+     */
+    private final LongAdder stopCount = new LongAdder();
+
+    /**
+     * wall time of finished runs (in ns)
+     */
+    private final Histogram wallTime;
+
+    /**
+     * Constructor
+     */
+    public ModuleMetrics() {
+        this.wallTime = new Histogram();
+    }
+
+    /**
+     * Copy Constructor
+     *
+     * @param metrics object to copy
+     * @throws NullPointerException Is thrown if value of metrics is null.
+     */
+    public ModuleMetrics(ModuleMetrics metrics)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(metrics, "metrics");
+
+        this.wallTime = new Histogram();
+
+        this.add(metrics);
+    }
+
+    /**
+     * Records the start of a run.
+     */
+    public void recordStart() {
+        this.startCount.increment();
+    }
+
+    /**
+     * Records the end of a run.
+     *
+     * @param state         final state of the run
+     * @param durationNanos wall time of the run (in ns)
+     */
+    public void recordFinish(ProcessState state, long durationNanos) {
+        if (state == ProcessState.SUCCEEDED) {
+            this.successCount.increment();
+        } else if (state == ProcessState.STOPPED) {
+            this.stopCount.increment();
+        } else {
+            this.failureCount.increment();
+        }
+
+        this.wallTime.record(durationNanos);
+    }
+
+    /**
+     * Returns the number of runs.
+     *
+     * @return Returns the number of runs.
+     */
+    public long getStartCount() {
+        return this.startCount.sum();
+    }
+
+    /**
+     * Returns the number of runs ended with "Succeeded".
+     *
+     * @return Returns the number of successful runs.
+     */
+    public long getSuccessCount() {
+        return this.successCount.sum();
+    }
+
+    /**
+     * Returns the number of runs ended with "Failed".
+     *
+     * @return Returns the number of failed runs.
+     */
+    public long getFailureCount() {
+        return this.failureCount.sum();
+    }
+
+    /**
+     * Returns the number of runs ended with "Stopped".
+     *
+     * @return Returns the number of stopped runs.
+     */
+    public long getStopCount() {
+        return this.stopCount.sum();
+    }
+
+    /**
+     * Returns the histogram of the wall time of finished runs (in ns).
+     *
+     * @return Returns the histogram of the wall time of finished runs.
+     */
+    public Histogram getWallTime() {
+        return this.wallTime;
+    }
+
+    /**
+     * Returns the wall time at the given percentile.
+     *
+     * @param percentile percentage between 0 and 100
+     * @param unit       time unit of the returned value
+     * @return Returns the wall time at the given percentile.
+     * @throws IllegalArgumentException Is thrown if value of percentile is less than zero or greater than 100.
+     * @throws NullPointerException     Is thrown if value of unit is null.
+     */
+    public long getWallTime(double percentile, TimeUnit unit)
+            throws IllegalArgumentException, NullPointerException {
+        ArgumentUtils.assertNotNull(unit, "time unit");
+
+        return unit.convert(this.wallTime.valueAtPercentile(percentile), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adds the values of other metrics, e.g. to aggregate the metrics of a module tree.
+     *
+     * @param metrics metrics to add
+     * @throws NullPointerException Is thrown if value of metrics is null.
+     */
+    public void add(ModuleMetrics metrics)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(metrics, "metrics");
+
+        this.startCount.add(metrics.getStartCount());
+        this.successCount.add(metrics.getSuccessCount());
+        this.failureCount.add(metrics.getFailureCount());
+        this.stopCount.add(metrics.getStopCount());
+        this.wallTime.add(metrics.wallTime);
+    }
+
+    /**
+     * Returns a copy of the actual values. Recording goes on while the copy is created.
+     *
+     * @return Returns a copy of the actual values.
+     */
+    public ModuleMetrics snapshot() {
+        return new ModuleMetrics(this);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        this.startCount.reset();
+        this.successCount.reset();
+        this.failureCount.reset();
+        this.stopCount.reset();
+        this.wallTime.reset();
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "starts = " + this.getStartCount() + ", succeeded = " + this.getSuccessCount() +
+                ", failed = " + this.getFailureCount() + ", stopped = " + this.getStopCount() +
+                ", wall time (ns) = [" + this.wallTime + "]";
+    }
+}
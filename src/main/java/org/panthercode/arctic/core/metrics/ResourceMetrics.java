@@ -0,0 +1,277 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.metrics;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.helper.priority.Priority;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage metrics of a resource: histograms of the time callers waited for the resource (in ns) per priority and of the
+ * time they held it (in ns), and histograms of the queue length and the saturation (in percent of the capacity in use)
+ * sampled at each acquire. Acquires failed by a timeout are counted separately.
+ * <p>
+ * Resources only record metrics after they got an object of this class, e.g. by registering them at a
+ * <tt>MetricsRegistry</tt>. Otherwise recording costs a single read of a field per acquire and release.
+ *
+ * @author PantherCode
+ */
+public class ResourceMetrics implements ResourceRecorder {
+
+    /**
+     * number of successful acquires
+     */
+    private final LongAdder acquireCount = new LongAdder();
+
+    /**
+     * number of acquires failed by a timeout
+     */
+    private final LongAdder timeoutCount = new LongAdder();
+
+    /**
+     * wait time of successful acquires (in ns), one histogram per priority
+     */
+    private final Histogram[] waitTime = new Histogram[Priority.values().length];
+
+    /**
+     * hold time of released resources (in ns)
+     */
+    private final Histogram holdTime = new Histogram();
+
+    /**
+     * number of waiting callers after each acquire
+     */
+    private final Histogram queueLength = new Histogram();
+
+    /**
+     * percentage of the capacity in use after each acquire
+     */
+    private final Histogram saturation = new Histogram();
+
+    /**
+     * Constructor
+     */
+    public ResourceMetrics() {
+        for (int i = 0; i < this.waitTime.length; i++) {
+            this.waitTime[i] = new Histogram();
+        }
+    }
+
+    /**
+     * Copy Constructor
+     *
+     * @param metrics object to copy
+     * @throws NullPointerException Is thrown if value of metrics is null.
+     */
+    public ResourceMetrics(ResourceMetrics metrics)
+            throws NullPointerException {
+        this();
+
+        ArgumentUtils.assertNotNull(metrics, "metrics");
+
+        this.add(metrics);
+    }
+
+    @Override
+    public void recordAcquire(Priority priority, long waitNanos, int queueLength, int available, int capacity) {
+        this.acquireCount.increment();
+        this.waitTime[priority.ordinal()].record(Math.max(0L, waitNanos));
+        this.queueLength.record(Math.max(0, queueLength));
+
+        if (capacity > 0) {
+            this.saturation.record(Math.max(0L, (capacity - available) * 100L / capacity));
+        }
+    }
+
+    @Override
+    public void recordTimeout(Priority priority, long waitNanos) {
+        this.timeoutCount.increment();
+    }
+
+    @Override
+    public void recordRelease(long holdNanos) {
+        this.holdTime.record(Math.max(0L, holdNanos));
+    }
+
+    /**
+     * Returns the number of successful acquires.
+     *
+     * @return Returns the number of successful acquires.
+     */
+    public long getAcquireCount() {
+        return this.acquireCount.sum();
+    }
+
+    /**
+     * Returns the number of acquires failed by a timeout.
+     *
+     * @return Returns the number of timeouts.
+     */
+    public long getTimeoutCount() {
+        return this.timeoutCount.sum();
+    }
+
+    /**
+     * Returns the histogram of the wait time of successful acquires with the given priority (in ns).
+     *
+     * @param priority priority of the acquires
+     * @return Returns the histogram of the wait time.
+     * @throws NullPointerException Is thrown if value of priority is null.
+     */
+    public Histogram getWaitTime(Priority priority)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(priority, "priority");
+
+        return this.waitTime[priority.ordinal()];
+    }
+
+    /**
+     * Returns the histogram of the wait time of all successful acquires (in ns).
+     *
+     * @return Returns a new histogram of the wait time.
+     */
+    public Histogram getWaitTime() {
+        Histogram histogram = new Histogram();
+
+        for (Histogram waitTime : this.waitTime) {
+            histogram.add(waitTime);
+        }
+
+        return histogram;
+    }
+
+    /**
+     * Returns the wait time of successful acquires with the given priority at the given percentile.
+     *
+     * @param priority   priority of the acquires
+     * @param percentile percentage between 0 and 100
+     * @param unit       time unit of the returned value
+     * @return Returns the wait time at the given percentile.
+     * @throws IllegalArgumentException Is thrown if value of percentile is less than zero or greater than 100.
+     * @throws NullPointerException     Is thrown if value of priority or unit is null.
+     */
+    public long getWaitTime(Priority priority, double percentile, TimeUnit unit)
+            throws IllegalArgumentException, NullPointerException {
+        ArgumentUtils.assertNotNull(unit, "time unit");
+
+        return unit.convert(this.getWaitTime(priority).valueAtPercentile(percentile), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the histogram of the hold time of released resources (in ns).
+     *
+     * @return Returns the histogram of the hold time.
+     */
+    public Histogram getHoldTime() {
+        return this.holdTime;
+    }
+
+    /**
+     * Returns the hold time at the given percentile.
+     *
+     * @param percentile percentage between 0 and 100
+     * @param unit       time unit of the returned value
+     * @return Returns the hold time at the given percentile.
+     * @throws IllegalArgumentException Is thrown if value of percentile is less than zero or greater than 100.
+     * @throws NullPointerException     Is thrown if value of unit is null.
+     */
+    public long getHoldTime(double percentile, TimeUnit unit)
+            throws IllegalArgumentException, NullPointerException {
+        ArgumentUtils.assertNotNull(unit, "time unit");
+
+        return unit.convert(this.holdTime.valueAtPercentile(percentile), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the histogram of the number of waiting callers sampled at each acquire.
+     *
+     * @return Returns the histogram of the queue length.
+     */
+    public Histogram getQueueLength() {
+        return this.queueLength;
+    }
+
+    /**
+     * Returns the histogram of the percentage of the capacity in use sampled at each acquire. A value of 100 means the
+     * resource was exhausted.
+     *
+     * @return Returns the histogram of the saturation.
+     */
+    public Histogram getSaturation() {
+        return this.saturation;
+    }
+
+    /**
+     * Adds the values of other metrics, e.g. to aggregate the metrics of all resources of a kind.
+     *
+     * @param metrics metrics to add
+     * @throws NullPointerException Is thrown if value of metrics is null.
+     */
+    public void add(ResourceMetrics metrics)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(metrics, "metrics");
+
+        this.acquireCount.add(metrics.getAcquireCount());
+        this.timeoutCount.add(metrics.getTimeoutCount());
+
+        for (int i = 0; i < this.waitTime.length; i++) {
+            this.waitTime[i].add(metrics.waitTime[i]);
+        }
+
+        this.holdTime.add(metrics.holdTime);
+        this.queueLength.add(metrics.queueLength);
+        this.saturation.add(metrics.saturation);
+    }
+
+    /**
+     * Returns a copy of the actual values. Recording goes on while the copy is created.
+     *
+     * @return Returns a copy of the actual values.
+     */
+    public ResourceMetrics snapshot() {
+        return new ResourceMetrics(this);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        this.acquireCount.reset();
+        this.timeoutCount.reset();
+
+        for (Histogram histogram : this.waitTime) {
+            histogram.reset();
+        }
+
+        this.holdTime.reset();
+        this.queueLength.reset();
+        this.saturation.reset();
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "acquires = " + this.getAcquireCount() + ", timeouts = " + this.getTimeoutCount() +
+                ", wait time (ns) = [" + this.getWaitTime() + "], hold time (ns) = [" + this.holdTime +
+                "], queue length = [" + this.queueLength + "], saturation (%) = [" + this.saturation + "]";
+    }
+}
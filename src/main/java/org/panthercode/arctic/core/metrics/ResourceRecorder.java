@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.metrics;
+
+import org.panthercode.arctic.core.helper.priority.Priority;
+
+/**
+ * Receives the usage of a resource: how long callers waited for it, how long they held it and how saturated it was.
+ * <tt>ResourceMetrics</tt> records the values to histograms; other implementations may pass them to an external
+ * monitoring system.
+ * <p>
+ * The methods are called on the threads using the resource, so implementations must be thread-safe and return quickly.
+ *
+ * @author PantherCode
+ */
+public interface ResourceRecorder {
+
+    /**
+     * Records a successful acquire.
+     *
+     * @param priority    priority the resource was acquired with
+     * @param waitNanos   time the caller waited for the resource (in ns)
+     * @param queueLength number of callers still waiting after the acquire
+     * @param available   number of available permits after the acquire
+     * @param capacity    capacity of the resource
+     */
+    void recordAcquire(Priority priority, long waitNanos, int queueLength, int available, int capacity);
+
+    /**
+     * Records an acquire, which failed because of a timeout.
+     *
+     * @param priority  priority the resource should be acquired with
+     * @param waitNanos time the caller waited for the resource (in ns)
+     */
+    void recordTimeout(Priority priority, long waitNanos);
+
+    /**
+     * Records a release.
+     *
+     * @param holdNanos time the caller held the resource (in ns)
+     */
+    void recordRelease(long holdNanos);
+}
@@ -0,0 +1,6 @@
+/**
+ * Classes to measure the execution of modules and resources with low overhead.
+ *
+ * @author PantherCode
+ */
+package org.panthercode.arctic.core.metrics;
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factory creating numbered daemon threads. It's used by the internal fallback pools, so an unused pool doesn't
+ * prevent the application from exiting.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    /**
+     * prefix of the thread names
+     */
+    private final String prefix;
+
+    /**
+     * number of the last created thread
+     */
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * Constructor
+     *
+     * @param prefix prefix of the thread names; the number of the thread is appended
+     * @throws NullPointerException Is thrown if value of prefix is null.
+     */
+    public DaemonThreadFactory(String prefix)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(prefix, "prefix");
+
+        this.prefix = prefix;
+    }
+
+    /**
+     * Creates a new daemon thread.
+     *
+     * @param runnable task the thread executes
+     * @return Returns a new daemon thread.
+     */
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, this.prefix + this.counter.incrementAndGet());
+        thread.setDaemon(true);
+
+        return thread;
+    }
+}
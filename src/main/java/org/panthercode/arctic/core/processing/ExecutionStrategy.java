@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Enumeration of strategies to execute modules concurrently. It's used to choose the kind of threads the children of a
+ * module are running on.
+ * <p>
+ * Modules, which block most of their time (e.g. waiting for I/O), should prefer virtual threads. They are only
+ * available since Java 21. On older runtimes the strategy falls back to a pool of platform threads, which grows on
+ * demand.
+ */
+public enum ExecutionStrategy {
+    /**
+     * A fixed number of platform threads stealing work from each other.
+     */
+    WORK_STEALING("Work Stealing"),
+
+    /**
+     * Every task gets its own virtual thread.
+     */
+    VIRTUAL_THREAD("Virtual Thread");
+
+    /**
+     * name of system property to choose the default strategy
+     */
+    public static final String PROPERTY_KEY = "arctic.execution.strategy";
+
+    /**
+     * factory method of virtual thread executors or <tt>null</tt> if the runtime doesn't support virtual threads
+     */
+    private static final Method VIRTUAL_THREAD_FACTORY = lookupVirtualThreadFactory();
+
+    /**
+     * string value of strategy
+     */
+    private final String value;
+
+    /**
+     * Constructor
+     *
+     * @param value value of strategy
+     */
+    ExecutionStrategy(final String value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the strategy set by the system property <tt>arctic.execution.strategy</tt>. If the property isn't set or
+     * has no valid value, "Work Stealing" is returned.
+     *
+     * @return Returns the default strategy.
+     */
+    public static ExecutionStrategy getDefault() {
+        String name = System.getProperty(PROPERTY_KEY);
+
+        if (name != null) {
+            for (ExecutionStrategy strategy : values()) {
+                if (strategy.name().equalsIgnoreCase(name.trim())) {
+                    return strategy;
+                }
+            }
+        }
+
+        return WORK_STEALING;
+    }
+
+    /**
+     * Returns whether the strategy runs on the actual runtime as intended or uses a fallback.
+     *
+     * @return Returns <tt>true</tt> if the strategy is supported; Otherwise <tt>false</tt>.
+     */
+    public boolean isSupported() {
+        return this != VIRTUAL_THREAD || VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    /**
+     * Creates a new executor working with this strategy.
+     *
+     * @param parallelism number of threads used by the work-stealing strategy. Virtual threads ignore this value.
+     * @return Returns a new executor.
+     * @throws IllegalArgumentException Is thrown if value of parallelism is zero or less.
+     */
+    public ExecutorService createExecutor(int parallelism)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(parallelism, "parallelism");
+
+        if (this == WORK_STEALING) {
+            return new ForkJoinPool(parallelism);
+        }
+
+        if (VIRTUAL_THREAD_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // fall through and use platform threads
+            }
+        }
+
+        return Executors.newCachedThreadPool(new DaemonThreadFactory("arctic-execution-"));
+    }
+
+    /**
+     * Returns a string representing the execution strategy.
+     *
+     * @return Returns a string representing the execution strategy.
+     */
+    public String value() {
+        return this.value;
+    }
+
+    /**
+     * Returns a string representing the execution strategy.
+     *
+     * @return Returns a string representing the execution strategy.
+     */
+    @Override
+    public String toString() {
+        return this.value;
+    }
+
+    /**
+     * Searches for <tt>Executors.newVirtualThreadPerTaskExecutor()</tt>. The library is compiled for Java 8, therefore
+     * the method is only called via reflection.
+     *
+     * @return Returns the factory method or <tt>null</tt> if it's not available.
+     */
+    private static Method lookupVirtualThreadFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
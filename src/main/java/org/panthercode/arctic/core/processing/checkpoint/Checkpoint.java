@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.checkpoint;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Progress of a process at a certain point in time: the number of modules, which finished successfully, and a
+ * snapshot of the process' context. Checkpoints are immutable.
+ *
+ * @author PantherCode
+ */
+public final class Checkpoint {
+
+    /**
+     * key the checkpoint is stored with
+     */
+    private final String key;
+
+    /**
+     * number of modules, which finished successfully
+     */
+    private final int index;
+
+    /**
+     * total number of modules of the process
+     */
+    private final int moduleCount;
+
+    /**
+     * point in time the checkpoint was created (in ms since epoch)
+     */
+    private final long timestamp;
+
+    /**
+     * snapshot of the process' context
+     */
+    private final Map<Object, Object> context;
+
+    /**
+     * Constructor
+     *
+     * @param key         key the checkpoint is stored with
+     * @param index       number of modules, which finished successfully
+     * @param moduleCount total number of modules of the process
+     * @param timestamp   point in time the checkpoint was created (in ms since epoch)
+     * @param context     snapshot of the process' context
+     * @throws NullPointerException     Is thrown if value of key or context is null.
+     * @throws IllegalArgumentException Is thrown if value of index is less than zero or greater than moduleCount.
+     */
+    public Checkpoint(String key, int index, int moduleCount, long timestamp, Map<?, ?> context)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(context, "context");
+        ArgumentUtils.assertGreaterOrEqualsZero(index, "index");
+
+        if (index > moduleCount) {
+            throw new IllegalArgumentException("The index must not be greater than the number of modules.");
+        }
+
+        this.key = key;
+        this.index = index;
+        this.moduleCount = moduleCount;
+        this.timestamp = timestamp;
+        this.context = Collections.unmodifiableMap(new HashMap<Object, Object>(context));
+    }
+
+    /**
+     * Returns the key the checkpoint is stored with.
+     *
+     * @return Returns the key the checkpoint is stored with.
+     */
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Returns the number of modules, which finished successfully. It's equals to the index of the module to resume
+     * with.
+     *
+     * @return Returns the number of modules, which finished successfully.
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Returns the total number of modules of the process at the time the checkpoint was created.
+     *
+     * @return Returns the total number of modules of the process.
+     */
+    public int getModuleCount() {
+        return this.moduleCount;
+    }
+
+    /**
+     * Returns the point in time the checkpoint was created.
+     *
+     * @return Returns the point in time the checkpoint was created (in ms since epoch).
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Returns the snapshot of the process' context.
+     *
+     * @return Returns an unmodifiable snapshot of the process' context.
+     */
+    public Map<Object, Object> getContext() {
+        return this.context;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "key = " + this.key
+                + ", index = " + this.index
+                + ", module count = " + this.moduleCount
+                + ", timestamp = " + this.timestamp;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.checkpoint;
+
+import java.io.IOException;
+
+/**
+ * A checkpoint store keeps the latest checkpoint of each process. Processes are identified by a key chosen by the
+ * user, because the identity of a module changes with every start of the application.
+ *
+ * @author PantherCode
+ */
+public interface CheckpointStore {
+
+    /**
+     * Stores a checkpoint. An older checkpoint with the same key is replaced.
+     *
+     * @param checkpoint checkpoint to store
+     * @throws NullPointerException Is thrown if value of checkpoint is null.
+     * @throws IOException          Is thrown if the checkpoint can't be stored.
+     */
+    void save(Checkpoint checkpoint) throws NullPointerException, IOException;
+
+    /**
+     * Returns the latest checkpoint stored with the given key.
+     *
+     * @param key key of the checkpoint
+     * @return Returns the latest checkpoint or <tt>null</tt> if no checkpoint is stored with the key.
+     * @throws NullPointerException Is thrown if value of key is null.
+     * @throws IOException          Is thrown if the checkpoint can't be read.
+     */
+    Checkpoint load(String key) throws NullPointerException, IOException;
+
+    /**
+     * Removes the checkpoint stored with the given key.
+     *
+     * @param key key of the checkpoint
+     * @throws NullPointerException Is thrown if value of key is null.
+     * @throws IOException          Is thrown if the checkpoint can't be removed.
+     */
+    void remove(String key) throws NullPointerException, IOException;
+}
@@ -0,0 +1,470 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.checkpoint;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Checkpoint store writing to a local append-only file. Each call of <tt>save()</tt> or <tt>remove()</tt> appends a
+ * single record, so storing a checkpoint never rewrites older ones. The latest checkpoint of each key is kept in
+ * memory as well, therefore <tt>load()</tt> doesn't access the file.
+ * <p>
+ * Each record is protected by a checksum. If the application crashed while writing a record, the incomplete record is
+ * discarded when the file is opened again. If the file contains much more records than keys, it's compacted by writing
+ * a new file, which replaces the old one atomically.
+ * <p>
+ * The context of a checkpoint is stored by Java serialization. Entries, whose key or value can't be serialized, are
+ * skipped.
+ *
+ * @author PantherCode
+ */
+public class FileCheckpointStore implements CheckpointStore, Closeable {
+
+    /**
+     * type of records storing a checkpoint
+     */
+    private static final byte SAVE = 1;
+
+    /**
+     * type of records removing a checkpoint
+     */
+    private static final byte REMOVE = 2;
+
+    /**
+     * minimal number of records before the file is compacted
+     */
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    /**
+     * size of a record's header: length and checksum of the payload
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * file the records are written to
+     */
+    private final Path file;
+
+    /**
+     * flag whether each record is forced to the storage device or not
+     */
+    private final boolean sync;
+
+    /**
+     * latest checkpoint of each key
+     */
+    private final Map<String, Checkpoint> checkpoints = new LinkedHashMap<>();
+
+    /**
+     * channel to append records to
+     */
+    private FileChannel channel;
+
+    /**
+     * number of records in the file
+     */
+    private int records = 0;
+
+    /**
+     * Constructor. Each record is forced to the storage device before <tt>save()</tt> returns.
+     *
+     * @param file file to store the checkpoints in
+     * @throws NullPointerException Is thrown if value of file is null.
+     * @throws IOException          Is thrown if the file can't be opened or read.
+     */
+    public FileCheckpointStore(Path file)
+            throws NullPointerException, IOException {
+        this(file, true);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param file file to store the checkpoints in
+     * @param sync flag whether each record is forced to the storage device or not. Without syncing a crash of the
+     *             operating system may lose the latest checkpoints, but storing them is much faster.
+     * @throws NullPointerException Is thrown if value of file is null.
+     * @throws IOException          Is thrown if the file can't be opened or read.
+     */
+    public FileCheckpointStore(Path file, boolean sync)
+            throws NullPointerException, IOException {
+        ArgumentUtils.assertNotNull(file, "file");
+
+        this.file = file;
+        this.sync = sync;
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        this.recover();
+    }
+
+    /**
+     * Returns the file the checkpoints are stored in.
+     *
+     * @return Returns the file the checkpoints are stored in.
+     */
+    public Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * Stores a checkpoint by appending a record to the file.
+     *
+     * @param checkpoint checkpoint to store
+     * @throws NullPointerException Is thrown if value of checkpoint is null.
+     * @throws IOException          Is thrown if the record can't be written.
+     */
+    @Override
+    public synchronized void save(final Checkpoint checkpoint)
+            throws NullPointerException, IOException {
+        ArgumentUtils.assertNotNull(checkpoint, "checkpoint");
+
+        this.append(encode(checkpoint));
+
+        this.checkpoints.put(checkpoint.getKey(), checkpoint);
+
+        this.compactIfNeeded();
+    }
+
+    /**
+     * Returns the latest checkpoint stored with the given key.
+     *
+     * @param key key of the checkpoint
+     * @return Returns the latest checkpoint or <tt>null</tt> if no checkpoint is stored with the key.
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    @Override
+    public synchronized Checkpoint load(final String key)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(key, "key");
+
+        return this.checkpoints.get(key);
+    }
+
+    /**
+     * Removes the checkpoint stored with the given key by appending a record to the file.
+     *
+     * @param key key of the checkpoint
+     * @throws NullPointerException Is thrown if value of key is null.
+     * @throws IOException          Is thrown if the record can't be written.
+     */
+    @Override
+    public synchronized void remove(final String key)
+            throws NullPointerException, IOException {
+        ArgumentUtils.assertNotNull(key, "key");
+
+        if (this.checkpoints.remove(key) == null) {
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeByte(REMOVE);
+        out.writeUTF(key);
+        out.flush();
+
+        this.append(bytes.toByteArray());
+
+        this.compactIfNeeded();
+    }
+
+    /**
+     * Returns the number of stored checkpoints.
+     *
+     * @return Returns the number of stored checkpoints.
+     */
+    public synchronized int size() {
+        return this.checkpoints.size();
+    }
+
+    /**
+     * Rewrites the file, so it only contains the latest checkpoint of each key. The new file replaces the old one
+     * atomically, if the file system supports it. The old file stays in use until it's replaced, so the store can be
+     * used further on if compacting fails.
+     *
+     * @throws IOException Is thrown if the file can't be written.
+     */
+    public synchronized void compact()
+            throws IOException {
+        Path temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+
+        try {
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (Checkpoint checkpoint : this.checkpoints.values()) {
+                    write(out, encode(checkpoint));
+                }
+
+                out.force(true);
+            }
+
+            try {
+                Files.move(temporary, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+
+            throw e;
+        }
+
+        FileChannel compacted = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        compacted.position(compacted.size());
+
+        FileChannel previous = this.channel;
+
+        this.channel = compacted;
+
+        this.records = this.checkpoints.size();
+
+        previous.close();
+    }
+
+    /**
+     * Closes the file. The store can't be used afterwards.
+     *
+     * @throws IOException Is thrown if the file can't be closed.
+     */
+    @Override
+    public synchronized void close()
+            throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Reads all records of the file. Reading stops at the first incomplete or corrupted record, which is cut off.
+     */
+    private void recover()
+            throws IOException {
+        long size = this.channel.size();
+        long position = 0L;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(this.channel, header, position);
+            header.flip();
+
+            int length = header.getInt();
+            int checksum = header.getInt();
+
+            if (length <= 0 || position + HEADER_SIZE + length > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(this.channel, payload, position + HEADER_SIZE);
+
+            if (checksum(payload.array()) != checksum || !this.apply(payload.array())) {
+                break;
+            }
+
+            position += HEADER_SIZE + length;
+
+            this.records++;
+        }
+
+        if (position < size) {
+            this.channel.truncate(position);
+        }
+
+        this.channel.position(position);
+
+        this.compactIfNeeded();
+    }
+
+    /**
+     * Applies a record read from the file to the checkpoints in memory.
+     *
+     * @return Returns <tt>true</tt> if the record is valid; Otherwise <tt>false</tt>.
+     */
+    private boolean apply(byte[] payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+
+            byte type = in.readByte();
+            String key = in.readUTF();
+
+            if (type == REMOVE) {
+                this.checkpoints.remove(key);
+
+                return true;
+            }
+
+            if (type != SAVE) {
+                return false;
+            }
+
+            int index = in.readInt();
+            int moduleCount = in.readInt();
+            long timestamp = in.readLong();
+            int entries = in.readInt();
+
+            Map<Object, Object> context = new HashMap<>();
+
+            for (int i = 0; i < entries; i++) {
+                byte[] entry = new byte[in.readInt()];
+                in.readFully(entry);
+
+                try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(entry))) {
+                    context.put(objects.readObject(), objects.readObject());
+                } catch (ClassNotFoundException e) {
+                    // the class of the entry isn't available any longer, so the entry is skipped
+                }
+            }
+
+            this.checkpoints.remove(key);
+            this.checkpoints.put(key, new Checkpoint(key, index, moduleCount, timestamp, context));
+
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void append(byte[] payload)
+            throws IOException {
+        write(this.channel, payload);
+
+        if (this.sync) {
+            this.channel.force(false);
+        }
+
+        this.records++;
+    }
+
+    private void compactIfNeeded()
+            throws IOException {
+        if (this.records >= COMPACTION_THRESHOLD && this.records > 4 * this.checkpoints.size()) {
+            this.compact();
+        }
+    }
+
+    private static byte[] encode(Checkpoint checkpoint)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeByte(SAVE);
+        out.writeUTF(checkpoint.getKey());
+        out.writeInt(checkpoint.getIndex());
+        out.writeInt(checkpoint.getModuleCount());
+        out.writeLong(checkpoint.getTimestamp());
+
+        List<byte[]> entries = new ArrayList<>();
+
+        for (Map.Entry<Object, Object> entry : checkpoint.getContext().entrySet()) {
+            byte[] serialized = serialize(entry.getKey(), entry.getValue());
+
+            if (serialized != null) {
+                entries.add(serialized);
+            }
+        }
+
+        out.writeInt(entries.size());
+
+        for (byte[] entry : entries) {
+            out.writeInt(entry.length);
+            out.write(entry);
+        }
+
+        out.flush();
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Serializes a single entry of a context.
+     *
+     * @return Returns the serialized entry or <tt>null</tt> if it can't be serialized.
+     */
+    private static byte[] serialize(Object key, Object value) {
+        if (!(key instanceof Serializable) || (value != null && !(value instanceof Serializable))) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(key);
+            out.writeObject(value);
+        } catch (IOException e) {
+            return null;
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static void write(FileChannel channel, byte[] payload)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+
+        buffer.putInt(payload.length);
+        buffer.putInt(checksum(payload));
+        buffer.put(payload);
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+
+            if (read < 0) {
+                throw new IOException("Unexpected end of file.");
+            }
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+
+        crc.update(payload, 0, payload.length);
+
+        return (int) crc.getValue();
+    }
+}
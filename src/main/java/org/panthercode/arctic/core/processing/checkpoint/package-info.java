@@ -0,0 +1,7 @@
+/**
+ * Classes to store the progress of processes persistently, so a failed or interrupted process can resume instead of
+ * starting all over again.
+ *
+ * @author PantherCode
+ */
+package org.panthercode.arctic.core.processing.checkpoint;
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.events;
+
+/**
+ * Enumeration of policies, which decide what happens to an event if the buffer of a subscription is full, because its
+ * handler can't keep up with the publishers.
+ *
+ * @author PantherCode
+ */
+public enum BackPressurePolicy {
+    /**
+     * The event is discarded. Publishers are never delayed.
+     */
+    DROP("Drop"),
+
+    /**
+     * The publisher waits until the buffer has space again. The handler sees every event, but a slow handler slows
+     * down the modules changing their state.
+     */
+    BLOCK("Block"),
+
+    /**
+     * The events are merged per module, so the handler sees the first old state and the last new state of each module.
+     * Publishers are never delayed and the handler doesn't miss the latest state of any module.
+     */
+    COALESCE("Coalesce");
+
+    /**
+     * string value of policy
+     */
+    private final String value;
+
+    /**
+     * Constructor
+     *
+     * @param value value of policy
+     */
+    BackPressurePolicy(final String value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns a string representing the policy.
+     *
+     * @return Returns a string representing the policy.
+     */
+    public String value() {
+        return this.value;
+    }
+
+    /**
+     * Returns a string representing the policy.
+     *
+     * @return Returns a string representing the policy.
+     */
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
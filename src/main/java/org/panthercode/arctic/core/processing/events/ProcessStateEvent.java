@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.events;
+
+import org.panthercode.arctic.core.processing.ProcessState;
+
+/**
+ * Event raised by a module, which changed its process state. The event only contains the module's id and no reference
+ * to the module itself, so keeping events doesn't keep modules alive.
+ * <p>
+ * The event bus preallocates its events and reuses them. A handler must not keep an event after <tt>onEvent()</tt>
+ * returned. Use <tt>copy()</tt> to keep it.
+ *
+ * @author PantherCode
+ */
+public final class ProcessStateEvent {
+
+    /**
+     * id of the module's identity
+     */
+    private long moduleId;
+
+    /**
+     * state of the module before the change
+     */
+    private ProcessState oldState;
+
+    /**
+     * state of the module after the change
+     */
+    private ProcessState newState;
+
+    /**
+     * point in time the state changed (<tt>System.nanoTime()</tt>)
+     */
+    private long timestamp;
+
+    /**
+     * Constructor
+     */
+    ProcessStateEvent() {
+    }
+
+    /**
+     * Constructor
+     *
+     * @param moduleId  id of the module's identity
+     * @param oldState  state of the module before the change
+     * @param newState  state of the module after the change
+     * @param timestamp point in time the state changed (<tt>System.nanoTime()</tt>)
+     */
+    public ProcessStateEvent(long moduleId, ProcessState oldState, ProcessState newState, long timestamp) {
+        this.set(moduleId, oldState, newState, timestamp);
+    }
+
+    /**
+     * Returns the id of the module's identity.
+     *
+     * @return Returns the id of the module's identity.
+     */
+    public long getModuleId() {
+        return this.moduleId;
+    }
+
+    /**
+     * Returns the state of the module before the change.
+     *
+     * @return Returns the state of the module before the change.
+     */
+    public ProcessState getOldState() {
+        return this.oldState;
+    }
+
+    /**
+     * Returns the state of the module after the change.
+     *
+     * @return Returns the state of the module after the change.
+     */
+    public ProcessState getNewState() {
+        return this.newState;
+    }
+
+    /**
+     * Returns the point in time the state changed. The value is based on <tt>System.nanoTime()</tt>.
+     *
+     * @return Returns the point in time the state changed.
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Creates a copy of this object.
+     *
+     * @return Returns a copy of this object.
+     */
+    public ProcessStateEvent copy() {
+        return new ProcessStateEvent(this.moduleId, this.oldState, this.newState, this.timestamp);
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "module = " + this.moduleId + ", old state = " + this.oldState + ", new state = " + this.newState +
+                ", timestamp = " + this.timestamp;
+    }
+
+    void set(long moduleId, ProcessState oldState, ProcessState newState, long timestamp) {
+        this.moduleId = moduleId;
+        this.oldState = oldState;
+        this.newState = newState;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Merges a later event of the same module into a new event.
+     */
+    ProcessStateEvent coalesce(ProcessStateEvent later) {
+        return new ProcessStateEvent(this.moduleId, this.oldState, later.newState, later.timestamp);
+    }
+}
@@ -0,0 +1,496 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.events;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.ProcessStateHandler;
+import org.panthercode.arctic.core.processing.modules.Module;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The event bus decouples <tt>ProcessStateHandler</tt>-like work from the modules. Publishing an event only copies a
+ * few values into a preallocated slot of a lock-free ring buffer. Each subscriber owns such a buffer and a thread,
+ * which hands the events over to its handler in batches. So a slow handler never stalls a module, as long as its
+ * back-pressure policy isn't <tt>BLOCK</tt>.
+ * <p>
+ * A module publishes its state changes after <tt>setEventBus()</tt> was called. The bus can also be added as
+ * <tt>ProcessStateHandler</tt> to any other module.
+ * <p>
+ * State changes of different threads are published concurrently, so their events may arrive in a different order than
+ * the state changes occurred. Compare the timestamps if the order matters.
+ *
+ * @author PantherCode
+ */
+public class ProcessStateEventBus implements ProcessStateHandler {
+
+    /**
+     * default number of events a subscription can buffer
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    /**
+     * bus shared by all modules
+     */
+    private static ProcessStateEventBus defaultBus = null;
+
+    /**
+     * counter to name the consumer threads
+     */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * active subscriptions
+     */
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Returns the bus shared by all modules.
+     *
+     * @return Returns the bus shared by all modules.
+     */
+    public static synchronized ProcessStateEventBus getDefault() {
+        if (defaultBus == null) {
+            defaultBus = new ProcessStateEventBus();
+        }
+
+        return defaultBus;
+    }
+
+    /**
+     * Set a new bus shared by all modules. The old bus isn't shut down.
+     *
+     * @param bus new shared bus
+     * @throws NullPointerException Is thrown if value of bus is null.
+     */
+    public static synchronized void setDefault(ProcessStateEventBus bus)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(bus, "event bus");
+
+        defaultBus = bus;
+    }
+
+    /**
+     * Subscribes a handler with a buffer of 1024 events. Events are dropped if the buffer is full.
+     *
+     * @param handler handler to consume the events
+     * @return Returns the new subscription.
+     * @throws NullPointerException Is thrown if value of handler is null.
+     */
+    public Subscription subscribe(ProcessStateEventHandler handler)
+            throws NullPointerException {
+        return this.subscribe(handler, DEFAULT_BUFFER_SIZE, BackPressurePolicy.DROP);
+    }
+
+    /**
+     * Subscribes a handler. The handler is called by a thread of its own, which is started immediately.
+     *
+     * @param handler    handler to consume the events
+     * @param bufferSize number of events the subscription can buffer; it's rounded up to the next power of two, but
+     *                   at least two
+     * @param policy     policy to apply if the buffer is full
+     * @return Returns the new subscription.
+     * @throws NullPointerException     Is thrown if value of handler or policy is null.
+     * @throws IllegalArgumentException Is thrown if value of bufferSize is zero or less or greater than 2^30.
+     */
+    public Subscription subscribe(ProcessStateEventHandler handler, int bufferSize, BackPressurePolicy policy)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(handler, "handler");
+        ArgumentUtils.assertNotNull(policy, "policy");
+        ArgumentUtils.assertLimits(bufferSize, 1, 1 << 30, "buffer size");
+
+        Subscription subscription = new Subscription(this, handler, bufferSize, policy);
+
+        this.subscriptions.add(subscription);
+
+        subscription.consumer.start();
+
+        return subscription;
+    }
+
+    /**
+     * Publishes a state change to all subscriptions.
+     *
+     * @param moduleId id of the module's identity
+     * @param oldState state of the module before the change
+     * @param newState state of the module after the change
+     */
+    public void publish(long moduleId, ProcessState oldState, ProcessState newState) {
+        long timestamp = System.nanoTime();
+
+        for (Subscription subscription : this.subscriptions) {
+            subscription.publish(moduleId, oldState, newState, timestamp);
+        }
+    }
+
+    /**
+     * Publishes the state change of a module, which added the bus as <tt>ProcessStateHandler</tt>. Modules calling
+     * <tt>publish()</tt> directly are preferred, because the handler reads the new state afterwards.
+     *
+     * @param module   module, that raised the event
+     * @param oldState state of object before change
+     */
+    @Override
+    public void handle(Module module, ProcessState oldState) {
+        if (!this.subscriptions.isEmpty()) {
+            this.publish(module.identity().id(), oldState, module.state());
+        }
+    }
+
+    /**
+     * Returns whether the bus has any subscription or not.
+     *
+     * @return Returns <tt>true</tt> if at least one handler is subscribed; Otherwise <tt>false</tt>.
+     */
+    public boolean hasSubscriptions() {
+        return !this.subscriptions.isEmpty();
+    }
+
+    /**
+     * Closes all subscriptions. Their threads handle the buffered events and terminate afterwards.
+     */
+    public void shutdown() {
+        for (Subscription subscription : this.subscriptions) {
+            subscription.close();
+        }
+    }
+
+    /**
+     * A handler subscribed to the bus. The events are buffered in a bounded multi-producer ring buffer: each slot has a
+     * sequence number, which tells whether the slot is free for a publisher or holds an event for the consumer. So
+     * publishers only compete for the next slot by compare-and-set and the consumer never takes a lock.
+     */
+    public static final class Subscription {
+
+        private final ProcessStateEventBus bus;
+
+        private final ProcessStateEventHandler handler;
+
+        private final BackPressurePolicy policy;
+
+        private final int mask;
+
+        private final ProcessStateEvent[] events;
+
+        private final AtomicLongArray sequences;
+
+        private final AtomicLong tail = new AtomicLong();
+
+        private final Map<Long, ProcessStateEvent> overflow = new ConcurrentHashMap<>();
+
+        private final AtomicLong droppedCount = new AtomicLong();
+
+        private final AtomicLong failedCount = new AtomicLong();
+
+        private final Thread consumer;
+
+        private volatile boolean isClosed = false;
+
+        private volatile boolean isSleeping = false;
+
+        /**
+         * next sequence the consumer reads; only accessed by the consumer thread
+         */
+        private long head = 0L;
+
+        private Subscription(ProcessStateEventBus bus, ProcessStateEventHandler handler, int bufferSize,
+                             BackPressurePolicy policy) {
+            // a slot's sequence can't tell "full" from "free" with a single slot
+            int capacity = Math.max(2, Integer.highestOneBit(bufferSize) == bufferSize
+                    ? bufferSize : Integer.highestOneBit(bufferSize) << 1);
+
+            this.bus = bus;
+            this.handler = handler;
+            this.policy = policy;
+            this.mask = capacity - 1;
+            this.events = new ProcessStateEvent[capacity];
+            this.sequences = new AtomicLongArray(capacity);
+
+            for (int i = 0; i < capacity; i++) {
+                this.events[i] = new ProcessStateEvent();
+                this.sequences.set(i, i);
+            }
+
+            this.consumer = new Thread(new Consumer(), "arctic-event-" + THREAD_COUNTER.incrementAndGet());
+            this.consumer.setDaemon(true);
+        }
+
+        /**
+         * Returns the handler consuming the events.
+         *
+         * @return Returns the handler consuming the events.
+         */
+        public ProcessStateEventHandler getHandler() {
+            return this.handler;
+        }
+
+        /**
+         * Returns the policy applied if the buffer is full.
+         *
+         * @return Returns the policy applied if the buffer is full.
+         */
+        public BackPressurePolicy getPolicy() {
+            return this.policy;
+        }
+
+        /**
+         * Returns the number of events the subscription can buffer.
+         *
+         * @return Returns the number of events the subscription can buffer.
+         */
+        public int getBufferSize() {
+            return this.events.length;
+        }
+
+        /**
+         * Returns the number of events, which were discarded because the buffer was full or the subscription closed.
+         *
+         * @return Returns the number of discarded events.
+         */
+        public long getDroppedCount() {
+            return this.droppedCount.get();
+        }
+
+        /**
+         * Returns the number of events, whose handling has thrown an exception.
+         *
+         * @return Returns the number of failed events.
+         */
+        public long getFailedCount() {
+            return this.failedCount.get();
+        }
+
+        /**
+         * Returns whether the subscription is closed or not.
+         *
+         * @return Returns <tt>true</tt> if the subscription is closed; Otherwise <tt>false</tt>.
+         */
+        public boolean isClosed() {
+            return this.isClosed;
+        }
+
+        /**
+         * Removes the subscription from the bus. The thread handles the buffered events and terminates afterwards.
+         */
+        public void close() {
+            this.isClosed = true;
+
+            this.bus.subscriptions.remove(this);
+
+            LockSupport.unpark(this.consumer);
+        }
+
+        /**
+         * Waits until the thread of the subscription terminated after closing.
+         *
+         * @param timeout maximal time to wait
+         * @param unit    time unit of timeout
+         * @return Returns <tt>true</tt> if the thread terminated; Otherwise <tt>false</tt>.
+         * @throws InterruptedException Is thrown if the current thread is interrupted while waiting.
+         */
+        public boolean awaitTermination(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            this.consumer.join(Math.max(1L, unit.toMillis(timeout)));
+
+            return !this.consumer.isAlive();
+        }
+
+        private void publish(long moduleId, ProcessState oldState, ProcessState newState, long timestamp) {
+            if (this.isClosed) {
+                this.droppedCount.incrementAndGet();
+
+                return;
+            }
+
+            if (this.policy == BackPressurePolicy.COALESCE && !this.overflow.isEmpty()) {
+                this.coalesce(moduleId, oldState, newState, timestamp);
+            } else if (!this.offer(moduleId, oldState, newState, timestamp)) {
+                switch (this.policy) {
+                    case BLOCK:
+                        while (!this.offer(moduleId, oldState, newState, timestamp)) {
+                            if (this.isClosed) {
+                                this.droppedCount.incrementAndGet();
+
+                                return;
+                            }
+
+                            LockSupport.parkNanos(this, 1000L);
+                        }
+
+                        break;
+                    case COALESCE:
+                        this.coalesce(moduleId, oldState, newState, timestamp);
+                        break;
+                    default:
+                        this.droppedCount.incrementAndGet();
+                        return;
+                }
+            }
+
+            if (this.isSleeping) {
+                LockSupport.unpark(this.consumer);
+            }
+        }
+
+        /**
+         * Claims the next free slot and fills it.
+         *
+         * @return Returns <tt>false</tt> if the buffer is full; Otherwise <tt>true</tt>.
+         */
+        private boolean offer(long moduleId, ProcessState oldState, ProcessState newState, long timestamp) {
+            long sequence;
+            int index;
+
+            for (; ; ) {
+                sequence = this.tail.get();
+                index = (int) (sequence & this.mask);
+
+                long difference = this.sequences.get(index) - sequence;
+
+                if (difference == 0L) {
+                    if (this.tail.compareAndSet(sequence, sequence + 1)) {
+                        break;
+                    }
+                } else if (difference < 0L) {
+                    return false;
+                }
+            }
+
+            this.events[index].set(moduleId, oldState, newState, timestamp);
+
+            // the volatile write publishes the event and orders it before reading the consumer's sleeping flag
+            this.sequences.set(index, sequence + 1);
+
+            return true;
+        }
+
+        private void coalesce(long moduleId, ProcessState oldState, ProcessState newState, long timestamp) {
+            this.overflow.merge(moduleId, new ProcessStateEvent(moduleId, oldState, newState, timestamp),
+                    ProcessStateEvent::coalesce);
+        }
+
+        private boolean isAvailable(long sequence) {
+            return this.sequences.get((int) (sequence & this.mask)) == sequence + 1;
+        }
+
+        private void handle(ProcessStateEvent event, boolean endOfBatch) {
+            try {
+                this.handler.onEvent(event, endOfBatch);
+            } catch (Exception e) {
+                this.failedCount.incrementAndGet();
+
+                try {
+                    this.handler.onException(event, e);
+                } catch (RuntimeException ex) {
+                    // the handler must not stop the consumer thread
+                }
+            }
+        }
+
+        /**
+         * Handles all available events of the ring buffer.
+         *
+         * @return Returns the number of handled events.
+         */
+        private int drainBuffer() {
+            int count = 0;
+
+            while (this.isAvailable(this.head)) {
+                int index = (int) (this.head & this.mask);
+
+                this.handle(this.events[index], !this.isAvailable(this.head + 1) && this.overflow.isEmpty());
+
+                this.sequences.set(index, this.head + this.events.length);
+
+                this.head++;
+                count++;
+            }
+
+            return count;
+        }
+
+        /**
+         * Handles all coalesced events. They are newer than the events of the ring buffer, so they are handled after
+         * the ring buffer is empty.
+         * <p>
+         * An event is only removed if it wasn't merged with a newer one in the meantime. Otherwise the merged event
+         * stays in the map and is handled by the next call.
+         *
+         * @return Returns the number of handled events.
+         */
+        private int drainOverflow() {
+            int count = 0;
+
+            for (Iterator<Map.Entry<Long, ProcessStateEvent>> iterator = this.overflow.entrySet().iterator();
+                 iterator.hasNext(); ) {
+                Map.Entry<Long, ProcessStateEvent> entry = iterator.next();
+
+                ProcessStateEvent event = entry.getValue();
+
+                if (!this.overflow.remove(entry.getKey(), event)) {
+                    continue;
+                }
+
+                this.handle(event, !iterator.hasNext());
+
+                count++;
+            }
+
+            return count;
+        }
+
+        private final class Consumer implements Runnable {
+
+            @Override
+            public void run() {
+                while (true) {
+                    int count = drainBuffer();
+
+                    if (!overflow.isEmpty() && !isAvailable(head)) {
+                        count += drainOverflow();
+                    }
+
+                    if (count > 0) {
+                        continue;
+                    }
+
+                    if (isClosed) {
+                        return;
+                    }
+
+                    isSleeping = true;
+
+                    // check again after announcing to sleep, so no publisher can miss to wake up the thread
+                    if (!isAvailable(head) && overflow.isEmpty() && !isClosed) {
+                        LockSupport.park(this);
+                    }
+
+                    isSleeping = false;
+                }
+            }
+        }
+    }
+}
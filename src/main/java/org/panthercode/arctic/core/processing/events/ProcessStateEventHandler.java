@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.events;
+
+/**
+ * Handler consuming the events of a subscription. Each subscription has its own thread, which calls the handler with
+ * all events available at once. The end of such a batch is flagged, so expensive work (e.g. flushing a file or pushing
+ * metrics) can be done once per batch instead of once per event.
+ *
+ * @author PantherCode
+ */
+public interface ProcessStateEventHandler {
+
+    /**
+     * Handles a single event. The event is reused after the method returned, so it must not be kept. Use
+     * <tt>ProcessStateEvent.copy()</tt> instead.
+     *
+     * @param event      event to handle
+     * @param endOfBatch <tt>true</tt> if it's the last event available at the moment; Otherwise <tt>false</tt>.
+     * @throws Exception Is thrown if an error occurred while handling the event.
+     */
+    void onEvent(ProcessStateEvent event, boolean endOfBatch) throws Exception;
+
+    /**
+     * Is called if <tt>onEvent()</tt> has thrown an exception. The event is skipped afterwards. By default the
+     * exception is ignored.
+     *
+     * @param event event, which caused the exception
+     * @param e     exception thrown by <tt>onEvent()</tt>
+     */
+    default void onException(ProcessStateEvent event, Exception e) {
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Classes to publish process state changes asynchronously to handlers running on their own threads.
+ *
+ * @author PantherCode
+ */
+package org.panthercode.arctic.core.processing.events;
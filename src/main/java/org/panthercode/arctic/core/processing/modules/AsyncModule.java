@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.processing.ProcessState;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * An asynchronous module can be started without holding the caller's thread. Instead of waiting for the result the
+ * caller gets a future, which is completed with the module's final process state.
+ * <p>
+ * Modules containing other modules should start their children asynchronously too and continue after the child's
+ * future completed. Thereby a whole tree of modules only occupies threads while a module really executes code, e.g.
+ * a repeater doesn't hold a thread while waiting for the next loop step.
+ */
+public interface AsyncModule extends Module {
+
+    /**
+     * Executes the containing functionality of the object on the given executor. The state changes are equals to the
+     * ones of <tt>start()</tt>. If the object can't be started, the returned future is completed immediately with the
+     * actual process state.
+     *
+     * @param executor executor to run the functionality on
+     * @return Returns a future, which is completed with the process state after execution. If an exception is thrown
+     * while executing, the future is completed exceptionally.
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    CompletableFuture<ProcessState> startAsync(Executor executor) throws NullPointerException;
+
+    /**
+     * Starts any module asynchronously. If the module is an <tt>AsyncModule</tt> its <tt>startAsync()</tt> method is
+     * called; Otherwise the <tt>start()</tt> method is executed by the executor.
+     *
+     * @param module   module to start
+     * @param executor executor to run the functionality on
+     * @return Returns a future, which is completed with the process state of the module after execution.
+     * @throws NullPointerException Is thrown if value of module or executor is null.
+     */
+    static CompletableFuture<ProcessState> startAsync(final Module module, final Executor executor)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(module, "module");
+        ArgumentUtils.assertNotNull(executor, "executor");
+
+        if (module instanceof AsyncModule) {
+            return ((AsyncModule) module).startAsync(executor);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            module.start();
+
+            return module.state();
+        }, executor);
+    }
+}
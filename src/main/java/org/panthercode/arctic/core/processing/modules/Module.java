@@ -16,6 +16,7 @@
 package org.panthercode.arctic.core.processing.modules;
 
 import org.panthercode.arctic.core.helper.identity.Identifiable;
+import org.panthercode.arctic.core.helper.priority.Priority;
 import org.panthercode.arctic.core.helper.version.Versionable;
 import org.panthercode.arctic.core.processing.ProcessState;
 import org.panthercode.arctic.core.processing.ProcessException;
@@ -103,6 +104,17 @@ public interface Module extends Identifiable, Versionable {
      */
     boolean setContext(Context context);
 
+    /**
+     * Returns the priority the object is executed with. If several modules are waiting for a thread of a
+     * <tt>PriorityExecutor</tt>, the ones with higher priority are executed first. By default the priority is read
+     * from the <tt>PriorityInfo</tt> annotation of the class.
+     *
+     * @return Returns the priority the object is executed with.
+     */
+    default Priority priority() {
+        return Priority.fromAnnotation(this.getClass());
+    }
+
     /**
      * Returns whether the object is ready or not.
      *
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Builder class to configure parameters for collecting items to batches in the <tt>BatchingStep</tt> class.
+ *
+ * @author PantherCode
+ */
+public class BatchingOptions {
+
+    /**
+     * maximal number of items in a batch
+     */
+    private int maxBatchSize = 64;
+
+    /**
+     * maximal time the first item of a batch waits for further items
+     */
+    private long lingerTimeInMillis = 10L;
+
+    /**
+     * scheduler to await the linger time or <tt>null</tt> if the shared default scheduler is used
+     */
+    private Scheduler scheduler = null;
+
+    /**
+     * executor to run the batches on or <tt>null</tt> if the common pool is used
+     */
+    private Executor executor = null;
+
+    /**
+     * Default Constructor
+     */
+    public BatchingOptions() {
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxBatchSize       maximal number of items in a batch
+     * @param lingerTimeInMillis maximal time the first item of a batch waits for further items
+     * @throws IllegalArgumentException Is thrown if value of maxBatchSize is zero or less or value of
+     *                                  lingerTimeInMillis is less than zero.
+     */
+    public BatchingOptions(int maxBatchSize, long lingerTimeInMillis)
+            throws IllegalArgumentException {
+        this.setMaxBatchSize(maxBatchSize);
+        this.setLingerTime(lingerTimeInMillis);
+    }
+
+    /**
+     * Returns the maximal number of items in a batch.
+     *
+     * @return Returns the maximal number of items in a batch.
+     */
+    public int getMaxBatchSize() {
+        return this.maxBatchSize;
+    }
+
+    /**
+     * Sets the maximal number of items in a batch. A batch is executed as soon as it's full.
+     *
+     * @param maxBatchSize maximal number of items in a batch
+     * @throws IllegalArgumentException Is thrown if value of maxBatchSize is zero or less.
+     */
+    public void setMaxBatchSize(int maxBatchSize)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(maxBatchSize, "max batch size");
+
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Returns the maximal time the first item of a batch waits for further items.
+     *
+     * @return Returns the linger time in milliseconds.
+     */
+    public long getLingerTime() {
+        return this.lingerTimeInMillis;
+    }
+
+    /**
+     * Sets the maximal time the first item of a batch waits for further items. After this time the batch is executed,
+     * even if it isn't full. A value of zero executes each batch immediately, so only items submitted at the same time
+     * are batched.
+     *
+     * @param lingerTimeInMillis linger time in milliseconds
+     * @throws IllegalArgumentException Is thrown if value of lingerTimeInMillis is less than zero.
+     */
+    public void setLingerTime(long lingerTimeInMillis)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterOrEqualsZero(lingerTimeInMillis, "linger time");
+
+        this.lingerTimeInMillis = lingerTimeInMillis;
+    }
+
+    /**
+     * Returns the scheduler awaiting the linger time.
+     *
+     * @return Returns the scheduler or <tt>null</tt> if the shared default scheduler is used.
+     */
+    public Scheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * Sets the scheduler awaiting the linger time. If the value is <tt>null</tt> the shared default scheduler is used.
+     * The scheduler isn't part of the options' equality.
+     *
+     * @param scheduler scheduler to await the linger time
+     */
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the executor the batches are executed on.
+     *
+     * @return Returns the executor or <tt>null</tt> if the common pool is used.
+     */
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Sets the executor the batches are executed on. If the value is <tt>null</tt> the common fork-join pool is used.
+     * Batches blocking for a long time, e.g. sending http requests, should get an executor of their own. The executor
+     * isn't part of the options' equality.
+     *
+     * @param executor executor to run the batches on
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "max batch size = " + this.maxBatchSize
+                + ", linger time = " + this.lingerTimeInMillis + " ms";
+    }
+
+    /**
+     * Returns a hash code value of this object.
+     *
+     * @return Returns a hash code value of this object.
+     */
+    @Override
+    public int hashCode() {
+        return Math.abs(new HashCodeBuilder()
+                .append(this.maxBatchSize)
+                .append(this.lingerTimeInMillis)
+                .toHashCode());
+    }
+
+    /**
+     * Checks if this object is equals to another one.
+     *
+     * @param obj other object for comparison
+     * @return Returns <tt>true</tt> if both objects are equal; Otherwise <tt>false</tt>.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (!(obj instanceof BatchingOptions)) {
+            return false;
+        }
+
+        BatchingOptions options = (BatchingOptions) obj;
+
+        return options.getMaxBatchSize() == this.getMaxBatchSize() &&
+                options.getLingerTime() == this.getLingerTime();
+    }
+}
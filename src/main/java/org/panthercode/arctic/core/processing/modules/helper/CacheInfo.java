@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation marks a module as a pure function of some context entries. It's used by <tt>CachedStep</tt> to
+ * cache the module's outputs.
+ * <p>
+ * Example: <tt>@CacheInfo(inputs = {"url"}, outputs = {"content"}, capacity = 100, timeToLive = 60000)</tt>
+ *
+ * @author PantherCode
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CacheInfo {
+    /**
+     * Returns the keys of the context entries the module reads.
+     *
+     * @return Returns the keys of the context entries the module reads.
+     */
+    String[] inputs();
+
+    /**
+     * Returns the keys of the context entries the module writes.
+     *
+     * @return Returns the keys of the context entries the module writes.
+     */
+    String[] outputs() default {};
+
+    /**
+     * Returns the maximal number of cached results.
+     *
+     * @return Returns the maximal number of cached results.
+     */
+    int capacity() default 1024;
+
+    /**
+     * Returns the time a cached result stays valid (in ms).
+     *
+     * @return Returns the time a cached result stays valid or zero if results don't expire.
+     */
+    long timeToLive() default 0L;
+}
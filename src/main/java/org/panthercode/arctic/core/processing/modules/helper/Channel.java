@@ -0,0 +1,338 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue connecting two stages of a stream. A producer blocks while the channel is full, so a fast stage can't
+ * run ahead of a slow one and the memory needed by a stream is limited by the capacities of its channels. A consumer
+ * takes items in batches.
+ * <p>
+ * The producer calls <tt>close()</tt> after the last item; the consumer reads the remaining items and afterwards
+ * <tt>take()</tt> returns zero. <tt>cancel()</tt> aborts the stream in both directions: all items are dropped, waiting
+ * threads are released and producers can't add items any longer.
+ * <p>
+ * Waiting threads are blocked by <tt>ForkJoinPool.managedBlock()</tt>, so stages running on a work-stealing pool
+ * don't starve the pool while they're waiting for each other.
+ *
+ * @param <T> type of items
+ * @author PantherCode
+ */
+public class Channel<T> {
+
+    /**
+     * ring buffer of items
+     */
+    private final Object[] items;
+
+    /**
+     * index of the next item to take
+     */
+    private int head = 0;
+
+    /**
+     * number of items in buffer
+     */
+    private int count = 0;
+
+    /**
+     * flag whether the producer closed the channel
+     */
+    private boolean closed = false;
+
+    /**
+     * flag whether the channel was cancelled
+     */
+    private boolean cancelled = false;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = this.lock.newCondition();
+
+    private final Condition notFull = this.lock.newCondition();
+
+    /**
+     * Constructor
+     *
+     * @param capacity maximal number of items in the channel
+     * @throws IllegalArgumentException Is thrown if value of capacity is zero or less.
+     */
+    public Channel(int capacity)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(capacity, "capacity");
+
+        this.items = new Object[capacity];
+    }
+
+    /**
+     * Adds an item to the channel. Blocks while the channel is full.
+     *
+     * @param item item to add
+     * @return Returns <tt>true</tt> if the item was added; <tt>false</tt> if the channel was cancelled.
+     * @throws NullPointerException  Is thrown if value of item is null.
+     * @throws IllegalStateException Is thrown if the channel was closed.
+     * @throws InterruptedException  Is thrown if the current thread is interrupted while waiting.
+     */
+    public boolean put(T item)
+            throws NullPointerException, IllegalStateException, InterruptedException {
+        ArgumentUtils.assertNotNull(item, "item");
+
+        this.lock.lockInterruptibly();
+
+        try {
+            return this.enqueue(item);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Adds all items to the channel in their order. Blocks while the channel is full, so a consumer can read the first
+     * items before the last ones are added.
+     *
+     * @param items items to add
+     * @return Returns <tt>true</tt> if all items were added; <tt>false</tt> if the channel was cancelled.
+     * @throws NullPointerException  Is thrown if value of items or one of its elements is null.
+     * @throws IllegalStateException Is thrown if the channel was closed.
+     * @throws InterruptedException  Is thrown if the current thread is interrupted while waiting.
+     */
+    public boolean putAll(Collection<? extends T> items)
+            throws NullPointerException, IllegalStateException, InterruptedException {
+        ArgumentUtils.assertNotNull(items, "items");
+
+        this.lock.lockInterruptibly();
+
+        try {
+            for (T item : items) {
+                ArgumentUtils.assertNotNull(item, "item");
+
+                if (!this.enqueue(item)) {
+                    return false;
+                }
+            }
+
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Moves up to <tt>max</tt> items from the channel to the given collection. Blocks until at least one item is
+     * available or no more items will arrive.
+     *
+     * @param batch collection to add the items to
+     * @param max   maximal number of items to take
+     * @return Returns the number of items taken. Zero means, that the channel was closed and all items were taken, or
+     * that the channel was cancelled.
+     * @throws NullPointerException     Is thrown if value of batch is null.
+     * @throws IllegalArgumentException Is thrown if value of max is zero or less.
+     * @throws InterruptedException     Is thrown if the current thread is interrupted while waiting.
+     */
+    @SuppressWarnings("unchecked")
+    public int take(Collection<? super T> batch, int max)
+            throws NullPointerException, IllegalArgumentException, InterruptedException {
+        ArgumentUtils.assertNotNull(batch, "batch");
+        ArgumentUtils.assertGreaterZero(max, "max");
+
+        this.lock.lockInterruptibly();
+
+        try {
+            while (this.count == 0 && !this.closed && !this.cancelled) {
+                this.await(this.notEmpty);
+            }
+
+            if (this.cancelled) {
+                return 0;
+            }
+
+            int taken = Math.min(max, this.count);
+
+            for (int i = 0; i < taken; i++) {
+                batch.add((T) this.items[this.head]);
+
+                this.items[this.head] = null;
+                this.head = (this.head + 1) % this.items.length;
+            }
+
+            this.count -= taken;
+
+            if (taken > 0) {
+                this.notFull.signalAll();
+            }
+
+            return taken;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the end of the stream. Items already in the channel can still be taken.
+     */
+    public void close() {
+        this.lock.lock();
+
+        try {
+            this.closed = true;
+
+            this.notEmpty.signalAll();
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Aborts the stream. All items are dropped and all waiting threads are released.
+     */
+    public void cancel() {
+        this.lock.lock();
+
+        try {
+            this.cancelled = true;
+
+            for (int i = 0; i < this.count; i++) {
+                this.items[(this.head + i) % this.items.length] = null;
+            }
+
+            this.count = 0;
+
+            this.notEmpty.signalAll();
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the channel was closed or not.
+     *
+     * @return Returns <tt>true</tt> if the channel was closed; Otherwise <tt>false</tt>.
+     */
+    public boolean isClosed() {
+        this.lock.lock();
+
+        try {
+            return this.closed;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the channel was cancelled or not.
+     *
+     * @return Returns <tt>true</tt> if the channel was cancelled; Otherwise <tt>false</tt>.
+     */
+    public boolean isCancelled() {
+        this.lock.lock();
+
+        try {
+            return this.cancelled;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of items in the channel.
+     *
+     * @return Returns the number of items in the channel.
+     */
+    public int size() {
+        this.lock.lock();
+
+        try {
+            return this.count;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the maximal number of items in the channel.
+     *
+     * @return Returns the maximal number of items in the channel.
+     */
+    public int capacity() {
+        return this.items.length;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "size = " + this.size() + ", capacity = " + this.capacity()
+                + ", closed = " + this.isClosed() + ", cancelled = " + this.isCancelled();
+    }
+
+    /**
+     * Adds an item, while the lock is held.
+     */
+    private boolean enqueue(T item)
+            throws InterruptedException {
+        while (this.count == this.items.length && !this.closed && !this.cancelled) {
+            this.await(this.notFull);
+        }
+
+        if (this.cancelled) {
+            return false;
+        }
+
+        if (this.closed) {
+            throw new IllegalStateException("The channel is closed.");
+        }
+
+        this.items[(this.head + this.count) % this.items.length] = item;
+        this.count++;
+
+        this.notEmpty.signal();
+
+        return true;
+    }
+
+    /**
+     * Waits for a condition. Within a fork-join pool the pool may start another thread meanwhile.
+     */
+    private void await(final Condition condition)
+            throws InterruptedException {
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+
+            @Override
+            public boolean block()
+                    throws InterruptedException {
+                condition.await();
+
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return false;
+            }
+        });
+    }
+}
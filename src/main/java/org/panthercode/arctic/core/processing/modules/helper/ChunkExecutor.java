@@ -0,0 +1,372 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.helper.priority.PriorityComparator;
+import org.panthercode.arctic.core.processing.ExecutionStrategy;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.AsyncModule;
+import org.panthercode.arctic.core.processing.modules.Module;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Helper class to run the elements of a <tt>Chunk</tt> in parallel. All chunks share one executor by default, so
+ * starting a chunk never creates a pool of its own. The number of elements a single call runs at the same time is
+ * bounded by a parallelism limit: at most that many elements are started and every finished element starts the next
+ * pending one. Asynchronous elements are started by <tt>startAsync()</tt>, so they only occupy a thread while they
+ * are executing code.
+ * <p>
+ * The kind of threads is chosen by an <tt>ExecutionStrategy</tt>. The shared executor uses the strategy given by the
+ * system property <tt>arctic.execution.strategy</tt>, which defaults to a work-stealing pool.
+ * <p>
+ * Pending elements are started in the order of their priority. If the executor is a <tt>PriorityExecutor</tt>, each
+ * module also waits for a thread with its own priority, so urgent modules of all chunks sharing the executor are
+ * executed first while the executor is saturated.
+ *
+ * @author PantherCode
+ */
+public class ChunkExecutor {
+
+    /**
+     * executor shared by all chunks without an own executor
+     */
+    private static ChunkExecutor defaultExecutor = null;
+
+    /**
+     * orders modules by their priority, highest first; modules of the same priority keep their order
+     */
+    private static final Comparator<Module> BY_PRIORITY =
+            Comparator.comparing(Module::priority, new PriorityComparator());
+
+    /**
+     * executor to run the elements on
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Constructor. Creates a work-stealing pool, whose parallelism is equals to the number of available processors.
+     */
+    public ChunkExecutor() {
+        this(ExecutionStrategy.WORK_STEALING);
+    }
+
+    /**
+     * Constructor. Creates a work-stealing pool.
+     *
+     * @param parallelism number of threads the pool is working with
+     * @throws IllegalArgumentException Is thrown if value of parallelism is zero or less.
+     */
+    public ChunkExecutor(int parallelism)
+            throws IllegalArgumentException {
+        this(ExecutionStrategy.WORK_STEALING, parallelism);
+    }
+
+    /**
+     * Constructor. If the strategy uses a fixed number of threads, it's equals to the number of available processors.
+     *
+     * @param strategy strategy to create the executor with
+     * @throws NullPointerException Is thrown if value of strategy is null.
+     */
+    public ChunkExecutor(ExecutionStrategy strategy)
+            throws NullPointerException {
+        this(strategy, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param strategy    strategy to create the executor with
+     * @param parallelism number of threads, if the strategy uses a fixed number of threads
+     * @throws NullPointerException     Is thrown if value of strategy is null.
+     * @throws IllegalArgumentException Is thrown if value of parallelism is zero or less.
+     */
+    public ChunkExecutor(ExecutionStrategy strategy, int parallelism)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(strategy, "strategy");
+
+        this.executor = strategy.createExecutor(parallelism);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor executor to run the elements on
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    public ChunkExecutor(ExecutorService executor)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(executor, "executor");
+
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the executor shared by all chunks, which are not associated with an own executor.
+     *
+     * @return Returns the executor shared by all chunks.
+     */
+    public static synchronized ChunkExecutor getDefault() {
+        if (defaultExecutor == null) {
+            defaultExecutor = new ChunkExecutor(ExecutionStrategy.getDefault());
+        }
+
+        return defaultExecutor;
+    }
+
+    /**
+     * Set a new executor shared by all chunks. The old executor isn't shut down.
+     *
+     * @param executor new shared executor
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    public static synchronized void setDefault(ChunkExecutor executor)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(executor, "executor");
+
+        defaultExecutor = executor;
+    }
+
+    /**
+     * Starts all modules and waits until each of them has finished. At most <tt>maxParallelism</tt> modules are
+     * running at the same time. After a module finished, its process state is checked: a module, which isn't in state
+     * "Succeeded" or "Stopped", counts as failed.
+     * <p>
+     * The returned state is "Failed" if at least one module failed. Otherwise it's "Stopped" if at least one module was
+     * stopped and "Succeeded" if all modules finished successfully.
+     *
+     * @param modules        modules to run
+     * @param maxParallelism maximal number of modules running at the same time
+     * @return Returns the aggregated process state of all modules.
+     * @throws NullPointerException     Is thrown if value of modules is null.
+     * @throws IllegalArgumentException Is thrown if value of maxParallelism is zero or less.
+     * @throws ProcessException         Is thrown if a module has thrown an exception. All other modules are finished
+     *                                  anyway.
+     */
+    public ProcessState execute(final List<? extends Module> modules, final int maxParallelism)
+            throws NullPointerException, IllegalArgumentException, ProcessException {
+        try {
+            return this.executeAsync(modules, maxParallelism).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ProcessException) {
+                throw (ProcessException) e.getCause();
+            }
+
+            throw new ProcessException("While waiting for the chunk's modules an error occurred.", e.getCause());
+        }
+    }
+
+    /**
+     * Starts all modules without waiting for them. Asynchronous modules are started by their <tt>startAsync()</tt>
+     * method, so they don't occupy a thread while they are waiting. Apart from that the behaviour is equals to
+     * <tt>execute()</tt>.
+     *
+     * @param modules        modules to run
+     * @param maxParallelism maximal number of modules running at the same time
+     * @return Returns a future, which is completed with the aggregated process state of all modules. If a module has
+     * thrown an exception, the future is completed exceptionally with a <tt>ProcessException</tt> after all other
+     * modules finished.
+     * @throws NullPointerException     Is thrown if value of modules is null.
+     * @throws IllegalArgumentException Is thrown if value of maxParallelism is zero or less.
+     */
+    public CompletableFuture<ProcessState> executeAsync(final List<? extends Module> modules, final int maxParallelism)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(modules, "modules");
+        ArgumentUtils.assertGreaterZero(maxParallelism, "maximal parallelism");
+
+        if (modules.isEmpty()) {
+            return CompletableFuture.completedFuture(ProcessState.SUCCEEDED);
+        }
+
+        Module[] array = modules.toArray(new Module[modules.size()]);
+
+        Arrays.sort(array, BY_PRIORITY);
+
+        Run run = new Run(array);
+
+        for (int i = Math.min(maxParallelism, run.modules.length); i > 0; i--) {
+            run.startNext();
+        }
+
+        return run.completion;
+    }
+
+    /**
+     * Starts a single module on the executor without waiting for it. Asynchronous modules are started by their
+     * <tt>startAsync()</tt> method.
+     *
+     * @param module module to start
+     * @return Returns a future, which is completed with the process state of the module after execution.
+     * @throws NullPointerException Is thrown if value of module is null.
+     */
+    public CompletableFuture<ProcessState> startAsync(final Module module)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(module, "module");
+
+        return AsyncModule.startAsync(module, this.executorOf(module));
+    }
+
+    /**
+     * Returns the executor to run the module on. A priority executor runs the module with the module's priority.
+     */
+    private Executor executorOf(final Module module) {
+        if (this.executor instanceof PriorityExecutor) {
+            return ((PriorityExecutor) this.executor).withPriority(module.priority());
+        }
+
+        return this.executor;
+    }
+
+    /**
+     * Initiates an orderly shutdown of the executor. Running modules are finished, but no new ones are accepted.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Blocks until all modules have finished after a shutdown request or the timeout occurs.
+     *
+     * @param timeout maximal time to wait
+     * @param unit    time unit of timeout
+     * @return Returns <tt>true</tt> if the executor terminated; Otherwise <tt>false</tt>.
+     * @throws InterruptedException Is thrown if the current thread is interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return this.executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * A single call of <tt>executeAsync()</tt>. Every time a module finished, the next pending one is started.
+     */
+    private final class Run {
+
+        private final Module[] modules;
+
+        private final ProcessState[] states;
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        private final AtomicInteger remaining;
+
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private final CompletableFuture<ProcessState> completion = new CompletableFuture<>();
+
+        private Run(Module[] modules) {
+            this.modules = modules;
+            this.states = new ProcessState[modules.length];
+            this.remaining = new AtomicInteger(modules.length);
+        }
+
+        /**
+         * Starts pending modules until one doesn't finish immediately. Its completion continues with the next one.
+         */
+        private void startNext() {
+            for (int index = this.next.getAndIncrement();
+                 index < this.modules.length;
+                 index = this.next.getAndIncrement()) {
+                final int current = index;
+
+                CompletableFuture<ProcessState> future;
+
+                try {
+                    future = AsyncModule.startAsync(this.modules[current], executorOf(this.modules[current]));
+                } catch (Throwable e) {
+                    future = new CompletableFuture<>();
+                    future.completeExceptionally(e);
+                }
+
+                if (!future.isDone()) {
+                    future.whenComplete((state, e) -> {
+                        this.finish(current, e);
+                        this.startNext();
+                    });
+
+                    return;
+                }
+
+                this.finish(current, future.isCompletedExceptionally() ? this.exceptionOf(future) : null);
+            }
+        }
+
+        private void finish(int index, Throwable e) {
+            Module module = this.modules[index];
+
+            if (e != null) {
+                this.states[index] = ProcessState.FAILED;
+                this.error.compareAndSet(null, e instanceof CompletionException && e.getCause() != null
+                        ? e.getCause() : e);
+            } else {
+                this.states[index] = module.isSucceeded() ? ProcessState.SUCCEEDED
+                        : module.isStopped() ? ProcessState.STOPPED : ProcessState.FAILED;
+            }
+
+            if (this.remaining.decrementAndGet() == 0) {
+                if (this.error.get() != null) {
+                    this.completion.completeExceptionally(new ProcessException(
+                            "While running a module of the chunk an error occurred.", this.error.get()));
+                } else {
+                    this.completion.complete(this.result());
+                }
+            }
+        }
+
+        private Throwable exceptionOf(CompletableFuture<ProcessState> future) {
+            try {
+                future.join();
+
+                return null;
+            } catch (CompletionException e) {
+                return e.getCause() != null ? e.getCause() : e;
+            } catch (CancellationException e) {
+                return e;
+            }
+        }
+
+        /**
+         * The states array is only read after the last module finished, which happens-after every write.
+         */
+        private ProcessState result() {
+            ProcessState result = ProcessState.SUCCEEDED;
+
+            for (ProcessState state : this.states) {
+                if (state == ProcessState.FAILED) {
+                    return ProcessState.FAILED;
+                }
+
+                if (state == ProcessState.STOPPED) {
+                    result = ProcessState.STOPPED;
+                }
+            }
+
+            return result;
+        }
+    }
+}
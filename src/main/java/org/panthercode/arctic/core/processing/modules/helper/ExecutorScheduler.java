@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.processing.DaemonThreadFactory;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler based on a <tt>ScheduledExecutorService</tt>. By default all repeaters share one instance, which works
+ * with as many daemon threads as processors are available.
+ *
+ * @author PantherCode
+ */
+public class ExecutorScheduler implements Scheduler {
+
+    /**
+     * scheduler shared by all modules without an own scheduler
+     */
+    private static ExecutorScheduler defaultScheduler = null;
+
+    /**
+     * executor to run the tasks on
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Constructor. The scheduler works with as many threads as processors are available.
+     */
+    public ExecutorScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param threadCount number of threads the scheduler is working with
+     * @throws IllegalArgumentException Is thrown if value of threadCount is zero or less.
+     */
+    public ExecutorScheduler(int threadCount)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(threadCount, "thread count");
+
+        ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(threadCount, new DaemonThreadFactory("arctic-scheduler-"));
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        this.executor = executor;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor executor to run the tasks on
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    public ExecutorScheduler(ScheduledExecutorService executor)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(executor, "executor");
+
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the scheduler shared by all modules, which are not associated with an own scheduler.
+     *
+     * @return Returns the scheduler shared by all modules.
+     */
+    public static synchronized ExecutorScheduler getDefault() {
+        if (defaultScheduler == null) {
+            defaultScheduler = new ExecutorScheduler();
+        }
+
+        return defaultScheduler;
+    }
+
+    /**
+     * Set a new scheduler shared by all modules. The old scheduler isn't shut down.
+     *
+     * @param scheduler new shared scheduler
+     * @throws NullPointerException Is thrown if value of scheduler is null.
+     */
+    public static synchronized void setDefault(ExecutorScheduler scheduler)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(scheduler, "scheduler");
+
+        defaultScheduler = scheduler;
+    }
+
+    /**
+     * Executes the task as soon as possible.
+     *
+     * @param task task to execute
+     * @throws NullPointerException Is thrown if value of task is null.
+     */
+    @Override
+    public void execute(Runnable task)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(task, "task");
+
+        this.executor.execute(task);
+    }
+
+    /**
+     * Executes the task after the given delay.
+     *
+     * @param task  task to execute
+     * @param delay time to wait before the task is executed
+     * @param unit  time unit of delay
+     * @return Returns a future to cancel the task before it's executed.
+     * @throws NullPointerException Is thrown if value of task or unit is null.
+     */
+    @Override
+    public Future<?> schedule(Runnable task, long delay, TimeUnit unit)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(task, "task");
+        ArgumentUtils.assertNotNull(unit, "time unit");
+
+        return this.executor.schedule(task, delay, unit);
+    }
+
+    /**
+     * Returns the actual time of the system's monotonic clock in milliseconds.
+     *
+     * @return Returns the actual time of the system's monotonic clock in milliseconds.
+     */
+    @Override
+    public long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * Initiates an orderly shutdown. No new tasks are accepted and delayed tasks, which are not executed yet, are
+     * discarded.
+     */
+    @Override
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
@@ -0,0 +1,583 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.processing.ExecutionStrategy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Scheduler based on a hierarchical hashed timing wheel. It's designed for a huge number of pending delays and
+ * timeouts, which are mostly cancelled or short-lived. Scheduling and cancelling a task costs O(1), independent of the
+ * number of pending tasks.
+ * <p>
+ * Time is divided into ticks. The wheel consists of several levels, each with the same number of slots. A slot of the
+ * lowest level covers a single tick, a slot of the next level covers as many ticks as the lowest level has slots and so
+ * on. A task is placed on the lowest level, whose range contains its deadline. Whenever a level completes a turn, the
+ * next slot of the level above is moved down. Therefore the precision of a deadline is one tick.
+ * <p>
+ * A single worker thread advances the wheel. Expired tasks are handed over to an executor, so long running tasks don't delay
+ * the wheel.
+ *
+ * @author PantherCode
+ */
+public class HashedWheelTimer implements Scheduler {
+
+    /**
+     * default duration of a tick in milliseconds
+     */
+    public static final long DEFAULT_TICK_DURATION = 1L;
+
+    /**
+     * default number of slots per level
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 64;
+
+    /**
+     * default number of levels
+     */
+    public static final int DEFAULT_LEVELS = 6;
+
+    /**
+     * duration of a tick in nanoseconds
+     */
+    private final long tickDuration;
+
+    /**
+     * number of bits of a slot index
+     */
+    private final int bits;
+
+    /**
+     * mask to extract a slot index
+     */
+    private final long mask;
+
+    /**
+     * slots of all levels; the first index is the level
+     */
+    private final Bucket[][] wheel;
+
+    /**
+     * executor to run expired tasks on
+     */
+    private final Executor executor;
+
+    /**
+     * executor created by this object, which is shut down together with the timer
+     */
+    private final ExecutorService ownExecutor;
+
+    /**
+     * new tasks, which are not placed on the wheel yet
+     */
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * cancelled tasks, which are not removed from the wheel yet
+     */
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * point in time the wheel started (in ns)
+     */
+    private final long startTime;
+
+    /**
+     * thread advancing the wheel
+     */
+    private final Thread worker;
+
+    /**
+     * last tick the worker has processed
+     */
+    private volatile long tick = 0L;
+
+    /**
+     * flag whether the timer is shut down or not
+     */
+    private volatile boolean isShutdown = false;
+
+    /**
+     * Constructor. Uses a tick duration of 1 ms and 6 levels with 64 slots each, which covers more than two years.
+     * Expired tasks are executed by a work-stealing pool.
+     */
+    public HashedWheelTimer() {
+        this(DEFAULT_TICK_DURATION, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructor. Uses 6 levels with 64 slots each. Expired tasks are executed by a work-stealing pool.
+     *
+     * @param tickDuration duration of a tick
+     * @param unit         time unit of tick duration
+     * @throws NullPointerException     Is thrown if value of unit is null.
+     * @throws IllegalArgumentException Is thrown if value of tickDuration is zero or less.
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit)
+            throws NullPointerException, IllegalArgumentException {
+        this(tickDuration, unit, DEFAULT_WHEEL_SIZE, DEFAULT_LEVELS, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param tickDuration duration of a tick
+     * @param unit         time unit of tick duration
+     * @param wheelSize    number of slots per level; must be a power of two
+     * @param levels       number of levels
+     * @param executor     executor to run expired tasks on or <tt>null</tt> to use an own work-stealing pool
+     * @throws NullPointerException     Is thrown if value of unit is null.
+     * @throws IllegalArgumentException Is thrown if value of tickDuration or levels is zero or less or if value of
+     *                                  wheelSize is not a power of two greater than one.
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, int levels, Executor executor)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(unit, "time unit");
+        ArgumentUtils.assertGreaterZero(tickDuration, "tick duration");
+        ArgumentUtils.assertGreaterThan(wheelSize, 1, "wheel size");
+        ArgumentUtils.assertGreaterZero(levels, "levels");
+
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("The value of wheel size is not a power of two.");
+        }
+
+        this.tickDuration = unit.toNanos(tickDuration);
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+
+        ArgumentUtils.assertLessOrEqualsThan((long) this.bits * levels, 62L, "number of bits of all levels");
+
+        this.wheel = new Bucket[levels][wheelSize];
+
+        for (Bucket[] level : this.wheel) {
+            for (int i = 0; i < level.length; i++) {
+                level[i] = new Bucket();
+            }
+        }
+
+        if (executor == null) {
+            this.ownExecutor = ExecutionStrategy.WORK_STEALING.createExecutor(Runtime.getRuntime().availableProcessors());
+            this.executor = this.ownExecutor;
+        } else {
+            this.ownExecutor = null;
+            this.executor = executor;
+        }
+
+        this.startTime = System.nanoTime();
+
+        this.worker = new Thread(new Worker(), "arctic-wheel-timer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Executes the task as soon as possible by the executor of expired tasks.
+     *
+     * @param task task to execute
+     * @throws NullPointerException Is thrown if value of task is null.
+     */
+    @Override
+    public void execute(Runnable task)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(task, "task");
+
+        this.executor.execute(task);
+    }
+
+    /**
+     * Executes the task after the given delay. The delay is rounded up to the next tick.
+     *
+     * @param task  task to execute
+     * @param delay time to wait before the task is executed
+     * @param unit  time unit of delay
+     * @return Returns a future to cancel the task before it's executed.
+     * @throws NullPointerException Is thrown if value of task or unit is null.
+     * @throws IllegalStateException Is thrown if the timer is shut down.
+     */
+    @Override
+    public Future<?> schedule(Runnable task, long delay, TimeUnit unit)
+            throws NullPointerException, IllegalStateException {
+        ArgumentUtils.assertNotNull(task, "task");
+        ArgumentUtils.assertNotNull(unit, "time unit");
+
+        if (this.isShutdown) {
+            throw new IllegalStateException("The timer is shut down.");
+        }
+
+        long elapsed = System.nanoTime() - this.startTime + Math.max(0L, unit.toNanos(delay));
+
+        Timeout timeout = new Timeout(this, task, (elapsed + this.tickDuration - 1) / this.tickDuration);
+
+        this.pending.add(timeout);
+
+        return timeout;
+    }
+
+    /**
+     * Returns the actual time of the wheel in milliseconds. The value only changes once per tick, so reading it is
+     * cheaper than asking the system clock. Like <tt>System.nanoTime()</tt> it's only meaningful as difference between
+     * two calls.
+     *
+     * @return Returns the actual time of the wheel in milliseconds.
+     */
+    @Override
+    public long now() {
+        return TimeUnit.NANOSECONDS.toMillis(this.tick * this.tickDuration);
+    }
+
+    /**
+     * Returns the number of tasks waiting for their execution. The slots are read without synchronisation, so the
+     * value is only an estimate while tasks are scheduled or cancelled.
+     *
+     * @return Returns the number of tasks waiting for their execution.
+     */
+    public int size() {
+        int size = this.pending.size();
+
+        for (Bucket[] level : this.wheel) {
+            for (Bucket bucket : level) {
+                size += bucket.size;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Initiates an orderly shutdown. No new tasks are accepted and delayed tasks, which are not executed yet, are
+     * discarded. If the timer created its own executor, it's shut down as well.
+     */
+    @Override
+    public void shutdown() {
+        this.isShutdown = true;
+
+        LockSupport.unpark(this.worker);
+
+        if (this.ownExecutor != null) {
+            this.ownExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Places a task on the lowest level, whose range contains the deadline. Tasks, whose deadline is beyond the range
+     * of the highest level, are placed on the last slot of the highest level and placed again when it's moved down.
+     *
+     * @return Returns <tt>false</tt> if the deadline is already reached; Otherwise <tt>true</tt>.
+     */
+    private boolean place(Timeout timeout, long now) {
+        long deadline = timeout.deadline;
+
+        if (deadline <= now) {
+            return false;
+        }
+
+        int top = this.wheel.length - 1;
+
+        for (int level = 0; level <= top; level++) {
+            int shift = this.bits * (level + 1);
+
+            if ((deadline >>> shift) == (now >>> shift)) {
+                this.wheel[level][(int) ((deadline >>> (this.bits * level)) & this.mask)].add(timeout);
+
+                return true;
+            }
+        }
+
+        int index = (int) (((now >>> (this.bits * top)) + this.mask) & this.mask);
+
+        this.wheel[top][index].add(timeout);
+
+        return true;
+    }
+
+    /**
+     * Hands the task over to the executor, if it wasn't cancelled in the meantime.
+     */
+    private void expire(Timeout timeout) {
+        if (timeout.compareAndSetState(Timeout.WAITING, Timeout.EXPIRED)) {
+            try {
+                this.executor.execute(timeout);
+            } catch (RuntimeException e) {
+                // the executor rejected the task, e.g. because it's shut down
+                timeout.finish(Timeout.CANCELLED);
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel by one tick each time the tick duration elapsed.
+     */
+    private final class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            while (!isShutdown) {
+                long now = tick;
+
+                this.waitForTick(now + 1);
+
+                this.removeCancelled();
+
+                this.placePending(now);
+
+                now++;
+
+                for (int level = 1; level < wheel.length; level++) {
+                    if ((now & ((1L << (bits * level)) - 1)) != 0) {
+                        break;
+                    }
+
+                    this.cascade(wheel[level][(int) ((now >>> (bits * level)) & mask)], now);
+                }
+
+                Bucket bucket = wheel[0][(int) (now & mask)];
+
+                for (Timeout timeout = bucket.poll(); timeout != null; timeout = bucket.poll()) {
+                    expire(timeout);
+                }
+
+                tick = now;
+            }
+
+            for (Timeout timeout = pending.poll(); timeout != null; timeout = pending.poll()) {
+                timeout.cancel(false);
+            }
+
+            for (Bucket[] level : wheel) {
+                for (Bucket bucket : level) {
+                    for (Timeout timeout = bucket.poll(); timeout != null; timeout = bucket.poll()) {
+                        timeout.cancel(false);
+                    }
+                }
+            }
+        }
+
+        private void waitForTick(long next) {
+            long deadline = startTime + next * tickDuration;
+
+            for (long remaining = deadline - System.nanoTime();
+                 remaining > 0 && !isShutdown;
+                 remaining = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+
+        private void removeCancelled() {
+            for (Timeout timeout = cancelled.poll(); timeout != null; timeout = cancelled.poll()) {
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                }
+            }
+        }
+
+        private void placePending(long now) {
+            for (Timeout timeout = pending.poll(); timeout != null; timeout = pending.poll()) {
+                if (timeout.state == Timeout.WAITING && !place(timeout, now)) {
+                    expire(timeout);
+                }
+            }
+        }
+
+        private void cascade(Bucket bucket, long now) {
+            for (Timeout timeout = bucket.poll(); timeout != null; timeout = bucket.poll()) {
+                if (!place(timeout, now)) {
+                    expire(timeout);
+                }
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of tasks in a slot. It's only accessed by the worker thread, so removing a cancelled task
+     * costs O(1) without any synchronisation.
+     */
+    private static final class Bucket {
+
+        private Timeout head = null;
+
+        private Timeout tail = null;
+
+        private int size = 0;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.previous = this.tail;
+            timeout.next = null;
+
+            if (this.tail == null) {
+                this.head = timeout;
+            } else {
+                this.tail.next = timeout;
+            }
+
+            this.tail = timeout;
+            this.size++;
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.previous == null) {
+                this.head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+
+            if (timeout.next == null) {
+                this.tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+
+            this.size--;
+        }
+
+        private Timeout poll() {
+            Timeout timeout = this.head;
+
+            if (timeout != null) {
+                this.remove(timeout);
+            }
+
+            return timeout;
+        }
+    }
+
+    /**
+     * A scheduled task. The object is its own future and the runnable handed over to the executor, so scheduling a
+     * task only allocates a single object.
+     */
+    private static final class Timeout implements Future<Void>, Runnable {
+
+        private static final int WAITING = 0;
+
+        private static final int EXPIRED = 1;
+
+        private static final int DONE = 2;
+
+        private static final int CANCELLED = 3;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedWheelTimer timer;
+
+        private final Runnable task;
+
+        private final long deadline;
+
+        private volatile int state = WAITING;
+
+        private Bucket bucket = null;
+
+        private Timeout previous = null;
+
+        private Timeout next = null;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        private boolean compareAndSetState(int expected, int state) {
+            return STATE.compareAndSet(this, expected, state);
+        }
+
+        private void finish(int state) {
+            synchronized (this) {
+                this.state = state;
+                this.notifyAll();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.task.run();
+            } finally {
+                this.finish(DONE);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (this.compareAndSetState(WAITING, CANCELLED)) {
+                this.timer.cancelled.add(this);
+
+                synchronized (this) {
+                    this.notifyAll();
+                }
+
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.state == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.state >= DONE;
+        }
+
+        @Override
+        public Void get() throws InterruptedException {
+            synchronized (this) {
+                while (this.state < DONE) {
+                    this.wait();
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        public Void get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            synchronized (this) {
+                while (this.state < DONE) {
+                    long remaining = deadline - System.nanoTime();
+
+                    if (remaining <= 0) {
+                        throw new TimeoutException();
+                    }
+
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+
+            return null;
+        }
+    }
+}
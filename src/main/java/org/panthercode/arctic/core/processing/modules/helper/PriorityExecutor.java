@@ -0,0 +1,383 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.helper.priority.Priority;
+import org.panthercode.arctic.core.processing.ExecutionStrategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor running tasks by their priority. Tasks are waiting in one queue per <tt>Priority</tt> and at most
+ * <tt>parallelism</tt> of them are running on the underlying executor at the same time. Whenever a thread gets free,
+ * it takes the task with the highest priority.
+ * <p>
+ * To avoid starvation tasks are aging: a task rises by one priority level for each aging interval it's waiting. So
+ * work of low priority is delayed while the executor is saturated, but is executed eventually. Choosing the next task
+ * only compares the first task of each queue, so it costs O(1).
+ * <p>
+ * A <tt>ChunkExecutor</tt> created with a priority executor runs each module with the module's own priority.
+ * <tt>withPriority()</tt> returns a view to submit other tasks with a given priority; <tt>execute()</tt> uses "Normal".
+ *
+ * @author PantherCode
+ */
+public class PriorityExecutor extends AbstractExecutorService {
+
+    /**
+     * executor to run the tasks on
+     */
+    private final ExecutorService executor;
+
+    /**
+     * maximal number of tasks running at the same time
+     */
+    private final int parallelism;
+
+    /**
+     * time a task has to wait to rise by one priority level (in ns)
+     */
+    private final long agingInterval;
+
+    /**
+     * waiting tasks; one queue per priority level, lowest first
+     */
+    private final ArrayDeque<Task>[] queues;
+
+    /**
+     * views to submit tasks with a given priority, lowest first
+     */
+    private final Executor[] views;
+
+    /**
+     * number of tasks running at the moment
+     */
+    private int running = 0;
+
+    /**
+     * Constructor. Creates a pool of the given strategy, whose tasks rise by one level every 100 ms.
+     *
+     * @param strategy    strategy to create the underlying executor with
+     * @param parallelism maximal number of tasks running at the same time
+     * @throws NullPointerException     Is thrown if value of strategy is null.
+     * @throws IllegalArgumentException Is thrown if value of parallelism is zero or less.
+     */
+    public PriorityExecutor(ExecutionStrategy strategy, int parallelism)
+            throws NullPointerException, IllegalArgumentException {
+        this(createExecutor(strategy, parallelism), parallelism, 100L, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor      executor to run the tasks on; it should provide at least <tt>parallelism</tt> threads
+     * @param parallelism   maximal number of tasks running at the same time
+     * @param agingInterval time a task has to wait to rise by one priority level
+     * @param unit          time unit of agingInterval
+     * @throws NullPointerException     Is thrown if value of executor or unit is null.
+     * @throws IllegalArgumentException Is thrown if value of parallelism or agingInterval is zero or less.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PriorityExecutor(ExecutorService executor, int parallelism, long agingInterval, TimeUnit unit)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(executor, "executor");
+        ArgumentUtils.assertGreaterZero(parallelism, "parallelism");
+        ArgumentUtils.assertGreaterZero(agingInterval, "aging interval");
+        ArgumentUtils.assertNotNull(unit, "unit");
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.agingInterval = unit.toNanos(agingInterval);
+        Priority[] levels = Priority.levels();
+
+        this.queues = new ArrayDeque[levels.length];
+        this.views = new Executor[levels.length];
+
+        for (int level = 0; level < levels.length; level++) {
+            final Priority priority = levels[level];
+
+            this.queues[level] = new ArrayDeque<>();
+            this.views[level] = task -> this.execute(task, priority);
+        }
+    }
+
+    /**
+     * Returns a view of the executor, which runs all tasks with the given priority.
+     *
+     * @param priority priority of the tasks
+     * @return Returns an executor running all tasks with the given priority.
+     * @throws NullPointerException Is thrown if value of priority is null.
+     */
+    public Executor withPriority(final Priority priority)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(priority, "priority");
+
+        return this.views[priority.level()];
+    }
+
+    /**
+     * Runs the task with priority "Normal".
+     *
+     * @param task task to run
+     * @throws NullPointerException       Is thrown if value of task is null.
+     * @throws RejectedExecutionException Is thrown if the executor was shut down.
+     */
+    @Override
+    public void execute(final Runnable task)
+            throws NullPointerException, RejectedExecutionException {
+        this.execute(task, Priority.NORMAL);
+    }
+
+    /**
+     * Runs the task with the given priority. If all threads are busy, the task waits until it's the one with the
+     * highest priority.
+     *
+     * @param task     task to run
+     * @param priority priority of the task
+     * @throws NullPointerException       Is thrown if value of task or priority is null.
+     * @throws RejectedExecutionException Is thrown if the executor was shut down.
+     */
+    public void execute(final Runnable task, final Priority priority)
+            throws NullPointerException, RejectedExecutionException {
+        ArgumentUtils.assertNotNull(task, "task");
+        ArgumentUtils.assertNotNull(priority, "priority");
+
+        if (this.executor.isShutdown()) {
+            throw new RejectedExecutionException("The executor was shut down.");
+        }
+
+        synchronized (this.queues) {
+            this.queues[priority.level()].add(new Task(task, System.nanoTime()));
+
+            if (this.running >= this.parallelism) {
+                return;
+            }
+
+            this.running++;
+        }
+
+        try {
+            this.executor.execute(this::work);
+        } catch (RejectedExecutionException e) {
+            synchronized (this.queues) {
+                this.running--;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting for a thread.
+     *
+     * @return Returns the number of waiting tasks.
+     */
+    public int pending() {
+        synchronized (this.queues) {
+            int count = 0;
+
+            for (ArrayDeque<Task> queue : this.queues) {
+                count += queue.size();
+            }
+
+            return count;
+        }
+    }
+
+    /**
+     * Returns the number of tasks of a priority waiting for a thread.
+     *
+     * @param priority priority of the tasks
+     * @return Returns the number of waiting tasks.
+     * @throws NullPointerException Is thrown if value of priority is null.
+     */
+    public int pending(final Priority priority)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(priority, "priority");
+
+        synchronized (this.queues) {
+            return this.queues[priority.level()].size();
+        }
+    }
+
+    /**
+     * Returns the maximal number of tasks running at the same time.
+     *
+     * @return Returns the maximal number of tasks running at the same time.
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Initiates an orderly shutdown. Waiting tasks are still executed, but no new ones are accepted.
+     */
+    @Override
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Removes all waiting tasks and tries to stop the running ones.
+     *
+     * @return Returns the tasks, which were waiting.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = new ArrayList<>();
+
+        synchronized (this.queues) {
+            for (ArrayDeque<Task> queue : this.queues) {
+                for (Task task : queue) {
+                    tasks.add(task.runnable);
+                }
+
+                queue.clear();
+            }
+        }
+
+        this.executor.shutdownNow();
+
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return this.executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return this.executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return this.executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Runs waiting tasks until all queues are empty. An exception thrown by a task doesn't stop the loop. If an error
+     * terminates the worker, the waiting tasks are handed to a new one.
+     */
+    private void work() {
+        boolean idle = false;
+
+        try {
+            while (true) {
+                Task task;
+
+                synchronized (this.queues) {
+                    task = this.next();
+
+                    if (task == null) {
+                        this.running--;
+                        idle = true;
+
+                        return;
+                    }
+                }
+
+                try {
+                    task.runnable.run();
+                } catch (RuntimeException e) {
+                    // the task is responsible for its exceptions
+                }
+            }
+        } finally {
+            if (!idle) {
+                this.replaceWorker();
+            }
+        }
+    }
+
+    /**
+     * Starts a new worker in place of one terminated by an error. The slot of the terminated worker is released if no
+     * task is waiting or the underlying executor rejects the new worker.
+     */
+    private void replaceWorker() {
+        synchronized (this.queues) {
+            if (this.pending() == 0) {
+                this.running--;
+
+                return;
+            }
+        }
+
+        try {
+            this.executor.execute(this::work);
+        } catch (RejectedExecutionException e) {
+            synchronized (this.queues) {
+                this.running--;
+            }
+        }
+    }
+
+    /**
+     * Removes the task with the highest priority including its age, while the lock is held. Each queue is ordered by
+     * age, so only the first task of a queue is a candidate. On a tie the task of the higher level wins.
+     */
+    private Task next() {
+        long now = System.nanoTime();
+
+        int best = -1;
+        long bestLevel = Long.MIN_VALUE;
+
+        for (int level = this.queues.length - 1; level >= 0; level--) {
+            Task task = this.queues[level].peek();
+
+            if (task != null) {
+                long effectiveLevel = level + (now - task.time) / this.agingInterval;
+
+                if (effectiveLevel > bestLevel) {
+                    best = level;
+                    bestLevel = effectiveLevel;
+                }
+            }
+        }
+
+        return best < 0 ? null : this.queues[best].poll();
+    }
+
+    private static ExecutorService createExecutor(ExecutionStrategy strategy, int parallelism) {
+        ArgumentUtils.assertNotNull(strategy, "strategy");
+
+        return strategy.createExecutor(parallelism);
+    }
+
+    /**
+     * Waiting task and the point in time it was submitted.
+     */
+    private static final class Task {
+
+        private final Runnable runnable;
+
+        private final long time;
+
+        private Task(Runnable runnable, long time) {
+            this.runnable = runnable;
+            this.time = time;
+        }
+    }
+}
@@ -40,6 +40,11 @@ public class RepeaterOptions {
      */
     private boolean canQuit = true;
 
+    /**
+     * scheduler to execute the loop steps on or <tt>null</tt> if the loop runs on the caller's thread
+     */
+    private Scheduler scheduler = null;
+
     /**
      * Default Constructor
      */
@@ -124,6 +129,31 @@ public class RepeaterOptions {
         this.canQuit = canQuit;
     }
 
+    /**
+     * Returns the scheduler the loop steps are executed on.
+     *
+     * @return Returns the scheduler or <tt>null</tt> if the loop runs on the caller's thread.
+     */
+    public Scheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * Sets the scheduler the loop steps are executed on. If a scheduler is set, each loop step is a task of the
+     * scheduler and no thread is blocked while awaiting the delay time. If the value is <tt>null</tt> the loop runs on
+     * the caller's thread. The scheduler's clock is also used to measure elapsed time, e.g. the duration of a timer.
+     * <p>
+     * A <tt>HashedWheelTimer</tt> fits best for a huge number of modules with long delays, because scheduling and
+     * cancelling a delay costs O(1).
+     * <p>
+     * The scheduler isn't part of the options' equality, because it only decides where the loop is executed.
+     *
+     * @param scheduler scheduler to execute the loop steps on
+     */
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
 
     /**
      * Returns a string representation of the object.
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scheduler executes tasks after a given delay. It's used by repeaters to await the delay between two loop steps
+ * without blocking a thread. Tasks without delay are executed as soon as possible, therefore a scheduler can also be
+ * used as an <tt>Executor</tt>.
+ * <p>
+ * Implementations should be shared by many modules and run all tasks on a small, fixed number of threads. So tasks
+ * must not block for a long time.
+ *
+ * @author PantherCode
+ */
+public interface Scheduler extends Executor {
+
+    /**
+     * Executes the task after the given delay.
+     *
+     * @param task  task to execute
+     * @param delay time to wait before the task is executed
+     * @param unit  time unit of delay
+     * @return Returns a future to cancel the task before it's executed.
+     * @throws NullPointerException Is thrown if value of task or unit is null.
+     */
+    Future<?> schedule(Runnable task, long delay, TimeUnit unit) throws NullPointerException;
+
+    /**
+     * Returns the actual time of the scheduler's clock in milliseconds. Like <tt>System.nanoTime()</tt> the value is
+     * only meaningful as difference between two calls. Modules measuring elapsed time use this clock, so they agree
+     * with the scheduler about when a delay is over.
+     *
+     * @return Returns the actual time of the scheduler's clock in milliseconds.
+     */
+    long now();
+
+    /**
+     * Initiates an orderly shutdown. No new tasks are accepted and delayed tasks, which are not executed yet, are
+     * discarded.
+     */
+    void shutdown();
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.jfr.JfrEvents;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.helper.BatchingOptions;
+import org.panthercode.arctic.core.processing.modules.helper.ExecutorScheduler;
+import org.panthercode.arctic.core.processing.modules.helper.Scheduler;
+import org.panthercode.arctic.core.settings.Context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The BatchingStep class collects items submitted by concurrent modules and processes them together. That's useful
+ * for steps calling a downstream service per item, e.g. sending a http request: a single call for a whole batch saves
+ * the overhead of all other calls.
+ * <p>
+ * A batch is executed as soon as it contains the maximal number of items or its first item waited for the linger
+ * time. Each submitted item gets a future of its own, which is completed with the item's result. If a batch fails,
+ * the futures of all its items are completed exceptionally.
+ * <p>
+ * As a module the step reads its item from the context, waits for the result and writes it to the context. The copies
+ * of a batching step share their batches, so copies running in parallel, e.g. as elements of a chunk with scoped
+ * contexts, are batched together. <tt>startAsync()</tt> doesn't hold a thread while the item waits for its batch.
+ *
+ * @param <T> type of items
+ * @param <R> type of results
+ */
+public abstract class BatchingStep<T, R> extends Step {
+
+    /**
+     * key of the context entry to read the item from
+     */
+    private final Object input;
+
+    /**
+     * key of the context entry to write the result to
+     */
+    private final Object output;
+
+    /**
+     * batch collecting the submitted items; shared by all copies
+     */
+    private final Buffer<T, R> buffer;
+
+    /**
+     * Constructor
+     *
+     * @param input   key of the context entry to read the item from
+     * @param output  key of the context entry to write the result to
+     * @param options options to collect the items with
+     * @throws NullPointerException Is thrown if value of input, output or options is null.
+     */
+    public BatchingStep(Object input, Object output, BatchingOptions options)
+            throws NullPointerException {
+        this(input, output, options, new Context());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param input   key of the context entry to read the item from
+     * @param output  key of the context entry to write the result to
+     * @param options options to collect the items with
+     * @param context context the object is associated with
+     * @throws NullPointerException Is thrown if value of input, output or options is null.
+     */
+    public BatchingStep(Object input, Object output, BatchingOptions options, Context context)
+            throws NullPointerException {
+        super(context);
+
+        ArgumentUtils.assertNotNull(input, "input");
+        ArgumentUtils.assertNotNull(output, "output");
+        ArgumentUtils.assertNotNull(options, "options");
+
+        this.input = input;
+        this.output = output;
+        this.buffer = new Buffer<>(this, options);
+    }
+
+    /**
+     * Copy Constructor. The copy shares the batches with the original.
+     *
+     * @param step object to copy
+     * @throws NullPointerException Is thrown if value of parameter is null.
+     */
+    public BatchingStep(BatchingStep<T, R> step)
+            throws NullPointerException {
+        super(step);
+
+        this.input = step.input;
+        this.output = step.output;
+        this.buffer = step.buffer;
+    }
+
+    /**
+     * Returns the options the items are collected with.
+     *
+     * @return Returns the options the items are collected with.
+     */
+    public BatchingOptions getOptions() {
+        return this.buffer.options;
+    }
+
+    /**
+     * Adds an item to the actual batch.
+     *
+     * @param item item to process
+     * @return Returns a future, which is completed with the result of the item after its batch was executed.
+     * @throws NullPointerException Is thrown if value of item is null.
+     */
+    public CompletableFuture<R> submit(T item)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(item, "item");
+
+        return this.buffer.submit(item);
+    }
+
+    /**
+     * Executes the actual batch immediately, even if it isn't full.
+     */
+    public void flush() {
+        this.buffer.flush(-1L);
+    }
+
+    /**
+     * Returns the number of items waiting for their batch to be executed.
+     *
+     * @return Returns the number of waiting items.
+     */
+    public int pending() {
+        synchronized (this.buffer) {
+            return this.buffer.items.size();
+        }
+    }
+
+    /**
+     * Returns the number of executed batches of this step and all its copies.
+     *
+     * @return Returns the number of executed batches.
+     */
+    public long getBatchCount() {
+        return this.buffer.batchCount.sum();
+    }
+
+    /**
+     * Returns the number of items processed by the batches of this step and all its copies.
+     *
+     * @return Returns the number of processed items.
+     */
+    public long getItemCount() {
+        return this.buffer.itemCount.sum();
+    }
+
+    /**
+     * Submits the item of the context and waits for its result.
+     *
+     * @return Returns <tt>true</tt> if the result was written to the context.
+     * @throws ProcessException Is thrown if the context doesn't contain an item or the batch failed.
+     */
+    @Override
+    public boolean step()
+            throws ProcessException {
+        try {
+            this.getContext().put(this.output, this.submit(this.readInput()).join());
+
+            return true;
+        } catch (CompletionException e) {
+            throw new ProcessException("An error has occurred while executing the batch.",
+                    e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * Submits the item of the context without waiting for its result. The result is written to the context by the
+     * given executor.
+     *
+     * @param executor executor to run the final steps on
+     * @return Returns a future, which is completed with the process state after execution.
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    @Override
+    public CompletableFuture<ProcessState> startAsync(final Executor executor)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(executor, "executor");
+
+        if (!this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
+            return CompletableFuture.completedFuture(this.state());
+        }
+
+        final Object event = JfrEvents.beginStep();
+
+        CompletableFuture<R> future;
+
+        try {
+            future = this.submit(this.readInput());
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+
+        return future.handleAsync((result, e) -> {
+            if (e != null) {
+                JfrEvents.commitStep(event, this, ProcessState.FAILED);
+
+                this.changeState(ProcessState.FAILED);
+
+                throw new ProcessException("An error has occurred while executing the batch.",
+                        e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+
+            this.getContext().put(this.output, result);
+
+            JfrEvents.commitStep(event, this, ProcessState.SUCCEEDED);
+
+            this.changeState(ProcessState.SUCCEEDED);
+
+            return this.state();
+        }, executor);
+    }
+
+    /**
+     * Set the process state to "Stopped". An item already submitted is processed by its batch anyway.
+     *
+     * @return Returns <tt>true</tt> if the step was stopped; Otherwise <tt>false</tt>.
+     */
+    @Override
+    public boolean stop() {
+        return this.changeState(ProcessState.STOPPED);
+    }
+
+    /**
+     * Set the process state of the object to "Ready". A running step can't be reset.
+     *
+     * @return Returns <tt>true</tt> if the step is ready; Otherwise <tt>false</tt>.
+     */
+    @Override
+    public boolean reset() {
+        return this.changeState(ProcessState.READY);
+    }
+
+    /**
+     * Processes a batch of items. The method is called once per batch, possibly by several threads at the same time.
+     *
+     * @param items items of the batch
+     * @return Returns the results of the items in the same order.
+     * @throws ProcessException Is thrown if an error occurred while processing the batch.
+     */
+    protected abstract List<R> execute(List<T> items) throws ProcessException;
+
+    @SuppressWarnings("unchecked")
+    private T readInput()
+            throws ProcessException {
+        Object value = this.getContext().get(this.input);
+
+        if (value == null) {
+            throw new ProcessException("The context doesn't contain the item " + this.input + ".");
+        }
+
+        return (T) value;
+    }
+
+    /**
+     * Items of the actual batch. A batch is executed when it's full or when its linger task fires. Each batch has a
+     * generation number, so a linger task firing late doesn't execute the next batch early.
+     */
+    private static final class Buffer<T, R> {
+
+        private final BatchingStep<T, R> step;
+
+        private final BatchingOptions options;
+
+        private final LongAdder batchCount = new LongAdder();
+
+        private final LongAdder itemCount = new LongAdder();
+
+        private List<T> items = new ArrayList<>();
+
+        private List<CompletableFuture<R>> futures = new ArrayList<>();
+
+        private long generation = 0L;
+
+        private Future<?> linger = null;
+
+        private Buffer(BatchingStep<T, R> step, BatchingOptions options) {
+            this.step = step;
+            this.options = options;
+        }
+
+        private CompletableFuture<R> submit(T item) {
+            CompletableFuture<R> future = new CompletableFuture<>();
+
+            Runnable batch = null;
+
+            synchronized (this) {
+                this.items.add(item);
+                this.futures.add(future);
+
+                if (this.items.size() >= this.options.getMaxBatchSize()) {
+                    batch = this.drain();
+                } else if (this.items.size() == 1) {
+                    final long generation = this.generation;
+
+                    this.linger = this.scheduler().schedule(() -> this.flush(generation),
+                            this.options.getLingerTime(), TimeUnit.MILLISECONDS);
+                }
+            }
+
+            if (batch != null) {
+                this.dispatch(batch);
+            }
+
+            return future;
+        }
+
+        /**
+         * Executes the actual batch, if it still has the given generation. A negative value executes any batch.
+         */
+        private void flush(long generation) {
+            Runnable batch = null;
+
+            synchronized (this) {
+                if (!this.items.isEmpty() && (generation < 0L || generation == this.generation)) {
+                    batch = this.drain();
+                }
+            }
+
+            if (batch != null) {
+                this.dispatch(batch);
+            }
+        }
+
+        /**
+         * Removes all items from the buffer, while the lock is held.
+         */
+        private Runnable drain() {
+            if (this.linger != null) {
+                this.linger.cancel(false);
+                this.linger = null;
+            }
+
+            final List<T> items = this.items;
+            final List<CompletableFuture<R>> futures = this.futures;
+
+            this.items = new ArrayList<>(items.size());
+            this.futures = new ArrayList<>(items.size());
+            this.generation++;
+
+            return () -> this.execute(items, futures);
+        }
+
+        /**
+         * Executes the batch on the executor of the options. If the executor rejects it, the batch is executed by
+         * the calling thread, so no future is left uncompleted.
+         */
+        private void dispatch(Runnable batch) {
+            Executor executor = this.options.getExecutor();
+
+            try {
+                (executor == null ? ForkJoinPool.commonPool() : executor).execute(batch);
+            } catch (RejectedExecutionException e) {
+                batch.run();
+            }
+        }
+
+        private void execute(List<T> items, List<CompletableFuture<R>> futures) {
+            this.batchCount.increment();
+            this.itemCount.add(items.size());
+
+            try {
+                List<R> results = this.step.execute(Collections.unmodifiableList(items));
+
+                if (results == null || results.size() != items.size()) {
+                    throw new ProcessException("The batch returned " + (results == null ? 0 : results.size())
+                            + " results for " + items.size() + " items.");
+                }
+
+                for (int i = 0; i < futures.size(); i++) {
+                    futures.get(i).complete(results.get(i));
+                }
+            } catch (Throwable e) {
+                for (CompletableFuture<R> future : futures) {
+                    future.completeExceptionally(e);
+                }
+            }
+        }
+
+        private Scheduler scheduler() {
+            Scheduler scheduler = this.options.getScheduler();
+
+            return scheduler == null ? ExecutorScheduler.getDefault() : scheduler;
+        }
+    }
+}
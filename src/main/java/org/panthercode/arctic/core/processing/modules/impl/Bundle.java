@@ -16,20 +16,30 @@
 package org.panthercode.arctic.core.processing.modules.impl;
 
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
 import org.panthercode.arctic.core.helper.identity.IdentityInfo;
 import org.panthercode.arctic.core.helper.version.VersionInfo;
 import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
 import org.panthercode.arctic.core.processing.modules.Module;
 import org.panthercode.arctic.core.settings.Context;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 //TODO: update documentation
 
 /**
  * The bundle class is used to hold and proceed a list of modules. Every module is stored in an internal list.
+ * <p>
+ * Child classes should override <tt>startAsync()</tt> and start their modules asynchronously, so a bundle doesn't
+ * hold a thread while waiting for its modules.
  */
 @IdentityInfo(name = "Standard Bundle", group = "Bundle Module")
 @VersionInfo(major = 1)
@@ -95,12 +105,18 @@ public abstract class Bundle extends ModuleImpl {
     /**
      * Set new context the object is associated with. It also sets the context of child element. You can only set a new
      * context to this object if process state isn't "Running" or "Waiting".
+     * <p>
+     * This method is already called by the super constructor, before the list of modules is initialised.
      *
      * @param context new context
      */
     @Override
     public synchronized boolean setContext(final Context context) {
         if (super.setContext(context)) {
+            if (this.modules == null) {
+                return true;
+            }
+
             boolean flag = true;
 
             for (Module module : this.modules) {
@@ -193,6 +209,16 @@ public abstract class Bundle extends ModuleImpl {
         return this.modules;
     }
 
+    /**
+     * Returns the elements of the bundle.
+     *
+     * @return Returns the elements of the bundle.
+     */
+    @Override
+    public List<Module> children() {
+        return this.modules == null ? Collections.<Module>emptyList() : new ArrayList<>(this.modules);
+    }
+
     /**
      * Returns the actual number of elements in bundle.
      *
@@ -254,6 +280,154 @@ public abstract class Bundle extends ModuleImpl {
         return this.modules().iterator();
     }
 
+    /**
+     * Runs the elements by the given execution and waits until it finished. The hooks <tt>before()</tt> and
+     * <tt>after()</tt> are called around the execution. Afterwards the process state is set to the result of the
+     * execution, unless the bundle was stopped in the meantime. The object isn't locked while waiting, so the bundle
+     * can be stopped from another thread.
+     * <p>
+     * It's a helper for bundles, whose elements are started by a single future.
+     *
+     * @param execution   function starting the elements; the returned future is completed with the aggregated state
+     * @param description description of the bundle used in exception messages, e.g. "DAG process"
+     * @return Returns <tt>true</tt> if the execution finished successfully; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if the execution completed exceptionally.
+     */
+    protected boolean startExecution(final Supplier<CompletableFuture<ProcessState>> execution,
+                                     final String description)
+            throws ProcessException {
+        if (this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
+            this.before();
+
+            try {
+                ProcessState result = execution.get().join();
+
+                if (!this.isStopped()) {
+                    this.changeState(result);
+                }
+            } catch (CompletionException e) {
+                this.changeState(ProcessState.FAILED);
+
+                throw new ProcessException("An error has occurred while executing the " + description + ".",
+                        e.getCause() != null ? e.getCause() : e);
+            } finally {
+                this.after();
+            }
+
+            return this.isSucceeded();
+        }
+
+        return false;
+    }
+
+    /**
+     * Runs the elements by the given execution without waiting for it. The hook <tt>after()</tt> and the final state
+     * change are executed by the given executor after the execution finished. The state changes are equals to the ones
+     * of <tt>startExecution()</tt>.
+     *
+     * @param execution   function starting the elements; the returned future is completed with the aggregated state
+     * @param executor    executor to run the final steps on
+     * @param description description of the bundle used in exception messages, e.g. "DAG process"
+     * @return Returns a future, which is completed with the process state after execution.
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    protected CompletableFuture<ProcessState> startExecutionAsync(
+            final Supplier<CompletableFuture<ProcessState>> execution,
+            final Executor executor,
+            final String description)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(executor, "executor");
+
+        if (!this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
+            return CompletableFuture.completedFuture(this.state());
+        }
+
+        CompletableFuture<ProcessState> future;
+
+        try {
+            this.before();
+
+            future = execution.get();
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+
+        return future.handleAsync((result, e) -> {
+            try {
+                if (e != null) {
+                    this.changeState(ProcessState.FAILED);
+
+                    throw new ProcessException("An error has occurred while executing the " + description + ".",
+                            e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                }
+
+                if (!this.isStopped()) {
+                    this.changeState(result);
+                }
+
+                return this.state();
+            } finally {
+                this.after();
+            }
+        }, executor);
+    }
+
+    /**
+     * Sets the process state to "Stopped" and calls the <tt>stop()</tt> method of each element. If an element throws
+     * an exception, all other elements are stopped anyway and the first exception is rethrown afterwards.
+     *
+     * @return Returns <tt>true</tt> if the object was stopped; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an error occurred while stopping an element.
+     */
+    protected boolean stopAll()
+            throws ProcessException {
+        if (this.changeState(ProcessState.STOPPED)) {
+            ProcessException exception = null;
+
+            for (Module module : this.children()) {
+                try {
+                    module.stop();
+                } catch (ProcessException e) {
+                    if (exception == null) {
+                        exception = e;
+                    }
+                }
+            }
+
+            if (exception != null) {
+                throw exception;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Set the process state of the object and all elements to "Ready". A running bundle can't be reset.
+     *
+     * @return Returns <tt>true</tt> if the object and all elements are ready; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an error occurred while resetting an element.
+     */
+    protected synchronized boolean resetAll()
+            throws ProcessException {
+        if (this.changeState(ProcessState.READY)) {
+            boolean flag = true;
+
+            for (Module module : this.modules()) {
+                if (!module.isReady() && !module.reset()) {
+                    flag = false;
+                }
+            }
+
+            return flag;
+        }
+
+        return false;
+    }
+
     /**
      * Returns a hash code value of this object.
      *
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.collections.LruCache;
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.helper.version.Version;
+import org.panthercode.arctic.core.helper.version.VersionInfo;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.Module;
+import org.panthercode.arctic.core.processing.modules.helper.CacheInfo;
+import org.panthercode.arctic.core.settings.Context;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CachedStep class wraps a module, whose result only depends on some entries of the context. The module is only
+ * executed, if its inputs weren't seen before. Otherwise the cached outputs are written to the context and the module
+ * is skipped. Outputs, which the module didn't write while its result was cached, are removed from the context. Only
+ * successful executions are cached.
+ * <p>
+ * The cache key consists of the name, group and version of the module's identity and the values of the inputs. So the
+ * copies of a cached step share their results, but a new version of the module doesn't use the results of an old one.
+ * The values of the inputs must implement <tt>equals()</tt> and <tt>hashCode()</tt> and mustn't be changed
+ * afterwards.
+ * <p>
+ * The number of cache hits and misses is available by <tt>getCache()</tt>.
+ */
+@IdentityInfo(name = "Cached Step", group = "Step Module")
+@VersionInfo(major = 1)
+public class CachedStep extends Step {
+
+    /**
+     * module to execute on a cache miss
+     */
+    private Module module;
+
+    /**
+     * keys of the context entries the module reads
+     */
+    private final Object[] inputs;
+
+    /**
+     * keys of the context entries the module writes
+     */
+    private final Object[] outputs;
+
+    /**
+     * cached outputs of the module
+     */
+    private final LruCache<Key, Map<Object, Object>> cache;
+
+    /**
+     * Constructor. The inputs, outputs and cache size are read from the module's <tt>CacheInfo</tt> annotation.
+     *
+     * @param module module to cache the results of
+     * @throws NullPointerException     Is thrown if value of module is null.
+     * @throws IllegalArgumentException Is thrown if the class of module has no <tt>CacheInfo</tt> annotation.
+     */
+    public CachedStep(Module module)
+            throws NullPointerException, IllegalArgumentException {
+        this(module, cacheInfo(module));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param module     module to cache the results of
+     * @param inputs     keys of the context entries the module reads
+     * @param outputs    keys of the context entries the module writes
+     * @param capacity   maximal number of cached results
+     * @param timeToLive time a cached result stays valid; zero if results don't expire
+     * @param unit       time unit of timeToLive
+     * @throws NullPointerException     Is thrown if value of module, inputs, outputs or unit is null.
+     * @throws IllegalArgumentException Is thrown if value of capacity is zero or less or value of timeToLive is less
+     *                                  than zero.
+     */
+    public CachedStep(Module module, Object[] inputs, Object[] outputs, int capacity, long timeToLive, TimeUnit unit)
+            throws NullPointerException, IllegalArgumentException {
+        super(module == null ? new Context() : module.getContext());
+
+        ArgumentUtils.assertNotNull(module, "module");
+        ArgumentUtils.assertNotNull(inputs, "inputs");
+        ArgumentUtils.assertNotNull(outputs, "outputs");
+
+        this.module = module;
+        this.inputs = inputs.clone();
+        this.outputs = outputs.clone();
+        this.cache = new LruCache<>(capacity, timeToLive, unit);
+    }
+
+    /**
+     * Copy Constructor. The copy wraps a copy of the module and shares the cache with the original.
+     *
+     * @param step object to copy
+     * @throws NullPointerException          Is thrown if value of parameter is null.
+     * @throws UnsupportedOperationException Is thrown if the module doesn't support cloning.
+     */
+    public CachedStep(CachedStep step)
+            throws NullPointerException, UnsupportedOperationException {
+        super(step);
+
+        this.module = step.module.copy();
+        this.module.setContext(this.getContext());
+        this.inputs = step.inputs;
+        this.outputs = step.outputs;
+        this.cache = step.cache;
+    }
+
+    private CachedStep(Module module, CacheInfo info) {
+        this(module, info.inputs(), info.outputs(), info.capacity(), info.timeToLive(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the module the object is associated with.
+     *
+     * @return Returns the module the object is associated with.
+     */
+    public Module getModule() {
+        return this.module;
+    }
+
+    /**
+     * Returns the cache of the module's results. It provides the number of hits and misses.
+     *
+     * @return Returns the cache of the module's results.
+     */
+    public LruCache<?, ?> getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Returns the module the object is associated with.
+     *
+     * @return Returns the module the object is associated with.
+     */
+    @Override
+    public List<Module> children() {
+        return this.module == null ? Collections.<Module>emptyList() : Collections.singletonList(this.module);
+    }
+
+    /**
+     * Set new context the object is associated with. It also sets the context of the module. You can only set a new
+     * context to this object if process state isn't "Running" or "Waiting".
+     * <p>
+     * This method is already called by the super constructor, before the module is set.
+     *
+     * @param context new context
+     * @return Returns <tt>true</tt> if the context was set; Otherwise <tt>false</tt>.
+     */
+    @Override
+    public synchronized boolean setContext(final Context context) {
+        return super.setContext(context) && (this.module == null || this.module.setContext(context));
+    }
+
+    /**
+     * Writes the cached outputs to the context or executes the module, if the inputs weren't seen before. Outputs
+     * missing in the cached result are removed from the context.
+     *
+     * @return Returns <tt>true</tt> if the outputs were cached or the module finished successfully; Otherwise
+     * <tt>false</tt>.
+     * @throws ProcessException Is thrown if the module has thrown an exception.
+     */
+    @Override
+    public boolean step()
+            throws ProcessException {
+        Context context = this.getContext();
+
+        Object[] values = new Object[this.inputs.length];
+
+        for (int i = 0; i < this.inputs.length; i++) {
+            values[i] = context.get(this.inputs[i]);
+        }
+
+        Key key = new Key(this.module.identity().getName(), this.module.identity().getGroup(),
+                this.module.version(), values);
+
+        Map<Object, Object> cached = this.cache.get(key);
+
+        if (cached != null) {
+            for (Object output : this.outputs) {
+                if (!cached.containsKey(output)) {
+                    context.remove(output);
+                }
+            }
+
+            context.putAll(cached);
+
+            return true;
+        }
+
+        if (!this.module.isReady() && !this.module.reset()) {
+            return false;
+        }
+
+        this.module.start();
+
+        if (!this.module.isSucceeded()) {
+            return false;
+        }
+
+        Map<Object, Object> results = new HashMap<>();
+
+        for (Object output : this.outputs) {
+            Object value = context.get(output);
+
+            if (value != null) {
+                results.put(output, value);
+            }
+        }
+
+        this.cache.put(key, results);
+
+        return true;
+    }
+
+    /**
+     * Stops the module and the object.
+     *
+     * @return Returns <tt>true</tt> if the object was stopped; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an error occurred while stopping the module.
+     */
+    @Override
+    public boolean stop()
+            throws ProcessException {
+        if (this.module.isRunning() || this.module.isWaiting()) {
+            this.module.stop();
+        }
+
+        return this.changeState(ProcessState.STOPPED);
+    }
+
+    /**
+     * Set the process state of the object and the module to "Ready". The cache isn't cleared.
+     *
+     * @return Returns <tt>true</tt> if the object and the module are ready; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an error occurred while resetting the module.
+     */
+    @Override
+    public boolean reset()
+            throws ProcessException {
+        if (this.changeState(ProcessState.READY)) {
+            return this.module.isReady() || this.module.reset();
+        }
+
+        return false;
+    }
+
+    @Override
+    public CachedStep copy()
+            throws UnsupportedOperationException {
+        return new CachedStep(this);
+    }
+
+    /**
+     * Returns a hash code value of this object.
+     *
+     * @return Returns a hash code value of this object.
+     */
+    @Override
+    public int hashCode() {
+        return Math.abs(new HashCodeBuilder()
+                .append(super.hashCode())
+                .append(this.module.hashCode())
+                .toHashCode());
+    }
+
+    /**
+     * Checks if this object is equals to another one.
+     *
+     * @param obj other object for comparison
+     * @return Returns <code>true</code> if both objects are equal; Otherwise <tt>false</tt>.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (!(obj instanceof CachedStep)) {
+            return false;
+        }
+
+        CachedStep step = (CachedStep) obj;
+
+        return super.equals(step) && this.module.equals(step.getModule());
+    }
+
+    private static CacheInfo cacheInfo(Module module) {
+        ArgumentUtils.assertNotNull(module, "module");
+
+        CacheInfo info = module.getClass().getAnnotation(CacheInfo.class);
+
+        if (info == null) {
+            throw new IllegalArgumentException("The module class has no CacheInfo annotation.");
+        }
+
+        return info;
+    }
+
+    /**
+     * Key of a cached result: the module's identity without id, its version and the values of the inputs.
+     */
+    private static final class Key {
+
+        private final String name;
+
+        private final String group;
+
+        private final Version version;
+
+        private final Object[] values;
+
+        private final int hash;
+
+        private Key(String name, String group, Version version, Object[] values) {
+            this.name = name;
+            this.group = group;
+            this.version = version;
+            this.values = values;
+            this.hash = 31 * (31 * (31 * name.hashCode() + group.hashCode())
+                    + (version == null ? 0 : version.hashCode())) + Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) obj;
+
+            return this.hash == key.hash
+                    && this.name.equals(key.name)
+                    && this.group.equals(key.group)
+                    && (this.version == null ? key.version == null : this.version.equals(key.version))
+                    && Arrays.equals(this.values, key.values);
+        }
+    }
+}
@@ -15,45 +15,74 @@
  */
 package org.panthercode.arctic.core.processing.modules.impl;
 
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
 import org.panthercode.arctic.core.helper.identity.IdentityInfo;
 import org.panthercode.arctic.core.helper.version.VersionInfo;
 import org.panthercode.arctic.core.processing.ProcessException;
 import org.panthercode.arctic.core.processing.ProcessState;
 import org.panthercode.arctic.core.processing.modules.Module;
+import org.panthercode.arctic.core.processing.modules.helper.ChunkExecutor;
 import org.panthercode.arctic.core.settings.Context;
 
-import java.util.Iterator;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-//TODO: implement reset()
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
- * The Chunk class runs all elements parallelised.
+ * The Chunk class runs all elements parallelised. The elements are executed by a <tt>ChunkExecutor</tt>, by default
+ * the one shared by all chunks. The thread count limits the number of elements running at the same time; it doesn't
+ * create any threads.
+ * <p>
+ * The chunk's process state is aggregated from its elements: "Failed" if at least one element failed, "Stopped" if the
+ * chunk or an element was stopped and "Succeeded" otherwise.
+ * <p>
+ * By default all elements share the chunk's context. If scoped contexts are enabled, each element runs on a scope of
+ * its own (see <tt>Context.child()</tt>), so elements running in parallel don't see each other's writes. After all
+ * elements finished, the scopes are committed to the chunk's context in the order of the elements.
  */
 @IdentityInfo(name = "Standard Chunk", group = "Chunk Module")
 @VersionInfo(major = 1)
 public class Chunk extends Bundle {
 
-    //TODO: check parameter
+    /**
+     * maximal number of elements running at the same time
+     */
     private int threadCount = 0;
 
+    /**
+     * executor to run the elements with
+     */
+    private ChunkExecutor executor = null;
+
+    /**
+     * flag whether each element runs on a scope of the chunk's context or not
+     */
+    private boolean scopedContexts = false;
+
     /**
      * Standard Constructor
+     *
+     * @param threadCount maximal number of elements running at the same time
+     * @throws IllegalArgumentException Is thrown if value of threadCount is zero or less.
      */
-    public Chunk(int threadCount) {
+    public Chunk(int threadCount)
+            throws IllegalArgumentException {
         this(threadCount, null);
     }
 
     /**
      * Constructor
      *
-     * @param context context the module is associated with.
+     * @param threadCount maximal number of elements running at the same time
+     * @param context     context the module is associated with.
+     * @throws IllegalArgumentException Is thrown if value of threadCount is zero or less.
      */
-    public Chunk(int threadCount, Context context) {
+    public Chunk(int threadCount, Context context)
+            throws IllegalArgumentException {
         super(context);
 
-        this.threadCount = threadCount;
+        this.setThreadCount(threadCount);
     }
 
     /**
@@ -64,64 +93,259 @@ public class Chunk extends Bundle {
     public Chunk(Chunk chunk)
             throws UnsupportedOperationException, NullPointerException {
         super(chunk);
+
+        this.threadCount = chunk.getThreadCount();
+
+        this.executor = chunk.executor;
+
+        this.scopedContexts = chunk.hasScopedContexts();
     }
 
     /**
-     * Starts the process.
+     * Returns the maximal number of elements running at the same time.
      *
-     * @throws Exception Is eventually thrown by actual module or if an error occurred while running process.
+     * @return Returns the maximal number of elements running at the same time.
      */
-    public synchronized boolean start()
-            throws ProcessException {
-        if (this.modules().isEmpty()) {
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    /**
+     * Set the maximal number of elements running at the same time. The value can only be changed if the process state
+     * isn't "Running" or "Waiting".
+     *
+     * @param threadCount new maximal number of elements running at the same time
+     * @return Returns <tt>true</tt> if the value was set; Otherwise <tt>false</tt>.
+     * @throws IllegalArgumentException Is thrown if value of threadCount is zero or less.
+     */
+    public synchronized boolean setThreadCount(int threadCount)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(threadCount, "thread count");
+
+        if (this.canModify()) {
+            this.threadCount = threadCount;
+
             return true;
         }
 
-        //TODO: change state
+        return false;
+    }
 
-        this.reset();
+    /**
+     * Returns the executor the object is associated with.
+     *
+     * @return Returns the executor the object is associated with.
+     */
+    public ChunkExecutor getExecutor() {
+        return this.executor == null ? ChunkExecutor.getDefault() : this.executor;
+    }
 
-        //ExecuterService muste be class member
-        ExecutorService executor = Executors.newFixedThreadPool(this.threadCount);
+    /**
+     * Set a new executor the object is associated with. If the value is <tt>null</tt> the shared default executor is
+     * used. The executor can only be changed if the process state isn't "Running" or "Waiting".
+     *
+     * @param executor new executor
+     * @return Returns <tt>true</tt> if the executor was set; Otherwise <tt>false</tt>.
+     */
+    public synchronized boolean setExecutor(ChunkExecutor executor) {
+        if (this.canModify()) {
+            this.executor = executor;
 
-        Iterator<Module> iterator = this.modules().iterator();
+            return true;
+        }
 
-        while (iterator.hasNext()) {
-            final Module current = iterator.next();
+        return false;
+    }
 
-            executor.execute(new Runnable() {
-                @Override
-                public void run() {
-                    current.start();
-                }
-            });
-        }
+    /**
+     * Returns a flag that indicates whether each element runs on a scope of the chunk's context or not.
+     *
+     * @return Returns <tt>true</tt> if flag is set; Otherwise <tt>false</tt>.
+     */
+    public boolean hasScopedContexts() {
+        return this.scopedContexts;
+    }
+
+    /**
+     * Sets a flag that indicates whether each element runs on a scope of the chunk's context or not. The value can
+     * only be changed if the process state isn't "Running" or "Waiting".
+     *
+     * @param scopedContexts value of flag
+     * @return Returns <tt>true</tt> if the value was set; Otherwise <tt>false</tt>.
+     */
+    public synchronized boolean setScopedContexts(boolean scopedContexts) {
+        if (this.canModify()) {
+            this.scopedContexts = scopedContexts;
 
-        //set Process state
+            return true;
+        }
 
         return false;
     }
 
     /**
-     * Stops the actual process. It's not guaranteed that process stops immediately.
-     * Calls the <tt>stop()</tt> method of each module.
+     * Starts all elements and waits until each of them finished. The object isn't locked while waiting, so the process
+     * can be stopped from another thread.
      *
-     * @throws Exception Is eventually thrown by actual module or if an error occurred while stopping process.
+     * @return Returns <tt>true</tt> if all elements finished successfully; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an element has thrown an exception.
      */
-    public synchronized boolean stop()
+    @Override
+    public boolean start()
             throws ProcessException {
-        for (Module module : this.modules()) {
-            //Todo ignore exceptions, rethrow it after stopping all other modules
-            module.stop();
+        if (this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
+            this.before();
+
+            Context[] scopes = this.openScopes();
+
+            try {
+                ProcessState result = this.getExecutor().execute(this.modules(), this.threadCount);
+
+                this.commitScopes(scopes);
+
+                if (!this.isStopped()) {
+                    this.changeState(result);
+                }
+            } catch (ProcessException e) {
+                this.changeState(ProcessState.FAILED);
+
+                throw new ProcessException("An error has occurred while executing the chunk module.", e);
+            } finally {
+                this.closeScopes(scopes);
+
+                this.after();
+            }
+
+            return this.isSucceeded();
         }
 
-        return this.canChangeState(ProcessState.STOPPED);
+        return false;
     }
 
+    /**
+     * Starts all elements without waiting for them. The hook <tt>after()</tt> and the final state change are executed
+     * by the given executor after the last element finished.
+     *
+     * @param executor executor to run the final steps on
+     * @return Returns a future, which is completed with the process state after execution.
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
     @Override
-    public boolean reset() throws ProcessException {
-        //Todo: implement
-        return false;
+    public CompletableFuture<ProcessState> startAsync(final Executor executor)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(executor, "executor");
+
+        if (!this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
+            return CompletableFuture.completedFuture(this.state());
+        }
+
+        CompletableFuture<ProcessState> execution;
+
+        Context[] scopes = null;
+
+        try {
+            this.before();
+
+            scopes = this.openScopes();
+
+            execution = this.getExecutor().executeAsync(this.modules(), this.threadCount);
+        } catch (RuntimeException e) {
+            execution = new CompletableFuture<>();
+            execution.completeExceptionally(e);
+        }
+
+        final Context[] openScopes = scopes;
+
+        return execution.handleAsync((result, e) -> {
+            try {
+                if (e != null) {
+                    this.changeState(ProcessState.FAILED);
+
+                    throw new ProcessException("An error has occurred while executing the chunk module.",
+                            e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                }
+
+                this.commitScopes(openScopes);
+
+                if (!this.isStopped()) {
+                    this.changeState(result);
+                }
+
+                return this.state();
+            } finally {
+                this.closeScopes(openScopes);
+
+                this.after();
+            }
+        }, executor);
+    }
+
+    /**
+     * Sets a new scope of the chunk's context to each element, if scoped contexts are enabled.
+     *
+     * @return Returns the scopes in the order of the elements or <tt>null</tt> if scoped contexts are disabled.
+     */
+    private Context[] openScopes() {
+        if (!this.scopedContexts) {
+            return null;
+        }
+
+        List<Module> modules = this.modules();
+        Context[] scopes = new Context[modules.size()];
+
+        for (int i = 0; i < scopes.length; i++) {
+            scopes[i] = this.getContext().child();
+
+            modules.get(i).setContext(scopes[i]);
+        }
+
+        return scopes;
+    }
+
+    private void commitScopes(Context[] scopes) {
+        if (scopes != null) {
+            for (Context scope : scopes) {
+                scope.commit();
+            }
+        }
+    }
+
+    /**
+     * Sets the chunk's context to the elements again.
+     */
+    private void closeScopes(Context[] scopes) {
+        if (scopes != null) {
+            List<Module> modules = this.modules();
+
+            for (int i = 0; i < scopes.length && i < modules.size(); i++) {
+                modules.get(i).setContext(this.getContext());
+            }
+        }
+    }
+
+    /**
+     * Stops the actual process. It's not guaranteed that process stops immediately.
+     * Calls the <tt>stop()</tt> method of each module. If a module throws an exception, all other modules are stopped
+     * anyway and the first exception is rethrown afterwards.
+     *
+     * @throws ProcessException Is thrown if an error occurred while stopping an element.
+     */
+    @Override
+    public boolean stop()
+            throws ProcessException {
+        return this.stopAll();
+    }
+
+    /**
+     * Set the process state of the object and all elements to "Ready". A running chunk can't be reset.
+     *
+     * @return Returns <tt>true</tt> if the object and all elements are ready; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an error occurred while resetting an element.
+     */
+    @Override
+    public synchronized boolean reset()
+            throws ProcessException {
+        return this.resetAll();
     }
 
     /**
@@ -23,6 +23,9 @@ import org.panthercode.arctic.core.processing.ProcessException;
 import org.panthercode.arctic.core.processing.modules.Module;
 import org.panthercode.arctic.core.settings.Context;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Container are used as root elements for processing.
  */
@@ -135,6 +138,16 @@ public class Container extends ModuleImpl {
         return this.worker;
     }
 
+    /**
+     * Returns the worker of the container.
+     *
+     * @return Returns a list containing the worker.
+     */
+    @Override
+    public List<Module> children() {
+        return this.worker == null ? Collections.<Module>emptyList() : Collections.singletonList(this.worker);
+    }
+
     /**
      * Sets a new context the object and child module is associated with.
      *
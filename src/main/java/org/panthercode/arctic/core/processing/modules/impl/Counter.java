@@ -84,6 +84,8 @@ public class Counter extends Repeater {
                         counter.isIgnoreExceptions(),
                         counter.canQuit()),
                 counter.getContext());
+
+        this.setScheduler(counter.getScheduler());
     }
 
 
@@ -0,0 +1,796 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.helper.priority.PriorityComparator;
+import org.panthercode.arctic.core.helper.version.VersionInfo;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.Module;
+import org.panthercode.arctic.core.processing.modules.helper.ChunkExecutor;
+import org.panthercode.arctic.core.settings.Context;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DagProcess class runs its elements along a directed acyclic graph. Each element may depend on other elements of
+ * the process and is started as soon as all of them finished successfully. Independent elements are running in
+ * parallel on a <tt>ChunkExecutor</tt>, by default the one shared by all chunks. The thread count limits the number of
+ * elements running at the same time; it doesn't create any threads.
+ * <p>
+ * If an element doesn't succeed, no further elements are started and the process finishes after the running ones. The
+ * process state is "Failed" if an element failed or has thrown an exception, "Stopped" if the process or an element
+ * was stopped and "Succeeded" if all elements finished successfully.
+ * <p>
+ * After each run the critical path is available: the chain of elements, which determined the duration of the whole
+ * process. Shortening any other element doesn't speed up the process.
+ * <p>
+ * If more elements are ready than the thread count allows, the ones with the highest priority are started first.
+ */
+@IdentityInfo(name = "Standard DAG Process", group = "Process Module")
+@VersionInfo(major = 1)
+public class DagProcess extends Bundle {
+
+    /**
+     * orders priorities from highest to lowest
+     */
+    private static final PriorityComparator PRIORITY_COMPARATOR = new PriorityComparator();
+
+    /**
+     * dependencies of each element; maps the identity id of an element to the identity ids of its dependencies
+     */
+    private final Map<Long, Set<Long>> dependencies = new HashMap<>();
+
+    /**
+     * maximal number of elements running at the same time
+     */
+    private int threadCount = 0;
+
+    /**
+     * executor to run the elements with
+     */
+    private ChunkExecutor executor = null;
+
+    /**
+     * elements of the critical path of the last run
+     */
+    private volatile List<Module> criticalPath = Collections.emptyList();
+
+    /**
+     * duration of the critical path of the last run (in ns)
+     */
+    private volatile long criticalPathTime = 0L;
+
+    /**
+     * Standard Constructor
+     *
+     * @param threadCount maximal number of elements running at the same time
+     * @throws IllegalArgumentException Is thrown if value of threadCount is zero or less.
+     */
+    public DagProcess(int threadCount)
+            throws IllegalArgumentException {
+        this(threadCount, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param threadCount maximal number of elements running at the same time
+     * @param context     context the module is associated with.
+     * @throws IllegalArgumentException Is thrown if value of threadCount is zero or less.
+     */
+    public DagProcess(int threadCount, Context context)
+            throws IllegalArgumentException {
+        super(context);
+
+        this.setThreadCount(threadCount);
+    }
+
+    /**
+     * Copy Constructor. The copied elements get new identities, so the dependencies are assigned by the position of
+     * the elements.
+     *
+     * @param process object to copy
+     * @throws UnsupportedOperationException Is thrown if a module in process doesn't support cloning.
+     * @throws NullPointerException          Is thrown if the process contains a null element or parameter is null.
+     */
+    public DagProcess(DagProcess process)
+            throws UnsupportedOperationException, NullPointerException {
+        super(process);
+
+        this.threadCount = process.getThreadCount();
+
+        this.executor = process.executor;
+
+        Map<Long, Long> ids = new HashMap<>();
+
+        for (int i = 0; i < this.size(); i++) {
+            ids.put(process.modules().get(i).identity().id(), this.modules().get(i).identity().id());
+        }
+
+        for (Map.Entry<Long, Set<Long>> entry : process.dependencies.entrySet()) {
+            Set<Long> copy = new LinkedHashSet<>();
+
+            for (Long dependency : entry.getValue()) {
+                copy.add(ids.get(dependency));
+            }
+
+            this.dependencies.put(ids.get(entry.getKey()), copy);
+        }
+    }
+
+    /**
+     * Returns the maximal number of elements running at the same time.
+     *
+     * @return Returns the maximal number of elements running at the same time.
+     */
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    /**
+     * Set the maximal number of elements running at the same time. The value can only be changed if the process state
+     * isn't "Running" or "Waiting".
+     *
+     * @param threadCount new maximal number of elements running at the same time
+     * @return Returns <tt>true</tt> if the value was set; Otherwise <tt>false</tt>.
+     * @throws IllegalArgumentException Is thrown if value of threadCount is zero or less.
+     */
+    public synchronized boolean setThreadCount(int threadCount)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(threadCount, "thread count");
+
+        if (this.canModify()) {
+            this.threadCount = threadCount;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the executor the object is associated with.
+     *
+     * @return Returns the executor the object is associated with.
+     */
+    public ChunkExecutor getExecutor() {
+        return this.executor == null ? ChunkExecutor.getDefault() : this.executor;
+    }
+
+    /**
+     * Set a new executor the object is associated with. If the value is <tt>null</tt> the shared default executor is
+     * used. The executor can only be changed if the process state isn't "Running" or "Waiting".
+     *
+     * @param executor new executor
+     * @return Returns <tt>true</tt> if the executor was set; Otherwise <tt>false</tt>.
+     */
+    public synchronized boolean setExecutor(ChunkExecutor executor) {
+        if (this.canModify()) {
+            this.executor = executor;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds a new module to the process, which is started after all given dependencies finished successfully.
+     *
+     * @param module       new module to add
+     * @param dependencies modules the new one depends on
+     * @return Returns <tt>true</tt> if the module was added; Otherwise <tt>false</tt>.
+     * @throws NullPointerException     Is thrown if value of dependencies or one of its elements is null.
+     * @throws IllegalArgumentException Is thrown if a dependency isn't part of the process.
+     */
+    public synchronized boolean deploy(final Module module, final Module... dependencies)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(dependencies, "dependencies");
+
+        for (Module dependency : dependencies) {
+            ArgumentUtils.assertNotNull(dependency, "dependency");
+
+            if (!this.contains(dependency.identity().id())) {
+                throw new IllegalArgumentException("The dependency " + dependency.identity()
+                        + " isn't part of the process.");
+            }
+        }
+
+        if (!this.deploy(module)) {
+            return false;
+        }
+
+        for (Module dependency : dependencies) {
+            this.addDependency(module, dependency);
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds a dependency between two modules of the process. The module is started after the dependency finished
+     * successfully. Dependencies can only be changed if the process state isn't "Running" or "Waiting".
+     *
+     * @param module     module, which depends on the other one
+     * @param dependency module, which has to finish first
+     * @return Returns <tt>true</tt> if the dependency was added; Otherwise <tt>false</tt>.
+     * @throws NullPointerException     Is thrown if value of module or dependency is null.
+     * @throws IllegalArgumentException Is thrown if a module isn't part of the process or the dependency would create
+     *                                  a cycle.
+     */
+    public synchronized boolean addDependency(final Module module, final Module dependency)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(module, "module");
+        ArgumentUtils.assertNotNull(dependency, "dependency");
+
+        long moduleId = module.identity().id();
+        long dependencyId = dependency.identity().id();
+
+        if (!this.contains(moduleId) || !this.contains(dependencyId)) {
+            throw new IllegalArgumentException("Both modules must be part of the process.");
+        }
+
+        if (moduleId == dependencyId || this.dependsOn(dependencyId, moduleId)) {
+            throw new IllegalArgumentException("The dependency from " + module.identity() + " to "
+                    + dependency.identity() + " creates a cycle.");
+        }
+
+        if (!this.canModify()) {
+            return false;
+        }
+
+        Set<Long> set = this.dependencies.get(moduleId);
+
+        if (set == null) {
+            set = new LinkedHashSet<>();
+            this.dependencies.put(moduleId, set);
+        }
+
+        return set.add(dependencyId);
+    }
+
+    /**
+     * Removes a dependency between two modules of the process. Dependencies can only be changed if the process state
+     * isn't "Running" or "Waiting".
+     *
+     * @param module     module, which depends on the other one
+     * @param dependency module, which has to finish first
+     * @return Returns <tt>true</tt> if the dependency was removed; Otherwise <tt>false</tt>.
+     */
+    public synchronized boolean removeDependency(final Module module, final Module dependency) {
+        if (module == null || dependency == null || !this.canModify()) {
+            return false;
+        }
+
+        Set<Long> set = this.dependencies.get(module.identity().id());
+
+        return set != null && set.remove(dependency.identity().id());
+    }
+
+    /**
+     * Returns the modules the given module depends on.
+     *
+     * @param module module of the process
+     * @return Returns the direct dependencies of the module.
+     * @throws NullPointerException Is thrown if value of module is null.
+     */
+    public synchronized List<Module> dependencies(final Module module)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(module, "module");
+
+        Set<Long> set = this.dependencies.get(module.identity().id());
+
+        List<Module> list = new ArrayList<>();
+
+        if (set != null) {
+            for (Long id : set) {
+                Module dependency = this.module(id);
+
+                if (dependency != null) {
+                    list.add(dependency);
+                }
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Delete a module and all dependencies from or to it from the process.
+     *
+     * @param module module to delete
+     */
+    @Override
+    public synchronized boolean undeploy(final Module module) {
+        if (!super.undeploy(module)) {
+            return false;
+        }
+
+        long id = module.identity().id();
+
+        this.dependencies.remove(id);
+
+        for (Set<Long> set : this.dependencies.values()) {
+            set.remove(id);
+        }
+
+        return true;
+    }
+
+    /**
+     * Remove all modules and dependencies from the process.
+     */
+    @Override
+    public synchronized void clear() {
+        super.clear();
+
+        this.dependencies.clear();
+    }
+
+    /**
+     * Returns the elements of the critical path of the last run. The first element was started first, the last one
+     * finished last. Each element was started after its predecessor in the path finished.
+     *
+     * @return Returns the elements of the critical path or an empty list if the process wasn't run yet.
+     */
+    public List<Module> getCriticalPath() {
+        return this.criticalPath;
+    }
+
+    /**
+     * Returns the time from starting the first element of the critical path until the last one finished.
+     *
+     * @param unit time unit of the returned value
+     * @return Returns the duration of the critical path of the last run.
+     * @throws NullPointerException Is thrown if value of unit is null.
+     */
+    public long getCriticalPathTime(final TimeUnit unit)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(unit, "unit");
+
+        return unit.convert(this.criticalPathTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts all elements along their dependencies and waits until the process finished. The object isn't locked
+     * while waiting, so the process can be stopped from another thread.
+     *
+     * @return Returns <tt>true</tt> if all elements finished successfully; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an element has thrown an exception.
+     */
+    @Override
+    public boolean start()
+            throws ProcessException {
+        return this.startExecution(() -> this.createRun().execute(), "DAG process");
+    }
+
+    /**
+     * Starts all elements along their dependencies without waiting for them. The hook <tt>after()</tt> and the final
+     * state change are executed by the given executor after the last element finished.
+     *
+     * @param executor executor to run the final steps on
+     * @return Returns a future, which is completed with the process state after execution.
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    @Override
+    public CompletableFuture<ProcessState> startAsync(final Executor executor)
+            throws NullPointerException {
+        return this.startExecutionAsync(() -> this.createRun().execute(), executor, "DAG process");
+    }
+
+    /**
+     * Stops the actual process. No further elements are started and the <tt>stop()</tt> method of each element is
+     * called. If an element throws an exception, all other elements are stopped anyway and the first exception is
+     * rethrown afterwards.
+     *
+     * @throws ProcessException Is thrown if an error occurred while stopping an element.
+     */
+    @Override
+    public boolean stop()
+            throws ProcessException {
+        return this.stopAll();
+    }
+
+    /**
+     * Set the process state of the object and all elements to "Ready". A running process can't be reset.
+     *
+     * @return Returns <tt>true</tt> if the object and all elements are ready; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an error occurred while resetting an element.
+     */
+    @Override
+    public synchronized boolean reset()
+            throws ProcessException {
+        return this.resetAll();
+    }
+
+    @Override
+    public DagProcess copy()
+            throws UnsupportedOperationException {
+        return new DagProcess(this);
+    }
+
+    /**
+     * Returns a hash code value of this object.
+     *
+     * @return Returns a hash code value of this object.
+     */
+    @Override
+    public int hashCode() {
+        return Math.abs(new HashCodeBuilder()
+                .append(super.hashCode())
+                .append(this.threadCount)
+                .toHashCode());
+    }
+
+    /**
+     * Checks if this object is equals to another one.
+     *
+     * @param obj other object for comparison
+     * @return Returns <code>true</code> if both objects are equal; Otherwise <tt>false</tt>.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (!(obj instanceof DagProcess)) {
+            return false;
+        }
+
+        DagProcess process = (DagProcess) obj;
+
+        return super.equals(process) && this.threadCount == process.getThreadCount();
+    }
+
+    /**
+     * Checks whether a module depends on another one directly or transitively.
+     */
+    private boolean dependsOn(final long moduleId, final long dependencyId) {
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        Set<Long> visited = new LinkedHashSet<>();
+
+        queue.add(moduleId);
+
+        while (!queue.isEmpty()) {
+            Set<Long> set = this.dependencies.get(queue.poll());
+
+            if (set == null) {
+                continue;
+            }
+
+            for (Long id : set) {
+                if (id == dependencyId) {
+                    return true;
+                }
+
+                if (visited.add(id)) {
+                    queue.add(id);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Creates the graph of a single run from the actual elements and dependencies.
+     */
+    private synchronized Run createRun() {
+        Module[] nodes = this.modules().toArray(new Module[this.size()]);
+
+        Map<Long, Integer> indices = new HashMap<>();
+
+        for (int i = 0; i < nodes.length; i++) {
+            indices.put(nodes[i].identity().id(), i);
+        }
+
+        int[][] predecessors = new int[nodes.length][];
+
+        for (int i = 0; i < nodes.length; i++) {
+            Set<Long> set = this.dependencies.get(nodes[i].identity().id());
+
+            List<Integer> list = new ArrayList<>();
+
+            if (set != null) {
+                for (Long id : set) {
+                    Integer index = indices.get(id);
+
+                    if (index != null) {
+                        list.add(index);
+                    }
+                }
+            }
+
+            predecessors[i] = new int[list.size()];
+
+            for (int j = 0; j < list.size(); j++) {
+                predecessors[i][j] = list.get(j);
+            }
+        }
+
+        return new Run(nodes, predecessors, this.getExecutor(), this.threadCount);
+    }
+
+    /**
+     * A single run of the process. Each finished element releases its successors; elements, whose dependencies all
+     * succeeded, are started as long as less than <tt>maxParallelism</tt> elements are running. The scheduling state is
+     * guarded by the run itself, but modules are always started outside of the lock.
+     */
+    private final class Run {
+
+        private final Module[] nodes;
+
+        private final int[][] predecessors;
+
+        private final int[][] successors;
+
+        private final int[] remaining;
+
+        private final long[] startTimes;
+
+        private final long[] endTimes;
+
+        private final ChunkExecutor executor;
+
+        private final int maxParallelism;
+
+        private final PriorityQueue<Integer> ready;
+
+        private final CompletableFuture<ProcessState> completion = new CompletableFuture<>();
+
+        private int running = 0;
+
+        private boolean aborted = false;
+
+        private boolean completed = false;
+
+        private ProcessState result = ProcessState.SUCCEEDED;
+
+        private Throwable error = null;
+
+        private Run(Module[] nodes, int[][] predecessors, ChunkExecutor executor, int maxParallelism) {
+            this.nodes = nodes;
+            this.predecessors = predecessors;
+            this.executor = executor;
+            this.maxParallelism = maxParallelism;
+            this.remaining = new int[nodes.length];
+            this.startTimes = new long[nodes.length];
+            this.endTimes = new long[nodes.length];
+            this.ready = new PriorityQueue<>(Math.max(1, nodes.length), (first, other) -> {
+                int result = PRIORITY_COMPARATOR.compare(nodes[first].priority(), nodes[other].priority());
+
+                return result != 0 ? result : Integer.compare(first, other);
+            });
+
+            int[] counts = new int[nodes.length];
+
+            for (int i = 0; i < nodes.length; i++) {
+                this.remaining[i] = predecessors[i].length;
+
+                for (int predecessor : predecessors[i]) {
+                    counts[predecessor]++;
+                }
+            }
+
+            this.successors = new int[nodes.length][];
+
+            for (int i = 0; i < nodes.length; i++) {
+                this.successors[i] = new int[counts[i]];
+            }
+
+            for (int i = 0; i < nodes.length; i++) {
+                for (int predecessor : predecessors[i]) {
+                    this.successors[predecessor][--counts[predecessor]] = i;
+                }
+
+                if (this.remaining[i] == 0) {
+                    this.ready.add(i);
+                }
+            }
+        }
+
+        private CompletableFuture<ProcessState> execute() {
+            this.schedule();
+
+            return this.completion;
+        }
+
+        /**
+         * Starts ready elements until the parallelism limit is reached. Elements, which finished immediately, release
+         * their successors within the same loop, so the call stack doesn't grow with the size of the graph.
+         */
+        private void schedule() {
+            while (true) {
+                int index;
+
+                synchronized (this) {
+                    if (this.completed) {
+                        return;
+                    }
+
+                    if (!isRunning()) {
+                        this.aborted = true;
+                    }
+
+                    if (this.aborted || this.ready.isEmpty() || this.running >= this.maxParallelism) {
+                        if (this.running > 0) {
+                            return;
+                        }
+
+                        this.completed = true;
+
+                        index = -1;
+                    } else {
+                        index = this.ready.poll();
+
+                        this.running++;
+                    }
+                }
+
+                if (index < 0) {
+                    this.complete();
+
+                    return;
+                }
+
+                final int current = index;
+
+                CompletableFuture<ProcessState> future;
+
+                this.startTimes[current] = System.nanoTime();
+
+                try {
+                    future = this.executor.startAsync(this.nodes[current]);
+                } catch (Throwable e) {
+                    future = new CompletableFuture<>();
+                    future.completeExceptionally(e);
+                }
+
+                if (future.isDone()) {
+                    this.finish(current, this.exceptionOf(future));
+                } else {
+                    future.whenComplete((state, e) -> {
+                        this.finish(current, e);
+                        this.schedule();
+                    });
+                }
+            }
+        }
+
+        private void finish(int index, Throwable e) {
+            this.endTimes[index] = System.nanoTime();
+
+            Module module = this.nodes[index];
+
+            synchronized (this) {
+                this.running--;
+
+                if (e != null) {
+                    this.aborted = true;
+                    this.result = ProcessState.FAILED;
+
+                    if (this.error == null) {
+                        this.error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    }
+                } else if (module.isSucceeded()) {
+                    for (int successor : this.successors[index]) {
+                        if (--this.remaining[successor] == 0) {
+                            this.ready.add(successor);
+                        }
+                    }
+                } else {
+                    this.aborted = true;
+
+                    if (this.result != ProcessState.FAILED) {
+                        this.result = module.isStopped() ? ProcessState.STOPPED : ProcessState.FAILED;
+                    }
+                }
+            }
+        }
+
+        private Throwable exceptionOf(CompletableFuture<ProcessState> future) {
+            try {
+                future.join();
+
+                return null;
+            } catch (CompletionException e) {
+                return e.getCause() != null ? e.getCause() : e;
+            } catch (CancellationException e) {
+                return e;
+            }
+        }
+
+        /**
+         * Records the critical path and completes the run. It's called after the last element finished, which
+         * happens-after every write to the time arrays.
+         */
+        private void complete() {
+            this.recordCriticalPath();
+
+            if (this.error != null) {
+                this.completion.completeExceptionally(new ProcessException(
+                        "While running a module of the DAG process an error occurred.", this.error));
+            } else {
+                this.completion.complete(this.result);
+            }
+        }
+
+        /**
+         * Walks backwards from the element, which finished last. The predecessor of an element on the critical path is
+         * the dependency, which finished last, because it released the element.
+         */
+        private void recordCriticalPath() {
+            int last = -1;
+
+            for (int i = 0; i < this.nodes.length; i++) {
+                if (this.endTimes[i] != 0L && (last < 0 || this.endTimes[i] > this.endTimes[last])) {
+                    last = i;
+                }
+            }
+
+            if (last < 0) {
+                criticalPath = Collections.emptyList();
+                criticalPathTime = 0L;
+
+                return;
+            }
+
+            List<Module> path = new ArrayList<>();
+
+            int first = last;
+
+            for (int index = last; index >= 0; ) {
+                path.add(this.nodes[index]);
+
+                first = index;
+
+                int next = -1;
+
+                for (int predecessor : this.predecessors[index]) {
+                    if (this.endTimes[predecessor] != 0L
+                            && (next < 0 || this.endTimes[predecessor] > this.endTimes[next])) {
+                        next = predecessor;
+                    }
+                }
+
+                index = next;
+            }
+
+            Collections.reverse(path);
+
+            criticalPath = Collections.unmodifiableList(path);
+            criticalPathTime = this.endTimes[last] - this.startTimes[first];
+        }
+    }
+}
@@ -18,17 +18,25 @@ package org.panthercode.arctic.core.processing.modules.impl;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.panthercode.arctic.core.arguments.ArgumentUtils;
 import org.panthercode.arctic.core.helper.identity.Identity;
+import org.panthercode.arctic.core.helper.priority.Priority;
 import org.panthercode.arctic.core.helper.version.Version;
+import org.panthercode.arctic.core.jfr.JfrEvents;
+import org.panthercode.arctic.core.metrics.ModuleMetrics;
 import org.panthercode.arctic.core.processing.ProcessState;
 import org.panthercode.arctic.core.processing.ProcessStateHandler;
 import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.events.ProcessStateEventBus;
+import org.panthercode.arctic.core.processing.modules.AsyncModule;
 import org.panthercode.arctic.core.processing.modules.Module;
 import org.panthercode.arctic.core.settings.Context;
 
 import java.util.ArrayList;
-import java.util.EnumSet;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 //TODO: update documentation
 
@@ -71,12 +79,31 @@ import java.util.List;
  * <p>
  * Modules are designed for usage in multi-threaded environments. Therefore all setter or inner member manipulating
  * functions signatures use <tt>synchronized</tt> keyword. If you override an method or add your own code, you should
- * do same to avoid incorrect behavior of object at runtime.
+ * do same to avoid incorrect behavior of object at runtime. The process state is an exception: it's changed by
+ * compare-and-set without any lock, so reading the state never blocks and <tt>ProcessStateHandler</tt>s are called
+ * without holding the object's monitor.
  * <p>
  * Please read the documentation of child modules. If you inherit from any class, inherit always from the most
  * specialist one to your needs. Always prefer to use available classes.
  */
-public abstract class ModuleImpl implements Module {
+public abstract class ModuleImpl implements AsyncModule {
+
+    /**
+     * all process states indexed by their ordinal
+     */
+    private static final ProcessState[] STATES = ProcessState.values();
+
+    /**
+     * Allowed state changes shared by all modules. The entry of the old state's ordinal is a bitmask, which contains
+     * a bit for every allowed new state (<tt>1 &lt;&lt; ordinal</tt>).
+     */
+    private static final int[] TRANSITIONS = createTransitionTable();
+
+    /**
+     * updater to change the process state by compare-and-set
+     */
+    private static final AtomicIntegerFieldUpdater<ModuleImpl> STATE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(ModuleImpl.class, "actualState");
 
     /**
      * The local context the object is associated with.
@@ -89,24 +116,39 @@ public abstract class ModuleImpl implements Module {
     private final Identity identity;
 
     /**
-     * Representation of object's inner state
+     * Representation of object's inner state (ordinal of the process state)
      */
-    private ProcessState actualState;
+    private volatile int actualState;
 
     /**
      * The version the object is associated with.
      */
     private final Version version;
 
+    /**
+     * priority the object is executed with
+     */
+    private volatile Priority priority;
+
     /**
      * Actual PrcessStateHandler to handle state transitions
      */
-    private List<ProcessStateHandler> processStateHandlers = new ArrayList<>();
+    private final List<ProcessStateHandler> processStateHandlers = new CopyOnWriteArrayList<>();
+
+    /**
+     * bus to publish state changes to or <tt>null</tt> if state changes aren't published
+     */
+    private volatile ProcessStateEventBus eventBus = null;
 
     /**
-     * Contains all allowed process state changes.
+     * metrics to record the runs of the object or <tt>null</tt> if no metrics are recorded
      */
-    private HashMap<ProcessState, EnumSet<ProcessState>> stateMap;
+    private volatile ModuleMetrics metrics = null;
+
+    /**
+     * point in time the actual run started (in ns); only used if metrics are recorded
+     */
+    private volatile long runStartTime = 0L;
 
     /**
      * Standard Constructor
@@ -138,11 +180,11 @@ public abstract class ModuleImpl implements Module {
             this.version = new Version();
         }
 
-        this.actualState = ProcessState.READY;
+        this.priority = Priority.fromAnnotation(this.getClass());
 
-        this.setContext(context);
+        this.actualState = ProcessState.READY.ordinal();
 
-        this.initialiseStateMap();
+        this.setContext(context);
     }
 
     /**
@@ -158,13 +200,13 @@ public abstract class ModuleImpl implements Module {
 
         this.identity = Identity.generate(module.identity().getName(), module.identity().getGroup());
 
-        this.actualState = ProcessState.READY;
+        this.actualState = ProcessState.READY.ordinal();
 
         this.version = module.version();
 
-        this.setContext(new Context());
+        this.priority = module.priority();
 
-        this.initialiseStateMap();
+        this.setContext(new Context());
     }
 
     /**
@@ -185,6 +227,31 @@ public abstract class ModuleImpl implements Module {
         return new Version(this.version);
     }
 
+    /**
+     * Returns the priority the object is executed with. The initial value is read from the <tt>PriorityInfo</tt>
+     * annotation of the class.
+     *
+     * @return Returns the priority the object is executed with.
+     */
+    @Override
+    public Priority priority() {
+        return this.priority;
+    }
+
+    /**
+     * Set the priority the object is executed with. The new priority is used the next time the object waits for a
+     * thread, so it can be changed at any time.
+     *
+     * @param priority new priority
+     * @throws NullPointerException Is thrown if value of priority is null.
+     */
+    public void setPriority(final Priority priority)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(priority, "priority");
+
+        this.priority = priority;
+    }
+
     /**
      * Returns the context the object is associated with.
      *
@@ -214,7 +281,7 @@ public abstract class ModuleImpl implements Module {
      *
      * @return Returns the actual <tt>ProcessStateHandler</tt> the object is associated with.
      */
-    public synchronized boolean addProcessStateHandler(ProcessStateHandler handler) {
+    public boolean addProcessStateHandler(ProcessStateHandler handler) {
         return this.processStateHandlers.add(handler);
     }
 
@@ -223,7 +290,7 @@ public abstract class ModuleImpl implements Module {
      *
      * @param handler new handler
      */
-    public synchronized boolean removeProcessStateHandler(ProcessStateHandler handler) {
+    public boolean removeProcessStateHandler(ProcessStateHandler handler) {
         return this.processStateHandlers.remove(handler);
     }
 
@@ -231,13 +298,80 @@ public abstract class ModuleImpl implements Module {
         return new ArrayList<>(this.processStateHandlers);
     }
 
+    /**
+     * Returns the bus the object publishes its state changes to.
+     *
+     * @return Returns the bus or <tt>null</tt> if state changes aren't published.
+     */
+    public ProcessStateEventBus getEventBus() {
+        return this.eventBus;
+    }
+
+    /**
+     * Set a new bus the object publishes its state changes to. In contrast to <tt>ProcessStateHandler</tt>s the
+     * subscribers of the bus handle the state changes on their own threads, so a slow subscriber doesn't delay the
+     * object.
+     *
+     * @param eventBus new bus or <tt>null</tt> to stop publishing state changes
+     */
+    public void setEventBus(final ProcessStateEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Returns the metrics the object records its runs to.
+     *
+     * @return Returns the metrics or <tt>null</tt> if no metrics are recorded.
+     */
+    public ModuleMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Set new metrics the object records its runs to. Usually it's called by a <tt>MetricsRegistry</tt>.
+     *
+     * @param metrics new metrics or <tt>null</tt> to stop recording
+     */
+    public void setMetrics(final ModuleMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics of the object summed up with the aggregated metrics of all modules it contains. Modules
+     * without metrics are skipped.
+     *
+     * @return Returns the aggregated metrics of the module tree.
+     */
+    public ModuleMetrics aggregateMetrics() {
+        ModuleMetrics metrics = this.metrics;
+        ModuleMetrics result = metrics == null ? new ModuleMetrics() : metrics.snapshot();
+
+        for (Module child : this.children()) {
+            if (child instanceof ModuleImpl) {
+                result.add(((ModuleImpl) child).aggregateMetrics());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the modules the object contains directly. Modules containing other modules should override this method,
+     * so the whole module tree can be traversed, e.g. to aggregate metrics.
+     *
+     * @return Returns the modules the object contains directly.
+     */
+    public List<Module> children() {
+        return Collections.emptyList();
+    }
+
     /**
      * Returns the inner state the object is associated with.
      *
      * @return Returns the inner state the object is associated with.
      */
     public ProcessState state() {
-        return this.actualState;
+        return STATES[this.actualState];
     }
 
     /**
@@ -246,7 +380,7 @@ public abstract class ModuleImpl implements Module {
      * @return Returns <tt>true</tt> if the object is ready; Otherwise <tt>false</tt>.
      */
     public boolean isReady() {
-        return this.actualState == ProcessState.READY;
+        return this.actualState == ProcessState.READY.ordinal();
     }
 
     /**
@@ -255,7 +389,7 @@ public abstract class ModuleImpl implements Module {
      * @return Returns <tt>true</tt> if object is executing; Otherwise <tt>false</tt>.
      */
     public boolean isRunning() {
-        return this.actualState == ProcessState.RUNNING;
+        return this.actualState == ProcessState.RUNNING.ordinal();
     }
 
     /**
@@ -264,7 +398,7 @@ public abstract class ModuleImpl implements Module {
      * @return Returns <tt>true</tt> if object finished unsuccessful; Otherwise <tt>false</tt>.
      */
     public boolean isFailed() {
-        return this.actualState == ProcessState.FAILED;
+        return this.actualState == ProcessState.FAILED.ordinal();
     }
 
     /**
@@ -273,7 +407,7 @@ public abstract class ModuleImpl implements Module {
      * @return Returns <tt>true</tt> if object aborts the process; Otherwise <tt>false</tt>.
      */
     public boolean isStopped() {
-        return this.actualState == ProcessState.STOPPED;
+        return this.actualState == ProcessState.STOPPED.ordinal();
     }
 
     /**
@@ -282,7 +416,7 @@ public abstract class ModuleImpl implements Module {
      * @return Returns <tt>true</tt> if object is waiting; Otherwise <tt>false</tt>.
      */
     public boolean isWaiting() {
-        return this.actualState == ProcessState.WAITING;
+        return this.actualState == ProcessState.WAITING.ordinal();
     }
 
     /**
@@ -291,7 +425,7 @@ public abstract class ModuleImpl implements Module {
      * @return Returns <tt>true</tt> if object finished successful; Otherwise <tt>false</tt>.
      */
     public boolean isSucceeded() {
-        return this.actualState == ProcessState.SUCCEEDED;
+        return this.actualState == ProcessState.SUCCEEDED.ordinal();
     }
 
     /**
@@ -302,6 +436,25 @@ public abstract class ModuleImpl implements Module {
      */
     public abstract boolean start() throws ProcessException;
 
+    /**
+     * Executes the <tt>start()</tt> method on the given executor. Modules containing other modules should override
+     * this method to start their children asynchronously as well.
+     *
+     * @param executor executor to run the functionality on
+     * @return Returns a future, which is completed with the process state after execution.
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    public CompletableFuture<ProcessState> startAsync(final Executor executor)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(executor, "executor");
+
+        return CompletableFuture.supplyAsync(() -> {
+            this.start();
+
+            return this.state();
+        }, executor);
+    }
+
     /**
      * Stops the actual run and set process state to 'Stopped'.
      *
@@ -373,25 +526,53 @@ public abstract class ModuleImpl implements Module {
     }
 
     /**
-     * Helper function to fill a map with all allowed state changes. The map contains all state-pairs from table above,
-     * which transition reutrns <tt>true</tt>.
-     * <p>
-     * If you override this method, also override canChangeState() method to avoid wrong behavior of object at runtime!
+     * Creates the table of allowed state changes shown above. Each state is allowed to change to itself.
+     *
+     * @return Returns the table of allowed state changes.
      */
-    protected synchronized void initialiseStateMap() {
-        if (this.stateMap == null) {
-            this.stateMap = new HashMap<>(6);
-        } else {
-            this.stateMap.clear();
+    private static int[] createTransitionTable() {
+        int[] table = new int[STATES.length];
+
+        allow(table, ProcessState.READY, ProcessState.READY, ProcessState.RUNNING, ProcessState.STOPPED);
+        allow(table, ProcessState.RUNNING, ProcessState.RUNNING, ProcessState.WAITING, ProcessState.SUCCEEDED,
+                ProcessState.FAILED, ProcessState.STOPPED);
+        allow(table, ProcessState.WAITING, ProcessState.WAITING, ProcessState.RUNNING, ProcessState.STOPPED);
+        allow(table, ProcessState.SUCCEEDED, ProcessState.SUCCEEDED, ProcessState.READY, ProcessState.FAILED);
+        allow(table, ProcessState.FAILED, ProcessState.FAILED, ProcessState.READY, ProcessState.SUCCEEDED);
+        allow(table, ProcessState.STOPPED, ProcessState.STOPPED, ProcessState.READY);
+
+        return table;
+    }
+
+    private static void allow(int[] table, ProcessState from, ProcessState... to) {
+        for (ProcessState state : to) {
+            table[from.ordinal()] |= 1 << state.ordinal();
         }
+    }
 
-        this.stateMap.put(ProcessState.READY, EnumSet.of(ProcessState.READY, ProcessState.RUNNING, ProcessState.STOPPED));
-        this.stateMap.put(ProcessState.RUNNING, EnumSet.of(ProcessState.RUNNING, ProcessState.WAITING, ProcessState.SUCCEEDED,
-                ProcessState.FAILED, ProcessState.STOPPED));
-        this.stateMap.put(ProcessState.WAITING, EnumSet.of(ProcessState.WAITING, ProcessState.RUNNING, ProcessState.STOPPED));
-        this.stateMap.put(ProcessState.SUCCEEDED, EnumSet.of(ProcessState.SUCCEEDED, ProcessState.READY, ProcessState.FAILED));
-        this.stateMap.put(ProcessState.FAILED, EnumSet.of(ProcessState.FAILED, ProcessState.READY, ProcessState.SUCCEEDED));
-        this.stateMap.put(ProcessState.STOPPED, EnumSet.of(ProcessState.STOPPED, ProcessState.READY));
+    /**
+     * Function to check whether a state change is allowed by the table above or not.
+     *
+     * @param from old state of the object
+     * @param to   new state the object would like to set
+     * @return Returns <tt>true</tt> if the state change is allowed; Otherwise <tt>false</tt>.
+     * @throws NullPointerException Is thrown if value of from or to is null.
+     */
+    public static boolean isAllowed(final ProcessState from, final ProcessState to)
+            throws NullPointerException {
+        return (TRANSITIONS[from.ordinal()] & (1 << to.ordinal())) != 0;
+    }
+
+    /**
+     * Function to check whether a state change is allowed or not. Override this method to restrict or extend the
+     * allowed state changes of a module.
+     *
+     * @param from old state of the object
+     * @param to   new state the object would like to set
+     * @return Returns <tt>true</tt> if the state change is allowed; Otherwise <tt>false</tt>.
+     */
+    protected boolean canChangeState(final ProcessState from, final ProcessState to) {
+        return isAllowed(from, to);
     }
 
     /**
@@ -401,34 +582,90 @@ public abstract class ModuleImpl implements Module {
      * @return Returns <tt>true</tt> if the new state is allowed; Otherwise <tt>false</tt>.
      */
     protected boolean canChangeState(final ProcessState newState) {
-        return this.stateMap.containsKey(this.actualState) &&
-                this.stateMap.get(this.actualState).contains(newState);
+        return this.canChangeState(this.state(), newState);
     }
 
     /**
-     * Set the inner state of object to given value. If <tt>ProcessStateHandler</tt> is set, an event is raised.
+     * Set the inner state of object to given value. The state is changed by compare-and-set, so the method never
+     * blocks. Afterwards the change is published to the event bus, if set, and the <tt>ProcessStateHandler</tt>s
+     * are called without holding any lock. Exceptions thrown by a handler are ignored, so a faulty handler can't break
+     * the state machine.
      *
      * @param newState new state of object
+     * @return Returns <tt>true</tt> if the state is changed; Otherwise <tt>false</tt>.
      */
-    protected synchronized boolean changeState(final ProcessState newState) {
-        if (this.canChangeState(newState)) {
-            ProcessState oldState = this.actualState;
+    protected boolean changeState(final ProcessState newState) {
+        int oldState;
 
-            this.actualState = newState;
+        do {
+            oldState = this.actualState;
 
-            for (ProcessStateHandler handler : this.processStateHandlers) {
-                try {
-                    handler.handle(this, oldState);
-                } catch (Exception e) {
-                    // TODO: explanation why ignoring handler
-                    // ignoring exceptions of handler
-                }
+            if (!this.canChangeState(STATES[oldState], newState)) {
+                return false;
             }
+        } while (!STATE_UPDATER.compareAndSet(this, oldState, newState.ordinal()));
 
-            return true;
+        this.notifyHandlers(STATES[oldState], newState);
+
+        return true;
+    }
+
+    /**
+     * Set the inner state of object to given value, but only if the actual state is equals to the expected one. It's
+     * used to claim a state change exclusively, e.g. only one of several threads calling <tt>start()</tt> at the same
+     * time is allowed to run the module.
+     *
+     * @param expectedState state the object must have
+     * @param newState      new state of object
+     * @return Returns <tt>true</tt> if the state is changed; Otherwise <tt>false</tt>.
+     */
+    protected boolean changeState(final ProcessState expectedState, final ProcessState newState) {
+        if (!this.canChangeState(expectedState, newState) ||
+                !STATE_UPDATER.compareAndSet(this, expectedState.ordinal(), newState.ordinal())) {
+            return false;
         }
 
-        return false;
+        this.notifyHandlers(expectedState, newState);
+
+        return true;
+    }
+
+    private void notifyHandlers(final ProcessState oldState, final ProcessState newState) {
+        ModuleMetrics metrics = this.metrics;
+
+        if (metrics != null) {
+            this.recordMetrics(metrics, oldState, newState);
+        }
+
+        ProcessStateEventBus bus = this.eventBus;
+
+        if (bus != null) {
+            bus.publish(this.identity.id(), oldState, newState);
+        }
+
+        JfrEvents.moduleStateChanged(this, oldState, newState);
+
+        for (ProcessStateHandler handler : this.processStateHandlers) {
+            try {
+                handler.handle(this, oldState);
+            } catch (Exception e) {
+                // a handler only observes the state change, so its failure mustn't affect the module
+            }
+        }
+    }
+
+    private void recordMetrics(final ModuleMetrics metrics, final ProcessState oldState, final ProcessState newState) {
+        if (newState == ProcessState.RUNNING) {
+            if (oldState == ProcessState.READY) {
+                this.runStartTime = System.nanoTime();
+
+                metrics.recordStart();
+            }
+        } else if ((oldState == ProcessState.RUNNING || oldState == ProcessState.WAITING) &&
+                (newState == ProcessState.SUCCEEDED || newState == ProcessState.FAILED ||
+                        newState == ProcessState.STOPPED)) {
+            metrics.recordFinish(newState, System.nanoTime() - this.runStartTime);
+        }
     }
 
     /**
@@ -15,17 +15,29 @@
  */
 package org.panthercode.arctic.core.processing.modules.impl;
 
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
 import org.panthercode.arctic.core.helper.identity.IdentityInfo;
 import org.panthercode.arctic.core.helper.version.VersionInfo;
 import org.panthercode.arctic.core.processing.ProcessState;
 import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.checkpoint.Checkpoint;
+import org.panthercode.arctic.core.processing.checkpoint.CheckpointStore;
+import org.panthercode.arctic.core.processing.modules.AsyncModule;
 import org.panthercode.arctic.core.processing.modules.Module;
 import org.panthercode.arctic.core.settings.Context;
 
-import java.util.Iterator;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The Process class runs one element after another.
+ * <p>
+ * If a checkpoint store is set, the progress is stored after each element finished successfully. A new start of the
+ * process resumes with the first element, which didn't finish, and restores the context of the checkpoint. A failed
+ * process is resumed by calling <tt>reset()</tt> and <tt>start()</tt> again, even after the application was restarted.
+ * The checkpoint is removed as soon as the whole process finished successfully.
  */
 @IdentityInfo(name = "Standard Process", group = "Process Module")
 @VersionInfo(major = 1)
@@ -36,6 +48,16 @@ public class Process extends Bundle {
      */
     private Module currentModule = null;
 
+    /**
+     * store to save the progress in or <tt>null</tt> if the progress isn't saved
+     */
+    private CheckpointStore checkpointStore = null;
+
+    /**
+     * key the progress is stored with
+     */
+    private String checkpointKey = null;
+
     /**
      * Standard Constructor
      */
@@ -72,21 +94,70 @@ public class Process extends Bundle {
     }
 
     /**
-     * Starts the process.
+     * Returns the store the progress is saved in.
+     *
+     * @return Returns the store or <tt>null</tt> if the progress isn't saved.
+     */
+    public CheckpointStore getCheckpointStore() {
+        return this.checkpointStore;
+    }
+
+    /**
+     * Returns the key the progress is stored with.
+     *
+     * @return Returns the key or <tt>null</tt> if the progress isn't saved.
+     */
+    public String getCheckpointKey() {
+        return this.checkpointKey;
+    }
+
+    /**
+     * Set the store to save the progress in. The key identifies the process in the store, so it must be the same after
+     * a restart of the application and unique among all processes using the store. If the value of store is
+     * <tt>null</tt> the progress isn't saved. The store can only be changed if the process state isn't "Running" or
+     * "Waiting".
+     *
+     * @param store store to save the progress in
+     * @param key   key the progress is stored with
+     * @return Returns <tt>true</tt> if the store was set; Otherwise <tt>false</tt>.
+     * @throws NullPointerException Is thrown if a store is given, but value of key is null.
+     */
+    public synchronized boolean setCheckpointStore(final CheckpointStore store, final String key)
+            throws NullPointerException {
+        if (store != null) {
+            ArgumentUtils.assertNotNull(key, "key");
+        }
+
+        if (this.canModify()) {
+            this.checkpointStore = store;
+            this.checkpointKey = store == null ? null : key;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Starts the process. If the checkpoint of a succeeded process can't be removed, an exception is thrown, but the
+     * process stays "Succeeded".
      *
      * @throws Exception Is eventually thrown by actual module or if an error occurred while running process.
      */
     @Override
     public boolean start()
             throws ProcessException {
-        if (this.changeState(ProcessState.RUNNING)) {
+        if (this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
 
             this.before();
 
+            boolean succeeded;
+
             try {
-                Iterator<Module> iterator = this.iterator();
-                while (iterator.hasNext() && this.isRunning()) {
-                    this.currentModule = iterator.next();
+                List<Module> modules = this.modules();
+
+                for (int index = this.resume(); index < modules.size() && this.isRunning(); index++) {
+                    this.currentModule = modules.get(index);
 
                     this.currentModule.start();
 
@@ -96,24 +167,119 @@ public class Process extends Bundle {
                         //Todo: return false for whole process instead of throwing an exceptions
                         throw new RuntimeException("Step does not return successful.");
                     }
+
+                    this.saveCheckpoint(index + 1);
                 }
 
                 this.currentModule = null;
 
-                this.changeState(ProcessState.SUCCEEDED);
-
-                this.after();
-
-                return true;
+                succeeded = this.changeState(ProcessState.SUCCEEDED);
             } catch (Exception e) {
                 this.changeState(ProcessState.FAILED);
                 this.after();
+
+                return false;
             }
+
+            // all modules succeeded, so a failed removal of the checkpoint doesn't change the state
+            try {
+                if (succeeded) {
+                    this.removeCheckpoint();
+                }
+            } finally {
+                this.after();
+            }
+
+            return true;
         }
 
         return false;
     }
 
+    /**
+     * Starts the process without holding the caller's thread. Each module is started asynchronously after its
+     * predecessor finished successfully. The process fails as soon as a module doesn't succeed or throws an exception.
+     *
+     * @param executor executor to run the modules on
+     * @return Returns a future, which is completed with the process state after execution.
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    @Override
+    public CompletableFuture<ProcessState> startAsync(final Executor executor)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(executor, "executor");
+
+        if (!this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
+            return CompletableFuture.completedFuture(this.state());
+        }
+
+        CompletableFuture<ProcessState> result = new CompletableFuture<>();
+
+        try {
+            this.before();
+
+            this.startNextAsync(this.resume(), executor, result);
+        } catch (RuntimeException e) {
+            this.finishAsync(false, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Starts the module at the given index or finishes the process if there are no modules left.
+     */
+    private void startNextAsync(final int index,
+                                final Executor executor,
+                                final CompletableFuture<ProcessState> result) {
+        if (index >= this.size() || !this.isRunning()) {
+            this.finishAsync(true, result);
+
+            return;
+        }
+
+        this.currentModule = this.modules().get(index);
+
+        AsyncModule.startAsync(this.currentModule, executor).whenCompleteAsync((state, e) -> {
+            try {
+                if (e != null || state != ProcessState.SUCCEEDED) {
+                    this.finishAsync(false, result);
+                } else {
+                    this.saveCheckpoint(index + 1);
+
+                    this.startNextAsync(index + 1, executor, result);
+                }
+            } catch (RuntimeException ex) {
+                this.finishAsync(false, result);
+            }
+        }, executor);
+    }
+
+    /**
+     * Sets the final process state, calls <tt>after()</tt> and completes the future.
+     */
+    private void finishAsync(final boolean succeeded, final CompletableFuture<ProcessState> result) {
+        this.currentModule = null;
+
+        try {
+            if (!this.isStopped()) {
+                this.changeState(succeeded ? ProcessState.SUCCEEDED : ProcessState.FAILED);
+            }
+
+            try {
+                if (this.isSucceeded()) {
+                    this.removeCheckpoint();
+                }
+            } finally {
+                this.after();
+            }
+
+            result.complete(this.state());
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
     /**
      * Stops the actual process. It's not guaranteed that process stops immediately, but after finishing actual module.
      * Calls actual module's <tt>stop()</tt> method.
@@ -129,10 +295,66 @@ public class Process extends Bundle {
         return this.changeState(ProcessState.STOPPED);
     }
 
+    /**
+     * Set the process state of the object and all elements to "Ready". A running process can't be reset. The
+     * checkpoint isn't removed, so the next start resumes with the first element, which didn't finish successfully.
+     *
+     * @return Returns <tt>true</tt> if the object and all elements are ready; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an error occurred while resetting an element.
+     */
     @Override
-    public boolean reset() throws ProcessException {
-        // Todo: implement
-        return false;
+    public synchronized boolean reset()
+            throws ProcessException {
+        return this.resetAll();
+    }
+
+    /**
+     * Loads the checkpoint and restores its context. A checkpoint is ignored if the number of elements changed since
+     * it was saved.
+     *
+     * @return Returns the index of the element to start with.
+     */
+    private int resume() {
+        if (this.checkpointStore == null) {
+            return 0;
+        }
+
+        Checkpoint checkpoint;
+
+        try {
+            checkpoint = this.checkpointStore.load(this.checkpointKey);
+        } catch (IOException e) {
+            throw new ProcessException("Failed to load the checkpoint of the process.", e);
+        }
+
+        if (checkpoint == null || checkpoint.getModuleCount() != this.size()) {
+            return 0;
+        }
+
+        this.getContext().putAll(checkpoint.getContext());
+
+        return checkpoint.getIndex();
+    }
+
+    private void saveCheckpoint(final int index) {
+        if (this.checkpointStore != null) {
+            try {
+                this.checkpointStore.save(new Checkpoint(this.checkpointKey, index, this.size(),
+                        System.currentTimeMillis(), this.getContext()));
+            } catch (IOException e) {
+                throw new ProcessException("Failed to save the checkpoint of the process.", e);
+            }
+        }
+    }
+
+    private void removeCheckpoint() {
+        if (this.checkpointStore != null) {
+            try {
+                this.checkpointStore.remove(this.checkpointKey);
+            } catch (IOException e) {
+                throw new ProcessException("Failed to remove the checkpoint of the process.", e);
+            }
+        }
     }
 
     /**
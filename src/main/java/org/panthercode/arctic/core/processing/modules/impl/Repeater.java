@@ -17,19 +17,33 @@ package org.panthercode.arctic.core.processing.modules.impl;
 
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.jfr.JfrEvents;
 import org.panthercode.arctic.core.processing.ProcessException;
 import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.AsyncModule;
 import org.panthercode.arctic.core.processing.modules.Module;
 import org.panthercode.arctic.core.processing.modules.helper.Controller;
+import org.panthercode.arctic.core.processing.modules.helper.ExecutorScheduler;
 import org.panthercode.arctic.core.processing.modules.helper.RepeaterOptions;
+import org.panthercode.arctic.core.processing.modules.helper.Scheduler;
 import org.panthercode.arctic.core.settings.Context;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 //TODO: update documentation
 
 /**
  * Class to repeat module's functionality. The Loop class provides some basic functions to control the loop process.
+ * <p>
+ * By default the loop runs on the caller's thread and waits for the delay time between two loop steps. If the options
+ * contain a <tt>Scheduler</tt>, every loop step is a task of that scheduler instead. Many repeaters can share one
+ * scheduler and only occupy a thread while their module is executing.
  */
 public abstract class Repeater extends ModuleImpl {
 
@@ -53,6 +67,21 @@ public abstract class Repeater extends ModuleImpl {
      */
     protected final TimeUnit timeUnit = TimeUnit.MILLISECONDS;
 
+    /**
+     * monitor to await the delay time on the caller's thread
+     */
+    private final Object delayMonitor = new Object();
+
+    /**
+     * delay of the next asynchronous loop step
+     */
+    private volatile Future<?> pendingDelay = null;
+
+    /**
+     * next asynchronous loop step
+     */
+    private volatile Runnable pendingStep = null;
+
     /**
      * Constructor
      *
@@ -115,6 +144,7 @@ public abstract class Repeater extends ModuleImpl {
         this.setController(this.createController());
 
         this.options = new RepeaterOptions(repeater.getDelayTime(), repeater.isIgnoreExceptions(), repeater.canQuit());
+        this.options.setScheduler(repeater.getScheduler());
     }
 
     private void setController(Controller<? extends Object> controller) {
@@ -126,13 +156,15 @@ public abstract class Repeater extends ModuleImpl {
     /**
      * Set new context the object is associated with. It also sets the context of child element. You can only set a new
      * context to this object if process state isn't "Running" or "Waiting".
+     * <p>
+     * This method is already called by the super constructor, before the child element is set.
      *
      * @param context new context
      * @return
      */
     @Override
     public synchronized boolean setContext(final Context context) {
-        return super.setContext(context) && this.module.setContext(context);
+        return super.setContext(context) && (this.module == null || this.module.setContext(context));
     }
 
     /**
@@ -166,6 +198,16 @@ public abstract class Repeater extends ModuleImpl {
         return this.module;
     }
 
+    /**
+     * Returns the module, which is repeated.
+     *
+     * @return Returns a list containing the repeated module.
+     */
+    @Override
+    public List<Module> children() {
+        return this.module == null ? Collections.<Module>emptyList() : Collections.singletonList(this.module);
+    }
+
     /**
      * Set a new delay time the object is associated with. The value must be greater than or equals zero.
      *
@@ -246,6 +288,32 @@ public abstract class Repeater extends ModuleImpl {
         this.options.canQuit(canQuit);
     }
 
+    /**
+     * Returns the scheduler the loop steps are executed on.
+     *
+     * @return Returns the scheduler or <tt>null</tt> if the loop runs on the caller's thread.
+     */
+    public Scheduler getScheduler() {
+        return this.options.getScheduler();
+    }
+
+    /**
+     * Sets the scheduler the loop steps are executed on. If the value is <tt>null</tt> the loop runs on the caller's
+     * thread. The scheduler can only be changed if process state isn't "Running" or "Waiting".
+     *
+     * @param scheduler scheduler to execute the loop steps on
+     * @return Returns <tt>true</tt> if the scheduler was set; Otherwise <tt>false</tt>.
+     */
+    public synchronized boolean setScheduler(Scheduler scheduler) {
+        if (this.canModify()) {
+            this.options.setScheduler(scheduler);
+
+            return true;
+        }
+
+        return false;
+    }
+
     /**
      * This method will be called before loop process starts.
      */
@@ -260,23 +328,63 @@ public abstract class Repeater extends ModuleImpl {
             throws ProcessException {
     }
 
+    /**
+     * Repeats the module's functionality. If the options contain a scheduler, each loop step is executed as a task of
+     * the scheduler and the caller only waits for the result. Otherwise the loop runs on the caller's thread.
+     * <p>
+     * In both cases this method blocks the caller's thread until the loop finished, including all delays between the
+     * loop steps. Don't call it from a thread of the repeater's scheduler, because the loop steps may wait for that
+     * thread. Use <tt>startAsync()</tt> to repeat the module without blocking.
+     * <p>
+     * The object isn't locked while the loop is running or awaiting the delay time. A call of <tt>stop()</tt> from
+     * another thread ends the delay immediately.
+     *
+     * @return Returns <tt>true</tt> if the loop wasn't stopped; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if the module has thrown an exception, which isn't ignored.
+     */
     @Override
-    public synchronized boolean start() throws ProcessException {
-        if (this.changeState(ProcessState.RUNNING)) {
+    public boolean start() throws ProcessException {
+        Scheduler scheduler = this.options.getScheduler();
+
+        if (scheduler != null) {
+            if (!this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
+                return false;
+            }
+
+            try {
+                this.runAsync(scheduler).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof ProcessException) {
+                    throw (ProcessException) e.getCause();
+                }
+
+                throw new ProcessException("While running the loop an error occurred.", e.getCause());
+            }
+
+            return !this.isStopped();
+        }
+
+        if (this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
             before();
 
             for (controller.reset(); controller.accept(); controller.update()) {
                 this.module.reset();
 
+                Object event = JfrEvents.beginIteration();
+
                 try {
                     this.module.start();
 
+                    JfrEvents.commitIteration(event, this, this.module.state());
+
                     if ((module.isSucceeded() && this.canQuit()) || this.isStopped()) {
                         break;
                     }
 
-                    Thread.sleep(this.getDelayTime());
+                    this.awaitDelay();
                 } catch (ProcessException e) {
+                    JfrEvents.commitIteration(event, this, ProcessState.FAILED);
+
                     if (!this.isIgnoreExceptions()) {
                         this.changeState(ProcessState.FAILED);
                         throw new ProcessException("While running the module an error occurred.", e);
@@ -304,13 +412,216 @@ public abstract class Repeater extends ModuleImpl {
     }
 
     /**
-     * @return
-     * @throws ProcessException
+     * Repeats the module's functionality without holding the caller's thread. Each loop step starts the module
+     * asynchronously. The delay between two loop steps is awaited by the scheduler of the options or, if not set, by
+     * the shared default scheduler. Afterwards the next loop step is executed by the given executor.
+     *
+     * @param executor executor to run the loop steps on
+     * @return Returns a future, which is completed with the process state after execution.
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    @Override
+    public CompletableFuture<ProcessState> startAsync(final Executor executor)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(executor, "executor");
+
+        if (!this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
+            return CompletableFuture.completedFuture(this.state());
+        }
+
+        return this.runAsync(executor);
+    }
+
+    /**
+     * Runs the loop asynchronously, after the start was claimed by the caller.
+     */
+    private CompletableFuture<ProcessState> runAsync(final Executor executor) {
+        CompletableFuture<ProcessState> result = new CompletableFuture<>();
+
+        try {
+            this.before();
+
+            this.controller.reset();
+
+            this.iterateAsync(executor, result);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Executes a single loop step and schedules the next one.
+     */
+    private void iterateAsync(final Executor executor, final CompletableFuture<ProcessState> result) {
+        if (!this.controller.accept() || this.isStopped()) {
+            this.finishAsync(result);
+
+            return;
+        }
+
+        this.module.reset();
+
+        final Object event = JfrEvents.beginIteration();
+
+        AsyncModule.startAsync(this.module, executor).whenComplete((state, e) -> {
+            JfrEvents.commitIteration(event, this, e != null ? ProcessState.FAILED : state);
+
+            try {
+                if (e != null && !this.isIgnoreExceptions()) {
+                    this.changeState(ProcessState.FAILED);
+                    this.after();
+
+                    result.completeExceptionally(new ProcessException("While running the module an error occurred.",
+                            e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+
+                    return;
+                }
+
+                if ((this.module.isSucceeded() && this.canQuit()) || this.isStopped()) {
+                    this.finishAsync(result);
+
+                    return;
+                }
+
+                this.controller.update();
+
+                this.scheduleAsync(executor, result);
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+    }
+
+    /**
+     * Schedules the next loop step after the delay time. The pending step is remembered, so <tt>stop()</tt> can
+     * execute it immediately.
+     */
+    private void scheduleAsync(final Executor executor, final CompletableFuture<ProcessState> result) {
+        final Scheduler scheduler = this.scheduler();
+
+        final Runnable next = () -> this.iterateAsync(executor, result);
+
+        final Runnable resume = executor == scheduler ? next : () -> executor.execute(next);
+
+        this.pendingStep = resume;
+        this.pendingDelay = scheduler.schedule(resume, this.nextDelayTime(), this.timeUnit);
+
+        if (this.isStopped()) {
+            this.resumePendingStep();
+        }
+    }
+
+    /**
+     * Executes the pending loop step immediately, if its delay isn't over yet.
+     */
+    private void resumePendingStep() {
+        Future<?> delay = this.pendingDelay;
+        Runnable step = this.pendingStep;
+
+        if (delay != null && step != null && delay.cancel(false)) {
+            step.run();
+        }
+    }
+
+    /**
+     * Sets the final process state, calls <tt>after()</tt> and completes the future.
+     */
+    private void finishAsync(final CompletableFuture<ProcessState> result) {
+        this.pendingDelay = null;
+        this.pendingStep = null;
+
+        try {
+            if (!this.isStopped()) {
+                ProcessState state = (!this.canQuit() || this.module.isSucceeded()) ? ProcessState.SUCCEEDED
+                        : ProcessState.FAILED;
+
+                if (!this.changeState(state)) {
+                    throw new ProcessException("Failed to set status to " + state + ".");
+                }
+            }
+
+            this.after();
+
+            result.complete(this.state());
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Waits for the delay time on the caller's thread. The waiting ends immediately if the object is stopped.
+     *
+     * @throws InterruptedException Is thrown if the thread is interrupted while waiting.
+     */
+    private void awaitDelay()
+            throws InterruptedException {
+        long deadline = System.nanoTime() + this.timeUnit.toNanos(this.nextDelayTime());
+
+        synchronized (this.delayMonitor) {
+            for (long remaining = deadline - System.nanoTime();
+                 remaining > 0 && !this.isStopped();
+                 remaining = deadline - System.nanoTime()) {
+                TimeUnit.NANOSECONDS.timedWait(this.delayMonitor, remaining);
+            }
+        }
+    }
+
+    /**
+     * Returns the time to wait before the next loop step (in ms). By default it's equals to the delay time. Subclasses
+     * may shorten it, e.g. to end the delay as soon as a deadline is reached.
+     *
+     * @return Returns the time to wait before the next loop step (in ms).
+     */
+    protected long nextDelayTime() {
+        return this.getDelayTime();
+    }
+
+    /**
+     * Returns the actual time (in ms) used to measure elapsed time. If the options contain a scheduler, its clock is
+     * used, so elapsed time and delays are based on the same clock. Otherwise the system's monotonic clock is used.
+     *
+     * @return Returns the actual time (in ms).
+     */
+    protected long now() {
+        Scheduler scheduler = this.options.getScheduler();
+
+        return scheduler == null ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) : scheduler.now();
+    }
+
+    /**
+     * Returns the scheduler to await the delay time with.
+     *
+     * @return Returns the scheduler of the options or the shared default scheduler, if the options don't contain one.
+     */
+    private Scheduler scheduler() {
+        Scheduler scheduler = this.options.getScheduler();
+
+        return scheduler == null ? ExecutorScheduler.getDefault() : scheduler;
+    }
+
+    /**
+     * Stops the loop. The method doesn't wait for the running loop step, but a delay between two loop steps ends
+     * immediately.
+     *
+     * @return Returns <tt>true</tt> if the object and its module are stopped; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an error occurred while stopping the module.
      */
     @Override
-    public synchronized boolean stop()
+    public boolean stop()
             throws ProcessException {
-        return this.changeState(ProcessState.STOPPED) && this.module.stop();
+        if (this.changeState(ProcessState.STOPPED)) {
+            synchronized (this.delayMonitor) {
+                this.delayMonitor.notifyAll();
+            }
+
+            this.resumePendingStep();
+
+            return this.module.stop();
+        }
+
+        return false;
     }
 
     /**
@@ -15,6 +15,7 @@
  */
 package org.panthercode.arctic.core.processing.modules.impl;
 
+import org.panthercode.arctic.core.jfr.JfrEvents;
 import org.panthercode.arctic.core.processing.ProcessState;
 import org.panthercode.arctic.core.processing.ProcessException;
 import org.panthercode.arctic.core.settings.Context;
@@ -31,6 +32,8 @@ import org.panthercode.arctic.core.settings.Context;
  * It's on your own responsibility to change process state at runtime! E. g. if process waits, change process state to
  * "Waiting". When process goes on, change state to "Running". Otherwise maybe you will provoke bad behavior of the
  * system.
+ * <p>
+ * Calling <tt>startAsync()</tt> executes the <tt>start()</tt> method on the given executor.
  */
 public abstract class Step extends ModuleImpl {
 
@@ -69,20 +72,29 @@ public abstract class Step extends ModuleImpl {
     /**
      * Call step() method and checks returned value. If value is <tt>true</tt> the process state is changed to
      * "Succeeded"; Otherwise to "Failed". If an exceptions is thrown, the object try to set the state to "Failed".
+     * <p>
+     * The step can only be started if it's ready. If several threads call this method at the same time, only one of
+     * them runs the step; the others return <tt>false</tt> immediately.
      *
      * @throws IllegalStateException Is thrown if object's process can't set to 'Succeeded' or 'Failed'.
      * @throws ProcessException      Is thrown if an error occurred while running the step.
      */
     @Override
-    public synchronized boolean start()
+    public boolean start()
             throws ProcessException {
-        if (this.changeState(ProcessState.RUNNING)) {
+        if (this.changeState(ProcessState.READY, ProcessState.RUNNING)) {
+
+            Object event = JfrEvents.beginStep();
 
             try {
                 ProcessState result = this.step() ? ProcessState.SUCCEEDED : ProcessState.FAILED;
 
+                JfrEvents.commitStep(event, this, result);
+
                 return this.changeState(result);
             } catch (ProcessException e) {
+                JfrEvents.commitStep(event, this, ProcessState.FAILED);
+
                 this.changeState(ProcessState.FAILED);
 
                 throw new ProcessException("An error has occurred while executing the step module.", e);
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.helper.version.VersionInfo;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.Module;
+import org.panthercode.arctic.core.processing.modules.helper.Channel;
+import org.panthercode.arctic.core.processing.modules.helper.ChunkExecutor;
+import org.panthercode.arctic.core.settings.Context;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The StreamProcess class connects its elements to a pipeline: each stage reads the results of the previous one. All
+ * stages are running at the same time on a <tt>ChunkExecutor</tt>, by default the one shared by all chunks. They're
+ * connected by bounded channels, so a fast stage waits for a slow one and the memory needed by the process doesn't
+ * depend on the number of records. The first stage is the source of the stream and the last one its sink.
+ * <p>
+ * All elements must be a <tt>StreamStep</tt>. The channels are created each time the process is started, so the
+ * process can be reset and started again. The executor must be able to run all stages at the same time; the default
+ * work-stealing pool adds threads while stages are waiting for each other.
+ * <p>
+ * If a stage fails, the whole stream is aborted. The process state is "Failed" if a stage failed or has thrown an
+ * exception, "Stopped" if the process was stopped and "Succeeded" if the stream was processed completely.
+ */
+@IdentityInfo(name = "Standard Stream Process", group = "Process Module")
+@VersionInfo(major = 1)
+public class StreamProcess extends Bundle {
+
+    /**
+     * maximal number of items in a channel between two stages
+     */
+    private int channelCapacity = 1024;
+
+    /**
+     * executor to run the stages with
+     */
+    private ChunkExecutor executor = null;
+
+    /**
+     * Standard Constructor
+     */
+    public StreamProcess() {
+        this((Context) null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context context the module is associated with.
+     */
+    public StreamProcess(Context context) {
+        super(context);
+    }
+
+    /**
+     * Copy Constructor
+     *
+     * @param process object to copy
+     * @throws UnsupportedOperationException Is thrown if a module in process doesn't support cloning.
+     * @throws NullPointerException          Is thrown if the process contains a null element or parameter is null.
+     */
+    public StreamProcess(StreamProcess process)
+            throws UnsupportedOperationException, NullPointerException {
+        super(process);
+
+        this.channelCapacity = process.channelCapacity;
+        this.executor = process.executor;
+    }
+
+    /**
+     * Returns the maximal number of items in a channel between two stages.
+     *
+     * @return Returns the maximal number of items in a channel.
+     */
+    public int getChannelCapacity() {
+        return this.channelCapacity;
+    }
+
+    /**
+     * Set the maximal number of items in a channel between two stages. The value can only be changed if the process
+     * state isn't "Running" or "Waiting".
+     *
+     * @param channelCapacity new maximal number of items in a channel
+     * @return Returns <tt>true</tt> if the value was set; Otherwise <tt>false</tt>.
+     * @throws IllegalArgumentException Is thrown if value of channelCapacity is zero or less.
+     */
+    public synchronized boolean setChannelCapacity(int channelCapacity)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(channelCapacity, "channel capacity");
+
+        if (this.canModify()) {
+            this.channelCapacity = channelCapacity;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the executor the object is associated with.
+     *
+     * @return Returns the executor the object is associated with.
+     */
+    public ChunkExecutor getExecutor() {
+        return this.executor == null ? ChunkExecutor.getDefault() : this.executor;
+    }
+
+    /**
+     * Set a new executor the object is associated with. If the value is <tt>null</tt> the shared default executor is
+     * used. The executor can only be changed if the process state isn't "Running" or "Waiting".
+     *
+     * @param executor new executor
+     * @return Returns <tt>true</tt> if the executor was set; Otherwise <tt>false</tt>.
+     */
+    public synchronized boolean setExecutor(ChunkExecutor executor) {
+        if (this.canModify()) {
+            this.executor = executor;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds a new stage to the end of the stream.
+     *
+     * @param module new stage to add
+     * @return Returns <tt>true</tt> if the stage was added; Otherwise <tt>false</tt>.
+     * @throws IllegalArgumentException Is thrown if the module isn't a <tt>StreamStep</tt>.
+     */
+    @Override
+    public synchronized boolean deploy(final Module module)
+            throws IllegalArgumentException {
+        assertStage(module);
+
+        return super.deploy(module);
+    }
+
+    /**
+     * Adds a new stage to the stream at a given position.
+     *
+     * @param index  position of the stage
+     * @param module new stage to add
+     * @throws IllegalArgumentException Is thrown if the module isn't a <tt>StreamStep</tt>.
+     */
+    @Override
+    public synchronized void deploy(final int index, final Module module)
+            throws IllegalArgumentException {
+        assertStage(module);
+
+        super.deploy(index, module);
+    }
+
+    /**
+     * Starts all stages and waits until the stream was processed. The object isn't locked while waiting, so the
+     * process can be stopped from another thread.
+     *
+     * @return Returns <tt>true</tt> if the stream was processed successfully; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if a stage has thrown an exception.
+     */
+    @Override
+    public boolean start()
+            throws ProcessException {
+        return this.startExecution(() -> this.execute(), "stream process");
+    }
+
+    /**
+     * Starts all stages without waiting for them. The hook <tt>after()</tt> and the final state change are executed by
+     * the given executor after the last stage finished.
+     *
+     * @param executor executor to run the final steps on
+     * @return Returns a future, which is completed with the process state after execution.
+     * @throws NullPointerException Is thrown if value of executor is null.
+     */
+    @Override
+    public CompletableFuture<ProcessState> startAsync(final Executor executor)
+            throws NullPointerException {
+        return this.startExecutionAsync(() -> this.execute(), executor, "stream process");
+    }
+
+    /**
+     * Stops the actual process by stopping each stage. Stopping a stage cancels its channels, so all stages waiting
+     * for items are released. If a stage throws an exception, all other stages are stopped anyway and the first
+     * exception is rethrown afterwards.
+     *
+     * @throws ProcessException Is thrown if an error occurred while stopping a stage.
+     */
+    @Override
+    public boolean stop()
+            throws ProcessException {
+        return this.stopAll();
+    }
+
+    /**
+     * Set the process state of the object and all stages to "Ready". A running process can't be reset.
+     *
+     * @return Returns <tt>true</tt> if the object and all stages are ready; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an error occurred while resetting a stage.
+     */
+    @Override
+    public synchronized boolean reset()
+            throws ProcessException {
+        return this.resetAll();
+    }
+
+    @Override
+    public StreamProcess copy()
+            throws UnsupportedOperationException {
+        return new StreamProcess(this);
+    }
+
+    /**
+     * Returns a hash code value of this object.
+     *
+     * @return Returns a hash code value of this object.
+     */
+    @Override
+    public int hashCode() {
+        return Math.abs(new HashCodeBuilder()
+                .append(super.hashCode())
+                .append(this.channelCapacity)
+                .toHashCode());
+    }
+
+    /**
+     * Checks if this object is equals to another one.
+     *
+     * @param obj other object for comparison
+     * @return Returns <tt>true</tt> if both objects are equal; Otherwise <tt>false</tt>.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (!(obj instanceof StreamProcess)) {
+            return false;
+        }
+
+        StreamProcess process = (StreamProcess) obj;
+
+        return super.equals(process) && this.channelCapacity == process.channelCapacity;
+    }
+
+    /**
+     * Connects the stages by new channels and starts all of them.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private CompletableFuture<ProcessState> execute() {
+        List<Module> stages = this.modules();
+
+        if (stages.isEmpty()) {
+            return CompletableFuture.completedFuture(ProcessState.SUCCEEDED);
+        }
+
+        ((StreamStep) stages.get(0)).setInput(null);
+        ((StreamStep) stages.get(stages.size() - 1)).setOutput(null);
+
+        for (int i = 1; i < stages.size(); i++) {
+            Channel channel = new Channel(this.channelCapacity);
+
+            ((StreamStep) stages.get(i - 1)).setOutput(channel);
+            ((StreamStep) stages.get(i)).setInput(channel);
+        }
+
+        return this.getExecutor().executeAsync(stages, stages.size());
+    }
+
+    private static void assertStage(Module module) {
+        if (module != null && !(module instanceof StreamStep)) {
+            throw new IllegalArgumentException("The module " + module.identity() + " isn't a stream step.");
+        }
+    }
+}
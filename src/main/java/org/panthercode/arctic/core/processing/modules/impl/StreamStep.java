@@ -0,0 +1,316 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.helper.Channel;
+import org.panthercode.arctic.core.settings.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The StreamStep class is a stage of a stream of records. Instead of passing data through the context, the stage
+ * pulls batches of items from an input channel and writes its results to an output channel. Because the channels are
+ * bounded, a stream of any length is processed with constant memory. Connected stages are usually running
+ * concurrently as elements of a <tt>StreamProcess</tt>.
+ * <p>
+ * A stage without input is the source of a stream: <tt>produce()</tt> is called until it returns <tt>false</tt>. A
+ * stage without output is a sink; results written by a sink are discarded. After the input was read completely,
+ * <tt>complete()</tt> is called and the output is closed.
+ * <p>
+ * If the stage fails or is stopped, both channels are cancelled. This aborts the neighbouring stages as well, so a
+ * failure anywhere stops the whole stream.
+ *
+ * @param <I> type of input items
+ * @param <O> type of output items
+ */
+public abstract class StreamStep<I, O> extends Step {
+
+    /**
+     * maximal number of items processed at once
+     */
+    private int batchSize = 256;
+
+    /**
+     * channel to read the items from or <tt>null</tt> if the stage is a source
+     */
+    private Channel<I> input = null;
+
+    /**
+     * channel to write the results to or <tt>null</tt> if the stage is a sink
+     */
+    private Channel<O> output = null;
+
+    /**
+     * Standard Constructor
+     */
+    public StreamStep() {
+        super();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context context the object is associated with
+     */
+    public StreamStep(Context context) {
+        super(context);
+    }
+
+    /**
+     * Copy Constructor. The copy isn't connected to any channels.
+     *
+     * @param step object to copy
+     * @throws NullPointerException Is thrown if value of parameter is null.
+     */
+    public StreamStep(StreamStep<I, O> step)
+            throws NullPointerException {
+        super(step);
+
+        this.batchSize = step.batchSize;
+    }
+
+    /**
+     * Returns the maximal number of items processed at once.
+     *
+     * @return Returns the maximal number of items processed at once.
+     */
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /**
+     * Set the maximal number of items processed at once. The value can only be changed if the process state isn't
+     * "Running" or "Waiting".
+     *
+     * @param batchSize new maximal number of items processed at once
+     * @return Returns <tt>true</tt> if the value was set; Otherwise <tt>false</tt>.
+     * @throws IllegalArgumentException Is thrown if value of batchSize is zero or less.
+     */
+    public synchronized boolean setBatchSize(int batchSize)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(batchSize, "batch size");
+
+        if (this.canModify()) {
+            this.batchSize = batchSize;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the channel the items are read from.
+     *
+     * @return Returns the input channel or <tt>null</tt> if the stage is a source.
+     */
+    public Channel<I> getInput() {
+        return this.input;
+    }
+
+    /**
+     * Set the channel the items are read from. The channel can only be changed if the process state isn't "Running" or
+     * "Waiting".
+     *
+     * @param input new input channel or <tt>null</tt> if the stage is a source
+     * @return Returns <tt>true</tt> if the channel was set; Otherwise <tt>false</tt>.
+     */
+    public synchronized boolean setInput(Channel<I> input) {
+        if (this.canModify()) {
+            this.input = input;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the channel the results are written to.
+     *
+     * @return Returns the output channel or <tt>null</tt> if the stage is a sink.
+     */
+    public Channel<O> getOutput() {
+        return this.output;
+    }
+
+    /**
+     * Set the channel the results are written to. The channel can only be changed if the process state isn't "Running"
+     * or "Waiting".
+     *
+     * @param output new output channel or <tt>null</tt> if the stage is a sink
+     * @return Returns <tt>true</tt> if the channel was set; Otherwise <tt>false</tt>.
+     */
+    public synchronized boolean setOutput(Channel<O> output) {
+        if (this.canModify()) {
+            this.output = output;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Reads the input batch by batch and writes the results to the output until the input is exhausted.
+     *
+     * @return Returns <tt>true</tt> if the whole stream was processed; <tt>false</tt> if a channel was cancelled.
+     * @throws ProcessException Is thrown if an error occurred while processing a batch or the thread was interrupted.
+     */
+    @Override
+    public boolean step()
+            throws ProcessException {
+        Channel<I> input = this.input;
+        Channel<O> output = this.output;
+
+        List<I> batch = new ArrayList<>(this.batchSize);
+        List<O> results = new ArrayList<>();
+
+        boolean success = false;
+
+        try {
+            if (input == null) {
+                boolean more;
+
+                do {
+                    more = this.produce(results, this.batchSize);
+
+                    if (!this.emit(output, results)) {
+                        return false;
+                    }
+                } while (more);
+            } else {
+                while (input.take(batch, this.batchSize) > 0) {
+                    this.process(batch, results);
+
+                    batch.clear();
+
+                    if (!this.emit(output, results)) {
+                        return false;
+                    }
+                }
+
+                if (input.isCancelled()) {
+                    return false;
+                }
+            }
+
+            this.complete(results);
+
+            if (!this.emit(output, results)) {
+                return false;
+            }
+
+            success = true;
+
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new ProcessException("The stream step was interrupted.", e);
+        } finally {
+            if (success) {
+                if (output != null) {
+                    output.close();
+                }
+            } else {
+                this.cancel(input, output);
+            }
+        }
+    }
+
+    /**
+     * Stops the stage by cancelling its channels.
+     *
+     * @return Returns <tt>true</tt> if the stage was stopped; Otherwise <tt>false</tt>.
+     */
+    @Override
+    public boolean stop() {
+        if (this.changeState(ProcessState.STOPPED)) {
+            this.cancel(this.input, this.output);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Set the process state of the object to "Ready". A running stage can't be reset.
+     *
+     * @return Returns <tt>true</tt> if the stage is ready; Otherwise <tt>false</tt>.
+     */
+    @Override
+    public boolean reset() {
+        return this.changeState(ProcessState.READY);
+    }
+
+    /**
+     * Processes a batch of input items. The results are added to the given list.
+     *
+     * @param batch   items read from the input
+     * @param results list to add the results to
+     * @throws ProcessException Is thrown if an error occurred while processing the batch.
+     */
+    protected abstract void process(List<I> batch, List<O> results) throws ProcessException;
+
+    /**
+     * Creates the items of a source. The method is only called if the stage doesn't have an input. By default the
+     * source is empty.
+     *
+     * @param results list to add the created items to
+     * @param max     number of items, which should be created at most
+     * @return Returns <tt>true</tt> if the source has more items; Otherwise <tt>false</tt>.
+     * @throws ProcessException Is thrown if an error occurred while creating the items.
+     */
+    protected boolean produce(List<O> results, int max)
+            throws ProcessException {
+        return false;
+    }
+
+    /**
+     * Is called after the input was read completely, e.g. to write aggregated results. By default nothing happens.
+     *
+     * @param results list to add the last results to
+     * @throws ProcessException Is thrown if an error occurred.
+     */
+    protected void complete(List<O> results)
+            throws ProcessException {
+    }
+
+    private boolean emit(Channel<O> output, List<O> results)
+            throws InterruptedException {
+        try {
+            return results.isEmpty() || output == null || output.putAll(results);
+        } finally {
+            results.clear();
+        }
+    }
+
+    private void cancel(Channel<I> input, Channel<O> output) {
+        if (input != null) {
+            input.cancel();
+        }
+
+        if (output != null) {
+            output.cancel();
+        }
+    }
+}
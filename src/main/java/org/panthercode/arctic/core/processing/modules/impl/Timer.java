@@ -36,7 +36,10 @@ import java.util.concurrent.TimeUnit;
 @VersionInfo(major = 1)
 public class Timer extends Repeater {
 
-    private TimerController controller = null;
+    /**
+     * controller of the loop; it's created by the super constructor, so the field must not have an initializer
+     */
+    private TimerController controller;
 
     /**
      * Constructor
@@ -91,6 +94,8 @@ public class Timer extends Repeater {
                         timer.isIgnoreExceptions(),
                         timer.canQuit()),
                 timer.getContext());
+
+        this.setScheduler(timer.getScheduler());
     }
 
     /**
@@ -195,6 +200,19 @@ public class Timer extends Repeater {
                 this.getDelayTime() == timer.getDelayTime();
     }
 
+    /**
+     * Returns the time to wait before the next loop step (in ms). The delay ends early, if the time limit is reached
+     * before, so the loop isn't kept running longer than necessary.
+     *
+     * @return Returns the time to wait before the next loop step (in ms).
+     */
+    @Override
+    protected long nextDelayTime() {
+        long remaining = this.getMaximalDuration() - this.controller.elapsed();
+
+        return Math.max(0L, Math.min(this.getDelayTime(), remaining));
+    }
+
     @Override
     protected Controller<? extends Object> createController() {
         this.controller = new TimerController();
@@ -210,6 +228,7 @@ public class Timer extends Repeater {
         @Override
         public void reset() {
             this.actualDurationInMillis = 0;
+            this.startTimeInMillis = now();
         }
 
         @Override
@@ -219,12 +238,16 @@ public class Timer extends Repeater {
 
         @Override
         public void update() {
-            this.actualDurationInMillis = this.startTimeInMillis - System.currentTimeMillis();
+            this.actualDurationInMillis = this.elapsed();
         }
 
         @Override
         public boolean accept() {
-            return this.actualDurationInMillis < getMaximalDuration();
+            return this.elapsed() < getMaximalDuration();
+        }
+
+        private long elapsed() {
+            return now() - this.startTimeInMillis;
         }
     }
 }
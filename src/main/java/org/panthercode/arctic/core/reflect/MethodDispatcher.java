@@ -0,0 +1,203 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.reflect;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Utility class to invoke methods by their name. A method is looked up once per class, name and argument types and
+ * cached as method handle, so repeated calls don't search the class's methods again.
+ * <p>
+ * The cache of a class is bound to the class itself, so it doesn't prevent classes from being unloaded.
+ *
+ * @author PantherCode
+ */
+public class MethodDispatcher {
+
+    /**
+     * cached methods of each class, grouped by name
+     */
+    private static final ClassValue<ConcurrentMap<String, Dispatch[]>> CACHE =
+            new ClassValue<ConcurrentMap<String, Dispatch[]>>() {
+                @Override
+                protected ConcurrentMap<String, Dispatch[]> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * private Constructor
+     */
+    private MethodDispatcher() {
+    }
+
+    /**
+     * Invokes a method to a specific object. The method is chosen by the classes of the arguments like
+     * <tt>MethodUtils.invokeMethod()</tt> of commons-lang does. The order of arguments must matching the signature of
+     * the method.
+     *
+     * @param object       object to invoke method
+     * @param functionName name of the method to invoke
+     * @param arguments    parameters the method will be called with
+     * @return Returns the output of the invoked method or <tt>null</tt> if the method returns nothing.
+     * @throws NullPointerException      Is thrown if value of object or functionName is null.
+     * @throws NoSuchMethodException     Is thrown if no matching method is found.
+     * @throws IllegalAccessException    Is thrown if invocation is not permitted by security.
+     * @throws InvocationTargetException Is thrown if the invoked method throws an exception.
+     */
+    public static Object invoke(Object object, String functionName, Object... arguments)
+            throws NullPointerException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        ArgumentUtils.assertNotNull(object, "object");
+        ArgumentUtils.assertNotNull(functionName, "function name");
+
+        arguments = ArrayUtils.nullToEmpty(arguments);
+
+        MethodHandle handle = find(object.getClass(), functionName, arguments);
+
+        try {
+            return handle.invokeExact(object, arguments);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Returns a method handle to the method of a class matching the given name and parameter types. The handle's type
+     * is <tt>(Object, Object[])Object</tt>: it takes the object and an array of arguments, and returns the output of
+     * the method, boxed if necessary, or <tt>null</tt> if the method returns nothing.
+     *
+     * @param clazz          class containing the method
+     * @param functionName   name of the method
+     * @param parameterTypes types of the arguments; an element of <tt>null</tt> matches all non-primitive types
+     * @return Returns the method handle.
+     * @throws NullPointerException   Is thrown if value of clazz or functionName is null.
+     * @throws NoSuchMethodException  Is thrown if no matching method is found.
+     * @throws IllegalAccessException Is thrown if invocation is not permitted by security.
+     */
+    public static MethodHandle resolve(Class<?> clazz, String functionName, Class<?>... parameterTypes)
+            throws NullPointerException, NoSuchMethodException, IllegalAccessException {
+        ArgumentUtils.assertNotNull(clazz, "class");
+        ArgumentUtils.assertNotNull(functionName, "function name");
+
+        parameterTypes = ArrayUtils.nullToEmpty(parameterTypes);
+
+        Method method = MethodUtils.getMatchingAccessibleMethod(clazz, functionName, parameterTypes);
+
+        if (method == null) {
+            throw new NoSuchMethodException("No such accessible method: " + functionName + "() on class: "
+                    + clazz.getName());
+        }
+
+        MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+
+        return handle.asType(MethodType.genericMethodType(parameterTypes.length + 1))
+                .asSpreader(Object[].class, parameterTypes.length);
+    }
+
+    /**
+     * Removes all cached methods of a class, e.g. after it was redefined.
+     *
+     * @param clazz class to remove the cached methods of
+     */
+    public static void clear(Class<?> clazz) {
+        if (clazz != null) {
+            CACHE.remove(clazz);
+        }
+    }
+
+    /**
+     * Returns the cached method handle matching the classes of the arguments. If no handle is cached, the method is
+     * resolved and added to the cache. Hits don't allocate.
+     */
+    private static MethodHandle find(Class<?> clazz, String functionName, Object[] arguments)
+            throws NoSuchMethodException, IllegalAccessException {
+        ConcurrentMap<String, Dispatch[]> methods = CACHE.get(clazz);
+        Dispatch[] dispatches = methods.get(functionName);
+
+        if (dispatches != null) {
+            for (Dispatch dispatch : dispatches) {
+                if (dispatch.matches(arguments)) {
+                    return dispatch.handle;
+                }
+            }
+        }
+
+        Class<?>[] types = new Class<?>[arguments.length];
+
+        for (int i = 0; i < arguments.length; i++) {
+            types[i] = arguments[i] == null ? null : arguments[i].getClass();
+        }
+
+        final Dispatch dispatch = new Dispatch(types, resolve(clazz, functionName, types));
+
+        methods.merge(functionName, new Dispatch[]{dispatch}, (current, added) -> {
+            for (Dispatch existing : current) {
+                if (Arrays.equals(existing.types, dispatch.types)) {
+                    return current;
+                }
+            }
+
+            Dispatch[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = dispatch;
+
+            return extended;
+        });
+
+        return dispatch.handle;
+    }
+
+    /**
+     * Method handle and the argument classes it was resolved for.
+     */
+    private static final class Dispatch {
+
+        private final Class<?>[] types;
+
+        private final MethodHandle handle;
+
+        private Dispatch(Class<?>[] types, MethodHandle handle) {
+            this.types = types;
+            this.handle = handle;
+        }
+
+        private boolean matches(Object[] arguments) {
+            if (arguments.length != this.types.length) {
+                return false;
+            }
+
+            for (int i = 0; i < arguments.length; i++) {
+                Object argument = arguments[i];
+
+                if (argument == null ? this.types[i] != null : argument.getClass() != this.types[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
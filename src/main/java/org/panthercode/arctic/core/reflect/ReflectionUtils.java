@@ -15,7 +15,6 @@
  */
 package org.panthercode.arctic.core.reflect;
 
-import org.apache.commons.lang3.reflect.MethodUtils;
 import org.panthercode.arctic.core.arguments.ArgumentUtils;
 
 import java.io.IOException;
@@ -43,7 +42,8 @@ public class ReflectionUtils {
 
     /**
      * Invokes a method to a specific object. The order of arguments must matching the signature of the method.
-     * The first argument is the first parameter of the invoked method and so on.
+     * The first argument is the first parameter of the invoked method and so on. The method is looked up once and
+     * cached by <tt>MethodDispatcher</tt>.
      *
      * @param object       object to invoke method
      * @param functionName method getName to invoke
@@ -55,12 +55,13 @@ public class ReflectionUtils {
      */
     public static void invokeMethod(Object object, String functionName, Object... arguments)
             throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-        MethodUtils.invokeMethod(object, functionName, arguments);
+        MethodDispatcher.invoke(object, functionName, arguments);
     }
 
     /**
      * Invokes a method to a specific object. The order arguments must matching the signature fo the method.
-     * The first argument is the first parameter of the invoked method and so on.
+     * The first argument is the first parameter of the invoked method and so on. The method is looked up once and
+     * cached by <tt>MethodDispatcher</tt>.
      *
      * @param object       object to invoke method
      * @param functionName method getName to invoke
@@ -76,7 +77,7 @@ public class ReflectionUtils {
     @SuppressWarnings("unchecked")
     public static <T> T invokeMethod(Object object, String functionName, Class<T> returnType, Object... arguments)
             throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-        return (T) MethodUtils.invokeMethod(object, functionName, arguments);
+        return (T) MethodDispatcher.invoke(object, functionName, arguments);
     }
 
     /**
@@ -54,4 +54,22 @@ public abstract class AbstractResource implements Identifiable, Versionable, Con
     public Configuration configuration() {
         return this.configuration;
     }
+
+    /**
+     * Checks if the resource is still usable, e.g. a connection isn't closed by the remote side. A
+     * <tt>ResourcePool</tt> calls this method before a pooled resource is lent. The default implementation always
+     * returns <tt>true</tt>.
+     *
+     * @return Returns <tt>true</tt> if the resource is usable; Otherwise <tt>false</tt>.
+     */
+    public boolean isValid() {
+        return true;
+    }
+
+    /**
+     * Frees all underlying objects of the resource, e.g. closes a connection. A <tt>ResourcePool</tt> calls this method
+     * once before the resource is removed from the pool. The default implementation does nothing.
+     */
+    public void dispose() {
+    }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.resources;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.helper.priority.Semaphore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjusts the capacity of a semaphore guarding a resource by the observed latency and errors, like TCP's congestion
+ * control does (additive increase, multiplicative decrease). Each call, which took longer than the latency threshold
+ * or failed, shrinks the capacity by the backoff ratio. Each successful call increases the capacity by one, as long
+ * as at least half of the capacity is in use. The capacity always stays between the minimal and maximal limit.
+ * <p>
+ * So an overloaded backend gets fewer concurrent calls and recovers, while further callers wait in the semaphore's
+ * queue until their acquire timeout occurs.
+ * <p>
+ * Because the capacity only grows while it's used, the semaphore must be shared by concurrent callers, e.g. the one of
+ * a <tt>ResourcePool</tt>. A semaphore, whose owner holds at most one permit, would never grow above two again.
+ *
+ * @author PantherCode
+ */
+public class AdaptiveLimiter {
+
+    /**
+     * semaphore, whose capacity is adjusted
+     */
+    private final Semaphore semaphore;
+
+    /**
+     * smallest capacity
+     */
+    private final int minLimit;
+
+    /**
+     * largest capacity
+     */
+    private final int maxLimit;
+
+    /**
+     * latency, above which a call counts as overload (in ns)
+     */
+    private final long latencyThresholdNanos;
+
+    /**
+     * factor the capacity is multiplied by on overload
+     */
+    private volatile double backoffRatio = 0.9;
+
+    /**
+     * actual capacity as floating-point value, so several decreases of small capacities aren't lost by rounding
+     */
+    private double limit;
+
+    /**
+     * Constructor. The capacity starts at the maximal limit.
+     *
+     * @param semaphore        semaphore, whose capacity is adjusted
+     * @param minLimit         smallest capacity
+     * @param maxLimit         largest capacity
+     * @param latencyThreshold latency, above which a call counts as overload
+     * @param unit             time unit of latencyThreshold
+     * @throws NullPointerException     Is thrown if value of semaphore or unit is null.
+     * @throws IllegalArgumentException Is thrown if value of minLimit or latencyThreshold is zero or less, or value of
+     *                                  maxLimit is less than minLimit.
+     */
+    public AdaptiveLimiter(Semaphore semaphore, int minLimit, int maxLimit, long latencyThreshold, TimeUnit unit)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(semaphore, "semaphore");
+        ArgumentUtils.assertNotNull(unit, "unit");
+        ArgumentUtils.assertGreaterZero(minLimit, "min limit");
+        ArgumentUtils.assertGreaterZero(latencyThreshold, "latency threshold");
+
+        if (maxLimit < minLimit) {
+            throw new IllegalArgumentException("The max limit must be greater or equal to the min limit.");
+        }
+
+        this.semaphore = semaphore;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = unit.toNanos(latencyThreshold);
+        this.limit = maxLimit;
+
+        semaphore.setCapacity(maxLimit);
+    }
+
+    /**
+     * Records a finished call. A call exceeding the latency threshold decreases the capacity; Otherwise the capacity is
+     * increased, if at least half of it is in use.
+     *
+     * @param latencyNanos time the call took (in ns)
+     */
+    public void onSuccess(long latencyNanos) {
+        if (latencyNanos > this.latencyThresholdNanos) {
+            this.onDropped();
+
+            return;
+        }
+
+        synchronized (this) {
+            int capacity = this.semaphore.capacity();
+            int inUse = capacity - this.semaphore.counter();
+
+            // the call's own permit is still acquired
+            if (inUse * 2 >= capacity && this.limit < this.maxLimit) {
+                this.update(Math.min(this.maxLimit, Math.floor(this.limit) + 1.0));
+            }
+        }
+    }
+
+    /**
+     * Records a failed call, e.g. because the backend rejected it. The capacity is decreased.
+     */
+    public synchronized void onDropped() {
+        this.update(Math.max(this.minLimit, this.limit * this.backoffRatio));
+    }
+
+    /**
+     * Returns the actual capacity.
+     *
+     * @return Returns the actual capacity.
+     */
+    public int getLimit() {
+        return this.semaphore.capacity();
+    }
+
+    /**
+     * Returns the smallest capacity.
+     *
+     * @return Returns the smallest capacity.
+     */
+    public int getMinLimit() {
+        return this.minLimit;
+    }
+
+    /**
+     * Returns the largest capacity.
+     *
+     * @return Returns the largest capacity.
+     */
+    public int getMaxLimit() {
+        return this.maxLimit;
+    }
+
+    /**
+     * Returns the latency, above which a call counts as overload.
+     *
+     * @param unit time unit of the returned value
+     * @return Returns the latency threshold.
+     * @throws NullPointerException Is thrown if value of unit is null.
+     */
+    public long getLatencyThreshold(TimeUnit unit)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(unit, "unit");
+
+        return unit.convert(this.latencyThresholdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the factor the capacity is multiplied by on overload.
+     *
+     * @return Returns the backoff ratio.
+     */
+    public double getBackoffRatio() {
+        return this.backoffRatio;
+    }
+
+    /**
+     * Sets the factor the capacity is multiplied by on overload. Smaller values shed load faster, but the capacity
+     * needs longer to recover.
+     *
+     * @param backoffRatio factor between zero and one (both exclusive)
+     * @throws IllegalArgumentException Is thrown if value of backoffRatio isn't between zero and one.
+     */
+    public void setBackoffRatio(double backoffRatio)
+            throws IllegalArgumentException {
+        if (backoffRatio <= 0.0 || backoffRatio >= 1.0) {
+            throw new IllegalArgumentException("The backoff ratio must be between zero and one.");
+        }
+
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "limit = " + this.getLimit()
+                + ", min limit = " + this.minLimit
+                + ", max limit = " + this.maxLimit
+                + ", latency threshold = " + this.latencyThresholdNanos + " ns"
+                + ", backoff ratio = " + this.backoffRatio;
+    }
+
+    private void update(double limit) {
+        this.limit = limit;
+
+        int capacity = (int) limit;
+
+        if (capacity != this.semaphore.capacity()) {
+            this.semaphore.setCapacity(capacity);
+        }
+    }
+}
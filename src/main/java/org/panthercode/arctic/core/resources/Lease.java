@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.resources;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.reflect.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A lease grants exclusive access to a resource of a <tt>ResourcePool</tt>. The resource must be returned by closing
+ * the lease, preferably in a try-with-resources statement. After the lease is closed, the resource can't be accessed by
+ * it anymore.
+ *
+ * @param <T> type of the lent resource
+ * @author PantherCode
+ */
+public final class Lease<T extends AbstractResource> implements AutoCloseable {
+
+    /**
+     * pool the resource belongs to
+     */
+    private final ResourcePool<T> pool;
+
+    /**
+     * pooled resource
+     */
+    private final ResourcePool.Entry<T> entry;
+
+    /**
+     * point in time the resource was lent (in ns) or zero if the hold time isn't measured
+     */
+    private final long leasedAt;
+
+    /**
+     * flag whether the lease is closed or not
+     */
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * Constructor
+     *
+     * @param pool  pool the resource belongs to
+     * @param entry pooled resource
+     * @param timed flag whether the hold time is measured or not
+     */
+    Lease(ResourcePool<T> pool, ResourcePool.Entry<T> entry, boolean timed) {
+        this.pool = pool;
+        this.entry = entry;
+        this.leasedAt = timed ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Returns the lent resource.
+     *
+     * @return Returns the lent resource.
+     * @throws IllegalStateException Is thrown if the lease is closed.
+     */
+    public T get()
+            throws IllegalStateException {
+        if (this.closed.get()) {
+            throw new IllegalStateException("The lease is closed.");
+        }
+
+        return this.entry.resource;
+    }
+
+    /**
+     * Calls a method of the lent resource.
+     *
+     * @param functionName name of the method
+     * @param returnType   return type of the method or <tt>null</tt> if the result is ignored
+     * @param arguments    arguments of the method
+     * @param <R>          return type of the method
+     * @return Returns the result of the method or <tt>null</tt> if return type is <tt>null</tt>.
+     * @throws NullPointerException  Is thrown if value of functionName is null.
+     * @throws IllegalStateException Is thrown if the lease is closed.
+     * @throws Exception             Is thrown if the method can't be called or throws an exception.
+     */
+    public <R> R execute(String functionName, Class<R> returnType, Object... arguments)
+            throws Exception {
+        ArgumentUtils.assertNotNull(functionName, "function name");
+
+        T resource = this.get();
+
+        if (returnType == null) {
+            ReflectionUtils.invokeMethod(resource, functionName, arguments);
+
+            return null;
+        }
+
+        return ReflectionUtils.invokeMethod(resource, functionName, returnType, arguments);
+    }
+
+    /**
+     * Returns a flag that indicates whether the lease is closed or not.
+     *
+     * @return Returns <tt>true</tt> if the lease is closed; Otherwise <tt>false</tt>.
+     */
+    public boolean isClosed() {
+        return this.closed.get();
+    }
+
+    /**
+     * Closes the lease and removes the resource from the pool, e.g. because it's broken. The resource is disposed. If
+     * the lease is already closed, nothing happens.
+     */
+    public void invalidate() {
+        if (this.closed.compareAndSet(false, true)) {
+            this.pool.giveBack(this.entry, true, this.leasedAt);
+        }
+    }
+
+    /**
+     * Closes the lease and returns the resource to the pool. If the lease is already closed, nothing happens.
+     */
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            this.pool.giveBack(this.entry, false, this.leasedAt);
+        }
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "resource = " + this.entry.resource.identity() + ", closed = " + this.closed.get();
+    }
+}
@@ -20,11 +20,14 @@ import org.panthercode.arctic.core.helper.identity.IdentityInfo;
 import org.panthercode.arctic.core.helper.priority.Priority;
 import org.panthercode.arctic.core.helper.priority.Semaphore;
 import org.panthercode.arctic.core.helper.version.VersionInfo;
+import org.panthercode.arctic.core.metrics.MetricsRegistry;
+import org.panthercode.arctic.core.metrics.ResourceRecorder;
 import org.panthercode.arctic.core.reflect.ClassBuilder;
 import org.panthercode.arctic.core.resources.impl.ResourceImpl;
 import org.panthercode.arctic.core.settings.Configuration;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 
 /**
  * TODO: documentation
@@ -37,6 +40,12 @@ public class ResourceFactory {
 
     public static String PRIORITY_KEY = "priority";
 
+    /**
+     * key of the configuration entry enabling usage metrics; the value is either <tt>true</tt> to register the
+     * resource at the default <tt>MetricsRegistry</tt> or a <tt>ResourceRecorder</tt> to record to
+     */
+    public static String METRICS_KEY = "metrics";
+
     /**
      *
      */
@@ -50,24 +59,151 @@ public class ResourceFactory {
 
     public static <T extends AbstractResource> Resource create(Class<T> clazz, Configuration configuration)
             throws InvocationTargetException, NoSuchMethodException, InstantiationException, IllegalAccessException, IllegalArgumentException, ClassCastException {
-        ArgumentUtils.assertNotNull(clazz, "class");
+        configuration = configuration == null ? new Configuration() : configuration;
 
-        if (!clazz.isAnnotationPresent(IdentityInfo.class)) {
-            throw new IllegalArgumentException("The resource class has no IdentityInfo annotation");
+        Priority priority = configuration.containsKey(PRIORITY_KEY) ? (Priority) configuration.get(PRIORITY_KEY) : Priority.NORMAL;
+
+        int capacity = configuration.containsKey(CAPACITY_KEY) ? (int) configuration.get(CAPACITY_KEY) : 1;
+
+        AbstractResource abstractResource = ResourceFactory.createInstance(clazz, configuration);
+
+        ResourceImpl resource = new ResourceImpl(abstractResource, new Semaphore(capacity), priority, configuration);
+
+        Object metrics = configuration.get(METRICS_KEY);
+
+        if (metrics instanceof ResourceRecorder) {
+            resource.setRecorder((ResourceRecorder) metrics);
+        } else if (isEnabled(metrics)) {
+            MetricsRegistry.getDefault().register(resource);
         }
 
-        if (!clazz.isAnnotationPresent(VersionInfo.class)) {
-            throw new IllegalArgumentException("The resource class has no VersionInfo annotation");
+        return resource;
+    }
+
+    /**
+     * Creates a pool of resources. The resources are created by <tt>createInstance()</tt> as soon as they're needed.
+     * If the configuration contains the entry <tt>METRICS_KEY</tt>, the usage of the pool is recorded.
+     *
+     * @param clazz         class of the pooled resources
+     * @param options       options of the pool
+     * @param configuration configuration of each resource; <tt>null</tt> means an empty configuration
+     * @param <T>           type of the pooled resources
+     * @return Returns a new pool.
+     * @throws NullPointerException     Is thrown if value of clazz or options is null.
+     * @throws IllegalArgumentException Is thrown if the class has no <tt>IdentityInfo</tt> or <tt>VersionInfo</tt>
+     *                                  annotation.
+     */
+    public static <T extends AbstractResource> ResourcePool<T> createPool(Class<T> clazz,
+                                                                          ResourcePoolOptions options,
+                                                                          Configuration configuration)
+            throws NullPointerException, IllegalArgumentException {
+        assertResourceClass(clazz);
+
+        ResourcePool<T> pool = new ResourcePool<>(clazz, options, configuration);
+
+        Object metrics = configuration == null ? null : configuration.get(METRICS_KEY);
+
+        if (metrics instanceof ResourceRecorder) {
+            pool.setRecorder((ResourceRecorder) metrics);
+        } else if (isEnabled(metrics)) {
+            MetricsRegistry.getDefault().register(pool);
         }
 
-        configuration = configuration == null ? new Configuration() : configuration;
+        return pool;
+    }
 
-        Priority priority = configuration.containsKey(PRIORITY_KEY) ? (Priority) configuration.get(PRIORITY_KEY) : Priority.NORMAL;
+    /**
+     * Creates a typed proxy of a resource pool. Each call of an interface method lends a resource of the pool, calls the
+     * method of the resource with the same signature and returns the resource afterwards. Thereby a pooled resource can
+     * be used like a plain object without calling methods by their names.
+     * <p>
+     * All methods are resolved when the proxy is created. If a checked exception occurs while acquiring a resource,
+     * which isn't declared by the interface method, it's wrapped in an <tt>IllegalStateException</tt>.
+     *
+     * @param type interface implemented by the proxy
+     * @param pool pool lending the resources
+     * @param <I>  type of the interface
+     * @param <T>  type of the pooled resources
+     * @return Returns a new proxy.
+     * @throws NullPointerException     Is thrown if value of type or pool is null.
+     * @throws IllegalArgumentException Is thrown if type isn't an interface or the resource class has no public method
+     *                                  matching a method of the interface.
+     */
+    public static <I, T extends AbstractResource> I createProxy(Class<I> type, ResourcePool<T> pool)
+            throws NullPointerException, IllegalArgumentException {
+        return ResourceFactory.createProxy(type, pool, Priority.NORMAL);
+    }
 
-        int capacity = configuration.containsKey(CAPACITY_KEY) ? (int) configuration.get(CAPACITY_KEY) : 1;
+    /**
+     * Creates a typed proxy of a resource pool, which acquires resources with the given priority. See
+     * <tt>createProxy(Class, ResourcePool)</tt> for details.
+     *
+     * @param type     interface implemented by the proxy
+     * @param pool     pool lending the resources
+     * @param priority priority to acquire resources with
+     * @param <I>      type of the interface
+     * @param <T>      type of the pooled resources
+     * @return Returns a new proxy.
+     * @throws NullPointerException     Is thrown if value of type, pool or priority is null.
+     * @throws IllegalArgumentException Is thrown if type isn't an interface or the resource class has no public method
+     *                                  matching a method of the interface.
+     */
+    public static <I, T extends AbstractResource> I createProxy(Class<I> type, ResourcePool<T> pool,
+                                                                Priority priority)
+            throws NullPointerException, IllegalArgumentException {
+        ArgumentUtils.assertNotNull(type, "type");
+        ArgumentUtils.assertNotNull(pool, "pool");
+        ArgumentUtils.assertNotNull(priority, "priority");
+
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException("The type " + type.getName() + " isn't an interface.");
+        }
+
+        ResourceProxy<T> handler = new ResourceProxy<>(type, pool.resourceClass(), pool, priority);
+
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Creates a new instance of a resource class by calling its default constructor and configures it.
+     *
+     * @param clazz         class of the resource
+     * @param configuration configuration of the resource; <tt>null</tt> means an empty configuration
+     * @param <T>           type of the resource
+     * @return Returns a new instance of the resource class.
+     * @throws NullPointerException      Is thrown if value of clazz is null.
+     * @throws IllegalArgumentException  Is thrown if the class has no <tt>IdentityInfo</tt> or <tt>VersionInfo</tt>
+     *                                   annotation.
+     * @throws NoSuchMethodException     Is thrown if the class has no default constructor.
+     * @throws InstantiationException    Is thrown if an error occurs on instantiation.
+     * @throws IllegalAccessException    Is thrown if the default constructor isn't <tt>public</tt>.
+     * @throws InvocationTargetException Is thrown if the default constructor throws an exception.
+     */
+    public static <T extends AbstractResource> T createInstance(Class<T> clazz, Configuration configuration)
+            throws NullPointerException, IllegalArgumentException, NoSuchMethodException, InstantiationException,
+            IllegalAccessException, InvocationTargetException {
+        assertResourceClass(clazz);
 
-        AbstractResource abstractResource = ClassBuilder.create(AbstractResource.class).build();
+        T resource = ClassBuilder.create(clazz).build();
 
-        return new ResourceImpl(abstractResource, new Semaphore(capacity), priority, configuration);
+        resource.configure(configuration);
+
+        return resource;
+    }
+
+    private static boolean isEnabled(Object value) {
+        return Boolean.TRUE.equals(value) || "true".equalsIgnoreCase(String.valueOf(value));
+    }
+
+    private static void assertResourceClass(Class<?> clazz) {
+        ArgumentUtils.assertNotNull(clazz, "class");
+
+        if (!clazz.isAnnotationPresent(IdentityInfo.class)) {
+            throw new IllegalArgumentException("The resource class has no IdentityInfo annotation");
+        }
+
+        if (!clazz.isAnnotationPresent(VersionInfo.class)) {
+            throw new IllegalArgumentException("The resource class has no VersionInfo annotation");
+        }
     }
 }
@@ -0,0 +1,520 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.resources;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.helper.identity.Identity;
+import org.panthercode.arctic.core.helper.priority.Priority;
+import org.panthercode.arctic.core.helper.priority.Semaphore;
+import org.panthercode.arctic.core.metrics.ResourceRecorder;
+import org.panthercode.arctic.core.processing.modules.helper.Scheduler;
+import org.panthercode.arctic.core.settings.Configuration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of resources of the same class. Each resource is lent to one caller at a time by a <tt>Lease</tt>, so
+ * expensive resources, e.g. connections or parsers, are reused instead of shared by all callers.
+ * <p>
+ * Resources are created as soon as they're needed, until the capacity is reached. Further callers wait by priority
+ * until a resource is returned or the acquire timeout occurs. Returned resources are lent again, most recently used
+ * first; so resources, which aren't needed anymore, remain unused and are removed after the idle timeout. Resources
+ * exceeding their maximal lifetime are removed, too. Removed resources are disposed.
+ *
+ * @param <T> type of the pooled resources
+ * @author PantherCode
+ */
+public class ResourcePool<T extends AbstractResource> implements AutoCloseable {
+
+    /**
+     * identity of the pool, created from the annotation of the resource class
+     */
+    private final Identity identity;
+
+    /**
+     * class of the pooled resources
+     */
+    private final Class<T> clazz;
+
+    /**
+     * configuration of each resource
+     */
+    private final Configuration configuration;
+
+    /**
+     * options of the pool
+     */
+    private final ResourcePoolOptions options;
+
+    /**
+     * permits to lend a resource; one permit per resource
+     */
+    private final Semaphore semaphore;
+
+    /**
+     * limiter adapting the capacity or <tt>null</tt> if the capacity is fixed
+     */
+    private final AdaptiveLimiter limiter;
+
+    /**
+     * unused resources, most recently used first
+     */
+    private final ArrayDeque<Entry<T>> idle = new ArrayDeque<>();
+
+    /**
+     * number of resources in the pool, lent or not
+     */
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    /**
+     * task running the background eviction or <tt>null</tt> if there's no background eviction
+     */
+    private Future<?> evictionTask = null;
+
+    /**
+     * flag whether the pool is closed or not
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * recorder of the pool's usage or <tt>null</tt> if no usage is recorded
+     */
+    private volatile ResourceRecorder recorder = null;
+
+    /**
+     * Constructor
+     *
+     * @param clazz         class of the pooled resources
+     * @param options       options of the pool
+     * @param configuration configuration of each resource; <tt>null</tt> means an empty configuration
+     * @throws NullPointerException Is thrown if value of clazz or options is null.
+     */
+    public ResourcePool(Class<T> clazz, ResourcePoolOptions options, Configuration configuration)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(clazz, "class");
+        ArgumentUtils.assertNotNull(options, "options");
+
+        this.identity = Identity.fromAnnotation(clazz);
+        this.clazz = clazz;
+        this.options = options;
+        this.configuration = configuration;
+        this.semaphore = new Semaphore(options.getCapacity());
+        this.limiter = options.getLatencyThreshold() > 0L
+                ? new AdaptiveLimiter(this.semaphore, Math.min(options.getMinCapacity(), options.getCapacity()),
+                options.getCapacity(), options.getLatencyThreshold(), TimeUnit.MILLISECONDS)
+                : null;
+
+        if (options.getScheduler() != null) {
+            this.scheduleEviction(options.getScheduler());
+        }
+    }
+
+    /**
+     * Lends a resource with priority "Normal". Blocks until a resource is available or the acquire timeout occurs.
+     *
+     * @return Returns a lease of the resource.
+     * @throws IllegalStateException        Is thrown if the pool is closed.
+     * @throws TimeoutException             Is thrown if no resource is available within the acquire timeout.
+     * @throws InterruptedException         Is thrown if the current thread is interrupted while waiting.
+     * @throws ReflectiveOperationException Is thrown if a new resource can't be created.
+     */
+    public Lease<T> acquire()
+            throws IllegalStateException, TimeoutException, InterruptedException, ReflectiveOperationException {
+        return this.acquire(Priority.NORMAL);
+    }
+
+    /**
+     * Lends a resource. Blocks until a resource is available or the acquire timeout occurs. Callers with higher
+     * priority get returned resources first.
+     *
+     * @param priority priority of the current thread
+     * @return Returns a lease of the resource.
+     * @throws NullPointerException         Is thrown if value of priority is null.
+     * @throws IllegalStateException        Is thrown if the pool is closed.
+     * @throws TimeoutException             Is thrown if no resource is available within the acquire timeout.
+     * @throws InterruptedException         Is thrown if the current thread is interrupted while waiting.
+     * @throws ReflectiveOperationException Is thrown if a new resource can't be created.
+     */
+    public Lease<T> acquire(Priority priority)
+            throws NullPointerException, IllegalStateException, TimeoutException, InterruptedException,
+            ReflectiveOperationException {
+        this.assertOpen();
+
+        long timeout = this.options.getAcquireTimeout();
+        ResourceRecorder recorder = this.recorder;
+        long start = recorder == null ? 0L : System.nanoTime();
+        boolean timed = recorder != null || this.limiter != null;
+
+        if (!this.semaphore.tryAcquire(priority, 1, timeout, TimeUnit.MILLISECONDS)) {
+            if (recorder != null) {
+                recorder.recordTimeout(priority, System.nanoTime() - start);
+            }
+
+            throw new TimeoutException("No resource was available within " + timeout + " ms.");
+        }
+
+        if (recorder != null) {
+            recorder.recordAcquire(priority, System.nanoTime() - start, this.semaphore.getQueueLength(),
+                    this.semaphore.counter(), this.semaphore.capacity());
+        }
+
+        try {
+            this.assertOpen();
+
+            while (true) {
+                Entry<T> entry = this.poll();
+
+                if (entry == null) {
+                    T resource = ResourceFactory.createInstance(this.clazz, this.configuration);
+
+                    this.size.incrementAndGet();
+
+                    return new Lease<>(this, new Entry<>(resource, System.nanoTime()), timed);
+                }
+
+                if (this.isUsable(entry, System.nanoTime())) {
+                    return new Lease<>(this, entry, timed);
+                }
+
+                this.discard(entry);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            this.semaphore.release();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Removes all unused resources exceeding their idle timeout or maximal lifetime from the pool and disposes them.
+     *
+     * @return Returns the number of removed resources.
+     */
+    public int evict() {
+        long now = System.nanoTime();
+        List<Entry<T>> expired = new ArrayList<>();
+
+        synchronized (this.idle) {
+            Iterator<Entry<T>> iterator = this.idle.descendingIterator();
+
+            while (iterator.hasNext()) {
+                Entry<T> entry = iterator.next();
+
+                if (this.isIdleExpired(entry, now) || this.isLifetimeExpired(entry, now)) {
+                    iterator.remove();
+                    expired.add(entry);
+                }
+            }
+        }
+
+        for (Entry<T> entry : expired) {
+            this.discard(entry);
+        }
+
+        return expired.size();
+    }
+
+    /**
+     * Returns the identity of the pool. It's created from the annotation of the resource class, but the identifier is
+     * unique per pool.
+     *
+     * @return Returns the identity of the pool.
+     */
+    public Identity identity() {
+        return this.identity.copy();
+    }
+
+    /**
+     * Returns the recorder the pool records its usage to.
+     *
+     * @return Returns the recorder or <tt>null</tt> if no usage is recorded.
+     */
+    public ResourceRecorder getRecorder() {
+        return this.recorder;
+    }
+
+    /**
+     * Set a new recorder the pool records its usage to. Usually it's called by a <tt>MetricsRegistry</tt>.
+     *
+     * @param recorder new recorder or <tt>null</tt> to stop recording
+     */
+    public void setRecorder(ResourceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Returns the class of the pooled resources.
+     *
+     * @return Returns the class of the pooled resources.
+     */
+    public Class<T> resourceClass() {
+        return this.clazz;
+    }
+
+    /**
+     * Returns the maximal number of resources, which can be lent at the same time. If the pool adapts its capacity, the
+     * value changes with the observed latency.
+     *
+     * @return Returns the actual capacity.
+     */
+    public int capacity() {
+        return this.semaphore.capacity();
+    }
+
+    /**
+     * Returns the number of resources in the pool, lent or not.
+     *
+     * @return Returns the number of resources in the pool.
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Returns the number of unused resources in the pool.
+     *
+     * @return Returns the number of unused resources.
+     */
+    public int idle() {
+        synchronized (this.idle) {
+            return this.idle.size();
+        }
+    }
+
+    /**
+     * Returns the limiter adapting the capacity of the pool.
+     *
+     * @return Returns the limiter or <tt>null</tt> if the capacity is fixed.
+     */
+    public AdaptiveLimiter getLimiter() {
+        return this.limiter;
+    }
+
+    /**
+     * Returns the number of callers waiting for a resource.
+     *
+     * @return Returns the number of waiting callers.
+     */
+    public int waiting() {
+        return this.semaphore.getQueueLength();
+    }
+
+    /**
+     * Returns a flag that indicates whether the pool is closed or not.
+     *
+     * @return Returns <tt>true</tt> if the pool is closed; Otherwise <tt>false</tt>.
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Closes the pool and disposes all unused resources. Lent resources are disposed as soon as they're returned.
+     * Afterwards no resource can be acquired anymore.
+     */
+    @Override
+    public void close() {
+        List<Entry<T>> entries;
+
+        synchronized (this.idle) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+
+            if (this.evictionTask != null) {
+                this.evictionTask.cancel(false);
+            }
+
+            entries = new ArrayList<>(this.idle);
+
+            this.idle.clear();
+        }
+
+        for (Entry<T> entry : entries) {
+            this.discard(entry);
+        }
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "class = " + this.clazz.getName()
+                + ", size = " + this.size()
+                + ", idle = " + this.idle()
+                + ", capacity = " + this.capacity();
+    }
+
+    /**
+     * Takes back a resource of a closed lease.
+     *
+     * @param entry    pooled resource
+     * @param broken   flag whether the resource must be removed or not
+     * @param leasedAt point in time the resource was lent (in ns) or zero if the hold time isn't measured
+     */
+    void giveBack(Entry<T> entry, boolean broken, long leasedAt) {
+        try {
+            long now = System.nanoTime();
+            ResourceRecorder recorder = this.recorder;
+
+            if (recorder != null && leasedAt != 0L) {
+                recorder.recordRelease(now - leasedAt);
+            }
+
+            if (this.limiter != null && leasedAt != 0L) {
+                if (broken) {
+                    this.limiter.onDropped();
+                } else {
+                    this.limiter.onSuccess(now - leasedAt);
+                }
+            }
+
+            if (!broken && !this.isLifetimeExpired(entry, now)) {
+                entry.lastUsed = now;
+
+                synchronized (this.idle) {
+                    if (!this.closed) {
+                        this.idle.addFirst(entry);
+
+                        return;
+                    }
+                }
+            }
+
+            this.discard(entry);
+        } finally {
+            this.semaphore.release();
+        }
+    }
+
+    /**
+     * Takes the most recently used resource. Unused resources at the end, which exceeded their idle timeout, are
+     * removed on the way.
+     */
+    private Entry<T> poll() {
+        long now = System.nanoTime();
+        Entry<T> entry;
+        List<Entry<T>> expired = null;
+
+        synchronized (this.idle) {
+            entry = this.idle.pollFirst();
+
+            while (!this.idle.isEmpty() && this.isIdleExpired(this.idle.peekLast(), now)) {
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+
+                expired.add(this.idle.pollLast());
+            }
+        }
+
+        if (expired != null) {
+            for (Entry<T> e : expired) {
+                this.discard(e);
+            }
+        }
+
+        return entry;
+    }
+
+    private boolean isUsable(Entry<T> entry, long now) {
+        if (this.isIdleExpired(entry, now) || this.isLifetimeExpired(entry, now)) {
+            return false;
+        }
+
+        if (!this.options.isValidateOnBorrow()) {
+            return true;
+        }
+
+        try {
+            return entry.resource.isValid();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private boolean isIdleExpired(Entry<T> entry, long now) {
+        long timeout = this.options.getIdleTimeout();
+
+        return timeout > 0L && now - entry.lastUsed >= TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    private boolean isLifetimeExpired(Entry<T> entry, long now) {
+        long lifetime = this.options.getMaxLifetime();
+
+        return lifetime > 0L && now - entry.created >= TimeUnit.MILLISECONDS.toNanos(lifetime);
+    }
+
+    /**
+     * Removes a resource from the pool and disposes it. Exceptions thrown while disposing are ignored, because the
+     * resource isn't used anymore.
+     */
+    private void discard(Entry<T> entry) {
+        this.size.decrementAndGet();
+
+        try {
+            entry.resource.dispose();
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    private void scheduleEviction(final Scheduler scheduler) {
+        synchronized (this.idle) {
+            if (!this.closed) {
+                this.evictionTask = scheduler.schedule(() -> {
+                    this.evict();
+                    this.scheduleEviction(scheduler);
+                }, this.options.getEvictionInterval(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void assertOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("The resource pool is closed.");
+        }
+    }
+
+    /**
+     * Pooled resource and its timestamps.
+     */
+    static final class Entry<T extends AbstractResource> {
+
+        final T resource;
+
+        final long created;
+
+        volatile long lastUsed;
+
+        Entry(T resource, long created) {
+            this.resource = resource;
+            this.created = created;
+            this.lastUsed = created;
+        }
+    }
+}
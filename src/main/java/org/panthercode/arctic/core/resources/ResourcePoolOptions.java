@@ -0,0 +1,358 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.resources;
+
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+import org.panthercode.arctic.core.processing.modules.helper.Scheduler;
+
+/**
+ * Builder class to configure parameters for lending resources by the <tt>ResourcePool</tt> class.
+ *
+ * @author PantherCode
+ */
+public class ResourcePoolOptions {
+
+    /**
+     * maximal number of resources in the pool
+     */
+    private int capacity = 8;
+
+    /**
+     * smallest number of resources an adaptive limit may shrink the capacity to
+     */
+    private int minCapacity = 1;
+
+    /**
+     * latency, above which a call counts as overload, or zero if the capacity is fixed
+     */
+    private long latencyThresholdInMillis = 0L;
+
+    /**
+     * maximal time a caller waits for a resource
+     */
+    private long acquireTimeoutInMillis = 30000L;
+
+    /**
+     * time after an unused resource is removed from the pool
+     */
+    private long idleTimeoutInMillis = 600000L;
+
+    /**
+     * time after a resource is removed from the pool, regardless whether it's used or not
+     */
+    private long maxLifetimeInMillis = 1800000L;
+
+    /**
+     * flag whether a resource is validated before it's lent
+     */
+    private boolean validateOnBorrow = true;
+
+    /**
+     * time between two runs of the background eviction
+     */
+    private long evictionIntervalInMillis = 30000L;
+
+    /**
+     * scheduler to run the background eviction on or <tt>null</tt> if there's no background eviction
+     */
+    private Scheduler scheduler = null;
+
+    /**
+     * Default Constructor
+     */
+    public ResourcePoolOptions() {
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity               maximal number of resources in the pool
+     * @param acquireTimeoutInMillis maximal time a caller waits for a resource
+     * @throws IllegalArgumentException Is thrown if value of capacity is zero or less or value of
+     *                                  acquireTimeoutInMillis is less than zero.
+     */
+    public ResourcePoolOptions(int capacity, long acquireTimeoutInMillis)
+            throws IllegalArgumentException {
+        this.setCapacity(capacity);
+        this.setAcquireTimeout(acquireTimeoutInMillis);
+    }
+
+    /**
+     * Returns the maximal number of resources in the pool.
+     *
+     * @return Returns the maximal number of resources in the pool.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Sets the maximal number of resources in the pool. Resources are created as soon as they're needed, so the pool
+     * may contain fewer resources.
+     *
+     * @param capacity maximal number of resources in the pool
+     * @throws IllegalArgumentException Is thrown if value of capacity is zero or less.
+     */
+    public void setCapacity(int capacity)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(capacity, "capacity");
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the smallest number of resources an adaptive limit may shrink the capacity to.
+     *
+     * @return Returns the minimal capacity.
+     */
+    public int getMinCapacity() {
+        return this.minCapacity;
+    }
+
+    /**
+     * Sets the smallest number of resources an adaptive limit may shrink the capacity to. If the value is greater than
+     * the capacity, the capacity is used.
+     *
+     * @param minCapacity minimal capacity
+     * @throws IllegalArgumentException Is thrown if value of minCapacity is zero or less.
+     */
+    public void setMinCapacity(int minCapacity)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(minCapacity, "min capacity");
+
+        this.minCapacity = minCapacity;
+    }
+
+    /**
+     * Returns the latency, above which a call counts as overload.
+     *
+     * @return Returns the latency threshold in milliseconds or zero if the capacity is fixed.
+     */
+    public long getLatencyThreshold() {
+        return this.latencyThresholdInMillis;
+    }
+
+    /**
+     * Sets the latency, above which a call counts as overload. If the value is greater than zero, the pool adapts its
+     * capacity between the minimal capacity and the capacity by an <tt>AdaptiveLimiter</tt>: the time a resource is
+     * lent is the latency of a call and invalidated leases count as failed calls. A value of zero keeps the capacity
+     * fixed.
+     *
+     * @param latencyThresholdInMillis latency threshold in milliseconds
+     * @throws IllegalArgumentException Is thrown if value of latencyThresholdInMillis is less than zero.
+     */
+    public void setLatencyThreshold(long latencyThresholdInMillis)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterOrEqualsZero(latencyThresholdInMillis, "latency threshold");
+
+        this.latencyThresholdInMillis = latencyThresholdInMillis;
+    }
+
+    /**
+     * Returns the maximal time a caller waits for a resource.
+     *
+     * @return Returns the acquire timeout in milliseconds.
+     */
+    public long getAcquireTimeout() {
+        return this.acquireTimeoutInMillis;
+    }
+
+    /**
+     * Sets the maximal time a caller waits for a resource. A value of zero doesn't wait at all, if all resources are
+     * lent.
+     *
+     * @param acquireTimeoutInMillis acquire timeout in milliseconds
+     * @throws IllegalArgumentException Is thrown if value of acquireTimeoutInMillis is less than zero.
+     */
+    public void setAcquireTimeout(long acquireTimeoutInMillis)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterOrEqualsZero(acquireTimeoutInMillis, "acquire timeout");
+
+        this.acquireTimeoutInMillis = acquireTimeoutInMillis;
+    }
+
+    /**
+     * Returns the time after an unused resource is removed from the pool.
+     *
+     * @return Returns the idle timeout in milliseconds.
+     */
+    public long getIdleTimeout() {
+        return this.idleTimeoutInMillis;
+    }
+
+    /**
+     * Sets the time after an unused resource is removed from the pool. A value of zero keeps unused resources forever.
+     *
+     * @param idleTimeoutInMillis idle timeout in milliseconds
+     * @throws IllegalArgumentException Is thrown if value of idleTimeoutInMillis is less than zero.
+     */
+    public void setIdleTimeout(long idleTimeoutInMillis)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterOrEqualsZero(idleTimeoutInMillis, "idle timeout");
+
+        this.idleTimeoutInMillis = idleTimeoutInMillis;
+    }
+
+    /**
+     * Returns the time after a resource is removed from the pool, regardless whether it's used or not.
+     *
+     * @return Returns the maximal lifetime in milliseconds.
+     */
+    public long getMaxLifetime() {
+        return this.maxLifetimeInMillis;
+    }
+
+    /**
+     * Sets the time after a resource is removed from the pool, regardless whether it's used or not. A lent resource
+     * isn't taken away from its caller; it's removed as soon as it's returned. A value of zero means resources live
+     * forever.
+     *
+     * @param maxLifetimeInMillis maximal lifetime in milliseconds
+     * @throws IllegalArgumentException Is thrown if value of maxLifetimeInMillis is less than zero.
+     */
+    public void setMaxLifetime(long maxLifetimeInMillis)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterOrEqualsZero(maxLifetimeInMillis, "max lifetime");
+
+        this.maxLifetimeInMillis = maxLifetimeInMillis;
+    }
+
+    /**
+     * Returns a flag that indicates whether a resource is validated before it's lent or not.
+     *
+     * @return Returns <tt>true</tt> if flag is set; Otherwise <tt>false</tt>.
+     */
+    public boolean isValidateOnBorrow() {
+        return this.validateOnBorrow;
+    }
+
+    /**
+     * Sets a flag that indicates whether a resource is validated before it's lent or not. An invalid resource is
+     * disposed and the caller gets another one.
+     *
+     * @param validateOnBorrow value of flag
+     */
+    public void validateOnBorrow(boolean validateOnBorrow) {
+        this.validateOnBorrow = validateOnBorrow;
+    }
+
+    /**
+     * Returns the time between two runs of the background eviction.
+     *
+     * @return Returns the eviction interval in milliseconds.
+     */
+    public long getEvictionInterval() {
+        return this.evictionIntervalInMillis;
+    }
+
+    /**
+     * Sets the time between two runs of the background eviction. The value is only used, if a scheduler is set.
+     *
+     * @param evictionIntervalInMillis eviction interval in milliseconds
+     * @throws IllegalArgumentException Is thrown if value of evictionIntervalInMillis is zero or less.
+     */
+    public void setEvictionInterval(long evictionIntervalInMillis)
+            throws IllegalArgumentException {
+        ArgumentUtils.assertGreaterZero(evictionIntervalInMillis, "eviction interval");
+
+        this.evictionIntervalInMillis = evictionIntervalInMillis;
+    }
+
+    /**
+     * Returns the scheduler the background eviction runs on.
+     *
+     * @return Returns the scheduler or <tt>null</tt> if there's no background eviction.
+     */
+    public Scheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * Sets the scheduler the background eviction runs on. If the value is <tt>null</tt> expired resources are only
+     * removed while resources are acquired or returned, or if <tt>evict()</tt> is called. The scheduler isn't part of
+     * the options' equality.
+     *
+     * @param scheduler scheduler to run the background eviction on
+     */
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "capacity = " + this.capacity
+                + ", min capacity = " + this.minCapacity
+                + ", latency threshold = " + this.latencyThresholdInMillis + " ms"
+                + ", acquire timeout = " + this.acquireTimeoutInMillis
+                + " ms, idle timeout = " + this.idleTimeoutInMillis
+                + " ms, max lifetime = " + this.maxLifetimeInMillis
+                + " ms, validate on borrow = " + this.validateOnBorrow
+                + ", eviction interval = " + this.evictionIntervalInMillis + " ms";
+    }
+
+    /**
+     * Returns a hash code value of this object.
+     *
+     * @return Returns a hash code value of this object.
+     */
+    @Override
+    public int hashCode() {
+        return Math.abs(new HashCodeBuilder()
+                .append(this.capacity)
+                .append(this.minCapacity)
+                .append(this.latencyThresholdInMillis)
+                .append(this.acquireTimeoutInMillis)
+                .append(this.idleTimeoutInMillis)
+                .append(this.maxLifetimeInMillis)
+                .append(this.validateOnBorrow)
+                .append(this.evictionIntervalInMillis)
+                .toHashCode());
+    }
+
+    /**
+     * Checks if this object is equals to another one.
+     *
+     * @param obj other object for comparison
+     * @return Returns <tt>true</tt> if both objects are equal; Otherwise <tt>false</tt>.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (!(obj instanceof ResourcePoolOptions)) {
+            return false;
+        }
+
+        ResourcePoolOptions options = (ResourcePoolOptions) obj;
+
+        return options.getCapacity() == this.getCapacity() &&
+                options.getMinCapacity() == this.getMinCapacity() &&
+                options.getLatencyThreshold() == this.getLatencyThreshold() &&
+                options.getAcquireTimeout() == this.getAcquireTimeout() &&
+                options.getIdleTimeout() == this.getIdleTimeout() &&
+                options.getMaxLifetime() == this.getMaxLifetime() &&
+                options.isValidateOnBorrow() == this.isValidateOnBorrow() &&
+                options.getEvictionInterval() == this.getEvictionInterval();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.resources;
+
+import org.panthercode.arctic.core.helper.priority.Priority;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Invocation handler of typed resource proxies created by <tt>ResourceFactory.createProxy()</tt>. Each call of an
+ * interface method lends a resource of the pool, invokes the matching method of the resource and returns the
+ * resource afterwards.
+ * <p>
+ * The matching methods are resolved to method handles when the proxy is created, so a call neither looks up a
+ * method by name nor fails because of a missing method.
+ *
+ * @param <T> type of the pooled resources
+ * @author PantherCode
+ */
+final class ResourceProxy<T extends AbstractResource> implements InvocationHandler {
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    /**
+     * pool lending the resources
+     */
+    private final ResourcePool<T> pool;
+
+    /**
+     * priority to acquire resources with
+     */
+    private final Priority priority;
+
+    /**
+     * method handles of the resource class, mapped by interface method
+     */
+    private final Map<Method, MethodHandle> handles = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param type     interface implemented by the proxy
+     * @param clazz    class of the pooled resources
+     * @param pool     pool lending the resources
+     * @param priority priority to acquire resources with
+     * @throws IllegalArgumentException Is thrown if the resource class has no public method matching a method of the
+     *                                  interface.
+     */
+    ResourceProxy(Class<?> type, Class<T> clazz, ResourcePool<T> pool, Priority priority)
+            throws IllegalArgumentException {
+        this.pool = pool;
+        this.priority = priority;
+
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || isObjectMethod(method)) {
+                continue;
+            }
+
+            this.handles.put(method, resolve(clazz, method));
+        }
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] arguments)
+            throws Throwable {
+        MethodHandle handle = this.handles.get(method);
+
+        if (handle == null) {
+            return this.invokeObjectMethod(proxy, method, arguments);
+        }
+
+        Lease<T> lease;
+
+        try {
+            lease = this.pool.acquire(this.priority);
+        } catch (Exception e) {
+            throw declared(method, e);
+        }
+
+        Object[] values = arguments == null ? NO_ARGUMENTS : arguments;
+
+        try {
+            return handle.invokeExact((AbstractResource) lease.get(), values);
+        } finally {
+            lease.close();
+        }
+    }
+
+    /**
+     * Handles the methods of <tt>Object</tt>. A proxy is only equal to itself.
+     */
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] arguments) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == arguments[0];
+
+            case "hashCode":
+                return System.identityHashCode(proxy);
+
+            case "toString":
+                return "proxy of " + this.pool;
+
+            default:
+                throw new UnsupportedOperationException("The method " + method.getName() + "() isn't supported.");
+        }
+    }
+
+    /**
+     * Returns a method handle of type <tt>(AbstractResource, Object[])Object</tt> calling the public method of the
+     * resource class matching the interface method.
+     */
+    private static MethodHandle resolve(Class<?> clazz, Method method)
+            throws IllegalArgumentException {
+        Method target;
+
+        try {
+            target = clazz.getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("The resource class " + clazz.getName() + " has no public method "
+                    + method.getName() + "() matching the interface.", e);
+        }
+
+        if (!method.getReturnType().isAssignableFrom(target.getReturnType())
+                && method.getReturnType() != void.class) {
+            throw new IllegalArgumentException("The return type of " + clazz.getName() + "." + method.getName()
+                    + "() doesn't match the interface.");
+        }
+
+        if (!Modifier.isPublic(target.getDeclaringClass().getModifiers())) {
+            target.setAccessible(true);
+        }
+
+        try {
+            int count = method.getParameterCount();
+
+            return MethodHandles.lookup().unreflect(target)
+                    .asFixedArity()
+                    .asType(MethodType.genericMethodType(count + 1).changeParameterType(0, AbstractResource.class))
+                    .asSpreader(Object[].class, count);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("The method " + clazz.getName() + "." + method.getName()
+                    + "() isn't accessible.", e);
+        }
+    }
+
+    private static boolean isObjectMethod(Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the exception itself if the interface method declares it; Otherwise the exception is wrapped in an
+     * <tt>IllegalStateException</tt>.
+     */
+    private static Exception declared(Method method, Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (e instanceof RuntimeException) {
+            return e;
+        }
+
+        for (Class<?> exceptionType : method.getExceptionTypes()) {
+            if (exceptionType.isInstance(e)) {
+                return e;
+            }
+        }
+
+        return new IllegalStateException("No resource could be acquired.", e);
+    }
+}
@@ -24,6 +24,7 @@ import org.panthercode.arctic.core.helper.identity.Identity;
 import org.panthercode.arctic.core.helper.priority.Priority;
 import org.panthercode.arctic.core.helper.priority.Semaphore;
 import org.panthercode.arctic.core.helper.version.Version;
+import org.panthercode.arctic.core.metrics.ResourceRecorder;
 import org.panthercode.arctic.core.reflect.ReflectionUtils;
 import org.panthercode.arctic.core.resources.Resource;
 import org.panthercode.arctic.core.resources.AbstractResource;
@@ -44,6 +45,16 @@ public class ResourceImpl implements Resource {
 
     private Priority priority;
 
+    /**
+     * recorder of the resource's usage or <tt>null</tt> if no usage is recorded
+     */
+    private volatile ResourceRecorder recorder = null;
+
+    /**
+     * point in time the resource was acquired (in ns) or zero if the hold time isn't recorded
+     */
+    private long acquiredAt = 0L;
+
     public ResourceImpl(AbstractResource resource,
                         Semaphore semaphore,
                         Priority priority) {
@@ -110,8 +121,18 @@ public class ResourceImpl implements Resource {
     @Override
     public synchronized void acquire() throws Exception {
         if (!this.isOpen) {
+            ResourceRecorder recorder = this.recorder;
+            long start = recorder == null ? 0L : System.nanoTime();
+
             this.semaphore.acquire(this.priority);
 
+            if (recorder != null) {
+                this.acquiredAt = System.nanoTime();
+
+                recorder.recordAcquire(this.priority, this.acquiredAt - start, this.semaphore.getQueueLength(),
+                        this.semaphore.counter(), this.semaphore.capacity());
+            }
+
             this.isOpen = true;
         }
     }
@@ -119,10 +140,37 @@ public class ResourceImpl implements Resource {
     @Override
     public synchronized void release() {
         if (this.isOpen) {
+            ResourceRecorder recorder = this.recorder;
+
+            if (recorder != null && this.acquiredAt != 0L) {
+                recorder.recordRelease(System.nanoTime() - this.acquiredAt);
+            }
+
+            this.acquiredAt = 0L;
+            this.isOpen = false;
+
             this.semaphore.release();
         }
     }
 
+    /**
+     * Returns the recorder the resource records its usage to.
+     *
+     * @return Returns the recorder or <tt>null</tt> if no usage is recorded.
+     */
+    public ResourceRecorder getRecorder() {
+        return this.recorder;
+    }
+
+    /**
+     * Set a new recorder the resource records its usage to. Usually it's called by a <tt>MetricsRegistry</tt>.
+     *
+     * @param recorder new recorder or <tt>null</tt> to stop recording
+     */
+    public void setRecorder(ResourceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
     @Override
     public synchronized <T> T execute(String functionName, Class<T> returnType, Object... arguments) throws Exception {
         ArgumentUtils.assertNotNull(functionName, "c");
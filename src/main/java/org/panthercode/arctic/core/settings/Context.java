@@ -15,21 +15,69 @@
  */
 package org.panthercode.arctic.core.settings;
 
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * The context class is a Hashtable to store related items at runtime. The items are not stored persistently.
+ * <p>
+ * Although the class still extends <tt>Hashtable</tt> for compatibility, the items are stored in a map chosen by a
+ * <tt>ContextPolicy</tt>. By default it's a <tt>ConcurrentHashMap</tt>, so modules running in parallel don't
+ * serialize on a single lock. Like <tt>Hashtable</tt> the context doesn't accept <tt>null</tt> keys or values.
+ * <p>
+ * <tt>child()</tt> creates a scope of the context: reads fall through to the parent, writes stay in the scope until
+ * they're merged back by <tt>commit()</tt>. Creating a scope doesn't copy any items, so each module running in
+ * parallel can get a scope of its own.
+ * <p>
+ * Besides the hashtable entries a context stores items by typed keys (<tt>ContextKey</tt>, <tt>IntKey</tt>,
+ * <tt>LongKey</tt> and <tt>DoubleKey</tt>). Each key owns a slot, so reading or writing such an item needs no hash
+ * lookup, no cast and, for primitive values, no boxing. That's meant for counters and flags updated in hot loops.
+ * Typed items are separated from the hashtable entries, i.e. they're neither part of the views nor of
+ * <tt>size()</tt>, <tt>equals()</tt> or the serialized form. A scope works on a copy of the parent's typed items,
+ * which is taken when the scope is created. Typed items written to the scope are written back by <tt>commit()</tt>.
+ * Clearing a scope leaves its typed items untouched.
  *
  * @author PantherCode
  */
 public class Context extends Hashtable<Object, Object> {
 
+    /**
+     * policy the items are stored with
+     */
+    private final ContextPolicy policy;
+
+    /**
+     * actual map to store the items
+     */
+    private final transient Map<Object, Object> map;
+
+    /**
+     * context the object is a scope of or <tt>null</tt> if it isn't a scope
+     */
+    private final Context parent;
+
+    /**
+     * slots of the items stored by typed keys
+     */
+    private final transient Slots slots;
+
     /**
      * Constructor
      */
     public Context() {
-        super();
+        this(ContextPolicy.getDefault());
     }
 
     /**
@@ -38,17 +86,21 @@ public class Context extends Hashtable<Object, Object> {
      * @param capacity the initial capacity of hashtable
      */
     public Context(int capacity) {
-        super(capacity);
+        this(ContextPolicy.getDefault(), capacity);
     }
 
     /**
      * Constructor
      *
      * @param capacity   the initial capacity of hashtable
-     * @param loadFactor the load factor of hashtable
+     * @param loadFactor the load factor of hashtable; it's ignored, because the map is chosen by the policy
      */
     public Context(int capacity, float loadFactor) {
-        super(capacity, loadFactor);
+        this(ContextPolicy.getDefault(), capacity);
+
+        if (!(loadFactor > 0)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
     }
 
     /**
@@ -57,6 +109,499 @@ public class Context extends Hashtable<Object, Object> {
      * @param map other map whose content is mapped in this hashtable
      */
     public Context(Map<? extends String, ? extends Object> map) {
-        super(map);
+        this(ContextPolicy.getDefault(), map);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param policy policy the items are stored with
+     * @throws NullPointerException Is thrown if value of policy is null.
+     */
+    public Context(ContextPolicy policy)
+            throws NullPointerException {
+        this(policy, 16);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param policy   policy the items are stored with
+     * @param capacity the initial capacity of the map
+     * @throws NullPointerException     Is thrown if value of policy is null.
+     * @throws IllegalArgumentException Is thrown if value of capacity is less than zero.
+     */
+    public Context(ContextPolicy policy, int capacity)
+            throws NullPointerException, IllegalArgumentException {
+        super(1);
+
+        ArgumentUtils.assertNotNull(policy, "policy");
+        ArgumentUtils.assertGreaterOrEqualsZero(capacity, "capacity");
+
+        this.policy = policy;
+        this.map = policy.createMap(capacity);
+        this.parent = null;
+        this.slots = new Slots();
+    }
+
+    /**
+     * Constructor of a scope
+     *
+     * @param parent context to create a scope of
+     */
+    private Context(Context parent) {
+        super(1);
+
+        this.policy = parent.policy;
+        this.map = new ScopedMap(parent);
+        this.parent = parent;
+        this.slots = new Slots(true);
+
+        parent.slots.copyTo(this.slots);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param policy policy the items are stored with
+     * @param map    other map whose content is mapped in this context
+     * @throws NullPointerException Is thrown if value of policy or map is null.
+     */
+    public Context(ContextPolicy policy, Map<?, ?> map)
+            throws NullPointerException {
+        this(policy, Math.max(2 * map.size(), 16));
+
+        this.putAll(map);
+    }
+
+    /**
+     * Returns the policy the items are stored with.
+     *
+     * @return Returns the policy the items are stored with.
+     */
+    public ContextPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Creates a scope of this context. Reading a key, which wasn't written to the scope, returns the value of this
+     * context. Writing or removing a key only affects the scope until <tt>commit()</tt> is called. Creating a scope
+     * is independent of the number of hashtable entries; only the items of typed keys are copied.
+     * <p>
+     * Iterating a scope or calling <tt>size()</tt> works on a snapshot of both contexts, so it costs O(n). The views
+     * of a scope are unmodifiable.
+     *
+     * @return Returns a new scope of this context.
+     */
+    public Context child() {
+        return new Context(this);
+    }
+
+    /**
+     * Returns the context the object is a scope of.
+     *
+     * @return Returns the parent context or <tt>null</tt> if the object isn't a scope.
+     */
+    public Context getParent() {
+        return this.parent;
+    }
+
+    /**
+     * Checks whether the object is a scope of another context or not.
+     *
+     * @return Returns <tt>true</tt> if the object is a scope; Otherwise <tt>false</tt>.
+     */
+    public boolean isScope() {
+        return this.parent != null;
+    }
+
+    /**
+     * Writes all keys written or removed in this scope to the parent context. Afterwards the scope doesn't contain own
+     * changes any longer, so it reads all keys from the parent again. Items of typed keys written in this scope are
+     * written to the parent as well. If the object isn't a scope, nothing happens.
+     */
+    public void commit() {
+        if (this.parent != null) {
+            ((ScopedMap) this.map).commit();
+
+            this.slots.commitTo(this.parent.slots);
+        }
+    }
+
+    /**
+     * Returns the item stored by a typed key.
+     *
+     * @param key key of the item
+     * @param <T> type of the item
+     * @return Returns the item or <tt>null</tt> if it wasn't set.
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ContextKey<T> key)
+            throws NullPointerException {
+        return (T) this.slots.getObject(key.index());
+    }
+
+    /**
+     * Stores an item by a typed key.
+     *
+     * @param key   key of the item
+     * @param value new value of the item; <tt>null</tt> removes the item
+     * @param <T>   type of the item
+     * @throws NullPointerException Is thrown if value of key is null.
+     * @throws ClassCastException   Is thrown if value isn't an instance of the key's type.
+     */
+    public <T> void set(ContextKey<T> key, T value)
+            throws NullPointerException, ClassCastException {
+        this.slots.setObject(key.index(), key.getType().cast(value));
+    }
+
+    /**
+     * Returns the item stored by a typed key.
+     *
+     * @param key key of the item
+     * @return Returns the value of the item or zero if it wasn't set.
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    public int get(IntKey key)
+            throws NullPointerException {
+        return (int) this.slots.getPrimitive(key.index());
+    }
+
+    /**
+     * Stores an item by a typed key.
+     *
+     * @param key   key of the item
+     * @param value new value of the item
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    public void set(IntKey key, int value)
+            throws NullPointerException {
+        this.slots.setPrimitive(key.index(), value);
+    }
+
+    /**
+     * Adds a value to an item atomically.
+     *
+     * @param key   key of the item
+     * @param delta value to add
+     * @return Returns the new value of the item.
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    public int addAndGet(IntKey key, int delta)
+            throws NullPointerException {
+        return (int) this.slots.addAndGetPrimitive(key.index(), delta);
+    }
+
+    /**
+     * Returns the item stored by a typed key.
+     *
+     * @param key key of the item
+     * @return Returns the value of the item or zero if it wasn't set.
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    public long get(LongKey key)
+            throws NullPointerException {
+        return this.slots.getPrimitive(key.index());
+    }
+
+    /**
+     * Stores an item by a typed key.
+     *
+     * @param key   key of the item
+     * @param value new value of the item
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    public void set(LongKey key, long value)
+            throws NullPointerException {
+        this.slots.setPrimitive(key.index(), value);
+    }
+
+    /**
+     * Adds a value to an item atomically.
+     *
+     * @param key   key of the item
+     * @param delta value to add
+     * @return Returns the new value of the item.
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    public long addAndGet(LongKey key, long delta)
+            throws NullPointerException {
+        return this.slots.addAndGetPrimitive(key.index(), delta);
+    }
+
+    /**
+     * Returns the item stored by a typed key.
+     *
+     * @param key key of the item
+     * @return Returns the value of the item or zero if it wasn't set.
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    public double get(DoubleKey key)
+            throws NullPointerException {
+        return Double.longBitsToDouble(this.slots.getPrimitive(key.index()));
+    }
+
+    /**
+     * Stores an item by a typed key.
+     *
+     * @param key   key of the item
+     * @param value new value of the item
+     * @throws NullPointerException Is thrown if value of key is null.
+     */
+    public void set(DoubleKey key, double value)
+            throws NullPointerException {
+        this.slots.setPrimitive(key.index(), Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public int size() {
+        return this.map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.map.isEmpty();
+    }
+
+    @Override
+    public Enumeration<Object> keys() {
+        return Collections.enumeration(this.map.keySet());
+    }
+
+    @Override
+    public Enumeration<Object> elements() {
+        return Collections.enumeration(this.map.values());
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return this.containsValue(value);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        ArgumentUtils.assertNotNull(value, "value");
+
+        return this.map.containsValue(value);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        ArgumentUtils.assertNotNull(key, "key");
+
+        return this.map.containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        ArgumentUtils.assertNotNull(key, "key");
+
+        return this.map.get(key);
+    }
+
+    @Override
+    protected void rehash() {
+        // the map grows on its own
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(value, "value");
+
+        return this.map.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        ArgumentUtils.assertNotNull(key, "key");
+
+        return this.map.remove(key);
+    }
+
+    @Override
+    public void putAll(Map<?, ?> map) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            ArgumentUtils.assertNotNull(entry.getKey(), "key");
+            ArgumentUtils.assertNotNull(entry.getValue(), "value");
+        }
+
+        this.map.putAll(map);
+    }
+
+    @Override
+    public void clear() {
+        this.map.clear();
+
+        if (this.parent == null) {
+            this.slots.clear();
+        }
+    }
+
+    /**
+     * Creates a shallow copy of the context with the same policy. The items themselves aren't cloned. The copy of a
+     * scope contains the items of the parent as well, but isn't a scope any longer. Items stored by typed keys are
+     * copied too.
+     *
+     * @return Returns a shallow copy of the context.
+     */
+    @Override
+    public Context clone() {
+        Context copy = new Context(this.policy, this.map);
+        this.slots.copyTo(copy.slots);
+
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return this.map.toString();
+    }
+
+    @Override
+    public Set<Object> keySet() {
+        return this.map.keySet();
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return this.map.entrySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return this.map.values();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+
+        if (obj instanceof Context) {
+            return this.map.equals(((Context) obj).map);
+        }
+
+        return this.map.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.map.hashCode();
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        Object value = this.get(key);
+
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Object, ? super Object> action) {
+        this.map.forEach(action);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        this.map.replaceAll((key, value) -> {
+            Object result = function.apply(key, value);
+
+            ArgumentUtils.assertNotNull(result, "value");
+
+            return result;
+        });
+    }
+
+    @Override
+    public Object putIfAbsent(Object key, Object value) {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(value, "value");
+
+        return this.map.putIfAbsent(key, value);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        ArgumentUtils.assertNotNull(key, "key");
+
+        return value != null && this.map.remove(key, value);
+    }
+
+    @Override
+    public boolean replace(Object key, Object oldValue, Object newValue) {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(oldValue, "old value");
+        ArgumentUtils.assertNotNull(newValue, "new value");
+
+        return this.map.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public Object replace(Object key, Object value) {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(value, "value");
+
+        return this.map.replace(key, value);
+    }
+
+    @Override
+    public Object computeIfAbsent(Object key, Function<? super Object, ?> function) {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(function, "function");
+
+        return this.map.computeIfAbsent(key, function);
+    }
+
+    @Override
+    public Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> function) {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(function, "function");
+
+        return this.map.computeIfPresent(key, function);
+    }
+
+    @Override
+    public Object compute(Object key, BiFunction<? super Object, ? super Object, ?> function) {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(function, "function");
+
+        return this.map.compute(key, function);
+    }
+
+    @Override
+    public Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> function) {
+        ArgumentUtils.assertNotNull(key, "key");
+        ArgumentUtils.assertNotNull(value, "value");
+        ArgumentUtils.assertNotNull(function, "function");
+
+        return this.map.merge(key, value, function);
+    }
+
+    /**
+     * The items are stored outside of the hashtable, so the context is serialized by a replacement object.
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return new SerializedContext(this.policy, new HashMap<>(this.map));
+    }
+
+    private static final class SerializedContext implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ContextPolicy policy;
+
+        private final HashMap<Object, Object> items;
+
+        private SerializedContext(ContextPolicy policy, HashMap<Object, Object> items) {
+            this.policy = policy;
+            this.items = items;
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            return new Context(this.policy, this.items);
+        }
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.settings;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Typed handle of a context item. Reading the item by the key needs neither a hash lookup nor a cast, because each key
+ * owns a slot of its own in every context. For primitive values use <tt>IntKey</tt>, <tt>LongKey</tt> or
+ * <tt>DoubleKey</tt>, which avoid boxing as well.
+ * <p>
+ * Keys should be constants, e.g. <tt>static final</tt> fields: every key ever created reserves a slot, so creating
+ * keys on the fly lets the contexts grow. Two keys with the same name are different keys. Items stored by typed keys
+ * are separated from the entries of the hashtable.
+ * <p>
+ * Example: <tt>static final ContextKey&lt;String&gt; URL = ContextKey.of("url", String.class);</tt>
+ *
+ * @author PantherCode
+ */
+public final class ContextKey<T> {
+
+    /**
+     * number of allocated slots for object values
+     */
+    private static final AtomicInteger OBJECT_SLOTS = new AtomicInteger();
+
+    /**
+     * number of allocated slots for primitive values
+     */
+    private static final AtomicInteger PRIMITIVE_SLOTS = new AtomicInteger();
+
+    /**
+     * name of the key
+     */
+    private final String name;
+
+    /**
+     * type of the key's values
+     */
+    private final Class<T> type;
+
+    /**
+     * index of the key's slot
+     */
+    private final int index;
+
+    private ContextKey(String name, Class<T> type) {
+        this.name = name;
+        this.type = type;
+        this.index = OBJECT_SLOTS.getAndIncrement();
+    }
+
+    /**
+     * Creates a new key.
+     *
+     * @param name name of the key
+     * @param type type of the key's values
+     * @param <T>  type of the key's values
+     * @return Returns a new key.
+     * @throws NullPointerException Is thrown if value of name or type is null.
+     */
+    public static <T> ContextKey<T> of(String name, Class<T> type)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(name, "name");
+        ArgumentUtils.assertNotNull(type, "type");
+
+        return new ContextKey<>(name, type);
+    }
+
+    /**
+     * Returns the name of the key.
+     *
+     * @return Returns the name of the key.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the type of the key's values.
+     *
+     * @return Returns the type of the key's values.
+     */
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return this.name + " (" + this.type.getSimpleName() + ")";
+    }
+
+    int index() {
+        return this.index;
+    }
+
+    /**
+     * Reserves a slot for a primitive key.
+     *
+     * @return Returns the index of the slot.
+     */
+    static int nextPrimitiveIndex() {
+        return PRIMITIVE_SLOTS.getAndIncrement();
+    }
+}
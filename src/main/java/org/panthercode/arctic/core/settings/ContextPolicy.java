@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.settings;
+
+import org.panthercode.arctic.core.collections.CopyOnWriteMap;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enumeration of strategies to store the items of a <tt>Context</tt>. The policy decides how modules running in
+ * parallel compete for the context.
+ *
+ * @author PantherCode
+ */
+public enum ContextPolicy {
+    /**
+     * All reads and writes lock the whole context, like <tt>java.util.Hashtable</tt> does.
+     */
+    SYNCHRONIZED("Synchronized"),
+
+    /**
+     * Reads never lock and writes only lock a small part of the context. It fits most workloads.
+     */
+    CONCURRENT("Concurrent"),
+
+    /**
+     * Reads never lock, each write copies the whole context. It fits contexts, which are filled once and afterwards
+     * only read by many modules.
+     */
+    COPY_ON_WRITE("Copy On Write");
+
+    /**
+     * name of system property to choose the default policy
+     */
+    public static final String PROPERTY_KEY = "arctic.context.policy";
+
+    /**
+     * string value of policy
+     */
+    private final String value;
+
+    /**
+     * Constructor
+     *
+     * @param value value of policy
+     */
+    ContextPolicy(final String value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the policy set by the system property <tt>arctic.context.policy</tt>. If the property isn't set or has
+     * no valid value, "Concurrent" is returned.
+     *
+     * @return Returns the default policy.
+     */
+    public static ContextPolicy getDefault() {
+        String name = System.getProperty(PROPERTY_KEY);
+
+        if (name != null) {
+            for (ContextPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(name.trim())) {
+                    return policy;
+                }
+            }
+        }
+
+        return CONCURRENT;
+    }
+
+    /**
+     * Creates a new map working with this policy.
+     *
+     * @param capacity initial capacity of the map
+     * @return Returns a new map.
+     */
+    Map<Object, Object> createMap(int capacity) {
+        switch (this) {
+            case SYNCHRONIZED:
+                return Collections.synchronizedMap(new HashMap<>(capacity));
+            case COPY_ON_WRITE:
+                return new CopyOnWriteMap<>();
+            default:
+                return new ConcurrentHashMap<>(capacity);
+        }
+    }
+
+    /**
+     * Returns a string representing the context policy.
+     *
+     * @return Returns a string representing the context policy.
+     */
+    public String value() {
+        return this.value;
+    }
+
+    /**
+     * Returns a string representing the context policy.
+     *
+     * @return Returns a string representing the context policy.
+     */
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.settings;
+
+/**
+ * Typed handle of a context item of type <tt>int</tt>. The value is stored without boxing in a slot of its own. If
+ * the item wasn't set, its value is zero.
+ * <p>
+ * Keys should be constants, see <tt>ContextKey</tt>.
+ *
+ * @author PantherCode
+ */
+public final class IntKey extends PrimitiveKey {
+
+    private IntKey(String name) {
+        super(name, "int");
+    }
+
+    /**
+     * Creates a new key.
+     *
+     * @param name name of the key
+     * @return Returns a new key.
+     * @throws NullPointerException Is thrown if value of name is null.
+     */
+    public static IntKey of(String name)
+            throws NullPointerException {
+        return new IntKey(name);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.settings;
+
+import org.panthercode.arctic.core.arguments.ArgumentUtils;
+
+/**
+ * Base class of the typed handles of primitive context items. The value is stored without boxing as raw bits in a
+ * <tt>long</tt> slot of its own. If the item wasn't set, its value is zero.
+ * <p>
+ * The class can't be extended outside of this package; use <tt>IntKey</tt>, <tt>LongKey</tt> or <tt>DoubleKey</tt>.
+ *
+ * @author PantherCode
+ */
+public abstract class PrimitiveKey {
+
+    /**
+     * name of the key
+     */
+    private final String name;
+
+    /**
+     * name of the primitive type
+     */
+    private final String type;
+
+    /**
+     * index of the key's slot
+     */
+    private final int index;
+
+    /**
+     * Constructor
+     *
+     * @param name name of the key
+     * @param type name of the primitive type
+     * @throws NullPointerException Is thrown if value of name is null.
+     */
+    PrimitiveKey(String name, String type)
+            throws NullPointerException {
+        ArgumentUtils.assertNotNull(name, "name");
+
+        this.name = name;
+        this.type = type;
+        this.index = ContextKey.nextPrimitiveIndex();
+    }
+
+    /**
+     * Returns the name of the key.
+     *
+     * @return Returns the name of the key.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return Returns a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return this.name + " (" + this.type + ")";
+    }
+
+    int index() {
+        return this.index;
+    }
+}
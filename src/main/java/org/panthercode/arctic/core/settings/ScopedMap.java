@@ -0,0 +1,182 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.settings;
+
+import org.panthercode.arctic.core.collections.PersistentHashMap;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Map of a child context. Writes are stored in a persistent map of their own, reads fall through to the parent if the
+ * key wasn't written. A removed key is marked, so it hides the parent's entry.
+ * <p>
+ * Each write replaces the persistent map by compare-and-set, so the scope never locks. Views and <tt>size()</tt>
+ * are computed from a snapshot of parent and scope; they're unmodifiable.
+ *
+ * @author PantherCode
+ */
+final class ScopedMap extends AbstractMap<Object, Object> {
+
+    /**
+     * marker of removed keys
+     */
+    private static final Object REMOVED = new Object();
+
+    /**
+     * context to read keys from, which weren't written to the scope
+     */
+    private final Context parent;
+
+    /**
+     * keys written or removed in the scope
+     */
+    private final AtomicReference<PersistentHashMap<Object, Object>> changes =
+            new AtomicReference<>(PersistentHashMap.empty());
+
+    /**
+     * Constructor
+     *
+     * @param parent context to read keys from, which weren't written to the scope
+     */
+    ScopedMap(Context parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Returns the context the scope belongs to.
+     *
+     * @return Returns the parent context.
+     */
+    Context parent() {
+        return this.parent;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object value = this.changes.get().get(key);
+
+        if (value == REMOVED) {
+            return null;
+        }
+
+        return value != null ? value : this.parent.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.get(key) != null;
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        while (true) {
+            PersistentHashMap<Object, Object> current = this.changes.get();
+
+            if (this.changes.compareAndSet(current, current.plus(key, value))) {
+                return this.visible(current, key);
+            }
+        }
+    }
+
+    @Override
+    public Object remove(Object key) {
+        while (true) {
+            PersistentHashMap<Object, Object> current = this.changes.get();
+
+            Object previous = this.visible(current, key);
+
+            if (previous == null || this.changes.compareAndSet(current, current.plus(key, REMOVED))) {
+                return previous;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        while (true) {
+            PersistentHashMap<Object, Object> current = this.changes.get();
+            PersistentHashMap<Object, Object> cleared = PersistentHashMap.empty();
+
+            for (Object key : this.parent.keySet()) {
+                cleared = cleared.plus(key, REMOVED);
+            }
+
+            if (this.changes.compareAndSet(current, cleared)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.snapshot().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.snapshot().isEmpty();
+    }
+
+    @Override
+    public Set<Entry<Object, Object>> entrySet() {
+        return Collections.unmodifiableMap(this.snapshot()).entrySet();
+    }
+
+    /**
+     * Writes all changes of the scope to the parent and removes them from the scope afterwards. Changes made while
+     * committing stay in the scope.
+     */
+    void commit() {
+        PersistentHashMap<Object, Object> committed = this.changes.getAndSet(PersistentHashMap.empty());
+
+        committed.forEach((key, value) -> {
+            if (value == REMOVED) {
+                this.parent.remove(key);
+            } else {
+                this.parent.put(key, value);
+            }
+        });
+    }
+
+    private Object visible(PersistentHashMap<Object, Object> changes, Object key) {
+        Object value = changes.get(key);
+
+        if (value == REMOVED) {
+            return null;
+        }
+
+        return value != null ? value : this.parent.get(key);
+    }
+
+    private Map<Object, Object> snapshot() {
+        final Map<Object, Object> snapshot = new HashMap<>(this.parent);
+
+        this.changes.get().forEach((key, value) -> {
+            if (value == REMOVED) {
+                snapshot.remove(key);
+            } else {
+                snapshot.put(key, value);
+            }
+        });
+
+        return snapshot;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2016 PantherCode
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.panthercode.arctic.core.settings;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Storage of the values of typed context keys. Each key owns a slot addressed by its index. Primitive values are
+ * stored as raw bits in <tt>long</tt> slots, so they are never boxed.
+ * <p>
+ * Slots are organised in pages of fixed size. If a key needs a page, which doesn't exist yet, only the table of pages
+ * is copied; existing pages are never replaced, so a concurrent write can't get lost while the table grows.
+ * <p>
+ * The storage of a scope tracks its written slots, so only those are written back by <tt>commitTo()</tt>.
+ *
+ * @author PantherCode
+ */
+final class Slots {
+
+    private static final int PAGE_BITS = 6;
+
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private volatile AtomicLongArray[] primitivePages = new AtomicLongArray[0];
+
+    @SuppressWarnings("unchecked")
+    private volatile AtomicReferenceArray<Object>[] objectPages =
+            (AtomicReferenceArray<Object>[]) new AtomicReferenceArray<?>[0];
+
+    /**
+     * flags of the slots written since the last commit or <tt>null</tt> if writes aren't tracked
+     */
+    private final Slots written;
+
+    /**
+     * Constructor of a storage, which doesn't track writes.
+     */
+    Slots() {
+        this(false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param tracking flag whether written slots are tracked or not
+     */
+    Slots(boolean tracking) {
+        this.written = tracking ? new Slots() : null;
+    }
+
+    long getPrimitive(int index) {
+        AtomicLongArray[] pages = this.primitivePages;
+        int page = index >>> PAGE_BITS;
+
+        return page < pages.length ? pages[page].get(index & PAGE_MASK) : 0L;
+    }
+
+    void setPrimitive(int index, long value) {
+        this.primitivePage(index).set(index & PAGE_MASK, value);
+
+        if (this.written != null) {
+            this.written.setPrimitive(index, 1L);
+        }
+    }
+
+    long addAndGetPrimitive(int index, long delta) {
+        long value = this.primitivePage(index).addAndGet(index & PAGE_MASK, delta);
+
+        if (this.written != null) {
+            this.written.setPrimitive(index, 1L);
+        }
+
+        return value;
+    }
+
+    Object getObject(int index) {
+        AtomicReferenceArray<Object>[] pages = this.objectPages;
+        int page = index >>> PAGE_BITS;
+
+        return page < pages.length ? pages[page].get(index & PAGE_MASK) : null;
+    }
+
+    void setObject(int index, Object value) {
+        this.objectPage(index).set(index & PAGE_MASK, value);
+
+        if (this.written != null) {
+            this.written.setObject(index, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Copies the values of all slots to another storage. The copied slots don't count as written by the target. Writes
+     * running concurrently may or may not be copied.
+     *
+     * @param target storage to copy the values to
+     */
+    void copyTo(Slots target) {
+        AtomicLongArray[] primitives = this.primitivePages;
+
+        for (int page = 0; page < primitives.length; page++) {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                long value = primitives[page].get(i);
+
+                if (value != 0L) {
+                    target.primitivePage((page << PAGE_BITS) | i).set(i, value);
+                }
+            }
+        }
+
+        AtomicReferenceArray<Object>[] objects = this.objectPages;
+
+        for (int page = 0; page < objects.length; page++) {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                Object value = objects[page].get(i);
+
+                if (value != null) {
+                    target.objectPage((page << PAGE_BITS) | i).set(i, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the values of all slots written since the last commit to another storage. Afterwards no slot counts as
+     * written any longer. If writes aren't tracked, nothing happens.
+     *
+     * @param target storage to write the values to
+     */
+    void commitTo(Slots target) {
+        if (this.written == null) {
+            return;
+        }
+
+        AtomicLongArray[] primitives = this.written.primitivePages;
+
+        for (int page = 0; page < primitives.length; page++) {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                if (primitives[page].getAndSet(i, 0L) != 0L) {
+                    int index = (page << PAGE_BITS) | i;
+
+                    target.setPrimitive(index, this.getPrimitive(index));
+                }
+            }
+        }
+
+        AtomicReferenceArray<Object>[] objects = this.written.objectPages;
+
+        for (int page = 0; page < objects.length; page++) {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                if (objects[page].getAndSet(i, null) != null) {
+                    int index = (page << PAGE_BITS) | i;
+
+                    target.setObject(index, this.getObject(index));
+                }
+            }
+        }
+    }
+
+    /**
+     * Resets all slots to zero or <tt>null</tt> respectively.
+     */
+    void clear() {
+        for (AtomicLongArray page : this.primitivePages) {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                page.set(i, 0L);
+            }
+        }
+
+        for (AtomicReferenceArray<Object> page : this.objectPages) {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                page.set(i, null);
+            }
+        }
+    }
+
+    private AtomicLongArray primitivePage(int index) {
+        AtomicLongArray[] pages = this.primitivePages;
+        int page = index >>> PAGE_BITS;
+
+        return page < pages.length ? pages[page] : this.addPrimitivePages(page);
+    }
+
+    private AtomicReferenceArray<Object> objectPage(int index) {
+        AtomicReferenceArray<Object>[] pages = this.objectPages;
+        int page = index >>> PAGE_BITS;
+
+        return page < pages.length ? pages[page] : this.addObjectPages(page);
+    }
+
+    private synchronized AtomicLongArray addPrimitivePages(int page) {
+        AtomicLongArray[] pages = this.primitivePages;
+
+        if (page >= pages.length) {
+            AtomicLongArray[] table = Arrays.copyOf(pages, page + 1);
+
+            for (int i = pages.length; i < table.length; i++) {
+                table[i] = new AtomicLongArray(PAGE_SIZE);
+            }
+
+            this.primitivePages = pages = table;
+        }
+
+        return pages[page];
+    }
+
+    private synchronized AtomicReferenceArray<Object> addObjectPages(int page) {
+        AtomicReferenceArray<Object>[] pages = this.objectPages;
+
+        if (page >= pages.length) {
+            AtomicReferenceArray<Object>[] table = Arrays.copyOf(pages, page + 1);
+
+            for (int i = pages.length; i < table.length; i++) {
+                table[i] = new AtomicReferenceArray<>(PAGE_SIZE);
+            }
+
+            this.objectPages = pages = table;
+        }
+
+        return pages[page];
+    }
+}
@@ -0,0 +1,100 @@
+package org.panthercode.arctic.core.collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test cases for LruCache class
+ *
+ * @author PantherCode
+ */
+public class LruCacheTest {
+
+    @Test
+    public void T01_LruCache_get() {
+        LruCache<String, Integer> cache = new LruCache<>(10);
+
+        Assert.assertNull(cache.get("one"), "Empty cache");
+
+        Assert.assertNull(cache.put("one", 1), "Previous value");
+
+        Assert.assertEquals(cache.get("one"), Integer.valueOf(1), "Cached value");
+
+        Assert.assertEquals(cache.put("one", 11), Integer.valueOf(1), "Previous value");
+
+        Assert.assertEquals(cache.size(), 1, "Size");
+
+        Assert.assertEquals(cache.hitCount(), 1L, "Hits");
+
+        Assert.assertEquals(cache.missCount(), 1L, "Misses");
+
+        Assert.assertEquals(cache.hitRate(), 0.5, 0.001, "Hit rate");
+    }
+
+    @Test
+    public void T02_LruCache_evictLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+
+        cache.put("one", 1);
+        cache.put("two", 2);
+
+        cache.get("one");
+
+        cache.put("three", 3);
+
+        Assert.assertEquals(cache.size(), 2, "Size is bounded by capacity");
+
+        Assert.assertNull(cache.get("two"), "Least recently used entry is evicted");
+
+        Assert.assertEquals(cache.get("one"), Integer.valueOf(1), "Recently used entry");
+
+        Assert.assertEquals(cache.get("three"), Integer.valueOf(3), "New entry");
+
+        Assert.assertEquals(cache.evictionCount(), 1L, "Evictions");
+    }
+
+    @Test
+    public void T03_LruCache_timeToLive() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>(10, 50L, TimeUnit.MILLISECONDS);
+
+        cache.put("one", 1);
+
+        Assert.assertEquals(cache.get("one"), Integer.valueOf(1), "Valid entry");
+
+        Thread.sleep(100L);
+
+        Assert.assertNull(cache.get("one"), "Expired entry");
+
+        Assert.assertEquals(cache.size(), 0, "Expired entry is removed");
+
+        Assert.assertEquals(cache.timeToLive(TimeUnit.MILLISECONDS), 50L, "Time to live");
+    }
+
+    @Test
+    public void T04_LruCache_remove() {
+        LruCache<String, Integer> cache = new LruCache<>(10);
+
+        cache.put("one", 1);
+        cache.put("two", 2);
+
+        Assert.assertEquals(cache.remove("one"), Integer.valueOf(1), "Removed value");
+
+        Assert.assertNull(cache.remove("one"), "Value is already removed");
+
+        cache.clear();
+
+        Assert.assertEquals(cache.size(), 0, "Size after clearing");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void T05_LruCache_invalidCapacity() {
+        new LruCache<String, Integer>(0);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void T06_LruCache_nullValue() {
+        new LruCache<String, Integer>(10).put("one", null);
+    }
+}
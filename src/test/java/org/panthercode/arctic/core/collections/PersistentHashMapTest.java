@@ -0,0 +1,154 @@
+package org.panthercode.arctic.core.collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test cases for PersistentHashMap class
+ *
+ * @author PantherCode
+ */
+public class PersistentHashMapTest {
+
+    @Test
+    public void T01_PersistentHashMap_plus() {
+        PersistentHashMap<String, Integer> empty = PersistentHashMap.empty();
+
+        PersistentHashMap<String, Integer> one = empty.plus("one", 1);
+        PersistentHashMap<String, Integer> two = one.plus("two", 2);
+
+        Assert.assertTrue(empty.isEmpty(), "Empty map isn't changed");
+
+        Assert.assertEquals(one.size(), 1, "Size of first map");
+
+        Assert.assertNull(one.get("two"), "First map isn't changed");
+
+        Assert.assertEquals(two.size(), 2, "Size of second map");
+
+        Assert.assertEquals(two.get("one"), Integer.valueOf(1), "Value of one");
+
+        Assert.assertEquals(two.get("two"), Integer.valueOf(2), "Value of two");
+
+        Assert.assertSame(two.plus("two", two.get("two")), two, "Adding an existing entry returns the same map");
+
+        Assert.assertEquals(two.plus("two", 22).size(), 2, "Replacing a value doesn't change size");
+    }
+
+    @Test
+    public void T02_PersistentHashMap_minus() {
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty()
+                .plus("one", 1)
+                .plus("two", 2);
+
+        PersistentHashMap<String, Integer> removed = map.minus("one");
+
+        Assert.assertEquals(removed.size(), 1, "Size after removing");
+
+        Assert.assertFalse(removed.containsKey("one"), "Removed key");
+
+        Assert.assertTrue(map.containsKey("one"), "Original map isn't changed");
+
+        Assert.assertSame(removed.minus("one"), removed, "Removing a missing key returns the same map");
+
+        Assert.assertTrue(removed.minus("two").isEmpty(), "Removing all keys");
+    }
+
+    @Test
+    public void T03_PersistentHashMap_collision() {
+        PersistentHashMap<Colliding, Integer> map = PersistentHashMap.empty();
+
+        for (int i = 0; i < 10; i++) {
+            map = map.plus(new Colliding(i), i);
+        }
+
+        map = map.plus(new Colliding(100, 74), 100);
+
+        Assert.assertEquals(map.size(), 11, "Size with colliding keys");
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(map.get(new Colliding(i)), Integer.valueOf(i), "Value of colliding key " + i);
+        }
+
+        Assert.assertEquals(map.get(new Colliding(100, 74)), Integer.valueOf(100), "Value of other key");
+
+        for (int i = 0; i < 10; i++) {
+            map = map.minus(new Colliding(i));
+        }
+
+        Assert.assertEquals(map.size(), 1, "Size after removing colliding keys");
+
+        Assert.assertEquals(map.get(new Colliding(100, 74)), Integer.valueOf(100), "Remaining key");
+    }
+
+    @Test
+    public void T04_PersistentHashMap_random() {
+        Random random = new Random(4711L);
+
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+
+        for (int i = 0; i < 100000; i++) {
+            Integer key = random.nextInt(5000);
+
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+        }
+
+        Assert.assertEquals(map.size(), expected.size(), "Size");
+
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            Assert.assertEquals(map.get(entry.getKey()), entry.getValue(), "Value of key " + entry.getKey());
+        }
+
+        Map<Integer, Integer> iterated = new HashMap<>();
+
+        for (Map.Entry<Integer, Integer> entry : map) {
+            iterated.put(entry.getKey(), entry.getValue());
+        }
+
+        Assert.assertEquals(iterated, expected, "Iterated entries");
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void T05_PersistentHashMap_nullValue() {
+        PersistentHashMap.<String, Integer>empty().plus("one", null);
+    }
+
+    /**
+     * Key with a fixed hash code.
+     */
+    private static final class Colliding {
+
+        private final int value;
+
+        private final int hash;
+
+        private Colliding(int value) {
+            this(value, 42);
+        }
+
+        private Colliding(int value, int hash) {
+            this.value = value;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Colliding && ((Colliding) obj).value == this.value;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.panthercode.arctic.core.helper.priority;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test cases for Semaphore class
+ *
+ * @author PantherCode
+ */
+public class SemaphoreTest {
+
+    /**
+     * Starts a thread, which acquires permits, records its name and releases the permits again. Returns after the
+     * thread is waiting.
+     */
+    private static Thread waiter(final Semaphore semaphore, final Priority priority, final int permits,
+                                 final String name, final List<String> order) throws InterruptedException {
+        int queueLength = semaphore.getQueueLength();
+
+        Thread thread = new Thread(() -> {
+            try {
+                semaphore.acquire(priority, permits);
+
+                order.add(name);
+
+                semaphore.release(permits);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        thread.start();
+
+        while (semaphore.getQueueLength() == queueLength) {
+            Thread.sleep(1L);
+        }
+
+        return thread;
+    }
+
+    @Test
+    public void T01_Semaphore_acquire() throws Exception {
+        Semaphore semaphore = new Semaphore(3);
+
+        semaphore.acquire();
+        semaphore.acquire(Priority.HIGH, 2);
+
+        Assert.assertEquals(semaphore.counter(), 0, "No permits are available");
+
+        Assert.assertFalse(semaphore.tryAcquire(), "Permit isn't available");
+
+        semaphore.release(3);
+
+        Assert.assertEquals(semaphore.counter(), 3, "All permits are available");
+
+        Assert.assertTrue(semaphore.tryAcquire(Priority.LOW, 3), "All permits are acquired");
+
+        semaphore.release(3);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void T02_Semaphore_releaseTooMany() {
+        new Semaphore(2).release();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void T03_Semaphore_acquireTooMany() throws Exception {
+        new Semaphore(2).acquire(Priority.NORMAL, 3);
+    }
+
+    @Test
+    public void T04_Semaphore_priorityOrder() throws Exception {
+        Semaphore semaphore = new Semaphore(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        semaphore.acquire();
+
+        Thread[] threads = {
+                waiter(semaphore, Priority.LOW, 1, "low", order),
+                waiter(semaphore, Priority.NORMAL, 1, "first normal", order),
+                waiter(semaphore, Priority.VERY_HIGH, 1, "very high", order),
+                waiter(semaphore, Priority.NORMAL, 1, "second normal", order)
+        };
+
+        semaphore.release();
+
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5L));
+        }
+
+        Assert.assertEquals(order, Arrays.asList("very high", "first normal", "second normal", "low"),
+                "Order of acquisition");
+
+        Assert.assertEquals(semaphore.counter(), 1, "Permit is available again");
+    }
+
+    @Test
+    public void T05_Semaphore_headOfLine() throws Exception {
+        Semaphore semaphore = new Semaphore(3);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        semaphore.acquire(Priority.NORMAL, 3);
+
+        Thread large = waiter(semaphore, Priority.NORMAL, 3, "large", order);
+        Thread small = waiter(semaphore, Priority.NORMAL, 1, "small", order);
+
+        semaphore.release();
+
+        Thread.sleep(50L);
+
+        Assert.assertTrue(order.isEmpty(), "Small request doesn't overtake the large one");
+
+        semaphore.release(2);
+
+        large.join(TimeUnit.SECONDS.toMillis(5L));
+        small.join(TimeUnit.SECONDS.toMillis(5L));
+
+        Assert.assertEquals(order, Arrays.asList("large", "small"), "Order of acquisition");
+    }
+
+    @Test
+    public void T06_Semaphore_timeout() throws Exception {
+        Semaphore semaphore = new Semaphore(1);
+
+        semaphore.acquire();
+
+        long start = System.nanoTime();
+
+        Assert.assertFalse(semaphore.tryAcquire(30L, TimeUnit.MILLISECONDS), "Permit isn't acquired");
+
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30L), "Thread waited");
+
+        Assert.assertEquals(semaphore.getQueueLength(), 0, "Node is removed after timeout");
+
+        semaphore.release();
+
+        Assert.assertTrue(semaphore.tryAcquire(30L, TimeUnit.MILLISECONDS), "Permit is acquired");
+    }
+
+    @Test
+    public void T07_Semaphore_interrupt() throws Exception {
+        final Semaphore semaphore = new Semaphore(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+
+        semaphore.acquire();
+
+        Thread thread = new Thread(() -> {
+            try {
+                semaphore.acquire();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+
+        thread.start();
+
+        while (semaphore.getQueueLength() == 0) {
+            Thread.sleep(1L);
+        }
+
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5L));
+
+        Assert.assertTrue(interrupted.get(), "Waiting thread is interrupted");
+
+        Assert.assertEquals(semaphore.getQueueLength(), 0, "Node is removed after interrupt");
+
+        Assert.assertEquals(semaphore.counter(), 0, "Permit is still acquired");
+    }
+
+    @Test
+    public void T08_Semaphore_setCapacity() throws Exception {
+        Semaphore semaphore = new Semaphore(2);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        semaphore.acquire(Priority.NORMAL, 2);
+
+        semaphore.setCapacity(1);
+
+        Assert.assertEquals(semaphore.capacity(), 1, "Capacity shrank");
+        Assert.assertEquals(semaphore.counter(), -1, "Acquired permits stay valid");
+
+        Thread thread = waiter(semaphore, Priority.NORMAL, 1, "waiter", order);
+
+        semaphore.release();
+
+        Assert.assertEquals(semaphore.counter(), 0, "Released permit is taken by the shrunk capacity");
+        Assert.assertEquals(semaphore.getQueueLength(), 1, "Thread is still waiting");
+
+        semaphore.setCapacity(3);
+
+        thread.join(TimeUnit.SECONDS.toMillis(5L));
+
+        Assert.assertEquals(order, Arrays.asList("waiter"), "New permits are handed over to the waiting thread");
+
+        semaphore.release();
+
+        Assert.assertEquals(semaphore.counter(), 3, "All permits are available");
+    }
+
+    @Test
+    public void T09_Semaphore_setCapacity_release() throws Exception {
+        Semaphore semaphore = new Semaphore(100);
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        Thread worker = new Thread(() -> {
+            try {
+                for (int i = 0; i < 1000000 && error.get() == null; i++) {
+                    while (!semaphore.tryAcquire()) {
+                        Thread.yield();
+                    }
+
+                    semaphore.release();
+                }
+            } catch (Throwable e) {
+                error.set(e);
+            } finally {
+                done.set(true);
+            }
+        });
+
+        worker.start();
+
+        while (!done.get()) {
+            semaphore.setCapacity(50);
+            semaphore.setCapacity(100);
+        }
+
+        worker.join();
+
+        Assert.assertNull(error.get(), "Release doesn't fail while the capacity shrinks");
+
+        Assert.assertEquals(semaphore.counter(), 100, "No permit is lost");
+    }
+}
@@ -0,0 +1,129 @@
+package org.panthercode.arctic.core.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test cases for Histogram class
+ *
+ * @author PantherCode
+ */
+public class HistogramTest {
+
+    @Test
+    public void T01_Histogram_empty() {
+        Histogram histogram = new Histogram();
+
+        Assert.assertEquals(histogram.count(), 0L, "Count of empty histogram");
+
+        Assert.assertEquals(histogram.min(), 0L, "Minimum of empty histogram");
+
+        Assert.assertEquals(histogram.max(), 0L, "Maximum of empty histogram");
+
+        Assert.assertEquals(histogram.valueAtPercentile(50.0), 0L, "Median of empty histogram");
+    }
+
+    @Test
+    public void T02_Histogram_record() {
+        Histogram histogram = new Histogram();
+
+        for (long value = 1L; value <= 100L; value++) {
+            histogram.record(value);
+        }
+
+        Assert.assertEquals(histogram.count(), 100L, "Count");
+
+        Assert.assertEquals(histogram.sum(), 5050L, "Sum");
+
+        Assert.assertEquals(histogram.min(), 1L, "Minimum");
+
+        Assert.assertEquals(histogram.max(), 100L, "Maximum");
+
+        Assert.assertEquals(histogram.mean(), 50.5, 0.001, "Mean");
+
+        // values below 32 have a bucket of their own
+        Assert.assertEquals(histogram.valueAtPercentile(10.0), 10L, "10th percentile");
+
+        Assert.assertEquals(histogram.valueAtPercentile(100.0), 100L, "100th percentile");
+    }
+
+    @Test
+    public void T03_Histogram_precision() {
+        Histogram histogram = new Histogram();
+
+        long[] values = {1000L, 123456L, 98765432L, 5000000000L, Long.MAX_VALUE / 3};
+
+        for (long value : values) {
+            Histogram single = new Histogram();
+
+            single.record(1L);
+            single.record(value);
+            single.record(Long.MAX_VALUE);
+
+            long estimate = single.valueAtPercentile(50.0);
+
+            Assert.assertTrue(Math.abs(estimate - value) <= value / 32L, "Relative error of " + value);
+
+            histogram.record(value);
+        }
+
+        Assert.assertEquals(histogram.count(), values.length, "Count");
+    }
+
+    @Test
+    public void T04_Histogram_negative() {
+        Histogram histogram = new Histogram();
+
+        histogram.record(-5L);
+
+        Assert.assertEquals(histogram.min(), 0L, "Negative value is recorded as zero");
+    }
+
+    @Test
+    public void T05_Histogram_add() {
+        Histogram first = new Histogram();
+        Histogram second = new Histogram();
+
+        first.record(10L);
+        second.record(20L);
+        second.record(30L);
+
+        first.add(second);
+
+        Assert.assertEquals(first.count(), 3L, "Count");
+
+        Assert.assertEquals(first.min(), 10L, "Minimum");
+
+        Assert.assertEquals(first.max(), 30L, "Maximum");
+
+        Assert.assertEquals(second.count(), 2L, "Count of added histogram");
+    }
+
+    @Test
+    public void T06_Histogram_snapshot() {
+        Histogram histogram = new Histogram();
+
+        histogram.record(42L);
+
+        Histogram snapshot = histogram.snapshot();
+
+        histogram.record(43L);
+        histogram.reset();
+
+        Assert.assertEquals(snapshot.count(), 1L, "Count of snapshot");
+
+        Assert.assertEquals(snapshot.max(), 42L, "Maximum of snapshot");
+
+        Assert.assertEquals(histogram.count(), 0L, "Count after reset");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void T07_Histogram_addDifferentPrecision() {
+        new Histogram(5).add(new Histogram(6));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void T08_Histogram_invalidPercentile() {
+        new Histogram().valueAtPercentile(101.0);
+    }
+}
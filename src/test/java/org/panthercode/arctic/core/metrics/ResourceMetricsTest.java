@@ -0,0 +1,99 @@
+package org.panthercode.arctic.core.metrics;
+
+import org.panthercode.arctic.core.helper.priority.Priority;
+import org.panthercode.arctic.core.resources.Lease;
+import org.panthercode.arctic.core.resources.ResourceFactory;
+import org.panthercode.arctic.core.resources.ResourcePool;
+import org.panthercode.arctic.core.resources.ResourcePoolOptions;
+import org.panthercode.arctic.core.resources.ResourcePoolTest.CountingResource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Test cases for ResourceMetrics class
+ *
+ * @author PantherCode
+ */
+public class ResourceMetricsTest {
+
+    @Test
+    public void T01_ResourceMetrics_record() {
+        ResourceMetrics metrics = new ResourceMetrics();
+
+        metrics.recordAcquire(Priority.HIGH, 1000L, 2, 1, 4);
+        metrics.recordAcquire(Priority.LOW, 3000L, 0, 0, 4);
+        metrics.recordTimeout(Priority.LOW, 5000L);
+        metrics.recordRelease(2000L);
+
+        Assert.assertEquals(metrics.getAcquireCount(), 2L, "Number of acquires");
+        Assert.assertEquals(metrics.getTimeoutCount(), 1L, "Number of timeouts");
+
+        Assert.assertEquals(metrics.getWaitTime(Priority.HIGH).count(), 1L, "Wait time is recorded per priority");
+        Assert.assertEquals(metrics.getWaitTime(Priority.NORMAL).count(), 0L, "Wait time is recorded per priority");
+        Assert.assertEquals(metrics.getWaitTime().count(), 2L, "Wait time of all priorities");
+
+        Assert.assertEquals(metrics.getHoldTime().count(), 1L, "Hold time is recorded");
+        Assert.assertEquals(metrics.getQueueLength().max(), 2L, "Maximal queue length");
+        Assert.assertEquals(metrics.getSaturation().min(), 75L, "Saturation of three of four permits");
+        Assert.assertEquals(metrics.getSaturation().max(), 100L, "Saturation of exhausted resource");
+    }
+
+    @Test
+    public void T02_ResourceMetrics_snapshot() {
+        ResourceMetrics metrics = new ResourceMetrics();
+
+        metrics.recordAcquire(Priority.NORMAL, 1000L, 0, 0, 1);
+        metrics.recordRelease(2000L);
+
+        ResourceMetrics snapshot = metrics.snapshot();
+
+        metrics.reset();
+
+        Assert.assertEquals(metrics.getAcquireCount(), 0L, "Metrics are reset");
+        Assert.assertEquals(snapshot.getAcquireCount(), 1L, "Snapshot keeps its values");
+        Assert.assertEquals(snapshot.getHoldTime().count(), 1L, "Snapshot keeps its values");
+
+        snapshot.add(snapshot.snapshot());
+
+        Assert.assertEquals(snapshot.getWaitTime(Priority.NORMAL).count(), 2L, "Metrics are added");
+    }
+
+    @Test
+    public void T03_ResourceMetrics_pool() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        ResourcePool<CountingResource> pool =
+                ResourceFactory.createPool(CountingResource.class, new ResourcePoolOptions(1, 0L), null);
+
+        ResourceMetrics metrics = registry.register(pool);
+
+        Assert.assertSame(registry.getResource(pool.identity().id()), metrics, "Pool is registered");
+
+        Lease<CountingResource> lease = pool.acquire(Priority.HIGH);
+
+        try {
+            Thread.sleep(5L);
+
+            pool.acquire();
+
+            Assert.fail("All resources are lent");
+        } catch (TimeoutException e) {
+            // expected
+        } finally {
+            lease.close();
+        }
+
+        Assert.assertEquals(metrics.getWaitTime(Priority.HIGH).count(), 1L, "Acquire is recorded");
+        Assert.assertEquals(metrics.getTimeoutCount(), 1L, "Timeout is recorded");
+        Assert.assertTrue(metrics.getHoldTime().min() >= TimeUnit.MILLISECONDS.toNanos(5L), "Hold time is recorded");
+        Assert.assertEquals(metrics.getSaturation().max(), 100L, "Pool was exhausted");
+
+        Assert.assertTrue(registry.unregister(pool), "Pool was registered");
+        Assert.assertNull(pool.getRecorder(), "Recording is disabled");
+
+        pool.close();
+    }
+}
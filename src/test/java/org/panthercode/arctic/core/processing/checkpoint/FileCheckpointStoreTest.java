@@ -0,0 +1,228 @@
+package org.panthercode.arctic.core.processing.checkpoint;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test cases for FileCheckpointStore class
+ *
+ * @author PantherCode
+ */
+public class FileCheckpointStoreTest {
+
+    @Test
+    public void T01_FileCheckpointStore_save() throws IOException {
+        Path file = Files.createTempFile("checkpoints", ".log");
+
+        try (FileCheckpointStore store = new FileCheckpointStore(file)) {
+            Assert.assertNull(store.load("process"), "Empty store");
+
+            store.save(checkpoint("process", 1, "first"));
+            store.save(checkpoint("process", 2, "second"));
+
+            Checkpoint checkpoint = store.load("process");
+
+            Assert.assertEquals(checkpoint.getIndex(), 2, "Latest index");
+
+            Assert.assertEquals(checkpoint.getContext().get("value"), "second", "Latest context");
+
+            Assert.assertEquals(store.size(), 1, "Size");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void T02_FileCheckpointStore_reopen() throws IOException {
+        Path file = Files.createTempFile("checkpoints", ".log");
+
+        try {
+            try (FileCheckpointStore store = new FileCheckpointStore(file, false)) {
+                store.save(checkpoint("a", 3, "value of a"));
+                store.save(checkpoint("b", 1, "value of b"));
+                store.save(checkpoint("c", 2, "value of c"));
+                store.remove("b");
+            }
+
+            try (FileCheckpointStore store = new FileCheckpointStore(file)) {
+                Assert.assertEquals(store.size(), 2, "Size after reopening");
+
+                Assert.assertEquals(store.load("a").getIndex(), 3, "Index of a");
+
+                Assert.assertEquals(store.load("a").getModuleCount(), 5, "Module count of a");
+
+                Assert.assertEquals(store.load("c").getContext().get("value"), "value of c", "Context of c");
+
+                Assert.assertNull(store.load("b"), "Removed checkpoint");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void T03_FileCheckpointStore_incompleteRecord() throws IOException {
+        Path file = Files.createTempFile("checkpoints", ".log");
+
+        try {
+            long size;
+
+            try (FileCheckpointStore store = new FileCheckpointStore(file, false)) {
+                store.save(checkpoint("process", 1, "first"));
+
+                size = Files.size(file);
+
+                store.save(checkpoint("process", 2, "second"));
+            }
+
+            // simulates a crash while writing the second record
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(Files.size(file) - 3);
+            }
+
+            try (FileCheckpointStore store = new FileCheckpointStore(file)) {
+                Assert.assertEquals(store.load("process").getIndex(), 1, "Index of last complete record");
+
+                Assert.assertEquals(Files.size(file), size, "Incomplete record is cut off");
+
+                store.save(checkpoint("process", 3, "third"));
+            }
+
+            try (FileCheckpointStore store = new FileCheckpointStore(file)) {
+                Assert.assertEquals(store.load("process").getIndex(), 3, "Index after appending again");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void T04_FileCheckpointStore_corruptedRecord() throws IOException {
+        Path file = Files.createTempFile("checkpoints", ".log");
+
+        try {
+            try (FileCheckpointStore store = new FileCheckpointStore(file, false)) {
+                store.save(checkpoint("process", 1, "first"));
+                store.save(checkpoint("process", 2, "second"));
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{42}), Files.size(file) - 1);
+            }
+
+            try (FileCheckpointStore store = new FileCheckpointStore(file)) {
+                Assert.assertEquals(store.load("process").getIndex(), 1, "Corrupted record is ignored");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void T05_FileCheckpointStore_notSerializable() throws IOException {
+        Path file = Files.createTempFile("checkpoints", ".log");
+
+        try {
+            Map<Object, Object> context = new HashMap<>();
+
+            context.put("serializable", 42);
+            context.put("not serializable", new Object());
+
+            try (FileCheckpointStore store = new FileCheckpointStore(file, false)) {
+                store.save(new Checkpoint("process", 1, 2, 0L, context));
+            }
+
+            try (FileCheckpointStore store = new FileCheckpointStore(file)) {
+                Map<Object, Object> loaded = store.load("process").getContext();
+
+                Assert.assertEquals(loaded.get("serializable"), 42, "Serializable entry");
+
+                Assert.assertFalse(loaded.containsKey("not serializable"), "Entry isn't serializable");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void T06_FileCheckpointStore_compact() throws IOException {
+        Path file = Files.createTempFile("checkpoints", ".log");
+
+        try {
+            try (FileCheckpointStore store = new FileCheckpointStore(file, false)) {
+                store.save(checkpoint("first", 1, "value"));
+
+                long size = Files.size(file);
+
+                for (int i = 0; i < 2000; i++) {
+                    store.save(checkpoint("second", i % 5, "value"));
+                }
+
+                store.remove("second");
+
+                Assert.assertTrue(Files.size(file) < 1000L * size, "File is compacted");
+            }
+
+            try (FileCheckpointStore store = new FileCheckpointStore(file)) {
+                Assert.assertEquals(store.size(), 1, "Size after compaction");
+
+                Assert.assertNotNull(store.load("first"), "Checkpoint survives compaction");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void T07_FileCheckpointStore_compact_failed() throws IOException {
+        Path file = Files.createTempFile("checkpoints", ".log");
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileCheckpointStore store = new FileCheckpointStore(file, false)) {
+            store.save(checkpoint("first", 1, "value"));
+
+            // the open file stays usable, but a non-empty directory can't be replaced by the compacted file
+            Files.delete(file);
+            Files.createDirectory(file);
+            Files.createFile(file.resolve("blocker"));
+
+            try {
+                store.compact();
+
+                Assert.fail("Compacted file can't replace the directory");
+            } catch (IOException e) {
+                // expected
+            }
+
+            Assert.assertFalse(Files.exists(temporary), "Temporary file is removed");
+
+            store.save(checkpoint("second", 2, "value"));
+            store.remove("first");
+
+            Assert.assertEquals(store.size(), 1, "Store can be used after failed compaction");
+
+            Assert.assertNotNull(store.load("second"), "Checkpoint saved after failed compaction");
+        } finally {
+            Files.deleteIfExists(temporary);
+            Files.deleteIfExists(file.resolve("blocker"));
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Checkpoint checkpoint(String key, int index, String value) {
+        Map<Object, Object> context = new HashMap<>();
+
+        context.put("value", value);
+
+        return new Checkpoint(key, index, 5, System.currentTimeMillis(), context);
+    }
+}
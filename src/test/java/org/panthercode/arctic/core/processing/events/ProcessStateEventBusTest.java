@@ -0,0 +1,252 @@
+package org.panthercode.arctic.core.processing.events;
+
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for ProcessStateEventBus class
+ *
+ * @author PantherCode
+ */
+public class ProcessStateEventBusTest {
+
+    @Test
+    public void T01_ProcessStateEventBus_publish() throws Exception {
+        ProcessStateEventBus bus = new ProcessStateEventBus();
+
+        List<ProcessStateEvent> events = new CopyOnWriteArrayList<>();
+
+        ProcessStateEventBus.Subscription subscription = bus.subscribe((event, endOfBatch) -> events.add(event.copy()));
+
+        bus.publish(1L, ProcessState.READY, ProcessState.RUNNING);
+        bus.publish(1L, ProcessState.RUNNING, ProcessState.SUCCEEDED);
+
+        subscription.close();
+
+        Assert.assertTrue(subscription.awaitTermination(5L, TimeUnit.SECONDS), "Subscription terminated");
+
+        Assert.assertEquals(events.size(), 2, "Number of events");
+
+        Assert.assertEquals(events.get(0).getModuleId(), 1L, "Module id");
+
+        Assert.assertEquals(events.get(0).getOldState(), ProcessState.READY, "Old state of first event");
+
+        Assert.assertEquals(events.get(1).getNewState(), ProcessState.SUCCEEDED, "New state of second event");
+
+        Assert.assertFalse(bus.hasSubscriptions(), "Bus has subscriptions");
+    }
+
+    @Test
+    public void T02_ProcessStateEventBus_block() throws Exception {
+        ProcessStateEventBus bus = new ProcessStateEventBus();
+
+        AtomicInteger count = new AtomicInteger();
+
+        AtomicInteger batches = new AtomicInteger();
+
+        ProcessStateEventBus.Subscription subscription = bus.subscribe((event, endOfBatch) -> {
+            count.incrementAndGet();
+
+            if (endOfBatch) {
+                batches.incrementAndGet();
+            }
+        }, 8, BackPressurePolicy.BLOCK);
+
+        Thread[] publishers = new Thread[4];
+
+        for (int i = 0; i < publishers.length; i++) {
+            final long moduleId = i;
+
+            publishers[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    bus.publish(moduleId, ProcessState.READY, ProcessState.RUNNING);
+                }
+            });
+            publishers[i].start();
+        }
+
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        subscription.close();
+
+        Assert.assertTrue(subscription.awaitTermination(5L, TimeUnit.SECONDS), "Subscription terminated");
+
+        Assert.assertEquals(count.get(), 40000, "Number of events");
+
+        Assert.assertEquals(subscription.getDroppedCount(), 0L, "Number of dropped events");
+
+        Assert.assertTrue(batches.get() > 0 && batches.get() <= count.get(), "Number of batches");
+    }
+
+    @Test
+    public void T03_ProcessStateEventBus_drop() throws Exception {
+        ProcessStateEventBus bus = new ProcessStateEventBus();
+
+        CountDownLatch blocked = new CountDownLatch(1);
+
+        CountDownLatch release = new CountDownLatch(1);
+
+        AtomicInteger count = new AtomicInteger();
+
+        ProcessStateEventBus.Subscription subscription = bus.subscribe((event, endOfBatch) -> {
+            blocked.countDown();
+            release.await();
+            count.incrementAndGet();
+        }, 4, BackPressurePolicy.DROP);
+
+        bus.publish(0L, ProcessState.READY, ProcessState.RUNNING);
+
+        Assert.assertTrue(blocked.await(5L, TimeUnit.SECONDS), "Handler is blocked");
+
+        for (int i = 0; i < 10; i++) {
+            bus.publish(i, ProcessState.READY, ProcessState.RUNNING);
+        }
+
+        release.countDown();
+
+        subscription.close();
+
+        Assert.assertTrue(subscription.awaitTermination(5L, TimeUnit.SECONDS), "Subscription terminated");
+
+        // the slot of the blocked event is only freed after the handler returned
+        Assert.assertEquals(count.get(), 4, "Number of handled events");
+
+        Assert.assertEquals(subscription.getDroppedCount(), 7L, "Number of dropped events");
+    }
+
+    @Test
+    public void T04_ProcessStateEventBus_coalesce() throws Exception {
+        ProcessStateEventBus bus = new ProcessStateEventBus();
+
+        CountDownLatch blocked = new CountDownLatch(1);
+
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<ProcessStateEvent> events = new CopyOnWriteArrayList<>();
+
+        ProcessStateEventBus.Subscription subscription = bus.subscribe((event, endOfBatch) -> {
+            blocked.countDown();
+            release.await();
+            events.add(event.copy());
+        }, 2, BackPressurePolicy.COALESCE);
+
+        bus.publish(0L, ProcessState.READY, ProcessState.RUNNING);
+
+        Assert.assertTrue(blocked.await(5L, TimeUnit.SECONDS), "Handler is blocked");
+
+        bus.publish(1L, ProcessState.READY, ProcessState.RUNNING);
+        bus.publish(3L, ProcessState.READY, ProcessState.RUNNING);
+        bus.publish(2L, ProcessState.READY, ProcessState.RUNNING);
+        bus.publish(2L, ProcessState.RUNNING, ProcessState.WAITING);
+        bus.publish(2L, ProcessState.WAITING, ProcessState.RUNNING);
+        bus.publish(2L, ProcessState.RUNNING, ProcessState.SUCCEEDED);
+
+        release.countDown();
+
+        subscription.close();
+
+        Assert.assertTrue(subscription.awaitTermination(5L, TimeUnit.SECONDS), "Subscription terminated");
+
+        Assert.assertEquals(events.size(), 4, "Number of handled events");
+
+        ProcessStateEvent last = null;
+
+        for (ProcessStateEvent event : events) {
+            if (event.getModuleId() == 2L) {
+                Assert.assertNull(last, "Events of module 2 are coalesced");
+
+                last = event;
+            }
+        }
+
+        Assert.assertNotNull(last, "Coalesced event");
+
+        Assert.assertEquals(last.getModuleId(), 2L, "Module id of coalesced event");
+
+        Assert.assertEquals(last.getOldState(), ProcessState.READY, "Old state of coalesced event");
+
+        Assert.assertEquals(last.getNewState(), ProcessState.SUCCEEDED, "New state of coalesced event");
+
+        Assert.assertEquals(subscription.getDroppedCount(), 0L, "Number of dropped events");
+    }
+
+    @Test
+    public void T05_ProcessStateEventBus_exception() throws Exception {
+        ProcessStateEventBus bus = new ProcessStateEventBus();
+
+        AtomicInteger count = new AtomicInteger();
+
+        ProcessStateEventBus.Subscription subscription = bus.subscribe((event, endOfBatch) -> {
+            if (count.incrementAndGet() == 1) {
+                throw new IllegalStateException("failing handler");
+            }
+        });
+
+        bus.publish(0L, ProcessState.READY, ProcessState.RUNNING);
+        bus.publish(0L, ProcessState.RUNNING, ProcessState.FAILED);
+
+        subscription.close();
+
+        Assert.assertTrue(subscription.awaitTermination(5L, TimeUnit.SECONDS), "Subscription terminated");
+
+        Assert.assertEquals(count.get(), 2, "Number of handled events");
+
+        Assert.assertEquals(subscription.getFailedCount(), 1L, "Number of failed events");
+    }
+
+    @Test
+    public void T06_ProcessStateEventBus_coalesce_concurrent() throws Exception {
+        ProcessStateEventBus bus = new ProcessStateEventBus();
+
+        int producerCount = 4;
+
+        Map<Long, ProcessState> states = new ConcurrentHashMap<>();
+
+        ProcessStateEventBus.Subscription subscription = bus.subscribe(
+                (event, endOfBatch) -> states.put(event.getModuleId(), event.getNewState()),
+                2, BackPressurePolicy.COALESCE);
+
+        // every producer merges the events of its module while the consumer drains them
+        Thread[] producers = new Thread[producerCount];
+
+        for (int i = 0; i < producerCount; i++) {
+            final long moduleId = i;
+
+            producers[i] = new Thread(() -> {
+                for (int j = 0; j < 20000; j++) {
+                    bus.publish(moduleId, ProcessState.RUNNING, ProcessState.WAITING);
+                    bus.publish(moduleId, ProcessState.WAITING, ProcessState.RUNNING);
+                }
+
+                bus.publish(moduleId, ProcessState.RUNNING, ProcessState.SUCCEEDED);
+            });
+            producers[i].start();
+        }
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        subscription.close();
+
+        Assert.assertTrue(subscription.awaitTermination(5L, TimeUnit.SECONDS), "Subscription terminated");
+
+        for (long moduleId = 0; moduleId < producerCount; moduleId++) {
+            Assert.assertEquals(states.get(moduleId), ProcessState.SUCCEEDED,
+                    "Last handled state of module " + moduleId);
+        }
+
+        Assert.assertEquals(subscription.getDroppedCount(), 0L, "Number of dropped events");
+    }
+}
@@ -0,0 +1,118 @@
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Test cases for Channel class
+ *
+ * @author PantherCode
+ */
+public class ChannelTest {
+
+    @Test
+    public void T01_Channel_take() throws Exception {
+        Channel<Integer> channel = new Channel<>(8);
+
+        Assert.assertTrue(channel.putAll(Arrays.asList(1, 2, 3, 4, 5)), "Items are added");
+
+        List<Integer> batch = new ArrayList<>();
+
+        Assert.assertEquals(channel.take(batch, 3), 3, "Size of first batch");
+
+        Assert.assertEquals(batch, Arrays.asList(1, 2, 3), "Items of first batch");
+
+        channel.close();
+
+        batch.clear();
+
+        Assert.assertEquals(channel.take(batch, 3), 2, "Remaining items are taken after closing");
+
+        Assert.assertEquals(batch, Arrays.asList(4, 5), "Items of second batch");
+
+        Assert.assertEquals(channel.take(batch, 3), 0, "Closed channel is exhausted");
+
+        Assert.assertFalse(channel.isCancelled(), "Channel isn't cancelled");
+    }
+
+    @Test
+    public void T02_Channel_backPressure() throws Exception {
+        final Channel<Integer> channel = new Channel<>(2);
+        final AtomicBoolean added = new AtomicBoolean();
+
+        channel.put(1);
+        channel.put(2);
+
+        Thread producer = new Thread(() -> {
+            try {
+                channel.put(3);
+
+                added.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        producer.start();
+
+        Thread.sleep(100L);
+
+        Assert.assertFalse(added.get(), "Producer waits while channel is full");
+
+        Assert.assertEquals(channel.size(), 2, "Size of full channel");
+
+        List<Integer> batch = new ArrayList<>();
+
+        channel.take(batch, 1);
+
+        producer.join(TimeUnit.SECONDS.toMillis(5L));
+
+        Assert.assertTrue(added.get(), "Producer continues after an item was taken");
+
+        Assert.assertEquals(channel.size(), 2, "Size after producer continued");
+    }
+
+    @Test
+    public void T03_Channel_cancel() throws Exception {
+        final Channel<Integer> channel = new Channel<>(4);
+        final List<Integer> batch = new ArrayList<>();
+        final int[] taken = {-1};
+
+        Thread consumer = new Thread(() -> {
+            try {
+                taken[0] = channel.take(batch, 4);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        consumer.start();
+
+        Thread.sleep(50L);
+
+        channel.cancel();
+
+        consumer.join(TimeUnit.SECONDS.toMillis(5L));
+
+        Assert.assertEquals(taken[0], 0, "Waiting consumer is released");
+
+        Assert.assertTrue(channel.isCancelled(), "Channel is cancelled");
+
+        Assert.assertFalse(channel.put(1), "Cancelled channel doesn't accept items");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void T04_Channel_putAfterClose() throws Exception {
+        Channel<Integer> channel = new Channel<>(4);
+
+        channel.close();
+
+        channel.put(1);
+    }
+}
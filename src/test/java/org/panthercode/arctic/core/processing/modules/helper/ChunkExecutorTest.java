@@ -0,0 +1,173 @@
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.impl.ChunkTest.TestStep;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for ChunkExecutor class
+ *
+ * @author PantherCode
+ */
+public class ChunkExecutorTest {
+
+    @Test
+    public void T01_ChunkExecutor_execute() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            List<TestStep> steps = Arrays.asList(new TestStep(true), new TestStep(true), new TestStep(true));
+
+            Assert.assertEquals(executor.execute(steps, 2), ProcessState.SUCCEEDED, "Aggregated state");
+
+            for (TestStep step : steps) {
+                Assert.assertTrue(step.isSucceeded(), "Step is succeeded");
+
+                Assert.assertEquals(step.runs(), 1, "Number of runs");
+            }
+
+            Assert.assertEquals(executor.execute(Collections.<TestStep>emptyList(), 1), ProcessState.SUCCEEDED,
+                    "Aggregated state of no modules");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T02_ChunkExecutor_execute_aggregate() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            TestStep stopped = new TestStep(true);
+            stopped.stop();
+
+            Assert.assertEquals(executor.execute(Arrays.asList(new TestStep(true), stopped), 2),
+                    ProcessState.STOPPED, "Aggregated state with stopped module");
+
+            TestStep otherStopped = new TestStep(true);
+            otherStopped.stop();
+
+            Assert.assertEquals(executor.execute(Arrays.asList(new TestStep(false), otherStopped), 2),
+                    ProcessState.FAILED, "Failed module wins over stopped one");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T03_ChunkExecutor_execute_exception() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            TestStep succeeding = new TestStep(true);
+
+            try {
+                executor.execute(Arrays.asList(new TestStep(() -> {
+                    throw new ProcessException("step failed");
+                }), succeeding), 1);
+
+                Assert.fail("Exception of module is rethrown");
+            } catch (ProcessException e) {
+                // expected
+            }
+
+            Assert.assertTrue(succeeding.isSucceeded(), "Other module is finished anyway");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T04_ChunkExecutor_maxParallelism() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(4));
+
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+
+            List<TestStep> steps = new ArrayList<>();
+
+            for (int i = 0; i < 8; i++) {
+                steps.add(new TestStep(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    running.decrementAndGet();
+
+                    return true;
+                }));
+            }
+
+            Assert.assertEquals(executor.executeAsync(steps, 3).join(), ProcessState.SUCCEEDED, "Aggregated state");
+
+            Assert.assertTrue(maxRunning.get() <= 3, "At most three modules ran at the same time");
+
+            for (TestStep step : steps) {
+                Assert.assertEquals(step.runs(), 1, "Number of runs");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T05_ChunkExecutor_startAsync() throws Exception {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(1));
+
+        TestStep step = new TestStep(true);
+
+        Assert.assertEquals(executor.startAsync(step).join(), ProcessState.SUCCEEDED, "State of started module");
+
+        executor.shutdown();
+
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS), "Executor terminated");
+    }
+
+    @Test
+    public void T06_ChunkExecutor_arguments() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(1));
+
+        try {
+            try {
+                executor.execute(null, 1);
+
+                Assert.fail("Modules must not be null");
+            } catch (NullPointerException e) {
+                // expected
+            }
+
+            try {
+                executor.executeAsync(Collections.singletonList(new TestStep(true)), 0);
+
+                Assert.fail("Parallelism must be greater than zero");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+
+            try {
+                executor.startAsync(null);
+
+                Assert.fail("Module must not be null");
+            } catch (NullPointerException e) {
+                // expected
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
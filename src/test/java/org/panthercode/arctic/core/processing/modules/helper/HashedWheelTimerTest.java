@@ -0,0 +1,141 @@
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for HashedWheelTimer class
+ *
+ * @author PantherCode
+ */
+public class HashedWheelTimerTest {
+
+    /**
+     * Creates a small wheel: 3 levels with 4 slots each, so delays above 64 ticks are beyond the wheel's range.
+     */
+    private static HashedWheelTimer createTimer() {
+        return new HashedWheelTimer(1L, TimeUnit.MILLISECONDS, 4, 3, null);
+    }
+
+    @Test
+    public void T01_HashedWheelTimer_schedule() throws Exception {
+        HashedWheelTimer timer = createTimer();
+
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+
+            long start = System.nanoTime();
+
+            Future<?> future = timer.schedule(latch::countDown, 20L, TimeUnit.MILLISECONDS);
+
+            Assert.assertTrue(latch.await(5L, TimeUnit.SECONDS), "Task is executed");
+
+            Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20L), "Task waited for delay");
+
+            future.get(5L, TimeUnit.SECONDS);
+
+            Assert.assertTrue(future.isDone(), "Future is done");
+
+            Assert.assertFalse(future.isCancelled(), "Future is not cancelled");
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    @Test
+    public void T02_HashedWheelTimer_cancel() throws Exception {
+        HashedWheelTimer timer = createTimer();
+
+        try {
+            AtomicInteger counter = new AtomicInteger();
+
+            Future<?> future = timer.schedule(counter::incrementAndGet, 20L, TimeUnit.MILLISECONDS);
+
+            Assert.assertTrue(future.cancel(false), "Task is cancelled");
+
+            Assert.assertFalse(future.cancel(false), "Task can't be cancelled twice");
+
+            Thread.sleep(100L);
+
+            Assert.assertEquals(counter.get(), 0, "Number of executions");
+
+            Assert.assertTrue(future.isCancelled(), "Future is cancelled");
+
+            Assert.assertEquals(timer.size(), 0, "Number of pending tasks");
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    @Test
+    public void T03_HashedWheelTimer_cascade() throws Exception {
+        HashedWheelTimer timer = createTimer();
+
+        try {
+            int count = 40;
+
+            CountDownLatch latch = new CountDownLatch(count);
+
+            long[] executed = new long[count];
+
+            long start = System.nanoTime();
+
+            for (int i = 0; i < count; i++) {
+                final int index = i;
+
+                // delays from 0 to 195 ms hit every level and the overflow slot
+                timer.schedule(() -> {
+                    executed[index] = System.nanoTime() - start;
+                    latch.countDown();
+                }, i * 5L, TimeUnit.MILLISECONDS);
+            }
+
+            Assert.assertTrue(latch.await(5L, TimeUnit.SECONDS), "All tasks are executed");
+
+            for (int i = 0; i < count; i++) {
+                Assert.assertTrue(executed[i] >= TimeUnit.MILLISECONDS.toNanos(i * 5L), "Task " + i + " waited for delay");
+            }
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    @Test
+    public void T04_HashedWheelTimer_now() throws Exception {
+        HashedWheelTimer timer = createTimer();
+
+        try {
+            long start = timer.now();
+
+            Thread.sleep(50L);
+
+            Assert.assertTrue(timer.now() - start >= 40L, "Clock advances");
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void T05_HashedWheelTimer_scheduleAfterShutdown() {
+        HashedWheelTimer timer = createTimer();
+
+        try {
+            timer.shutdown();
+
+            timer.schedule(() -> {
+            }, 1L, TimeUnit.MILLISECONDS);
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void T06_HashedWheelTimer_invalidWheelSize() {
+        new HashedWheelTimer(1L, TimeUnit.MILLISECONDS, 6, 3, null);
+    }
+}
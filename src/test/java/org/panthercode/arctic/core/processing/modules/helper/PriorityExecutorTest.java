@@ -0,0 +1,192 @@
+package org.panthercode.arctic.core.processing.modules.helper;
+
+import org.panthercode.arctic.core.helper.priority.Priority;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test cases for PriorityExecutor class
+ *
+ * @author PantherCode
+ */
+public class PriorityExecutorTest {
+
+    @Test
+    public void T01_PriorityExecutor_order() throws Exception {
+        PriorityExecutor executor = new PriorityExecutor(Executors.newCachedThreadPool(), 1, 1L, TimeUnit.HOURS);
+
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(4);
+            List<String> order = new CopyOnWriteArrayList<>();
+
+            executor.execute(() -> {
+                started.countDown();
+
+                try {
+                    blocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            Assert.assertTrue(started.await(5L, TimeUnit.SECONDS), "Blocking task is running");
+
+            executor.execute(() -> {
+                order.add("low");
+                done.countDown();
+            }, Priority.LOW);
+
+            executor.execute(() -> {
+                order.add("normal");
+                done.countDown();
+            });
+
+            executor.withPriority(Priority.VERY_HIGH).execute(() -> {
+                order.add("very high");
+                done.countDown();
+            });
+
+            executor.execute(() -> {
+                order.add("high");
+                done.countDown();
+            }, Priority.HIGH);
+
+            Assert.assertEquals(executor.pending(), 4, "Number of waiting tasks");
+
+            Assert.assertEquals(executor.pending(Priority.LOW), 1, "Number of waiting tasks with low priority");
+
+            blocker.countDown();
+
+            Assert.assertTrue(done.await(5L, TimeUnit.SECONDS), "All tasks are executed");
+
+            Assert.assertEquals(order, Arrays.asList("very high", "high", "normal", "low"), "Order of execution");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T02_PriorityExecutor_aging() throws Exception {
+        PriorityExecutor executor = new PriorityExecutor(Executors.newCachedThreadPool(), 1, 5L, TimeUnit.MILLISECONDS);
+
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(2);
+            List<String> order = new CopyOnWriteArrayList<>();
+
+            executor.execute(() -> {
+                started.countDown();
+
+                try {
+                    blocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            Assert.assertTrue(started.await(5L, TimeUnit.SECONDS), "Blocking task is running");
+
+            executor.execute(() -> {
+                order.add("old");
+                done.countDown();
+            }, Priority.VERY_LOW);
+
+            Thread.sleep(50L);
+
+            executor.execute(() -> {
+                order.add("new");
+                done.countDown();
+            }, Priority.VERY_HIGH);
+
+            blocker.countDown();
+
+            Assert.assertTrue(done.await(5L, TimeUnit.SECONDS), "All tasks are executed");
+
+            Assert.assertEquals(order, Arrays.asList("old", "new"), "Old task rose above new one");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T03_PriorityExecutor_parallelism() throws Exception {
+        PriorityExecutor executor = new PriorityExecutor(Executors.newCachedThreadPool(), 3, 100L,
+                TimeUnit.MILLISECONDS);
+
+        try {
+            CountDownLatch started = new CountDownLatch(3);
+            CountDownLatch blocker = new CountDownLatch(1);
+
+            for (int i = 0; i < 5; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+
+                    try {
+                        blocker.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            Assert.assertTrue(started.await(5L, TimeUnit.SECONDS), "Tasks are running in parallel");
+
+            Assert.assertEquals(executor.pending(), 2, "Tasks beyond the parallelism are waiting");
+
+            blocker.countDown();
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertTrue(executor.awaitTermination(5L, TimeUnit.SECONDS), "Executor terminates");
+    }
+
+    @Test
+    public void T04_PriorityExecutor_error() throws Exception {
+        PriorityExecutor executor = new PriorityExecutor(Executors.newCachedThreadPool(), 1, 1L, TimeUnit.HOURS);
+
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(1);
+
+            executor.execute(() -> {
+                started.countDown();
+
+                try {
+                    blocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                throw new AssertionError("task failed");
+            });
+
+            Assert.assertTrue(started.await(5L, TimeUnit.SECONDS), "Failing task is running");
+
+            executor.execute(done::countDown);
+
+            blocker.countDown();
+
+            Assert.assertTrue(done.await(5L, TimeUnit.SECONDS), "Waiting task is executed after an error");
+
+            CountDownLatch next = new CountDownLatch(1);
+
+            executor.execute(next::countDown);
+
+            Assert.assertTrue(next.await(5L, TimeUnit.SECONDS), "Slot of the failed worker is released");
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.helper.BatchingOptions;
+import org.panthercode.arctic.core.settings.Context;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test cases for BatchingStep class
+ *
+ * @author PantherCode
+ */
+public class BatchingStepTest {
+
+    private static final long LONG_LINGER = 60000L;
+
+    @Test
+    public void T01_BatchingStep_submit_maxBatchSize() throws Exception {
+        DoublingStep step = new DoublingStep(new BatchingOptions(3, LONG_LINGER), 0);
+
+        CompletableFuture<Integer> first = step.submit(1);
+        CompletableFuture<Integer> second = step.submit(2);
+
+        Assert.assertEquals(step.pending(), 2, "Items wait for the batch to be filled");
+
+        Assert.assertFalse(first.isDone(), "Batch isn't executed before it is full");
+
+        CompletableFuture<Integer> third = step.submit(3);
+
+        Assert.assertEquals(first.get(5, TimeUnit.SECONDS), Integer.valueOf(2), "First item gets its result");
+
+        Assert.assertEquals(second.get(5, TimeUnit.SECONDS), Integer.valueOf(4), "Second item gets its result");
+
+        Assert.assertEquals(third.get(5, TimeUnit.SECONDS), Integer.valueOf(6), "Third item gets its result");
+
+        Assert.assertEquals(step.pending(), 0, "Full batch is executed");
+
+        Assert.assertEquals(step.getBatchCount(), 1L, "Items are executed by a single batch");
+
+        Assert.assertEquals(step.getItemCount(), 3L, "All items are processed");
+    }
+
+    @Test
+    public void T02_BatchingStep_submit_lingerTime() throws Exception {
+        DoublingStep step = new DoublingStep(new BatchingOptions(100, 50L), 0);
+
+        CompletableFuture<Integer> first = step.submit(1);
+        CompletableFuture<Integer> second = step.submit(2);
+
+        Assert.assertEquals(first.get(5, TimeUnit.SECONDS), Integer.valueOf(2), "First item gets its result");
+
+        Assert.assertEquals(second.get(5, TimeUnit.SECONDS), Integer.valueOf(4), "Second item gets its result");
+
+        Assert.assertEquals(step.getBatchCount(), 1L, "Batch is executed after linger time");
+
+        Assert.assertEquals(step.pending(), 0, "No item is waiting");
+
+        CompletableFuture<Integer> third = step.submit(3);
+
+        Assert.assertEquals(third.get(5, TimeUnit.SECONDS), Integer.valueOf(6), "Item of next batch gets its result");
+
+        Assert.assertEquals(step.getBatchCount(), 2L, "Next batch is executed after its own linger time");
+    }
+
+    @Test
+    public void T03_BatchingStep_submit_resultMismatch() {
+        DoublingStep step = new DoublingStep(new BatchingOptions(3, LONG_LINGER), 1);
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        for (int i = 1; i <= 3; i++) {
+            futures.add(step.submit(i));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).join();
+
+                Assert.fail("Future " + i + " fails if the batch returns too few results");
+            } catch (CompletionException e) {
+                Assert.assertTrue(e.getCause() instanceof ProcessException, "Cause of future " + i + " is reported");
+            }
+        }
+
+        Assert.assertEquals(step.getBatchCount(), 1L, "Batch was executed");
+    }
+
+    @Test
+    public void T04_BatchingStep_start() {
+        DoublingStep step = new DoublingStep(new BatchingOptions(1, LONG_LINGER), 0);
+
+        step.getContext().put("input", 21);
+
+        Assert.assertTrue(step.start(), "Step finished successfully");
+
+        Assert.assertTrue(step.isSucceeded(), "Step is succeeded");
+
+        Assert.assertEquals(step.getContext().get("output"), 42, "Result is written to the context");
+
+        Assert.assertTrue(step.reset(), "Step is reset");
+
+        step.getContext().remove("input");
+
+        try {
+            step.start();
+
+            Assert.fail("Missing item is reported");
+        } catch (ProcessException e) {
+            // expected
+        }
+
+        Assert.assertTrue(step.isFailed(), "Step without item is failed");
+    }
+
+    @Test
+    public void T05_BatchingStep_startAsync() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try {
+            DoublingStep step = new DoublingStep(new BatchingOptions(2, LONG_LINGER), 0);
+            DoublingStep copy = step.copy();
+
+            copy.setContext(new Context());
+
+            step.getContext().put("input", 1);
+            copy.getContext().put("input", 2);
+
+            CompletableFuture<ProcessState> first = step.startAsync(pool);
+
+            Assert.assertTrue(step.isRunning(), "Step is running while waiting for its batch");
+
+            Assert.assertEquals(step.startAsync(pool).join(), ProcessState.RUNNING,
+                    "Running step isn't started twice");
+
+            CompletableFuture<ProcessState> second = copy.startAsync(pool);
+
+            Assert.assertEquals(first.get(5, TimeUnit.SECONDS), ProcessState.SUCCEEDED, "Step is succeeded");
+
+            Assert.assertEquals(second.get(5, TimeUnit.SECONDS), ProcessState.SUCCEEDED, "Copy is succeeded");
+
+            Assert.assertEquals(step.getContext().get("output"), 2, "Result of step is written to its context");
+
+            Assert.assertEquals(copy.getContext().get("output"), 4, "Result of copy is written to its context");
+
+            Assert.assertEquals(step.getBatchCount(), 1L, "Step and copy share their batch");
+
+            DoublingStep failing = new DoublingStep(new BatchingOptions(1, LONG_LINGER), 1);
+
+            failing.getContext().put("input", 1);
+
+            try {
+                failing.startAsync(pool).join();
+
+                Assert.fail("Failed batch completes the future exceptionally");
+            } catch (CompletionException e) {
+                Assert.assertTrue(e.getCause() instanceof ProcessException, "Cause is a process exception");
+            }
+
+            Assert.assertTrue(failing.isFailed(), "Step of failed batch is failed");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @IdentityInfo(name = "Doubling Step", group = "Test")
+    public static class DoublingStep extends BatchingStep<Integer, Integer> {
+
+        private final int missing;
+
+        public DoublingStep(BatchingOptions options, int missing) {
+            super("input", "output", options);
+
+            this.missing = missing;
+        }
+
+        public DoublingStep(DoublingStep step) {
+            super(step);
+
+            this.missing = step.missing;
+        }
+
+        @Override
+        protected List<Integer> execute(List<Integer> items) {
+            List<Integer> results = new ArrayList<>();
+
+            for (int i = 0; i < items.size() - this.missing; i++) {
+                results.add(items.get(i) * 2);
+            }
+
+            return results;
+        }
+
+        @Override
+        public DoublingStep copy() {
+            return new DoublingStep(this);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.helper.version.Version;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.helper.CacheInfo;
+import org.panthercode.arctic.core.settings.Context;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test cases for CachedStep class
+ *
+ * @author PantherCode
+ */
+public class CachedStepTest {
+
+    @Test
+    public void T01_CachedStep_hit() {
+        SquareStep module = new SquareStep();
+
+        CachedStep step = new CachedStep(module);
+
+        Assert.assertTrue(run(step, 3), "Step finished successfully");
+
+        Assert.assertEquals(step.getContext().get("square"), 9, "Output of executed module");
+
+        Assert.assertEquals(module.runs, 1, "Module is executed on a miss");
+
+        step.getContext().remove("square");
+
+        Assert.assertTrue(run(step, 3), "Step finished successfully");
+
+        Assert.assertEquals(step.getContext().get("square"), 9, "Cached output is written to the context");
+
+        Assert.assertEquals(module.runs, 1, "Module is skipped on a hit");
+
+        Assert.assertTrue(run(step, 4), "Step finished successfully");
+
+        Assert.assertEquals(step.getContext().get("square"), 16, "Output of other input");
+
+        Assert.assertEquals(module.runs, 2, "Module is executed for other input");
+
+        Assert.assertEquals(step.getCache().hitCount(), 1L, "Number of hits");
+
+        Assert.assertEquals(step.getCache().missCount(), 2L, "Number of misses");
+    }
+
+    @Test
+    public void T02_CachedStep_cacheInfo() {
+        CachedStep step = new CachedStep(new SquareStep());
+
+        Assert.assertEquals(step.getCache().capacity(), 8, "Capacity of annotation");
+
+        Assert.assertEquals(step.getCache().timeToLive(TimeUnit.MILLISECONDS), 60000L, "Time to live of annotation");
+
+        try {
+            new CachedStep(new ChunkTest.TestStep(true));
+
+            Assert.fail("Module without cache annotation is rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            new CachedStep(null);
+
+            Assert.fail("Module must not be null");
+        } catch (NullPointerException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void T03_CachedStep_version() {
+        SquareStep module = new SquareStep();
+
+        CachedStep step = new CachedStep(module);
+
+        Assert.assertTrue(run(step, 3), "Step finished successfully");
+
+        module.version = new Version(2, 0);
+
+        Assert.assertTrue(run(step, 3), "Step finished successfully");
+
+        Assert.assertEquals(module.runs, 2, "New version doesn't use results of old version");
+
+        module.version = null;
+
+        Assert.assertTrue(run(step, 3), "Step finished successfully");
+
+        Assert.assertEquals(module.runs, 2, "Results of old version are still cached");
+
+        CachedStep copy = step.copy();
+
+        Assert.assertTrue(run(copy, 3), "Copy finished successfully");
+
+        Assert.assertEquals(step.getCache().hitCount(), 2L, "Copy shares the cache");
+    }
+
+    @Test
+    public void T04_CachedStep_failure() {
+        SquareStep module = new SquareStep();
+
+        CachedStep step = new CachedStep(module);
+
+        run(step, 0);
+
+        Assert.assertTrue(step.isFailed(), "Failed module fails the step");
+
+        run(step, 0);
+
+        Assert.assertTrue(step.isFailed(), "Failed module fails the step again");
+
+        Assert.assertEquals(module.runs, 2, "Failed execution isn't cached");
+
+        try {
+            run(step, 13);
+
+            Assert.fail("Exception of module is rethrown");
+        } catch (ProcessException e) {
+            // expected
+        }
+
+        Assert.assertTrue(step.isFailed(), "Step is failed");
+
+        try {
+            run(step, 13);
+
+            Assert.fail("Exception of module is rethrown again");
+        } catch (ProcessException e) {
+            // expected
+        }
+
+        Assert.assertEquals(module.runs, 4, "Throwing execution isn't cached");
+
+        Assert.assertEquals(step.getCache().size(), 0, "Cache is empty");
+    }
+
+    @Test
+    public void T05_CachedStep_missingOutput() {
+        SquareStep module = new SquareStep();
+
+        CachedStep step = new CachedStep(module);
+
+        Assert.assertTrue(run(step, -2), "Step finished successfully");
+
+        Assert.assertFalse(step.getContext().containsKey("root"), "Module doesn't write root of negative input");
+
+        step.getContext().put("root", "stale");
+
+        Assert.assertTrue(run(step, -2), "Step finished successfully");
+
+        Assert.assertEquals(module.runs, 1, "Module is skipped on a hit");
+
+        Assert.assertFalse(step.getContext().containsKey("root"), "Output missing in cached result is removed");
+
+        Assert.assertEquals(step.getContext().get("square"), 4, "Cached output is written to the context");
+    }
+
+    private static boolean run(CachedStep step, int value) {
+        if (!step.isReady()) {
+            step.reset();
+        }
+
+        step.getContext().put("value", value);
+
+        return step.start();
+    }
+
+    /**
+     * Module writing the square and, for positive values, the root of its input. It fails for zero and throws an
+     * exception for 13.
+     */
+    @IdentityInfo(name = "Square Step", group = "Test")
+    @CacheInfo(inputs = "value", outputs = {"square", "root"}, capacity = 8, timeToLive = 60000L)
+    public static class SquareStep extends Step {
+
+        private int runs = 0;
+
+        private Version version = null;
+
+        public SquareStep() {
+            super();
+        }
+
+        public SquareStep(SquareStep step) {
+            super(step);
+        }
+
+        @Override
+        public Version version() {
+            return this.version == null ? super.version() : new Version(this.version);
+        }
+
+        @Override
+        public boolean step()
+                throws ProcessException {
+            this.runs++;
+
+            int value = (Integer) this.getContext().get("value");
+
+            if (value == 13) {
+                throw new ProcessException("unlucky value");
+            }
+
+            this.getContext().put("square", value * value);
+
+            if (value > 0) {
+                this.getContext().put("root", Math.sqrt(value));
+            }
+
+            return value != 0;
+        }
+
+        @Override
+        public boolean stop() {
+            return this.changeState(ProcessState.STOPPED);
+        }
+
+        @Override
+        public boolean reset() {
+            return this.changeState(ProcessState.READY);
+        }
+
+        @Override
+        public SquareStep copy() {
+            return new SquareStep(this);
+        }
+    }
+}
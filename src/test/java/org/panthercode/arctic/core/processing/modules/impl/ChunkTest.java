@@ -0,0 +1,401 @@
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.helper.ChunkExecutor;
+import org.panthercode.arctic.core.settings.Context;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for Chunk class
+ *
+ * @author PantherCode
+ */
+public class ChunkTest {
+
+    @Test
+    public void T01_Chunk_start() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            Chunk chunk = chunk(executor, 2, new TestStep(true), new TestStep(true), new TestStep(true));
+
+            Assert.assertTrue(chunk.start(), "Chunk finished successfully");
+
+            Assert.assertTrue(chunk.isSucceeded(), "Chunk is succeeded");
+
+            for (int i = 0; i < chunk.size(); i++) {
+                TestStep step = (TestStep) chunk.modules().get(i);
+
+                Assert.assertTrue(step.isSucceeded(), "Element " + i + " is succeeded");
+
+                Assert.assertEquals(step.runs(), 1, "Number of runs of element " + i);
+            }
+
+            Assert.assertFalse(chunk.start(), "Finished chunk can't be started again");
+
+            Assert.assertEquals(((TestStep) chunk.modules().get(0)).runs(), 1, "Number of runs after second start");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T02_Chunk_start_failed() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            TestStep failing = new TestStep(false);
+            TestStep succeeding = new TestStep(true);
+
+            Chunk chunk = chunk(executor, 2, succeeding, failing);
+
+            Assert.assertFalse(chunk.start(), "Chunk with failed element doesn't finish successfully");
+
+            Assert.assertTrue(chunk.isFailed(), "Chunk is failed");
+
+            Assert.assertTrue(succeeding.isSucceeded(), "Other element runs anyway");
+
+            Assert.assertTrue(chunk.reset(), "Chunk and elements are reset");
+
+            Assert.assertTrue(failing.isReady(), "Failed element is ready after reset");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T03_Chunk_start_exception() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            TestStep throwing = new TestStep(() -> {
+                throw new ProcessException("step failed");
+            });
+            TestStep succeeding = new TestStep(true);
+
+            Chunk chunk = chunk(executor, 1, throwing, succeeding);
+
+            try {
+                chunk.start();
+
+                Assert.fail("Exception of element is rethrown");
+            } catch (ProcessException e) {
+                // expected
+            }
+
+            Assert.assertTrue(chunk.isFailed(), "Chunk is failed");
+
+            Assert.assertTrue(succeeding.isSucceeded(), "Other element runs anyway");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T04_Chunk_startAsync() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ChunkExecutor executor = new ChunkExecutor(pool);
+
+        try {
+            Chunk chunk = chunk(executor, 2, new TestStep(true), new TestStep(true));
+
+            Assert.assertEquals(chunk.startAsync(pool).join(), ProcessState.SUCCEEDED, "State of future");
+
+            Assert.assertTrue(chunk.isSucceeded(), "Chunk is succeeded");
+
+            Assert.assertEquals(chunk.startAsync(pool).join(), ProcessState.SUCCEEDED,
+                    "Finished chunk returns its state without running again");
+
+            Assert.assertEquals(((TestStep) chunk.modules().get(0)).runs(), 1, "Number of runs after second start");
+
+            Chunk failed = chunk(executor, 2, new TestStep(true), new TestStep(false));
+
+            Assert.assertEquals(failed.startAsync(pool).join(), ProcessState.FAILED, "State of failed chunk");
+
+            Assert.assertTrue(failed.isFailed(), "Chunk is failed");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T05_Chunk_startAsync_exception() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ChunkExecutor executor = new ChunkExecutor(pool);
+
+        try {
+            Chunk chunk = chunk(executor, 2, new TestStep(true), new TestStep(() -> {
+                throw new ProcessException("step failed");
+            }));
+
+            CompletableFuture<ProcessState> future = chunk.startAsync(pool);
+
+            try {
+                future.join();
+
+                Assert.fail("Future is completed exceptionally");
+            } catch (CompletionException e) {
+                Assert.assertTrue(e.getCause() instanceof ProcessException, "Cause is a process exception");
+            }
+
+            Assert.assertTrue(chunk.isFailed(), "Chunk is failed");
+
+            try {
+                chunk.startAsync(null);
+
+                Assert.fail("Executor must not be null");
+            } catch (NullPointerException e) {
+                // expected
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T06_Chunk_threadCount() throws Exception {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(4));
+
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+
+            Chunk chunk = new Chunk(2, new Context());
+            chunk.setExecutor(executor);
+
+            for (int i = 0; i < 6; i++) {
+                chunk.deploy(new TestStep(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    running.decrementAndGet();
+
+                    return true;
+                }));
+            }
+
+            Assert.assertTrue(chunk.start(), "Chunk finished successfully");
+
+            Assert.assertTrue(maxRunning.get() <= 2, "At most two elements ran at the same time");
+
+            try {
+                chunk.setThreadCount(0);
+
+                Assert.fail("Thread count must be greater than zero");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T07_Chunk_after() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ChunkExecutor executor = new ChunkExecutor(pool);
+
+        try {
+            HookedChunk chunk = new HookedChunk();
+            chunk.setExecutor(executor);
+            chunk.deploy(new TestStep(() -> {
+                throw new ProcessException("step failed");
+            }));
+
+            try {
+                chunk.start();
+
+                Assert.fail("Exception of element is rethrown");
+            } catch (ProcessException e) {
+                // expected
+            }
+
+            Assert.assertEquals(chunk.afterCount.get(), 1, "after() is called on exception");
+
+            Assert.assertTrue(chunk.reset(), "Chunk and elements are reset");
+
+            try {
+                chunk.startAsync(pool).join();
+
+                Assert.fail("Future is completed exceptionally");
+            } catch (CompletionException e) {
+                Assert.assertTrue(e.getCause() instanceof ProcessException, "Cause is a process exception");
+            }
+
+            Assert.assertEquals(chunk.afterCount.get(), 2, "after() is called on asynchronous exception");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T08_Chunk_concurrent_start() throws Exception {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int i = 0; i < 50; i++) {
+                TestStep first = new TestStep(true);
+                TestStep second = new TestStep(true);
+
+                Chunk chunk = chunk(executor, 2, first, second);
+
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                AtomicInteger started = new AtomicInteger();
+
+                Thread other = new Thread(() -> {
+                    await(barrier);
+
+                    if (chunk.start()) {
+                        started.incrementAndGet();
+                    }
+                });
+                other.start();
+
+                await(barrier);
+
+                if (chunk.start()) {
+                    started.incrementAndGet();
+                }
+
+                other.join();
+
+                Assert.assertEquals(started.get(), 1, "Only one start() is successful");
+
+                Assert.assertTrue(chunk.isSucceeded(), "Chunk is succeeded");
+
+                Assert.assertEquals(first.runs() + second.runs(), 2, "Each element runs exactly once");
+
+                Assert.assertTrue(chunk.reset(), "Chunk is reset");
+
+                CompletableFuture<ProcessState> left = chunk.startAsync(pool);
+                CompletableFuture<ProcessState> right = chunk.startAsync(pool);
+
+                Assert.assertEquals(left.get(5, TimeUnit.SECONDS), ProcessState.SUCCEEDED, "Chunk is succeeded");
+
+                right.get(5, TimeUnit.SECONDS);
+
+                Assert.assertEquals(first.runs() + second.runs(), 4, "Second startAsync() doesn't run the elements");
+            }
+        } finally {
+            executor.shutdown();
+            pool.shutdown();
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Chunk chunk(ChunkExecutor executor, int threadCount, TestStep... steps) {
+        Chunk chunk = new Chunk(threadCount, new Context());
+
+        chunk.setExecutor(executor);
+
+        for (TestStep step : steps) {
+            chunk.deploy(step);
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Chunk counting the calls of its hooks.
+     */
+    @IdentityInfo(name = "Hooked Chunk", group = "Test")
+    private static class HookedChunk extends Chunk {
+
+        private final AtomicInteger afterCount = new AtomicInteger();
+
+        HookedChunk() {
+            super(1, new Context());
+        }
+
+        @Override
+        public void after() {
+            this.afterCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Step running a given body. It's used by the test cases of all processing modules.
+     */
+    @IdentityInfo(name = "Test Step", group = "Test")
+    public static class TestStep extends Step {
+
+        private final Body body;
+
+        private final AtomicInteger runs = new AtomicInteger();
+
+        public TestStep(boolean result) {
+            this(() -> result);
+        }
+
+        public TestStep(Body body) {
+            super();
+
+            this.body = body;
+        }
+
+        public TestStep(TestStep step) {
+            super(step);
+
+            this.body = step.body;
+        }
+
+        public int runs() {
+            return this.runs.get();
+        }
+
+        @Override
+        public boolean step()
+                throws ProcessException {
+            this.runs.incrementAndGet();
+
+            return this.body.run();
+        }
+
+        @Override
+        public boolean stop() {
+            return this.changeState(ProcessState.STOPPED);
+        }
+
+        @Override
+        public boolean reset() {
+            return this.changeState(ProcessState.READY);
+        }
+
+        @Override
+        public TestStep copy() {
+            return new TestStep(this);
+        }
+
+        /**
+         * Code executed by the step.
+         */
+        public interface Body {
+
+            boolean run() throws ProcessException;
+        }
+    }
+}
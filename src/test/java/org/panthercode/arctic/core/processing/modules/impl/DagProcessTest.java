@@ -0,0 +1,433 @@
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.Module;
+import org.panthercode.arctic.core.processing.modules.helper.ChunkExecutor;
+import org.panthercode.arctic.core.processing.modules.impl.ChunkTest.TestStep;
+import org.panthercode.arctic.core.settings.Context;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for DagProcess class
+ *
+ * @author PantherCode
+ */
+public class DagProcessTest {
+
+    @Test
+    public void T01_DagProcess_order() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            List<String> order = new CopyOnWriteArrayList<>();
+
+            DagProcess process = process(executor, 2);
+
+            TestStep a = recording(order, "a");
+            TestStep b = recording(order, "b");
+            TestStep c = recording(order, "c");
+            TestStep d = recording(order, "d");
+
+            // deployed in reverse order, so the order of execution only depends on the dependencies
+            process.deploy(d);
+            process.deploy(c);
+            process.deploy(b);
+            process.deploy(a);
+
+            process.addDependency(b, a);
+            process.addDependency(c, a);
+            process.addDependency(d, b);
+            process.addDependency(d, c);
+
+            Assert.assertTrue(process.start(), "Process finished successfully");
+
+            Assert.assertTrue(process.isSucceeded(), "Process is succeeded");
+
+            Assert.assertEquals(order.size(), 4, "Number of executed elements");
+
+            Assert.assertEquals(order.get(0), "a", "Element without dependencies runs first");
+
+            Assert.assertEquals(order.get(3), "d", "Element depending on all others runs last");
+
+            Assert.assertEquals(ids(process.dependencies(d)), ids(Arrays.<Module>asList(b, c)),
+                    "Dependencies of element");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T02_DagProcess_addDependency_cycle() {
+        DagProcess process = new DagProcess(1, new Context());
+
+        TestStep a = new TestStep(true);
+        TestStep b = new TestStep(true);
+        TestStep c = new TestStep(true);
+
+        process.deploy(a);
+        process.deploy(b, a);
+        process.deploy(c, b);
+
+        try {
+            process.addDependency(a, c);
+
+            Assert.fail("Transitive cycle is rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            process.addDependency(a, a);
+
+            Assert.fail("Dependency to itself is rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            process.addDependency(a, new TestStep(true));
+
+            Assert.fail("Dependency must be part of the process");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            process.deploy(new TestStep(true), new TestStep(true));
+
+            Assert.fail("Dependency of new element must be part of the process");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        Assert.assertTrue(process.dependencies(a).isEmpty(), "Rejected dependencies aren't added");
+
+        Assert.assertTrue(process.removeDependency(c, b), "Dependency is removed");
+
+        Assert.assertTrue(process.addDependency(a, c), "Dependency without cycle is added");
+    }
+
+    @Test
+    public void T03_DagProcess_start_failed() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            DagProcess process = process(executor, 2);
+
+            TestStep a = new TestStep(false);
+            TestStep b = new TestStep(true);
+
+            process.deploy(a);
+            process.deploy(b, a);
+
+            Assert.assertFalse(process.start(), "Process doesn't finish successfully");
+
+            Assert.assertTrue(process.isFailed(), "Process is failed");
+
+            Assert.assertEquals(b.runs(), 0, "Successor of failed element isn't started");
+
+            Assert.assertTrue(process.reset(), "Process and elements are reset");
+
+            Assert.assertTrue(a.isReady(), "Failed element is ready after reset");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T04_DagProcess_start_exception() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ChunkExecutor executor = new ChunkExecutor(pool);
+
+        try {
+            DagProcess process = process(executor, 2);
+
+            TestStep a = new TestStep(() -> {
+                throw new ProcessException("step failed");
+            });
+            TestStep b = new TestStep(true);
+
+            process.deploy(a);
+            process.deploy(b, a);
+
+            try {
+                process.start();
+
+                Assert.fail("Exception of element is rethrown");
+            } catch (ProcessException e) {
+                // expected
+            }
+
+            Assert.assertTrue(process.isFailed(), "Process is failed");
+
+            Assert.assertEquals(b.runs(), 0, "Successor of throwing element isn't started");
+
+            Assert.assertTrue(process.reset(), "Process and elements are reset");
+
+            try {
+                process.startAsync(pool).join();
+
+                Assert.fail("Future is completed exceptionally");
+            } catch (CompletionException e) {
+                Assert.assertTrue(e.getCause() instanceof ProcessException, "Cause is a process exception");
+            }
+
+            Assert.assertTrue(process.isFailed(), "Process is failed after asynchronous start");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T05_DagProcess_stop() throws Exception {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            DagProcess process = process(executor, 2);
+
+            TestStep a = new TestStep(() -> {
+                started.countDown();
+
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return true;
+            });
+            TestStep b = new TestStep(true);
+
+            process.deploy(a);
+            process.deploy(b, a);
+
+            AtomicBoolean result = new AtomicBoolean(true);
+
+            Thread caller = new Thread(() -> result.set(process.start()));
+            caller.start();
+
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS), "Element is started");
+
+            Assert.assertTrue(process.stop(), "Process is stopped");
+
+            Assert.assertTrue(a.isStopped(), "Running element is stopped");
+
+            release.countDown();
+
+            caller.join(TimeUnit.SECONDS.toMillis(5));
+
+            Assert.assertFalse(caller.isAlive(), "start() returns after stop");
+
+            Assert.assertFalse(result.get(), "Stopped process returns false");
+
+            Assert.assertTrue(process.isStopped(), "Process is stopped");
+
+            Assert.assertEquals(b.runs(), 0, "Successor of stopped element isn't started");
+
+            DagProcess other = process(executor, 2);
+
+            TestStep stopped = new TestStep(true);
+            stopped.stop();
+
+            other.deploy(new TestStep(true));
+            other.deploy(stopped);
+
+            Assert.assertFalse(other.start(), "Process with stopped element doesn't finish successfully");
+
+            Assert.assertEquals(other.state(), ProcessState.STOPPED, "State of process with stopped element");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T06_DagProcess_threadCount() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(4));
+
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+
+            DagProcess process = process(executor, 2);
+
+            for (int i = 0; i < 6; i++) {
+                process.deploy(new TestStep(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+                    sleep(20);
+
+                    running.decrementAndGet();
+
+                    return true;
+                }));
+            }
+
+            Assert.assertTrue(process.start(), "Process finished successfully");
+
+            Assert.assertTrue(maxRunning.get() <= 2, "At most two elements ran at the same time");
+
+            try {
+                process.setThreadCount(0);
+
+                Assert.fail("Thread count must be greater than zero");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T07_DagProcess_copy() {
+        DagProcess process = new DagProcess(3, new Context());
+
+        TestStep a = new TestStep(true);
+        TestStep b = new TestStep(true);
+        TestStep c = new TestStep(true);
+
+        process.deploy(a);
+        process.deploy(b, a);
+        process.deploy(c, a, b);
+
+        DagProcess copy = process.copy();
+
+        Assert.assertEquals(copy.size(), 3, "Number of copied elements");
+
+        Assert.assertEquals(copy.getThreadCount(), 3, "Thread count of copy");
+
+        Module copyA = copy.modules().get(0);
+        Module copyB = copy.modules().get(1);
+        Module copyC = copy.modules().get(2);
+
+        Assert.assertNotEquals(copyA.identity().id(), a.identity().id(), "Copied element has a new identity");
+
+        Assert.assertTrue(copy.dependencies(copyA).isEmpty(), "Dependencies of first copied element");
+
+        Assert.assertEquals(ids(copy.dependencies(copyB)), ids(Arrays.asList(copyA)),
+                "Dependencies of second copied element");
+
+        Assert.assertEquals(ids(copy.dependencies(copyC)), ids(Arrays.asList(copyA, copyB)),
+                "Dependencies of third copied element");
+
+        Assert.assertTrue(copy.dependencies(c).isEmpty(), "Original elements aren't part of the copy");
+    }
+
+    @Test
+    public void T08_DagProcess_getCriticalPath() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            DagProcess process = process(executor, 2);
+
+            Assert.assertTrue(process.getCriticalPath().isEmpty(), "Critical path before first run");
+
+            TestStep slow = sleeping(100);
+            TestStep fast = sleeping(1);
+            TestStep last = sleeping(1);
+
+            process.deploy(slow);
+            process.deploy(fast);
+            process.deploy(last, slow, fast);
+
+            Assert.assertTrue(process.start(), "Process finished successfully");
+
+            Assert.assertEquals(ids(process.getCriticalPath()), ids(Arrays.<Module>asList(slow, last)),
+                    "Critical path");
+
+            Assert.assertTrue(process.getCriticalPathTime(TimeUnit.MILLISECONDS) >= 100L,
+                    "Duration of critical path");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T09_DagProcess_concurrent_start() throws Exception {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            for (int i = 0; i < 50; i++) {
+                List<String> order = new CopyOnWriteArrayList<>();
+
+                DagProcess process = process(executor, 2);
+
+                TestStep a = recording(order, "a");
+                TestStep b = recording(order, "b");
+
+                process.deploy(a);
+                process.deploy(b, a);
+
+                Assert.assertEquals(ModuleImplTest.startConcurrently(process), 1, "Only one start() is successful");
+
+                Assert.assertTrue(process.isSucceeded(), "Process is succeeded");
+
+                Assert.assertEquals(order, Arrays.asList("a", "b"), "Each element runs exactly once");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static DagProcess process(ChunkExecutor executor, int threadCount) {
+        DagProcess process = new DagProcess(threadCount, new Context());
+
+        process.setExecutor(executor);
+
+        return process;
+    }
+
+    /**
+     * Elements of the same class are equal, so they are compared by their identity ids.
+     */
+    private static List<Long> ids(List<Module> modules) {
+        List<Long> ids = new ArrayList<>();
+
+        for (Module module : modules) {
+            ids.add(module.identity().id());
+        }
+
+        return ids;
+    }
+
+    private static TestStep recording(List<String> order, String name) {
+        return new TestStep(() -> {
+            order.add(name);
+
+            return true;
+        });
+    }
+
+    private static TestStep sleeping(long millis) {
+        return new TestStep(() -> {
+            sleep(millis);
+
+            return true;
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.Module;
+import org.panthercode.arctic.core.processing.modules.impl.ChunkTest.TestStep;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.panthercode.arctic.core.processing.ProcessState.FAILED;
+import static org.panthercode.arctic.core.processing.ProcessState.READY;
+import static org.panthercode.arctic.core.processing.ProcessState.RUNNING;
+import static org.panthercode.arctic.core.processing.ProcessState.STOPPED;
+import static org.panthercode.arctic.core.processing.ProcessState.SUCCEEDED;
+import static org.panthercode.arctic.core.processing.ProcessState.WAITING;
+
+/**
+ * Test cases for ModuleImpl class
+ *
+ * @author PantherCode
+ */
+public class ModuleImplTest {
+
+    /**
+     * allowed state changes; every state change, which isn't listed, is forbidden
+     */
+    private static final Map<ProcessState, Set<ProcessState>> ALLOWED = new EnumMap<>(ProcessState.class);
+
+    static {
+        ALLOWED.put(READY, EnumSet.of(READY, RUNNING, STOPPED));
+        ALLOWED.put(RUNNING, EnumSet.of(RUNNING, WAITING, SUCCEEDED, FAILED, STOPPED));
+        ALLOWED.put(WAITING, EnumSet.of(WAITING, RUNNING, STOPPED));
+        ALLOWED.put(SUCCEEDED, EnumSet.of(SUCCEEDED, READY, FAILED));
+        ALLOWED.put(FAILED, EnumSet.of(FAILED, READY, SUCCEEDED));
+        ALLOWED.put(STOPPED, EnumSet.of(STOPPED, READY));
+    }
+
+    @Test
+    public void T01_ModuleImpl_isAllowed() {
+        for (ProcessState from : ProcessState.values()) {
+            Set<ProcessState> allowed = ALLOWED.getOrDefault(from, EnumSet.noneOf(ProcessState.class));
+
+            for (ProcessState to : ProcessState.values()) {
+                Assert.assertEquals(ModuleImpl.isAllowed(from, to), allowed.contains(to),
+                        "State change from " + from + " to " + to);
+            }
+        }
+    }
+
+    @Test
+    public void T02_ModuleImpl_changeState() {
+        for (Map.Entry<ProcessState, Set<ProcessState>> entry : ALLOWED.entrySet()) {
+            for (ProcessState to : ProcessState.values()) {
+                TestStep step = stepInState(entry.getKey());
+
+                Assert.assertEquals(step.changeState(to), entry.getValue().contains(to),
+                        "State change from " + entry.getKey() + " to " + to);
+
+                Assert.assertEquals(step.state(), entry.getValue().contains(to) ? to : entry.getKey(),
+                        "State after change from " + entry.getKey() + " to " + to);
+            }
+        }
+    }
+
+    @Test
+    public void T03_ModuleImpl_changeState_expected() {
+        TestStep step = new TestStep(true);
+
+        Assert.assertFalse(step.changeState(RUNNING, SUCCEEDED), "State isn't changed if it's not the expected one");
+
+        Assert.assertEquals(step.state(), READY, "State after failed change");
+
+        Assert.assertFalse(step.changeState(READY, SUCCEEDED), "Forbidden state change isn't done");
+
+        Assert.assertTrue(step.changeState(READY, RUNNING), "Allowed state change from expected state");
+
+        Assert.assertEquals(step.state(), RUNNING, "State after change");
+    }
+
+    @Test
+    public void T04_ModuleImpl_concurrent_start() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            TestStep step = new TestStep(true);
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            AtomicInteger started = new AtomicInteger();
+
+            Thread other = new Thread(() -> {
+                await(barrier);
+
+                if (step.start()) {
+                    started.incrementAndGet();
+                }
+            });
+            other.start();
+
+            await(barrier);
+
+            if (step.start()) {
+                started.incrementAndGet();
+            }
+
+            other.join();
+
+            Assert.assertEquals(step.runs(), 1, "Step runs exactly once");
+
+            Assert.assertEquals(started.get(), 1, "Only one start() is successful");
+        }
+    }
+
+    @Test
+    public void T05_ModuleImpl_concurrent_stop_start() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            TestStep step = new TestStep(true);
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            AtomicBoolean stopped = new AtomicBoolean();
+
+            Thread other = new Thread(() -> {
+                await(barrier);
+
+                stopped.set(step.stop());
+            });
+            other.start();
+
+            await(barrier);
+
+            boolean started = step.start();
+
+            other.join();
+
+            Assert.assertTrue(started ^ stopped.get(), "Either start() or stop() is successful");
+
+            Assert.assertEquals(step.state(), started ? SUCCEEDED : STOPPED, "Final state");
+
+            Assert.assertTrue(step.runs() <= 1, "Step runs at most once");
+        }
+    }
+
+    /**
+     * Returns a new step in the given state. The state is reached by allowed state changes only.
+     */
+    private static TestStep stepInState(ProcessState state) {
+        TestStep step = new TestStep(true);
+
+        if (state != READY) {
+            Assert.assertTrue(step.changeState(state == STOPPED ? STOPPED : RUNNING), "Preparing state " + state);
+
+            if (state != RUNNING && state != STOPPED) {
+                Assert.assertTrue(step.changeState(state), "Preparing state " + state);
+            }
+        }
+
+        Assert.assertEquals(step.state(), state, "Prepared state");
+
+        return step;
+    }
+
+    /**
+     * Calls <tt>start()</tt> of the module by two threads at the same time. Returns the number of successful calls.
+     */
+    static int startConcurrently(Module module) throws InterruptedException {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        AtomicInteger started = new AtomicInteger();
+
+        Thread other = new Thread(() -> {
+            await(barrier);
+
+            if (module.start()) {
+                started.incrementAndGet();
+            }
+        });
+        other.start();
+
+        await(barrier);
+
+        if (module.start()) {
+            started.incrementAndGet();
+        }
+
+        other.join();
+
+        return started.get();
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.checkpoint.Checkpoint;
+import org.panthercode.arctic.core.processing.checkpoint.CheckpointStore;
+import org.panthercode.arctic.core.processing.modules.impl.ChunkTest.TestStep;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for Process class
+ *
+ * @author PantherCode
+ */
+public class ProcessTest {
+
+    @Test
+    public void T01_Process_start() {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+
+        HookedProcess process = process(order, true, true, true);
+
+        Assert.assertTrue(process.start(), "Process finished successfully");
+
+        Assert.assertTrue(process.isSucceeded(), "Process is succeeded");
+
+        Assert.assertEquals(order, Arrays.asList(0, 1, 2), "Order of executed elements");
+
+        Assert.assertEquals(process.afterCount.get(), 1, "Number of after() calls");
+    }
+
+    @Test
+    public void T02_Process_start_failed() {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+
+        HookedProcess process = process(order, true, false, true);
+
+        Assert.assertFalse(process.start(), "Process doesn't finish successfully");
+
+        Assert.assertTrue(process.isFailed(), "Process is failed");
+
+        Assert.assertEquals(order, Arrays.asList(0, 1), "Elements after the failed one aren't executed");
+
+        Assert.assertEquals(process.afterCount.get(), 1, "after() is called on failure");
+    }
+
+    @Test
+    public void T03_Process_startAsync() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Integer> order = new CopyOnWriteArrayList<>();
+
+            HookedProcess process = process(order, true, true, true, true);
+
+            Assert.assertEquals(process.startAsync(pool).join(), ProcessState.SUCCEEDED, "State of future");
+
+            Assert.assertEquals(order, Arrays.asList(0, 1, 2, 3), "Order of executed elements");
+
+            Assert.assertEquals(process.afterCount.get(), 1, "Number of after() calls");
+
+            Assert.assertEquals(process.startAsync(pool).join(), ProcessState.SUCCEEDED,
+                    "Finished process returns its state without running again");
+
+            Assert.assertEquals(order.size(), 4, "Elements aren't executed again");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void T04_Process_startAsync_failed() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Integer> order = new CopyOnWriteArrayList<>();
+
+            HookedProcess process = process(order, true, false, true);
+
+            Assert.assertEquals(process.startAsync(pool).join(), ProcessState.FAILED, "State of future");
+
+            Assert.assertTrue(process.isFailed(), "Process is failed");
+
+            Assert.assertEquals(order, Arrays.asList(0, 1), "Elements after the failed one aren't executed");
+
+            Assert.assertEquals(process.afterCount.get(), 1, "after() is called on failure");
+
+            Assert.assertNull(process.getCurrentModule(), "No element is running");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void T05_Process_startAsync_exception() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Integer> order = new CopyOnWriteArrayList<>();
+
+            HookedProcess process = new HookedProcess();
+            process.deploy(new TestStep(() -> {
+                order.add(0);
+
+                throw new ProcessException("step failed");
+            }));
+            process.deploy(new TestStep(() -> order.add(1)));
+
+            Assert.assertEquals(process.startAsync(pool).join(), ProcessState.FAILED, "State of future");
+
+            Assert.assertTrue(process.modules().get(0).isFailed(), "Throwing element is failed");
+
+            Assert.assertEquals(order, Arrays.asList(0), "Elements after the throwing one aren't executed");
+
+            Assert.assertEquals(process.afterCount.get(), 1, "after() is called on exception");
+
+            Assert.assertTrue(process.reset(), "Process and elements are reset");
+
+            Assert.assertTrue(process.modules().get(0).isReady(), "Throwing element is ready after reset");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void T06_Process_concurrent_start() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            List<Integer> order = new CopyOnWriteArrayList<>();
+
+            HookedProcess process = process(order, true, true);
+
+            Assert.assertEquals(ModuleImplTest.startConcurrently(process), 1, "Only one start() is successful");
+
+            Assert.assertTrue(process.isSucceeded(), "Process is succeeded");
+
+            Assert.assertEquals(order, Arrays.asList(0, 1), "Each element runs exactly once");
+
+            Assert.assertEquals(process.afterCount.get(), 1, "Number of after() calls");
+        }
+    }
+
+    @Test
+    public void T07_Process_start_removeCheckpointFailed() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Integer> order = new CopyOnWriteArrayList<>();
+
+            HookedProcess process = process(order, true, true);
+            process.setCheckpointStore(new FailingStore(), "process");
+
+            try {
+                process.start();
+
+                Assert.fail("Failed removal of the checkpoint is reported");
+            } catch (ProcessException e) {
+                Assert.assertTrue(e.getCause() instanceof IOException, "Cause is reported");
+            }
+
+            Assert.assertTrue(process.isSucceeded(), "Process stays succeeded");
+
+            Assert.assertEquals(process.afterCount.get(), 1, "after() is called");
+
+            Assert.assertTrue(process.reset(), "Process and elements are reset");
+
+            try {
+                process.startAsync(pool).join();
+
+                Assert.fail("Failed removal of the checkpoint is reported");
+            } catch (CompletionException e) {
+                Assert.assertTrue(e.getCause() instanceof ProcessException, "Cause is reported");
+            }
+
+            Assert.assertTrue(process.isSucceeded(), "Process stays succeeded");
+
+            Assert.assertEquals(process.afterCount.get(), 2, "after() is called");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static HookedProcess process(List<Integer> order, boolean... results) {
+        HookedProcess process = new HookedProcess();
+
+        for (int i = 0; i < results.length; i++) {
+            final int index = i;
+            final boolean result = results[i];
+
+            process.deploy(new TestStep(() -> {
+                order.add(index);
+
+                return result;
+            }));
+        }
+
+        return process;
+    }
+
+    /**
+     * Store, which can't remove checkpoints.
+     */
+    private static class FailingStore implements CheckpointStore {
+
+        @Override
+        public void save(Checkpoint checkpoint) {
+        }
+
+        @Override
+        public Checkpoint load(String key) {
+            return null;
+        }
+
+        @Override
+        public void remove(String key) throws IOException {
+            throw new IOException("remove failed");
+        }
+    }
+
+    /**
+     * Process counting the calls of its hooks.
+     */
+    @IdentityInfo(name = "Hooked Process", group = "Test")
+    public static class HookedProcess extends Process {
+
+        private final AtomicInteger afterCount = new AtomicInteger();
+
+        @Override
+        public void after() {
+            this.afterCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.helper.CounterOptions;
+import org.panthercode.arctic.core.processing.modules.helper.ExecutorScheduler;
+import org.panthercode.arctic.core.processing.modules.impl.ChunkTest.TestStep;
+import org.panthercode.arctic.core.settings.Context;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for Repeater class
+ *
+ * @author PantherCode
+ */
+public class RepeaterTest {
+
+    private static final long LONG_DELAY = TimeUnit.SECONDS.toMillis(30);
+
+    @Test
+    public void T01_Repeater_startAsync() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            TestStep step = new TestStep(true);
+
+            HookedCounter counter = new HookedCounter(step, new CounterOptions(3, 0L, false, false));
+
+            Assert.assertEquals(counter.startAsync(pool).join(), ProcessState.SUCCEEDED, "State of future");
+
+            Assert.assertEquals(step.runs(), 3, "Number of loop steps");
+
+            Assert.assertEquals(counter.afterCount.get(), 1, "Number of after() calls");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void T02_Repeater_startAsync_stopPendingDelay() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            TestStep step = new TestStep(true);
+
+            HookedCounter counter = new HookedCounter(step, new CounterOptions(3, LONG_DELAY, false, false));
+
+            CompletableFuture<ProcessState> future = counter.startAsync(pool);
+
+            awaitRuns(step, 1);
+
+            long start = System.nanoTime();
+
+            counter.stop();
+
+            Assert.assertTrue(counter.isStopped(), "Repeater is stopped");
+
+            Assert.assertEquals(future.get(5, TimeUnit.SECONDS), ProcessState.STOPPED, "State of future");
+
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5),
+                    "Pending delay ends immediately");
+
+            Assert.assertEquals(step.runs(), 1, "Resumed loop step doesn't start the module again");
+
+            Assert.assertEquals(counter.afterCount.get(), 1, "after() is called by the resumed loop step");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void T03_Repeater_start_scheduler_stopPendingDelay() throws Exception {
+        ExecutorScheduler scheduler = new ExecutorScheduler(2);
+
+        try {
+            TestStep step = new TestStep(true);
+
+            HookedCounter counter = new HookedCounter(step, new CounterOptions(3, LONG_DELAY, false, false));
+            counter.setScheduler(scheduler);
+
+            AtomicBoolean result = new AtomicBoolean(true);
+
+            Thread caller = new Thread(() -> result.set(counter.start()));
+            caller.start();
+
+            awaitRuns(step, 1);
+
+            Assert.assertTrue(caller.isAlive(), "start() blocks while the delay is pending");
+
+            counter.stop();
+
+            Assert.assertTrue(counter.isStopped(), "Repeater is stopped");
+
+            caller.join(TimeUnit.SECONDS.toMillis(5));
+
+            Assert.assertFalse(caller.isAlive(), "start() returns after stop");
+
+            Assert.assertFalse(result.get(), "Stopped repeater returns false");
+
+            Assert.assertEquals(step.runs(), 1, "Number of loop steps");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void T04_Repeater_start_stopPendingDelay() throws Exception {
+        TestStep step = new TestStep(true);
+
+        HookedCounter counter = new HookedCounter(step, new CounterOptions(3, LONG_DELAY, false, false));
+
+        AtomicBoolean result = new AtomicBoolean(true);
+
+        Thread caller = new Thread(() -> result.set(counter.start()));
+        caller.start();
+
+        awaitRuns(step, 1);
+
+        counter.stop();
+
+        Assert.assertTrue(counter.isStopped(), "Repeater is stopped");
+
+        caller.join(TimeUnit.SECONDS.toMillis(5));
+
+        Assert.assertFalse(caller.isAlive(), "Waiting on the caller's thread ends after stop");
+
+        Assert.assertFalse(result.get(), "Stopped repeater returns false");
+
+        Assert.assertEquals(counter.afterCount.get(), 1, "Number of after() calls");
+    }
+
+    @Test
+    public void T05_Repeater_concurrent_start() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            TestStep step = new TestStep(true);
+
+            HookedCounter counter = new HookedCounter(step, new CounterOptions(3, 0L, false, false));
+
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            AtomicInteger started = new AtomicInteger();
+
+            Thread other = new Thread(() -> {
+                await(barrier);
+
+                if (counter.start()) {
+                    started.incrementAndGet();
+                }
+            });
+            other.start();
+
+            await(barrier);
+
+            if (counter.start()) {
+                started.incrementAndGet();
+            }
+
+            other.join();
+
+            Assert.assertEquals(started.get(), 1, "Only one start() is successful");
+
+            Assert.assertEquals(step.runs(), 3, "Only one loop is running");
+
+            Assert.assertEquals(counter.afterCount.get(), 1, "Number of after() calls");
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitRuns(TestStep step, int runs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (step.runs() < runs || !step.isSucceeded()) {
+            Assert.assertTrue(System.nanoTime() < deadline, "Module is started in time");
+
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    /**
+     * Counter counting the calls of its hooks.
+     */
+    @IdentityInfo(name = "Hooked Counter", group = "Test")
+    private static class HookedCounter extends Counter {
+
+        private final AtomicInteger afterCount = new AtomicInteger();
+
+        HookedCounter(TestStep step, CounterOptions options) {
+            super(step, options, new Context());
+        }
+
+        @Override
+        public void after() {
+            this.afterCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.impl.ChunkTest.TestStep;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test cases for Step class
+ *
+ * @author PantherCode
+ */
+public class StepTest {
+
+    @Test
+    public void T01_Step_startAsync() {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try {
+            TestStep succeeding = new TestStep(true);
+
+            Assert.assertEquals(succeeding.startAsync(pool).join(), ProcessState.SUCCEEDED, "State of future");
+
+            Assert.assertTrue(succeeding.isSucceeded(), "Step is succeeded");
+
+            TestStep failing = new TestStep(false);
+
+            Assert.assertEquals(failing.startAsync(pool).join(), ProcessState.FAILED, "State of future");
+
+            Assert.assertTrue(failing.isFailed(), "Step is failed");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void T02_Step_startAsync_exception() {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try {
+            TestStep step = new TestStep(() -> {
+                throw new ProcessException("step failed");
+            });
+
+            CompletableFuture<ProcessState> future = step.startAsync(pool);
+
+            try {
+                future.join();
+
+                Assert.fail("Future is completed exceptionally");
+            } catch (CompletionException e) {
+                Assert.assertTrue(e.getCause() instanceof ProcessException, "Cause is a process exception");
+
+                Assert.assertEquals(e.getCause().getCause().getMessage(), "step failed", "Original exception");
+            }
+
+            Assert.assertTrue(step.isFailed(), "Step is failed");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void T03_Step_startAsync_notReady() {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try {
+            TestStep step = new TestStep(true);
+
+            step.start();
+
+            Assert.assertEquals(step.startAsync(pool).join(), ProcessState.SUCCEEDED,
+                    "Finished step returns its state");
+
+            Assert.assertEquals(step.runs(), 1, "Finished step isn't run again");
+
+            try {
+                step.startAsync(null);
+
+                Assert.fail("Executor must not be null");
+            } catch (NullPointerException e) {
+                // expected
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
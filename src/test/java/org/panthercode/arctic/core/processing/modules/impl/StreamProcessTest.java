@@ -0,0 +1,359 @@
+package org.panthercode.arctic.core.processing.modules.impl;
+
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.processing.ProcessException;
+import org.panthercode.arctic.core.processing.ProcessState;
+import org.panthercode.arctic.core.processing.modules.helper.ChunkExecutor;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test cases for StreamProcess and StreamStep class
+ *
+ * @author PantherCode
+ */
+public class StreamProcessTest {
+
+    @Test
+    public void T01_StreamProcess_start() {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(3));
+
+        try {
+            Source source = new Source(1000);
+            Doubler doubler = new Doubler(-1);
+            Sink sink = new Sink((Runnable) null);
+
+            StreamProcess process = process(executor, 16, source, doubler, sink);
+
+            Assert.assertTrue(process.start(), "Stream is processed completely");
+
+            Assert.assertTrue(process.isSucceeded(), "Process is succeeded");
+
+            Assert.assertTrue(source.isSucceeded(), "Source is succeeded");
+
+            Assert.assertTrue(doubler.isSucceeded(), "Map stage is succeeded");
+
+            Assert.assertTrue(sink.isSucceeded(), "Sink is succeeded");
+
+            Assert.assertEquals(sink.count(), 1000, "Sink received all items");
+
+            Assert.assertEquals(sink.sum(), 1000L * 1001L, "Sink received all mapped items");
+
+            Assert.assertTrue(process.reset(), "Process and stages are reset");
+
+            Assert.assertTrue(process.start(), "Stream is processed again after reset");
+
+            Assert.assertEquals(sink.count(), 2000, "Sink received all items of the second run");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T02_StreamProcess_start_backPressure() throws Exception {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Source source = new Source(100);
+            Sink sink = new Sink(() -> {
+                started.countDown();
+
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            source.setBatchSize(1);
+            sink.setBatchSize(1);
+
+            StreamProcess process = process(executor, 4, source, sink);
+
+            CompletableFuture<ProcessState> future = process.startAsync(Executors.newSingleThreadExecutor());
+
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS), "Sink received the first item");
+
+            Thread.sleep(200);
+
+            // one item held by the sink, four items in the channel and one item waiting to be written
+            Assert.assertTrue(source.produced() <= 6, "Source is blocked by the full channel: " + source.produced());
+
+            release.countDown();
+
+            Assert.assertEquals(future.get(5, TimeUnit.SECONDS), ProcessState.SUCCEEDED, "Process is succeeded");
+
+            Assert.assertEquals(source.produced(), 100, "Source produced all items");
+
+            Assert.assertEquals(sink.count(), 100, "Sink received all items");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T03_StreamProcess_start_failure() throws Exception {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(3));
+
+        try {
+            Source source = new Source(Integer.MAX_VALUE);
+            Doubler doubler = new Doubler(100);
+            Sink sink = new Sink((Runnable) null);
+
+            StreamProcess process = process(executor, 4, source, doubler, sink);
+
+            try {
+                process.start();
+
+                Assert.fail("Exception of the failing stage is rethrown");
+            } catch (ProcessException e) {
+                // expected
+            }
+
+            Assert.assertTrue(process.isFailed(), "Process is failed");
+
+            Assert.assertTrue(doubler.isFailed(), "Failing stage is failed");
+
+            awaitDone(source);
+            awaitDone(sink);
+
+            Assert.assertTrue(source.isFailed(), "Endless source is cancelled by the failing stage");
+
+            Assert.assertTrue(sink.isFailed(), "Sink is cancelled by the failing stage");
+
+            Assert.assertTrue(source.produced() < Integer.MAX_VALUE, "Source stopped producing");
+
+            Assert.assertTrue(sink.count() < 100, "Sink didn't receive items after the failure");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T04_StreamProcess_stop() throws Exception {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(2));
+
+        try {
+            Source source = new Source(Integer.MAX_VALUE);
+            Sink sink = new Sink((Runnable) null);
+
+            StreamProcess process = process(executor, 4, source, sink);
+
+            CompletableFuture<ProcessState> future = process.startAsync(Executors.newSingleThreadExecutor());
+
+            while (sink.count() == 0) {
+                Thread.sleep(1);
+            }
+
+            Assert.assertTrue(process.stop(), "Process is stopped");
+
+            Assert.assertEquals(future.get(5, TimeUnit.SECONDS), ProcessState.STOPPED, "Endless stream is stopped");
+
+            Assert.assertTrue(source.isStopped(), "Source is stopped");
+
+            Assert.assertTrue(sink.isStopped(), "Sink is stopped");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void T05_StreamProcess_deploy() {
+        StreamProcess process = new StreamProcess();
+
+        try {
+            process.deploy(new ChunkTest.TestStep(true));
+
+            Assert.fail("Only stream steps can be deployed");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        Assert.assertTrue(process.size() == 0, "Invalid stage isn't added");
+    }
+
+    @Test
+    public void T06_StreamProcess_concurrent_start() throws Exception {
+        ChunkExecutor executor = new ChunkExecutor(Executors.newFixedThreadPool(4));
+
+        try {
+            for (int i = 0; i < 50; i++) {
+                Source source = new Source(100);
+                Sink sink = new Sink((Runnable) null);
+
+                StreamProcess process = process(executor, 16, source, sink);
+
+                Assert.assertEquals(ModuleImplTest.startConcurrently(process), 1, "Only one start() is successful");
+
+                Assert.assertTrue(process.isSucceeded(), "Process is succeeded");
+
+                Assert.assertEquals(sink.count(), 100, "Stream is processed exactly once");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static StreamProcess process(ChunkExecutor executor, int channelCapacity, StreamStep<?, ?>... stages) {
+        StreamProcess process = new StreamProcess();
+
+        process.setExecutor(executor);
+        process.setChannelCapacity(channelCapacity);
+
+        for (StreamStep<?, ?> stage : stages) {
+            process.deploy(stage);
+        }
+
+        return process;
+    }
+
+    private static void awaitDone(Step step) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (step.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @IdentityInfo(name = "Test Source", group = "Test")
+    public static class Source extends StreamStep<Integer, Integer> {
+
+        private final int size;
+
+        private final AtomicInteger produced = new AtomicInteger();
+
+        public Source(int size) {
+            super();
+
+            this.size = size;
+        }
+
+        public Source(Source source) {
+            super(source);
+
+            this.size = source.size;
+        }
+
+        public int produced() {
+            return this.produced.get();
+        }
+
+        @Override
+        protected void process(List<Integer> batch, List<Integer> results) {
+        }
+
+        @Override
+        protected boolean produce(List<Integer> results, int max) {
+            for (int i = 0; i < max && this.produced.get() < this.size; i++) {
+                results.add(this.produced.incrementAndGet());
+            }
+
+            return this.produced.get() < this.size;
+        }
+
+        @Override
+        public boolean reset() {
+            this.produced.set(0);
+
+            return super.reset();
+        }
+
+        @Override
+        public Source copy() {
+            return new Source(this);
+        }
+    }
+
+    @IdentityInfo(name = "Test Doubler", group = "Test")
+    public static class Doubler extends StreamStep<Integer, Integer> {
+
+        private final int failAt;
+
+        public Doubler(int failAt) {
+            super();
+
+            this.failAt = failAt;
+        }
+
+        public Doubler(Doubler doubler) {
+            super(doubler);
+
+            this.failAt = doubler.failAt;
+        }
+
+        @Override
+        protected void process(List<Integer> batch, List<Integer> results)
+                throws ProcessException {
+            for (Integer item : batch) {
+                if (item == this.failAt) {
+                    throw new ProcessException("stage failed");
+                }
+
+                results.add(item * 2);
+            }
+        }
+
+        @Override
+        public Doubler copy() {
+            return new Doubler(this);
+        }
+    }
+
+    @IdentityInfo(name = "Test Sink", group = "Test")
+    public static class Sink extends StreamStep<Integer, Void> {
+
+        private final Runnable hook;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        private final AtomicLong sum = new AtomicLong();
+
+        public Sink(Runnable hook) {
+            super();
+
+            this.hook = hook;
+        }
+
+        public Sink(Sink sink) {
+            super(sink);
+
+            this.hook = sink.hook;
+        }
+
+        public int count() {
+            return this.count.get();
+        }
+
+        public long sum() {
+            return this.sum.get();
+        }
+
+        @Override
+        protected void process(List<Integer> batch, List<Void> results) {
+            for (Integer item : batch) {
+                if (this.hook != null) {
+                    this.hook.run();
+                }
+
+                this.count.incrementAndGet();
+                this.sum.addAndGet(item);
+            }
+        }
+
+        @Override
+        public Sink copy() {
+            return new Sink(this);
+        }
+    }
+}
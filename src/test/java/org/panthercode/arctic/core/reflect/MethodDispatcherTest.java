@@ -0,0 +1,97 @@
+package org.panthercode.arctic.core.reflect;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Test cases for MethodDispatcher class
+ *
+ * @author PantherCode
+ */
+public class MethodDispatcherTest {
+
+    public static class Target {
+
+        private int calls = 0;
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public String describe(String value) {
+            return "string " + value;
+        }
+
+        public String describe(Integer value) {
+            return "integer " + value;
+        }
+
+        public void call() {
+            this.calls++;
+        }
+
+        public int calls() {
+            return this.calls;
+        }
+
+        public void fail() {
+            throw new UnsupportedOperationException("fail");
+        }
+    }
+
+    @Test
+    public void T01_MethodDispatcher_invoke() throws Exception {
+        Target target = new Target();
+
+        Assert.assertEquals(MethodDispatcher.invoke(target, "add", 1, 2), 3, "Boxed arguments are unboxed");
+        Assert.assertEquals(MethodDispatcher.invoke(target, "add", 3, 4), 7, "Cached method is invoked again");
+
+        Assert.assertNull(MethodDispatcher.invoke(target, "call"), "Method without output returns null");
+        Assert.assertNull(MethodDispatcher.invoke(target, "call", (Object[]) null), "Null arguments are no arguments");
+        Assert.assertEquals(target.calls(), 2, "Method was called twice");
+    }
+
+    @Test
+    public void T02_MethodDispatcher_overloads() throws Exception {
+        Target target = new Target();
+
+        Assert.assertEquals(MethodDispatcher.invoke(target, "describe", "a"), "string a",
+                "Method is chosen by argument class");
+        Assert.assertEquals(MethodDispatcher.invoke(target, "describe", 1), "integer 1",
+                "Method is chosen by argument class");
+        Assert.assertEquals(MethodDispatcher.invoke(target, "describe", "b"), "string b",
+                "Cached method matches argument class");
+    }
+
+    @Test
+    public void T03_MethodDispatcher_exceptions() throws Exception {
+        Target target = new Target();
+
+        try {
+            MethodDispatcher.invoke(target, "fail");
+
+            Assert.fail("Method throws an exception");
+        } catch (InvocationTargetException e) {
+            Assert.assertTrue(e.getCause() instanceof UnsupportedOperationException, "Exception is wrapped");
+        }
+
+        try {
+            MethodDispatcher.invoke(target, "add", "1", "2");
+
+            Assert.fail("No method matches the arguments");
+        } catch (NoSuchMethodException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void T04_MethodDispatcher_resolve() throws Throwable {
+        MethodHandle handle = MethodDispatcher.resolve(Target.class, "add", int.class, int.class);
+
+        Assert.assertEquals((Object) handle.invokeExact((Object) new Target(), new Object[]{5, 6}), 11,
+                "Resolved handle takes an array of arguments");
+    }
+}
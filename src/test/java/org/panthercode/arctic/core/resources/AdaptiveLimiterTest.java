@@ -0,0 +1,135 @@
+package org.panthercode.arctic.core.resources;
+
+import org.panthercode.arctic.core.helper.priority.Semaphore;
+import org.panthercode.arctic.core.resources.ResourcePoolTest.CountingResource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test cases for AdaptiveLimiter class
+ *
+ * @author PantherCode
+ */
+public class AdaptiveLimiterTest {
+
+    @Test
+    public void T01_AdaptiveLimiter_decrease() {
+        Semaphore semaphore = new Semaphore(1);
+        AdaptiveLimiter limiter = new AdaptiveLimiter(semaphore, 2, 10, 100L, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(semaphore.capacity(), 10, "Limit starts at the maximum");
+
+        limiter.setBackoffRatio(0.5);
+
+        limiter.onDropped();
+
+        Assert.assertEquals(limiter.getLimit(), 5, "Failed call halves the limit");
+
+        limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(200L));
+
+        Assert.assertEquals(limiter.getLimit(), 2, "Slow call decreases the limit");
+
+        limiter.onDropped();
+
+        Assert.assertEquals(limiter.getLimit(), 2, "Limit doesn't fall below the minimum");
+    }
+
+    @Test
+    public void T02_AdaptiveLimiter_increase() throws Exception {
+        Semaphore semaphore = new Semaphore(1);
+        AdaptiveLimiter limiter = new AdaptiveLimiter(semaphore, 1, 4, 100L, TimeUnit.MILLISECONDS);
+
+        limiter.setBackoffRatio(0.5);
+        limiter.onDropped();
+
+        Assert.assertEquals(limiter.getLimit(), 2, "Limit is decreased");
+
+        limiter.onSuccess(1000L);
+
+        Assert.assertEquals(limiter.getLimit(), 2, "Limit isn't increased while it isn't used");
+
+        semaphore.acquire();
+
+        limiter.onSuccess(1000L);
+
+        Assert.assertEquals(limiter.getLimit(), 3, "Limit is increased while it's used");
+
+        semaphore.acquire();
+        limiter.onSuccess(1000L);
+        limiter.onSuccess(1000L);
+
+        Assert.assertEquals(limiter.getLimit(), 4, "Limit doesn't exceed the maximum");
+
+        try {
+            limiter.setBackoffRatio(1.0);
+
+            Assert.fail("Backoff ratio must be less than one");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void T03_AdaptiveLimiter_pool() throws Exception {
+        ResourcePoolOptions options = new ResourcePoolOptions(4, 0L);
+        options.setMinCapacity(1);
+        options.setLatencyThreshold(1000L);
+
+        ResourcePool<CountingResource> pool = ResourceFactory.createPool(CountingResource.class, options, null);
+
+        Assert.assertEquals(pool.capacity(), 4, "Pool starts with the full capacity");
+
+        for (int i = 0; i < 20; i++) {
+            pool.acquire().invalidate();
+        }
+
+        Assert.assertEquals(pool.capacity(), 1, "Failed calls shrink the capacity");
+
+        Lease<CountingResource> lease = pool.acquire();
+
+        try {
+            Assert.assertEquals(pool.getLimiter().getLimit(), 1, "Limiter is used by the pool");
+        } finally {
+            lease.close();
+        }
+
+        Assert.assertEquals(pool.capacity(), 2, "Successful call increases the capacity");
+
+        pool.close();
+    }
+
+    @Test
+    public void T04_AdaptiveLimiter_pool_recover() throws Exception {
+        ResourcePoolOptions options = new ResourcePoolOptions(4, 0L);
+        options.setMinCapacity(1);
+        options.setLatencyThreshold(1000L);
+
+        ResourcePool<CountingResource> pool = ResourceFactory.createPool(CountingResource.class, options, null);
+
+        for (int i = 0; i < 20; i++) {
+            pool.acquire().invalidate();
+        }
+
+        Assert.assertEquals(pool.capacity(), 1, "Failed calls shrink the capacity");
+
+        for (int round = 0; round < 10 && pool.capacity() < 4; round++) {
+            List<Lease<CountingResource>> leases = new ArrayList<>();
+
+            for (int i = pool.capacity(); i > 0; i--) {
+                leases.add(pool.acquire());
+            }
+
+            for (Lease<CountingResource> lease : leases) {
+                lease.close();
+            }
+        }
+
+        Assert.assertEquals(pool.capacity(), 4, "Capacity recovers under load");
+
+        pool.close();
+    }
+}
@@ -0,0 +1,112 @@
+package org.panthercode.arctic.core.resources;
+
+import org.panthercode.arctic.core.resources.ResourcePoolTest.CountingResource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Test cases for ResourceFactory class
+ *
+ * @author PantherCode
+ */
+public class ResourceFactoryTest {
+
+    public interface Incrementer {
+
+        int increment(Integer value);
+    }
+
+    public interface BlockingIncrementer {
+
+        int increment(Integer value) throws TimeoutException;
+    }
+
+    public interface Parser {
+
+        int parse(String value);
+    }
+
+    private static ResourcePool<CountingResource> pool() {
+        return ResourceFactory.createPool(CountingResource.class, new ResourcePoolOptions(1, 0L), null);
+    }
+
+    @Test
+    public void T01_ResourceFactory_createInstance() throws Exception {
+        CountingResource resource = ResourceFactory.createInstance(CountingResource.class, null);
+
+        Assert.assertNotNull(resource.configuration(), "Resource is configured");
+
+        try {
+            ResourceFactory.createInstance(null, null);
+
+            Assert.fail("Class must not be null");
+        } catch (NullPointerException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void T02_ResourceFactory_createProxy() throws Exception {
+        ResourcePool<CountingResource> pool = pool();
+
+        Incrementer incrementer = ResourceFactory.createProxy(Incrementer.class, pool);
+
+        Assert.assertEquals(incrementer.increment(41), 42, "Call is dispatched to the resource");
+        Assert.assertEquals(pool.idle(), 1, "Resource is returned after the call");
+        Assert.assertEquals(incrementer, incrementer, "Proxy is equal to itself");
+
+        try {
+            ResourceFactory.createProxy(Parser.class, pool);
+
+            Assert.fail("Resource has no matching method");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        pool.close();
+    }
+
+    @Test
+    public void T03_ResourceFactory_createProxyExceptions() throws Exception {
+        ResourcePool<CountingResource> pool = pool();
+
+        Incrementer incrementer = ResourceFactory.createProxy(Incrementer.class, pool);
+        BlockingIncrementer blockingIncrementer = ResourceFactory.createProxy(BlockingIncrementer.class, pool);
+
+        Lease<CountingResource> lease = pool.acquire();
+
+        try {
+            try {
+                incrementer.increment(1);
+
+                Assert.fail("All resources are lent");
+            } catch (IllegalStateException e) {
+                Assert.assertTrue(e.getCause() instanceof TimeoutException, "Undeclared exception is wrapped");
+            }
+
+            try {
+                blockingIncrementer.increment(1);
+
+                Assert.fail("All resources are lent");
+            } catch (TimeoutException e) {
+                // expected
+            }
+        } finally {
+            lease.close();
+        }
+
+        try {
+            incrementer.increment(null);
+
+            Assert.fail("Resource method throws an exception");
+        } catch (NullPointerException e) {
+            // expected
+        }
+
+        Assert.assertEquals(pool.idle(), 1, "Resource is returned after an exception");
+
+        pool.close();
+    }
+}
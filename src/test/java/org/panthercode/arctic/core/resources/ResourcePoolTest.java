@@ -0,0 +1,174 @@
+package org.panthercode.arctic.core.resources;
+
+import org.panthercode.arctic.core.helper.identity.IdentityInfo;
+import org.panthercode.arctic.core.helper.version.VersionInfo;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Test cases for ResourcePool class
+ *
+ * @author PantherCode
+ */
+public class ResourcePoolTest {
+
+    @IdentityInfo(name = "Counting Resource", group = "Test")
+    @VersionInfo(major = 1)
+    public static class CountingResource extends AbstractResource {
+
+        private boolean valid = true;
+
+        private boolean disposed = false;
+
+        public int increment(Integer value) {
+            return value + 1;
+        }
+
+        public void invalidate() {
+            this.valid = false;
+        }
+
+        public boolean isDisposed() {
+            return this.disposed;
+        }
+
+        @Override
+        public boolean isValid() {
+            return this.valid;
+        }
+
+        @Override
+        public void dispose() {
+            this.disposed = true;
+        }
+    }
+
+    private static ResourcePool<CountingResource> pool(int capacity) {
+        return ResourceFactory.createPool(CountingResource.class, new ResourcePoolOptions(capacity, 0L), null);
+    }
+
+    @Test
+    public void T01_ResourcePool_acquire() throws Exception {
+        ResourcePool<CountingResource> pool = pool(2);
+
+        CountingResource first;
+
+        try (Lease<CountingResource> lease = pool.acquire()) {
+            first = lease.get();
+
+            Assert.assertEquals(lease.execute("increment", Integer.class, 41), Integer.valueOf(42),
+                    "Method is called on the lent resource");
+        }
+
+        Assert.assertEquals(pool.size(), 1, "Pool contains one resource");
+        Assert.assertEquals(pool.idle(), 1, "Resource is returned to the pool");
+
+        try (Lease<CountingResource> first2 = pool.acquire();
+             Lease<CountingResource> second = pool.acquire()) {
+            Assert.assertSame(first2.get(), first, "Returned resource is lent again");
+            Assert.assertNotSame(second.get(), first, "Second caller gets a resource of its own");
+            Assert.assertEquals(pool.size(), 2, "Pool contains two resources");
+        }
+
+        pool.close();
+
+        Assert.assertTrue(first.isDisposed(), "Closing the pool disposes the resources");
+        Assert.assertEquals(pool.size(), 0, "Closed pool contains no resources");
+    }
+
+    @Test
+    public void T02_ResourcePool_acquireTimeout() throws Exception {
+        ResourcePool<CountingResource> pool = pool(1);
+
+        Lease<CountingResource> lease = pool.acquire();
+
+        try {
+            pool.acquire();
+
+            Assert.fail("All resources are lent");
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        lease.close();
+
+        try {
+            lease.get();
+
+            Assert.fail("Closed lease has no resource");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        pool.acquire().close();
+        pool.close();
+    }
+
+    @Test
+    public void T03_ResourcePool_validateOnBorrow() throws Exception {
+        ResourcePool<CountingResource> pool = pool(1);
+
+        CountingResource resource;
+
+        try (Lease<CountingResource> lease = pool.acquire()) {
+            resource = lease.get();
+            resource.invalidate();
+        }
+
+        try (Lease<CountingResource> lease = pool.acquire()) {
+            Assert.assertNotSame(lease.get(), resource, "Invalid resource isn't lent");
+            Assert.assertTrue(resource.isDisposed(), "Invalid resource is disposed");
+
+            lease.invalidate();
+        }
+
+        Assert.assertEquals(pool.size(), 0, "Invalidated resource is removed");
+
+        pool.close();
+    }
+
+    @Test
+    public void T04_ResourcePool_evict() throws Exception {
+        ResourcePoolOptions options = new ResourcePoolOptions(2, 0L);
+        options.setIdleTimeout(20L);
+
+        ResourcePool<CountingResource> pool = ResourceFactory.createPool(CountingResource.class, options, null);
+
+        Lease<CountingResource> first = pool.acquire();
+        Lease<CountingResource> second = pool.acquire();
+
+        first.close();
+        second.close();
+
+        Thread.sleep(50L);
+
+        Assert.assertEquals(pool.evict(), 2, "Idle resources are evicted");
+        Assert.assertEquals(pool.size(), 0, "Pool is empty");
+
+        options.setIdleTimeout(0L);
+        options.setMaxLifetime(20L);
+
+        first = pool.acquire();
+
+        Thread.sleep(50L);
+
+        CountingResource resource = first.get();
+
+        first.close();
+
+        Assert.assertTrue(resource.isDisposed(), "Resource exceeding its lifetime isn't returned");
+        Assert.assertEquals(pool.idle(), 0, "No idle resources");
+
+        pool.close();
+
+        try {
+            pool.acquire();
+
+            Assert.fail("Pool is closed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
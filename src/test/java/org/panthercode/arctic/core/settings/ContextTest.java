@@ -0,0 +1,300 @@
+package org.panthercode.arctic.core.settings;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test cases for Context class
+ *
+ * @author PantherCode
+ */
+public class ContextTest {
+
+    @Test
+    public void T01_Context_put() {
+        for (ContextPolicy policy : ContextPolicy.values()) {
+            Context context = new Context(policy);
+
+            Assert.assertNull(context.put("key", 1), "Previous value with policy " + policy);
+
+            Assert.assertEquals(context.put("key", 2), 1, "Previous value with policy " + policy);
+
+            Assert.assertEquals(context.get("key"), 2, "Value with policy " + policy);
+
+            Assert.assertEquals(context.putIfAbsent("key", 3), 2, "Existing value with policy " + policy);
+
+            Assert.assertEquals(context.merge("key", 3, (a, b) -> (Integer) a + (Integer) b), 5,
+                    "Merged value with policy " + policy);
+
+            Assert.assertTrue(context.containsKey("key"), "Contains key with policy " + policy);
+
+            Assert.assertTrue(context.contains(5), "Contains value with policy " + policy);
+
+            Assert.assertEquals(context.size(), 1, "Size with policy " + policy);
+
+            Assert.assertEquals(context.remove("key"), 5, "Removed value with policy " + policy);
+
+            Assert.assertTrue(context.isEmpty(), "Empty with policy " + policy);
+        }
+    }
+
+    @Test
+    public void T02_Context_copy() {
+        Map<String, Object> map = new HashMap<>();
+
+        map.put("a", 1);
+        map.put("b", "two");
+
+        for (ContextPolicy policy : ContextPolicy.values()) {
+            Context context = new Context(policy, map);
+
+            Assert.assertEquals(context, map, "Context equals map with policy " + policy);
+
+            Context clone = context.clone();
+
+            clone.put("c", 3);
+
+            Assert.assertEquals(clone.getPolicy(), policy, "Policy of clone");
+
+            Assert.assertFalse(context.containsKey("c"), "Clone is independent with policy " + policy);
+        }
+    }
+
+    @Test
+    public void T03_Context_defaultPolicy() {
+        Assert.assertEquals(new Context().getPolicy(), ContextPolicy.getDefault(), "Default policy");
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void T04_Context_nullKey() {
+        new Context().put(null, 1);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void T05_Context_nullValue() {
+        new Context(ContextPolicy.COPY_ON_WRITE).put("key", null);
+    }
+
+    @Test
+    public void T06_Context_serialization() throws IOException, ClassNotFoundException {
+        Context context = new Context(ContextPolicy.SYNCHRONIZED);
+
+        context.put("key", "value");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(context);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Context copy = (Context) in.readObject();
+
+            Assert.assertEquals(copy.get("key"), "value", "Deserialized value");
+
+            Assert.assertEquals(copy.getPolicy(), ContextPolicy.SYNCHRONIZED, "Deserialized policy");
+        }
+    }
+
+    @Test
+    public void T07_Context_child() {
+        Context context = new Context();
+
+        context.put("shared", 1);
+        context.put("removed", 2);
+
+        Context child = context.child();
+
+        Assert.assertTrue(child.isScope(), "Child is a scope");
+
+        Assert.assertSame(child.getParent(), context, "Parent of child");
+
+        Assert.assertEquals(child.get("shared"), 1, "Read falls through to parent");
+
+        child.put("shared", 10);
+        child.put("local", 3);
+        child.remove("removed");
+
+        Assert.assertEquals(child.get("shared"), 10, "Write is visible in child");
+
+        Assert.assertEquals(context.get("shared"), 1, "Write isn't visible in parent");
+
+        Assert.assertNull(child.get("removed"), "Removed key is hidden in child");
+
+        Assert.assertEquals(context.get("removed"), 2, "Removed key still exists in parent");
+
+        Assert.assertEquals(child.size(), 2, "Size of child");
+
+        context.put("late", 4);
+
+        Assert.assertEquals(child.get("late"), 4, "Child reads later writes of parent");
+
+        child.commit();
+
+        Assert.assertEquals(context.get("shared"), 10, "Committed write");
+
+        Assert.assertEquals(context.get("local"), 3, "Committed new key");
+
+        Assert.assertFalse(context.containsKey("removed"), "Committed removal");
+    }
+
+    @Test
+    public void T08_Context_siblings() {
+        Context context = new Context();
+
+        Context first = context.child();
+        Context second = context.child();
+
+        first.put("key", "first");
+        second.put("key", "second");
+
+        Assert.assertEquals(first.get("key"), "first", "First sibling");
+
+        Assert.assertEquals(second.get("key"), "second", "Second sibling");
+
+        Assert.assertFalse(context.containsKey("key"), "Parent isn't changed");
+
+        first.commit();
+        second.commit();
+
+        Assert.assertEquals(context.get("key"), "second", "Last commit wins");
+
+        Context grandchild = first.child();
+
+        Assert.assertEquals(grandchild.get("key"), "second", "Grandchild reads through all scopes");
+
+        Assert.assertFalse(context.isScope(), "Root isn't a scope");
+    }
+
+    @Test
+    public void T09_Context_typedKeys() {
+        ContextKey<String> name = ContextKey.of("name", String.class);
+        IntKey count = IntKey.of("count");
+        LongKey total = LongKey.of("total");
+        DoubleKey ratio = DoubleKey.of("ratio");
+
+        Context context = new Context();
+
+        Assert.assertNull(context.get(name), "Unset object key");
+
+        Assert.assertEquals(context.get(count), 0, "Unset int key");
+
+        context.set(name, "arctic");
+        context.set(count, -7);
+        context.set(total, Long.MAX_VALUE);
+        context.set(ratio, 0.25);
+
+        Assert.assertEquals(context.get(name), "arctic", "Object key");
+
+        Assert.assertEquals(context.get(count), -7, "Int key");
+
+        Assert.assertEquals(context.get(total), Long.MAX_VALUE, "Long key");
+
+        Assert.assertEquals(context.get(ratio), 0.25, "Double key");
+
+        Assert.assertEquals(context.addAndGet(count, 10), 3, "Add to int key");
+
+        Assert.assertTrue(context.isEmpty(), "Typed items aren't hashtable entries");
+
+        Assert.assertEquals(context.child().get(count), 3, "Scope reads typed items of parent");
+
+        Assert.assertEquals(context.clone().get(ratio), 0.25, "Clone copies typed items");
+
+        context.clear();
+
+        Assert.assertNull(context.get(name), "Cleared object key");
+
+        Assert.assertEquals(context.get(total), 0L, "Cleared long key");
+    }
+
+    @Test
+    public void T10_Context_manyKeys() {
+        IntKey[] keys = new IntKey[200];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = IntKey.of("key-" + i);
+        }
+
+        Context context = new Context();
+
+        for (int i = 0; i < keys.length; i++) {
+            context.set(keys[i], i);
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            Assert.assertEquals(context.get(keys[i]), i, "Value of key " + i);
+        }
+    }
+
+    @Test
+    public void T11_Context_typedKeys_scope() {
+        ContextKey<String> name = ContextKey.of("name", String.class);
+        IntKey count = IntKey.of("count");
+        LongKey total = LongKey.of("total");
+
+        Context context = new Context();
+
+        context.set(name, "parent");
+        context.set(count, 1);
+        context.set(total, 100L);
+
+        Context first = context.child();
+        Context second = context.child();
+
+        first.set(name, "first");
+        first.addAndGet(count, 10);
+
+        second.set(total, 200L);
+
+        Assert.assertEquals(context.get(name), "parent", "Parent doesn't see object item of scope");
+
+        Assert.assertEquals(context.get(count), 1, "Parent doesn't see int item of scope");
+
+        Assert.assertEquals(second.get(name), "parent", "Sibling doesn't see object item of scope");
+
+        Assert.assertEquals(second.get(count), 1, "Sibling doesn't see int item of scope");
+
+        Assert.assertEquals(first.get(total), 100L, "Scope doesn't see item of sibling");
+
+        first.commit();
+
+        Assert.assertEquals(context.get(name), "first", "Committed object item");
+
+        Assert.assertEquals(context.get(count), 11, "Committed int item");
+
+        Assert.assertEquals(context.get(total), 100L, "Item, which wasn't written by the scope, isn't committed");
+
+        second.commit();
+
+        Assert.assertEquals(context.get(total), 200L, "Committed long item of sibling");
+
+        Assert.assertEquals(context.get(name), "first", "Sibling doesn't overwrite items it didn't write");
+
+        first.set(name, null);
+
+        Context grandchild = first.child();
+
+        Assert.assertNull(grandchild.get(name), "Grandchild reads items of its parent scope");
+
+        grandchild.set(count, 42);
+        grandchild.commit();
+
+        Assert.assertEquals(first.get(count), 42, "Grandchild commits to its parent scope");
+
+        Assert.assertEquals(context.get(count), 11, "Grandchild doesn't commit to the root");
+
+        first.commit();
+
+        Assert.assertEquals(context.get(count), 42, "Committed item of grandchild");
+
+        Assert.assertNull(context.get(name), "Committed removal of object item");
+    }
+}